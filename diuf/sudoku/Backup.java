@@ -13,6 +13,9 @@ import static diuf.sudoku.Grid.GRID_SIZE;
  * values and maybes to there previous state, then rebuild (reindex) the grid.
  * <p>
  * Backup takes RecursiveSolverTester under 1 second, without AUTOSOLVE!
+ * <p>
+ * To backtrack use {@link Grid#mark} and {@link Grid#rollback}
+ * instead, which undo only what has changed, without copying the grid.
  *
  * @author Keith Corlett 2021-07-23
  */
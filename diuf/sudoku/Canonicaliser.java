@@ -0,0 +1,310 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku;
+
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.Grid.REGION_SIZE;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Canonicaliser maps a puzzle to its canonical form: the minimal
+ * representative of all the puzzles that are equivalent to it (isomorphic)
+ * under the validity-preserving transformations, being:<ul>
+ * <li>transposition (swap rows with cols);
+ * <li>permutation of the bands, and of the rows within each band;
+ * <li>permutation of the stacks, and of the cols within each stack; and
+ * <li>relabelling of the digits.
+ * </ul>
+ * Two puzzles are isomorphic if-and-only-if they have the same canonical
+ * form, so {@link diuf.sudoku.tools.RepeatPuzzles}, SortUniq, and the
+ * generator use it to drop isomorphic duplicates. It is also the key with
+ * which to reuse a rating, coz isomorphic puzzles solve the same way.
+ * <p>
+ * The canonical form is an 81 char String like Grid.toShortString: a period
+ * for an empty cell, and 1..9 for a clue, where '.' sorts before the digits;
+ * and it is the lexicographically smallest of all 2*6^8 (3,359,232) variants
+ * of the puzzle, where the digits are relabelled in order of appearance (the
+ * first clue is 1, the next distinct digit is 2, and so on), which is the
+ * smallest labelling of each variant.
+ * <p>
+ * Trying 3.3 million variants per puzzle is too slow, so I build the canonical
+ * form row by row: each candidate is a transposition and a col permutation,
+ * with the rows chosen so far and there labelling; and for the next row each
+ * candidate tries each row that may go there (the other rows in the current
+ * band, or any row of an unused band). Only those producing the smallest
+ * row survive to the next row. Ties are all kept, so the result is exact, and
+ * they die off quickly, coz puzzles are seldom symmetrical.
+ * <p>
+ * But in a grid with very few clues the ties multiply: every empty row ties,
+ * so an empty grid keeps all 3,359,232 variants. So if there are more than
+ * MAX_TIES ties I give up, and return null meaning none, rather than eat the
+ * heap. A valid puzzle (17+ clues) has a few thousand ties, at most.
+ * <p>
+ * Row one has no labels yet, so its digits are 1, 2, 3... in order, so only
+ * its pattern (which cells are clues) matters, so I just start with the rows
+ * whose stack clue counts give the smallest pattern.
+ * <p>
+ * {@link #hash(String)} is a 64-bit hash of the canonical form, for where a
+ * Set of String is too fat; it will not collide in any corpus we will have.
+ * {@link #canonicalHash(String)} returns 0 meaning none, so a real hash of 0
+ * is returned as 1.
+ * <p>
+ * Canonicaliser is NOT thread-safe. Each user has its own.
+ */
+public final class Canonicaliser {
+
+	// the number of bands (and stacks) and rows (and cols) in each
+	private static final int N = 3;
+
+	// the maximum number of ties; beyond which I give up
+	private static final int MAX_TIES = 1<<17;
+
+	// the six permutations of three things
+	private static final int[][] PERM3 = {
+		{0,1,2}, {0,2,1}, {1,0,2}, {1,2,0}, {2,0,1}, {2,1,0}
+	};
+
+	// the 1,296 col permutations: stack order * col order in each stack.
+	// COL_PERMS[p][j] is the source col at position j.
+	private static final int[][] COL_PERMS = new int[6*6*6*6][REGION_SIZE];
+	static {
+		int p = 0;
+		for ( int[] stacks : PERM3 )
+			for ( int[] a : PERM3 )
+				for ( int[] b : PERM3 )
+					for ( int[] c : PERM3 ) {
+						final int[] perm = COL_PERMS[p++];
+						final int[][] within = {a, b, c};
+						for ( int s=0; s<N; ++s )
+							for ( int k=0; k<N; ++k )
+								perm[s*N+k] = stacks[s]*N + within[s][k];
+					}
+	}
+
+	// a partial variant: a transposition and col permutation, the rows used
+	// so far, the band of the latest row, and the digit labelling so far.
+	private static final class Cand {
+		final int t; // 0 = as is, 1 = transposed
+		final int[] perm; // a COL_PERMS
+		final int used; // bitset of the source rows placed so far
+		final int band; // the source band of the current band, -1 for none
+		final int[] labels; // source digit => canonical digit, 0 for none
+		final int next; // the next canonical digit to hand out
+		Cand(final int t, final int[] perm, final int used, final int band
+				, final int[] labels, final int next) {
+			this.t = t;
+			this.perm = perm;
+			this.used = used;
+			this.band = band;
+			this.labels = labels;
+			this.next = next;
+		}
+	}
+
+	// the labels of an initial Cand, which tryRow copies, never changes
+	private static final int[] NO_LABELS = new int[REGION_SIZE+1];
+
+	// the puzzle: [0] as is, [1] transposed; values 0..9
+	private final int[][] g = new int[2][GRID_SIZE];
+	// the candidates surviving the previous row, and this row
+	private ArrayList<Cand> cands = new ArrayList<>(6*6*6*6*2);
+	private ArrayList<Cand> nexts = new ArrayList<>(6*6*6*6*2);
+	// the smallest row so far, the row being built, and its labels
+	private final int[] best = new int[REGION_SIZE];
+	private final int[] row = new int[REGION_SIZE];
+	private final int[] labels = new int[REGION_SIZE+1];
+	// the canonical form
+	private final char[] result = new char[GRID_SIZE];
+
+	/**
+	 * Get the canonical form of the given Grid. Only the cell values are used.
+	 *
+	 * @param grid the puzzle
+	 * @return the canonical form: 81 chars of '.' or 1..9; else null meaning
+	 *  none, when there are too many ties (too few clues)
+	 */
+	public String canonical(final Grid grid) {
+		final Grid.Cell[] cells = grid.cells;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			g[0][i] = cells[i].value;
+		return canonical();
+	}
+
+	/**
+	 * Get the canonical form of the given puzzle String: the first 81 chars
+	 * of which are the cell values, where 1..9 is a clue and anything else
+	 * (typically '.' or '0') is an empty cell. This is a line of a .mt file.
+	 *
+	 * @param puzzle the puzzle, in Grid.toShortString format
+	 * @return the canonical form: 81 chars of '.' or 1..9; else null meaning
+	 *  none, when there are too many ties (too few clues)
+	 * @throws IllegalArgumentException if puzzle is shorter than 81 chars
+	 */
+	public String canonical(final String puzzle) {
+		if ( puzzle.length() < GRID_SIZE )
+			throw new IllegalArgumentException("not a puzzle: "+puzzle);
+		char c;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			g[0][i] = (c=puzzle.charAt(i))>='1' && c<='9' ? c-'0' : 0;
+		return canonical();
+	}
+
+	/**
+	 * Get the 64-bit hash of the canonical form of the given puzzle.
+	 *
+	 * @param puzzle the puzzle, in Grid.toShortString format
+	 * @return hash(canonical(puzzle)), else 0 meaning none
+	 */
+	public long canonicalHash(final String puzzle) {
+		return hashOrNone(canonical(puzzle));
+	}
+
+	/**
+	 * Get the 64-bit hash of the canonical form of the given Grid.
+	 *
+	 * @param grid the puzzle
+	 * @return hash(canonical(grid)), else 0 meaning none
+	 */
+	public long canonicalHash(final Grid grid) {
+		return hashOrNone(canonical(grid));
+	}
+
+	// the hash of canonical, else 0 meaning none; so a hash of 0 is 1
+	private static long hashOrNone(final String canonical) {
+		if ( canonical == null )
+			return 0L;
+		final long hash = hash(canonical);
+		return hash==0L ? 1L : hash;
+	}
+
+	/**
+	 * A 64-bit hash of a canonical form: multiply-xor each char, then mix the
+	 * bits (the splitmix64 finaliser) so the whole long is usable.
+	 *
+	 * @param canonical the canonical form of a puzzle
+	 * @return a 64-bit hash of canonical
+	 */
+	public static long hash(final String canonical) {
+		long h = 0L;
+		for ( int i=0,n=canonical.length(); i<n; ++i )
+			h = (h ^ canonical.charAt(i)) * 0x9E3779B97F4A7C15L;
+		h = (h ^ (h>>>30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h>>>27)) * 0x94D049BB133111EBL;
+		return h ^ (h>>>31);
+	}
+
+	// canonicalise g[0], else null meaning too many ties
+	private String canonical() {
+		final int[] g0=g[0], g1=g[1];
+		int r, c;
+		for ( r=0; r<REGION_SIZE; ++r )
+			for ( c=0; c<REGION_SIZE; ++c )
+				g1[c*REGION_SIZE+r] = g0[r*REGION_SIZE+c];
+		// the first rows: those with the smallest pattern
+		final int[] firsts = new int[2];
+		int t, pattern, min = Integer.MAX_VALUE;
+		for ( t=0; t<2; ++t )
+			for ( r=0; r<REGION_SIZE; ++r )
+				if ( (pattern=pattern(g[t], r)) < min ) {
+					min = pattern;
+					firsts[0] = firsts[1] = 0;
+					firsts[t] = 1<<r;
+				} else if ( pattern == min ) {
+					firsts[t] |= 1<<r;
+				}
+		cands.clear();
+		for ( t=0; t<2; ++t )
+			if ( firsts[t] > 0 )
+				for ( int[] perm : COL_PERMS )
+					cands.add(new Cand(t, perm, 0, -1, NO_LABELS, 1));
+		// build the canonical form row by row
+		ArrayList<Cand> tmp;
+		int rows, b;
+		for ( int p=0; p<REGION_SIZE; ++p ) {
+			nexts.clear();
+			for ( Cand cand : cands ) {
+				// the source rows that may go at p
+				if ( p == 0 )
+					rows = firsts[cand.t];
+				else if ( p%N == 0 ) // any row of an unused band
+					for ( rows=0,b=0; b<N; ++b ) {
+						if ( (cand.used & 7<<(b*N)) == 0 )
+							rows |= 7<<(b*N);
+					}
+				else // another row in this band
+					rows = ~cand.used & 7<<(cand.band*N);
+				for ( r=0; r<REGION_SIZE; ++r )
+					if ( (rows & 1<<r) != 0 )
+						tryRow(cand, r);
+				if ( nexts.size() > MAX_TIES ) {
+					cands.clear();
+					nexts.clear();
+					return null; // too many ties: too few clues
+				}
+			}
+			for ( c=0; c<REGION_SIZE; ++c )
+				result[p*REGION_SIZE+c] = best[c]==0 ? '.' : (char)('0'+best[c]);
+			tmp = cands;
+			cands = nexts;
+			nexts = tmp;
+		}
+		cands.clear();
+		return new String(result);
+	}
+
+	// the pattern of the smallest arrangement of row r of grid: stacks with
+	// fewer clues first, with the clues to the right of each stack; as a
+	// 9-bit int, where a clue is a 1, and the leftmost cell is the high bit.
+	private static int pattern(final int[] grid, final int r) {
+		final int[] counts = new int[N];
+		for ( int c=0; c<REGION_SIZE; ++c )
+			if ( grid[r*REGION_SIZE+c] > 0 )
+				++counts[c/N];
+		Arrays.sort(counts);
+		int pattern = 0;
+		for ( int count : counts )
+			pattern = pattern<<N | ((1<<count) - 1);
+		return pattern;
+	}
+
+	// try source row r as the next row of cand. If it is smaller than the best
+	// so far then it is the new best, and nexts are discarded. If it is no
+	// larger than best then the extended cand is added to nexts.
+	private void tryRow(final Cand cand, final int r) {
+		final int[] grid = g[cand.t];
+		final int[] perm = cand.perm;
+		final int[] row = this.row;
+		final int[] best = this.best;
+		final int[] labels = this.labels;
+		System.arraycopy(cand.labels, 0, labels, 0, labels.length);
+		int next = cand.next;
+		// cmp: 0 while equal to best so far, -1 once smaller
+		int cmp = nexts.isEmpty() ? -1 : 0;
+		int v;
+		for ( int j=0; j<REGION_SIZE; ++j ) {
+			if ( (v=grid[r*REGION_SIZE+perm[j]]) > 0 ) {
+				if ( labels[v] == 0 )
+					labels[v] = next++;
+				v = labels[v];
+			}
+			if ( cmp == 0 ) {
+				if ( v > best[j] )
+					return; // larger, so this variant is not canonical
+				if ( v < best[j] )
+					cmp = -1;
+			}
+			row[j] = v;
+		}
+		if ( cmp < 0 ) {
+			nexts.clear();
+			System.arraycopy(row, 0, best, 0, REGION_SIZE);
+		}
+		nexts.add(new Cand(cand.t, perm, cand.used | 1<<r, r/N, labels.clone(), next));
+	}
+
+}
@@ -59,6 +59,8 @@ return
 "isInvalidGridHandled=true" + NL +
 "isTechSelectDialogColorful=true" + NL +
 "isCachingHints=true" + NL +
+"isParallelTables=false" + NL +
+"isParallelAligned=false" + NL +
 "hintsCacheSize=4" + NL +
 "hintsCacheBored=8" + NL +
 "maxFins=5" + NL +
@@ -199,6 +201,8 @@ Tech.NestedPlus.name()+"=false" + NL +
 		, isHacky = "isHacky" // enables top1465 nasty special treatments
 		, isGreenFlash = "isGreenFlash" // GUI flashBackgroundAqua
 		, isInvalidGridHandled = "isInvalidGridHandled" // GUI attempts to handle an invalid grid, after a dodgy hint has been applied
+		, isParallelTables = "isParallelTables" // ATableChainer.Tables calculates elims in the common ForkJoinPool, to make ONE slow puzzle faster on a multicore machine.
+		, isParallelAligned = "isParallelAligned" // AlignedExclusion searches the aligned sets in the common ForkJoinPool, to make the big A*Es usable on a many-core machine.
 		, isCachingHints = "isCachingHints" // GUI uses cacheHints to encache hints before getAllHints is even run by the user, to (mostly, yes NestedUnary I am looking at you) make the GUI snappy when you step through solving a puzzle by just repeatedly pressing enter.
 		// ints
 		, maxFins = "maxFins"
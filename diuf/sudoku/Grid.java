@@ -739,6 +739,16 @@ public final class Grid {
 	/** The total number of maybes in the grid. */
 	public int numMaybes;
 
+	/**
+	 * A Zobrist-style hash of the state (value and maybes) of every cell: the
+	 * XOR of {@link #zobrist} of each cell. It is maintained incrementally by
+	 * the Cell mutators (set, removeMaybes, et al), and recalculated by the
+	 * bulk loaders and restores, which poke values directly. It is a hash,
+	 * not an identity, so a user must verify any match. It is the key of
+	 * LogicalSolvers HintCache.
+	 */
+	public long stateHash;
+
 	/** Has a puzzle been loaded into this grid, or is it still a virgin. */
 	private boolean isLoaded;
 
@@ -877,6 +887,7 @@ public final class Grid {
 				source = new SourceID(src.source); // SourceID immutable
 			numSet = src.numSet;
 			numMaybes = src.numMaybes;
+			stateHash = src.stateHash;
 			hintNumber = src.hintNumber;
 		}
 		// grid.puzzleID tells hinters "we have changed puzzles".
@@ -934,6 +945,33 @@ public final class Grid {
 		return ""+hintNumber+"/"+sourceLong();
 	}
 
+	/**
+	 * The Zobrist key of a cell in a state, which is a pure function, instead
+	 * of the usual table of random numbers, coz there are 81*8192 states.
+	 *
+	 * @param indice of the cell
+	 * @param state of the cell: {@code value<<9 | maybes}
+	 * @return a 64-bit key
+	 */
+	private static long zobrist(final int indice, final int state) {
+		long z = (indice<<13 | state) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z>>>30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z>>>27)) * 0x94D049BB133111EBL;
+		return z ^ (z>>>31);
+	}
+
+	/**
+	 * Recalculate {@link #stateHash} from scratch.
+	 *
+	 * @return the new stateHash
+	 */
+	public long rehash() {
+		long h = 0L;
+		for ( Cell cell : cells )
+			h ^= zobrist(cell.indice, cell.state());
+		return stateHash = h;
+	}
+
 	/**
 	 * Set this.puzzleId to a random long.
 	 * @return a random long that serves as this puzzles identity.
@@ -942,6 +980,20 @@ public final class Grid {
 		return puzzleId = new Random().nextLong();
 	}
 
+	/**
+	 * Forget the per-puzzle state of this grid: the cached solution (and the
+	 * number of failures to calculate it), and isPrepared; and reset the
+	 * puzzleId, to tell hinters we have changed puzzles. For a grid that is
+	 * reused for another puzzle (restored from a snapshot of another grid),
+	 * so it is in the same state as a new Grid.
+	 */
+	public void puzzleReset() {
+		solution = null; // so solution() calculates it
+		numSolutionFailures = 0;
+		isPrepared = false;
+		puzzleIdReset();
+	}
+
 	/** The start hint number is 1, hintNumber is 1-based. */
 	public void hintNumberReset() {
 		hintNumber = 1; // the first hint
@@ -976,6 +1028,7 @@ public final class Grid {
 		i=1; do idxs[i].setOK(src.idxs[i]); while(++i<VALUE_CEILING);
 		numSet = src.numSet;
 		numMaybes = src.numMaybes;
+		stateHash = src.stateHash;
 	}
 
 	/** Copy grid to the O/S clipboard in toString() format, with source. */
@@ -1047,14 +1100,7 @@ public final class Grid {
 			return false; // meaning load failed
 		try {
 			// if this Grid already contains a puzzle then clean it out.
-			if ( this.isLoaded ) {
-				this.clear();
-				this.isLoaded = false;
-				this.isMaybesLoaded = false;
-				// run these validations ONCE per puzzle
-				this.enoughClues = false;
-				this.enoughValues = false;
-			}
+			unload();
 			// values: first line contains 81 cell values:
 			// 8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..
 			// any runtime exception here is thrown over my head
@@ -1089,28 +1135,47 @@ public final class Grid {
 			} catch (Exception ex) {
 				StdErr.carp("WARN: Grid.load: bad source: "+line, ex);
 			}
-			// remove any bad maybes (sees a cell set this value)
-			if ( !isMaybesLoaded )
-				rebuildRemoveInvalidMaybes();
-			// rebuild the emptyCellCount arrays
-			rebuildAllRegionsEmptyCellCounts();
-			// rebuild the indexes
-			rebuildIndexes(true);
-			// calculate numMaybes: total number of maybes in this grid
-			countNumMaybes();
-			// hintNumber is used to determine if caches are dirty
-			countNumSet();
-			// hintNumber is used to determine if caches are dirty
-			hintNumberReset();
-			// puzzleID is used to determine if caches are dirty
-			puzzleIdReset();
-			// reset the regionType for displaying hidden sets.
-			hiddenSetDisplayState.reset();
-			// this Grid has now finished loading
+			return loaded();
+		} catch (Exception ex) {
+			StdErr.whinge("WARN: Grid.load critical", ex);
 			isLoaded = true;
-			// cache the solution, now, before user sets any cell values.
-			solution();
-			return true; // meaning load succeeded
+			return false; // meaning load failed
+		}
+	}
+
+	/**
+	 * Load this grid from 81 clues, and optionally the solution, as read from
+	 * an .mtb (MagicTour Binary) file by {@link diuf.sudoku.io.Mtb}, which has
+	 * already unpacked the nibbles, so there is no String to parse. The grid
+	 * is loaded as per {@link #load(String[])} without maybes or a SourceID;
+	 * so set grid.source yourself, if you want one.
+	 * <p>
+	 * If the solution is supplied it is NOT validated, it is just used; which
+	 * saves a brute-force solve per puzzle. So dont lie.
+	 *
+	 * @param clues 81 values: 0 is empty, else 1..9
+	 * @param solution 81 values 1..9, else null meaning unknown (or an array
+	 *  of zeros, as per an .mtb record without a solution)
+	 * @return success.
+	 */
+	public boolean load(final int[] clues, final int[] solution) {
+		puzzleId = 0;
+		if ( clues==null || clues.length<GRID_SIZE )
+			return false; // meaning load failed
+		try {
+			unload();
+			int v;
+			for ( int i=0; i<GRID_SIZE; ++i )
+				if ( (v=clues[i])>0 && v<10 )
+					cells[i].value = v;
+			for ( Cell cell : cells )
+				cell.initMaybes(); // fill if empty, else clear
+			// nb: an .mtb record without a solution has a solution of zeros
+			if ( solution!=null && solution.length>=GRID_SIZE && solution[0]!=0 )
+				this.solution = solution.clone();
+			else
+				this.solution = null; // so loaded() calculates it
+			return loaded();
 		} catch (Exception ex) {
 			StdErr.whinge("WARN: Grid.load critical", ex);
 			isLoaded = true;
@@ -1118,6 +1183,46 @@ public final class Grid {
 		}
 	}
 
+	// if this Grid already contains a puzzle then clean it out.
+	private void unload() {
+		if ( this.isLoaded ) {
+			this.clear();
+			this.isLoaded = false;
+			this.isMaybesLoaded = false;
+			// run these validations ONCE per puzzle
+			this.enoughClues = false;
+			this.enoughValues = false;
+		}
+	}
+
+	// rebuild everything after the cell values (et al) are loaded.
+	private boolean loaded() {
+		// remove any bad maybes (sees a cell set this value)
+		if ( !isMaybesLoaded )
+			rebuildRemoveInvalidMaybes();
+		// rebuild the emptyCellCount arrays
+		rebuildAllRegionsEmptyCellCounts();
+		// rebuild the indexes
+		rebuildIndexes(true);
+		// calculate numMaybes: total number of maybes in this grid
+		countNumMaybes();
+		// hintNumber is used to determine if caches are dirty
+		countNumSet();
+		// hintNumber is used to determine if caches are dirty
+		hintNumberReset();
+		// the values were poked, so the stateHash is stale
+		rehash();
+		// puzzleID is used to determine if caches are dirty
+		puzzleIdReset();
+		// reset the regionType for displaying hidden sets.
+		hiddenSetDisplayState.reset();
+		// this Grid has now finished loading
+		isLoaded = true;
+		// cache the solution, now, before user sets any cell values.
+		solution();
+		return true; // meaning load succeeded
+	}
+
 	/**
 	 * Restores this grid from the given String, which is the format produced
 	 * by {@code toString}, including the optional second line of maybes. We
@@ -1143,33 +1248,183 @@ public final class Grid {
 			loadMaybes(ss.split(COMMA, GRID_SIZE));
 		// rebuilds everything (except maybes)
 		rebuild();
+		rehash();
 	}
 
 	/**
 	 * The {@link Backup} class and this restore method are faster than
 	 * the old toString method and restore.
+	 * <p>
+	 * Only the cells that differ from the backup are poked,
+	 * marking their regions and values dirty, and then {@link #rebuildDirty}
+	 * rebuilds only the dirty bits, instead of everything. BruteForce restores
+	 * after each wrong guess, which typically changes a few dozen cells.
 	 *
 	 * @param backup
 	 */
 	public void restore(final Backup backup) {
-		Cell c, cs[];
-		ARegion r;
+		Cell c;
+		int v, m;
 		final int[] vs = backup.values;
 		final int[] ms = backup.maybes;
-		int i = 0, ri = 0;
+		int i = 0;
 		do {
 			c = cells[i];
-			c.value = vs[i];
-			sizes[i] = c.size = VSIZE[maybes[i] = c.maybes = ms[i]];
+			v = vs[i];
+			m = ms[i];
+			if ( v!=c.value || m!=c.maybes ) {
+				if ( journalDepth > 0 )
+					journal(i, c.state());
+				c.revert(v<<9 | m);
+			}
 		} while (++i < GRID_SIZE);
+		rebuildDirty();
+	}
+
+	/**
+	 * Snapshot the current state of this grid.
+	 *
+	 * @return a new immutable GridState of this grid
+	 */
+	public GridState snapshot() {
+		return new GridState(this);
+	}
+
+	/**
+	 * Restore this grid to state, which may be a snapshot of another grid.
+	 * As per restore(Backup), only the cells that differ are poked, and then
+	 * only the dirty bits are rebuilt.
+	 *
+	 * @param state to restore
+	 */
+	public void restore(final GridState state) {
+		Cell c;
+		int s;
+		int i = 0;
 		do {
-			r = regions[ri];
-			cs = r.cells;
-		} while (++ri < NUM_REGIONS);
-		countNumSet(); // sets numSet
-		countNumMaybes(); // sets numMaybes
-		rebuildAllRegionsEmptyCellCounts();
-		rebuildIndexes(true);
+			c = cells[i];
+			if ( (s=state.state(i)) != c.state() ) {
+				if ( journalDepth > 0 )
+					journal(i, c.state());
+				c.revert(s);
+			}
+		} while (++i < GRID_SIZE);
+		rebuildDirty();
+	}
+
+	// ------------------------- dirty: what has changed ----------------------
+
+	// the values whose Grid.idxs are dirty
+	private int dirtyValues;
+	// the regions whose emptyCellCount and set/unsetCands are dirty
+	private int dirtyRegions;
+	// the values whose places and idxs are dirty in each region
+	private final int[] dirtyRegionValues = new int[NUM_REGIONS];
+
+	/**
+	 * Rebuild only the dirty bits, as marked by {@link Cell#dirty}: the
+	 * emptyCellCount and set/unsetCands of each region whose cell values have
+	 * changed; the Grid.idxs of each value whose maybes have changed; and the
+	 * places and idxs of those values in each region in which they changed.
+	 * It all ends-up exactly as per a full rebuild, only faster.
+	 */
+	private void rebuildDirty() {
+		ARegion r;
+		int bits, ri;
+		for ( bits=dirtyRegions; bits>0; bits&=bits-1 ) {
+			r = regions[Integer.numberOfTrailingZeros(bits)];
+			r.emptyCellCount();
+			r.rebuildSetCands();
+		}
+		dirtyRegions = 0;
+		if ( dirtyValues > 0 ) {
+			for ( int v : VALUESES[dirtyValues] )
+				rebuildIdxsOf(v);
+			dirtyValues = 0;
+		}
+		ri = 0;
+		do
+			if ( (bits=dirtyRegionValues[ri]) > 0 ) {
+				r = regions[ri];
+				for ( int v : VALUESES[bits] ) {
+					r.rebuildPlacesOf(v);
+					r.idxs[v].setAnd(r.idx, idxs[v]);
+				}
+				dirtyRegionValues[ri] = 0;
+			}
+		while (++ri < NUM_REGIONS);
+	}
+
+	// ------------------------- journal: undo changes ------------------------
+
+	// a journal entry is indice<<JOURNAL_SHIFT | the cells prior state()
+	private static final int JOURNAL_SHIFT = 13;
+	private static final int JOURNAL_STATE = (1<<JOURNAL_SHIFT) - 1;
+
+	// the prior state of each cell change, in the order they were made
+	private int[] journal = new int[256];
+	// the number of entries in the journal
+	private int journalSize;
+	// the number of open marks; changes are journaled only when positive
+	private int journalDepth;
+
+	// journal the prior state of the cell at indice
+	private void journal(final int indice, final int pre) {
+		if ( journalSize == journal.length ) {
+			final int[] grown = new int[journalSize<<1];
+			arraycopy(journal, 0, grown, 0, journalSize);
+			journal = grown;
+		}
+		journal[journalSize++] = indice<<JOURNAL_SHIFT | pre;
+	}
+
+	/**
+	 * Mark the current state of this grid, to {@link #rollback} to, instead
+	 * of taking a {@link Backup}. From mark until the matching
+	 * {@link #release} each change to a cell value or maybes is journaled,
+	 * as the indice and prior value and maybes, so rollback undoes only what
+	 * has changed since mark, rebuilding only the regions and values that it
+	 * dirties. Marks nest: recursive backtracking marks at each level, and
+	 * each level rolls-back only its own changes.
+	 * <p>
+	 * BruteForce, RecursiveSolver and the dynamic chainers now
+	 * backtrack with mark/rollback. A Backup still works, and restore(Backup)
+	 * is journaled, but load and the constructors are not, so do not load a
+	 * marked grid.
+	 *
+	 * @return the mark, to pass to rollback and release
+	 */
+	public int mark() {
+		++journalDepth;
+		return journalSize;
+	}
+
+	/**
+	 * Rollback this grid to its state at mark, which remains open. Each
+	 * journaled change since mark is undone, most recent first, then the
+	 * regions and values they dirtied are rebuilt.
+	 *
+	 * @param mark as returned by {@link #mark}
+	 */
+	public void rollback(final int mark) {
+		int e;
+		while ( journalSize > mark ) {
+			e = journal[--journalSize];
+			cells[e>>>JOURNAL_SHIFT].revert(e & JOURNAL_STATE);
+		}
+		rebuildDirty();
+	}
+
+	/**
+	 * Release mark, keeping all changes. The journal is retained while an
+	 * outer mark remains open, so that it can still rollback, else cleared.
+	 *
+	 * @param mark as returned by {@link #mark}
+	 */
+	public void release(final int mark) {
+		assert journalDepth > 0 && mark <= journalSize;
+		if ( --journalDepth == 0 )
+			journalSize = 0;
 	}
 
 	// load the given n clues into n cells, where max n is 81.
@@ -1319,12 +1574,8 @@ public final class Grid {
 	 * </ul>
 	 */
 	public void rebuildAllRegionsSetCands() {
-		for ( ARegion r : regions ) {
-			r.setCands = 0;
-			for ( Cell cell : r.cells )
-				r.setCands |= VSHFT[cell.value];
-			r.unsetCands = BITS9 & ~r.setCands;
-		}
+		for ( ARegion r : regions )
+			r.rebuildSetCands();
 	}
 
 	/**
@@ -1338,8 +1589,7 @@ public final class Grid {
 	 * @param doSetCands should I {@link #rebuildAllRegionsSetCands}
 	 */
 	public void rebuildIndexes(boolean doSetCands) {
-		int v, sv, i;
-		long m0=0L; int m1=0;
+		int v;
 		// rebuild all regions setCands
 		if ( doSetCands )
 			rebuildAllRegionsSetCands();
@@ -1347,28 +1597,35 @@ public final class Grid {
 		for ( ARegion r : regions )
 			r.rebuildPlacesOfAllValues();
 		// rebuild grid.idxs of all values
-		for ( v=1; v<VALUE_CEILING; ++v ) {
-			sv = VSHFT[v];
-			i = 0;
-			do
-				// if cell is not set
-				if ( (maybes[i] & sv) > 0 ) // 9bits
-					m0 |= MASKED81[i];
-			while (++i < FIFTY_FOUR);
-			do
-				// if cell is not set
-				if ( (maybes[i] & sv) > 0 ) // 9bits
-					m1 |= MASKED[i];
-			while (++i < GRID_SIZE);
-			idxs[v].setOK(m0, m1);
-			m0 = m1 = 0;
-		}
+		for ( v=1; v<VALUE_CEILING; ++v )
+			rebuildIdxsOf(v);
 		// rebuild all regions idxs of all values
 		for ( final ARegion r : regions )
 			for ( v=1; v<VALUE_CEILING; ++v )
 				r.idxs[v].setAnd(r.idx, idxs[v]);
 	}
 
+	/**
+	 * Rebuild grid.idxs[v] from the maybes.
+	 *
+	 * @param v the value to rebuild
+	 */
+	private void rebuildIdxsOf(final int v) {
+		final int sv = VSHFT[v];
+		long m0=0L; int m1=0, i=0;
+		do
+			// if cell is not set
+			if ( (maybes[i] & sv) > 0 ) // 9bits
+				m0 |= MASKED81[i];
+		while (++i < FIFTY_FOUR);
+		do
+			// if cell is not set
+			if ( (maybes[i] & sv) > 0 ) // 9bits
+				m1 |= MASKED[i];
+		while (++i < GRID_SIZE);
+		idxs[v].setOK(m0, m1);
+	}
+
 	/**
 	 * Remove potential values rendered illegal by current cell values.
 	 * <p>
@@ -1406,6 +1663,7 @@ public final class Grid {
 		for ( Cell cell : cells )
 			if ( cell.value!=0 && cell.value!=solution[cell.indice] )
 				cell.value = 0;
+		rehash();
 	}
 
 	// ------------------------- the invalidated zone -------------------------
@@ -2267,6 +2525,7 @@ public final class Grid {
 			numMaybes += size = VSIZE[maybes = cands];
 			Grid.this.sizes[indice] = size;
 			Grid.this.maybes[indice] = cands;
+			stateHash ^= zobrist(indice, cands);
 			// get an array of cells that I see (same box/row/col)
 			this.sees = SEES[indice];
 			// FINALLY set buds for the Cell.toString method (a cheat).
@@ -2291,9 +2550,92 @@ public final class Grid {
 		 * @param src the cell to copy.
 		 */
 		public void copyFrom(final Cell src) {
+			final int pre = state();
 			value = src.value;
 			Grid.this.maybes[indice] = maybes = src.maybes;
 			Grid.this.sizes[indice] = size = src.size;
+			rehash(pre);
+		}
+
+		/**
+		 * My state, for {@link Grid#stateHash}: {@code value<<9 | maybes}.
+		 *
+		 * @return my value and maybes in one int
+		 */
+		int state() {
+			return value<<9 | maybes;
+		}
+
+		// update stateHash for a change of my state from pre to current
+		private void rehash(final int pre) {
+			stateHash ^= zobrist(indice, pre) ^ zobrist(indice, value<<9 | maybes);
+			if ( journalDepth > 0 )
+				journal(indice, pre);
+		}
+
+		/**
+		 * Revert my value and maybes to state, updating the Grid totals and
+		 * stateHash, for restore and rollback. I do NOT journal.
+		 * <p>
+		 * If only my maybes change then I update the indexes as per addMaybes
+		 * and removeMaybes, else I mark my regions dirty, for a subsequent
+		 * {@link Grid#rebuildDirty}. Chainers erase only maybes, so they are
+		 * reverted without a rebuild.
+		 *
+		 * @param state my prior {@link #state()}
+		 */
+		private void revert(final int state) {
+			final int v = state>>9, m = state & BITS9;
+			stateHash ^= zobrist(indice, value<<9 | maybes) ^ zobrist(indice, state);
+			if ( v == value ) {
+				for ( int a : VALUESES[m & ~maybes] ) {
+					idxs[a].addOK(indice);
+					box.idxs[a].add(indice);
+					row.idxs[a].add(indice);
+					col.idxs[a].add(indice);
+					box.numPlaces[a] = ISIZE[box.places[a] |= ISHFT[b]];
+					row.numPlaces[a] = ISIZE[row.places[a] |= ISHFT[x]];
+					col.numPlaces[a] = ISIZE[col.places[a] |= ISHFT[y]];
+				}
+				for ( int r : VALUESES[maybes & ~m] ) {
+					idxs[r].removeOK(indice);
+					box.idxs[r].remove(indice);
+					row.idxs[r].remove(indice);
+					col.idxs[r].remove(indice);
+					box.numPlaces[r] = ISIZE[box.places[r] &= ~ISHFT[b]];
+					row.numPlaces[r] = ISIZE[row.places[r] &= ~ISHFT[x]];
+					col.numPlaces[r] = ISIZE[col.places[r] &= ~ISHFT[y]];
+				}
+			} else {
+				dirty(value, v, maybes ^ m);
+				numSet += (v>0 ? 1 : 0) - (value>0 ? 1 : 0);
+				value = v;
+			}
+			numMaybes += VSIZE[m] - size;
+			sizes[indice] = size = VSIZE[Grid.this.maybes[indice] = maybes = m];
+		}
+
+		/**
+		 * Mark the bits of my regions that go dirty when my value changes
+		 * from pre to post, and my maybes change by changedMaybes, for a
+		 * subsequent {@link Grid#rebuildDirty}.
+		 *
+		 * @param pre my value before
+		 * @param post my value after
+		 * @param changedMaybes a bitset of the maybes added or removed
+		 */
+		private void dirty(final int pre, final int post, final int changedMaybes) {
+			int bits = changedMaybes;
+			if ( pre != post ) {
+				dirtyRegions |= 1<<box.index | 1<<row.index | 1<<col.index;
+				bits |= VSHFT[pre] | VSHFT[post];
+			}
+			if ( bits > 0 ) {
+				dirtyValues |= changedMaybes;
+				dirtyRegionValues[box.index] |= bits;
+				dirtyRegionValues[row.index] |= bits;
+				dirtyRegionValues[col.index] |= bits;
+			}
 		}
 
 //KEEP4DOC: only place we do this interesting math.
@@ -2327,10 +2669,12 @@ public final class Grid {
 		 * @param cands the maybes to be set
 		 */
 		private void setMaybes(final int cands) {
+			final int pre = state();
 			// out with the old, and in with the new
 			Grid.this.numMaybes += -size + (size=VSIZE[maybes=cands]);
 			Grid.this.maybes[indice] = maybes;
 			Grid.this.sizes[indice] = size;
+			rehash(pre);
 		}
 
 		/**
@@ -2388,6 +2732,7 @@ public final class Grid {
 		 * @return the updated size
 		 */
 		public int removeMaybes(final int pinkos) {
+			final int pre = state();
 			int v, values[]=VALUESES[pinkos], n=values.length, i=0;
 			do {
 				v = values[i];
@@ -2403,6 +2748,7 @@ public final class Grid {
 			} while(++i < n);
 			numMaybes -= VSIZE[pinkos];
 			Grid.this.maybes[indice] = maybes &= ~pinkos;
+			rehash(pre);
 			return sizes[indice] = size = VSIZE[maybes];
 		}
 
@@ -2417,6 +2763,7 @@ public final class Grid {
 		private int addMaybes(final int cands) {
 			final int added = cands & ~maybes;
 			if ( added > 0 ) {
+				final int pre = state();
 				int v, values[]=VALUESES[added], n=values.length, i=0;
 				do {
 					v = values[i];
@@ -2435,6 +2782,7 @@ public final class Grid {
 				// set the grids maybes
 				Grid.this.maybes[indice] = maybes;
 				Grid.this.sizes[indice] = size;
+				rehash(pre);
 			}
 			return size;
 		}
@@ -2451,7 +2799,9 @@ public final class Grid {
 		 * Set this cells value to 0 (empty), and fill its maybes.
 		 */
 		private void clear() {
+			final int pre = state();
 			value = 0;
+			rehash(pre);
 			setMaybes(BITS9);
 		}
 
@@ -2479,7 +2829,9 @@ public final class Grid {
 				// cannot change the value of a set cell
 				throw new UnsolvableException(id+"="+this.value+" not "+value);
 			}
+			final int pre = state();
 			this.value = value;
+			rehash(pre);
 			++numSet;
 			clearMaybes();
 			removeFromMySiblingsMaybes(value);
@@ -2514,7 +2866,9 @@ public final class Grid {
 				}
 				return 0;
 			}
+			final int pre = state();
 			this.value = value;
+			rehash(pre);
 			clearMaybes();
 			if ( value == 0 ) {
 				// NOTE WELL: cells are cleared only in the GUI. I considered
@@ -2523,7 +2877,10 @@ public final class Grid {
 				assert !isAutosolving;
 				addMeBackIntoMySiblingsMaybes(formerValue);
 				resetMaybes();
-				rebuildAllRegionsS__t();
+				// only my regions empty and set values have changed
+				box.emptyCellCount(); box.rebuildSetCands();
+				row.emptyCellCount(); row.rebuildSetCands();
+				col.emptyCellCount(); col.rebuildSetCands();
 			} else {
 				removeFromMySiblingsMaybes(value);
 				decrementMyRegionsEmptyCellCounts();
@@ -3164,20 +3521,41 @@ public final class Grid {
 		 * in this {@link #cells} of each Cell which maybe v.
 		 */
 		private void rebuildPlacesOfAllValues() {
-			int i, bits, sv, v;
-			for ( v=1; v<VALUE_CEILING; ++v ) {
-				sv = VSHFT[v];
-				if ( (setCands & sv) > 0 ) // 9bits
-					numPlaces[v] = places[v] = 0;
-				else { // v is not set, so it's still a maybe
-					for ( i=bits=0; i<REGION_SIZE; ++i )
-						if ( (cells[i].maybes & sv) > 0 )
-							bits |= ISHFT[i];
-					numPlaces[v] = ISIZE[places[v]=bits];
-				}
+			for ( int v=1; v<VALUE_CEILING; ++v )
+				rebuildPlacesOf(v);
+		}
+
+		/**
+		 * Rebuild the {@link #places} of v with the index in this
+		 * {@link #cells} of each Cell which maybe v.
+		 *
+		 * @param v the value to rebuild
+		 */
+		private void rebuildPlacesOf(final int v) {
+			int i, bits;
+			final int sv = VSHFT[v];
+			if ( (setCands & sv) > 0 ) // 9bits
+				numPlaces[v] = places[v] = 0;
+			else { // v is not set, so it's still a maybe
+				for ( i=bits=0; i<REGION_SIZE; ++i )
+					if ( (cells[i].maybes & sv) > 0 )
+						bits |= ISHFT[i];
+				numPlaces[v] = ISIZE[places[v]=bits];
 			}
 		}
 
+		/**
+		 * Rebuild {@link #setCands} and {@link #unsetCands} from the values
+		 * of my cells.
+		 */
+		void rebuildSetCands() {
+			int cands = 0;
+			for ( Cell cell : cells )
+				cands |= VSHFT[cell.value];
+			setCands = cands;
+			unsetCands = BITS9 & ~cands;
+		}
+
 		/**
 		 * Returns the index as my hashCode.
 		 * <p>
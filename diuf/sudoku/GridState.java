@@ -0,0 +1,173 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku;
+
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.Grid.VALUE_CEILING;
+import static diuf.sudoku.Values.BITS9;
+import static diuf.sudoku.Values.VSHFT;
+import static diuf.sudoku.Values.VSIZE;
+import java.util.Arrays;
+
+/**
+ * A GridState is an immutable snapshot of the state of a Grid: the value and
+ * maybes of each cell, and the indices of each value (as per Grid.idxs), in
+ * about 450 bytes of primitive arrays; where a Grid copy is 81 Cells and 27
+ * ARegions and all of their Idxs and arrays.
+ * <p>
+ * A GridState is a value: equals, hashCode and compareTo are of the cell
+ * states, so two snapshots of the same state are equal, regardless of which
+ * Grid they came from. Its accessors read its arrays directly, so a hinter
+ * can read a snapshot without copying anything out of it.
+ * <p>
+ * Take a snapshot with {@link Grid#snapshot}, and put it back into any Grid
+ * with {@link Grid#restore(GridState)}, which changes only the cells that
+ * differ, so a scratch Grid can be reused for speculative work instead of
+ * constructing a new Grid each time.
+ */
+public final class GridState implements Comparable<GridState> {
+
+	// the state of each cell: value<<9 | maybes, as per Cell.state()
+	private final int[] states = new int[GRID_SIZE];
+	// the indices of each value: as per Idx, 54 bits in m0, 27 in m1
+	private final long[] m0s = new long[VALUE_CEILING];
+	private final int[] m1s = new int[VALUE_CEILING];
+	private final int numSet;
+	private final int hashCode;
+
+	/**
+	 * Constructor: snapshot the current state of grid.
+	 *
+	 * @param grid to snapshot
+	 */
+	public GridState(final Grid grid) {
+		int n = 0;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			if ( (states[i]=grid.cells[i].state()) > BITS9 )
+				++n;
+		for ( int v=1; v<VALUE_CEILING; ++v ) {
+			m0s[v] = grid.idxs[v].m0;
+			m1s[v] = grid.idxs[v].m1;
+		}
+		numSet = n;
+		hashCode = Arrays.hashCode(states);
+	}
+
+	/**
+	 * @param indice of the cell
+	 * @return the value of the cell at indice, 0 meaning empty
+	 */
+	public int value(final int indice) {
+		return states[indice] >> 9;
+	}
+
+	/**
+	 * @param indice of the cell
+	 * @return a bitset of the maybes of the cell at indice
+	 */
+	public int maybes(final int indice) {
+		return states[indice] & BITS9;
+	}
+
+	/**
+	 * @param indice of the cell
+	 * @return the number of maybes of the cell at indice
+	 */
+	public int size(final int indice) {
+		return VSIZE[states[indice] & BITS9];
+	}
+
+	/**
+	 * @param indice of the cell
+	 * @param v the value
+	 * @return does the cell at indice maybe v
+	 */
+	public boolean maybe(final int indice, final int v) {
+		return (states[indice] & VSHFT[v]) > 0;
+	}
+
+	/**
+	 * @param indice of the cell
+	 * @return the state of the cell at indice: {@code value<<9 | maybes}
+	 */
+	public int state(final int indice) {
+		return states[indice];
+	}
+
+	/**
+	 * Set result to the indices of cells which maybe v, as per Grid.idxs[v].
+	 *
+	 * @param v the value
+	 * @param result the Idx to set
+	 * @return result, for method chaining
+	 */
+	public Idx idx(final int v, final Idx result) {
+		return result.set(m0s[v], m1s[v]);
+	}
+
+	/**
+	 * @param v the value
+	 * @return the first 54 indices of cells which maybe v, as per Idx.m0
+	 */
+	public long m0(final int v) {
+		return m0s[v];
+	}
+
+	/**
+	 * @param v the value
+	 * @return the last 27 indices of cells which maybe v, as per Idx.m1
+	 */
+	public int m1(final int v) {
+		return m1s[v];
+	}
+
+	/**
+	 * @return the number of cells that are set
+	 */
+	public int numSet() {
+		return numSet;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		return o instanceof GridState
+			&& ((GridState)o).hashCode == hashCode
+			&& Arrays.equals(((GridState)o).states, states);
+	}
+
+	/**
+	 * Compare the states of the cells in indice order.
+	 *
+	 * @param o the other GridState
+	 * @return negative, zero, or positive for less, equal, or more
+	 */
+	@Override
+	public int compareTo(final GridState o) {
+		int diff;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			if ( (diff=states[i]-o.states[i]) != 0 )
+				return diff;
+		return 0;
+	}
+
+	/**
+	 * @return the values, in the 81 character format of Grid.toShortString
+	 */
+	@Override
+	public String toString() {
+		final char[] chars = new char[GRID_SIZE];
+		for ( int i=0; i<GRID_SIZE; ++i )
+			chars[i] = states[i]>BITS9 ? (char)('0'+(states[i]>>9)) : '.';
+		return new String(chars);
+	}
+
+}
@@ -9,10 +9,12 @@ package diuf.sudoku;
 import static diuf.sudoku.Constants.SB;
 import static diuf.sudoku.Grid.CELL_IDS;
 import diuf.sudoku.Grid.Cell;
+import static diuf.sudoku.Grid.GRID_SIZE;
 import static diuf.sudoku.Grid.MAYBES;
 import static diuf.sudoku.Grid.MAYBES_STR;
 import static diuf.sudoku.Grid.RIBS;
 import static diuf.sudoku.Grid.VALUE_CEILING;
+import static diuf.sudoku.Idx.FIFTY_FOUR;
 import static diuf.sudoku.Indexes.INDEXES;
 import static diuf.sudoku.Values.SET_BIT;
 import static diuf.sudoku.Values.VALUESES;
@@ -26,12 +28,16 @@ import static diuf.sudoku.utils.Frmt.PLUS;
 import diuf.sudoku.utils.Frmu;
 import diuf.sudoku.utils.IntQueue;
 import static diuf.sudoku.utils.IntQueue.QEMPTY;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 /**
@@ -45,11 +51,24 @@ import java.util.regex.Pattern;
  * memory efficient. There's LOTS of Pots, many of which have one entry, and
  * 99% are "small" sets, every one with a table of 8, wasting RAM. TreeMap
  * seems more efficient. It may not be, coz its Entry is larger.
+ *
+ * Pots is now primitive: an int[81] of cands (values bitsets)
+ * indexed by indice, plus an Idx-style m0/m1 bitset of the indices that are
+ * keys. So upsert and friends, which every hinter uses to record each
+ * elimination, no longer box the key and value or allocate a tree node; and
+ * get, put, remove and containsKey are array lookups, not tree searches.
+ * I still implement {@code Map<Integer,Integer>}, so existing code works, but
+ * hammered code should use the primitive methods: {@link #getCands(int)},
+ * {@link #containsKey(int)}, {@link #upsert}, and {@link #indices()} to
+ * iterate. Iteration order is still ascending indice, as per TreeMap.
+ * Note that put(indice, 0) still adds a key with no values, as per TreeMap.
+ * An int[81] is bigger than a small TreeMap, but hints are few and short
+ * lived, and its the garbage created during the search that hurts.
  * </pre>
  *
  * @author Keith Corlett 2013
  */
-public final class Pots extends TreeMap<Integer, Integer> {
+public final class Pots extends AbstractMap<Integer, Integer> implements Serializable {
 
 	private static final long serialVersionUID = 947665385L;
 
@@ -112,6 +131,13 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	/** for {@link #hashCode() } */
 	private int hashCode;
 
+	/** cands[indice] is the values of cell indice, else 0 if not a key. */
+	private final int[] cands = new int[GRID_SIZE];
+	/** The keys: indices of cells in this Pots, in an Idx-style m0,m1. */
+	private long m0; private int m1;
+	/** The number of keys. */
+	private int size;
+
 	/**
 	 * Constructor.
 	 */
@@ -134,7 +160,11 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @param src
 	 */
 	public Pots(final Pots src) {
-		super(src);
+		super();
+		System.arraycopy(src.cands, 0, cands, 0, GRID_SIZE);
+		m0 = src.m0;
+		m1 = src.m1;
+		size = src.size;
 	}
 
 	/**
@@ -173,7 +203,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 */
 	public Pots(final int indice, final int cands, final boolean dummy) {
 		super();
-		put(indice, cands);
+		poke(indice, cands);
 	}
 
 	/**
@@ -192,7 +222,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		super();
 		final int sv = VSHFT[value];
 		for ( Cell c : cells )
-			if((c.maybes & sv)>0) put(c.indice, sv);
+			if((c.maybes & sv)>0) poke(c.indice, sv);
 	}
 
 	/**
@@ -203,7 +233,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	public Pots(final Cell[] cells) {
 		super();
 		for ( Cell c : cells )
-			put(c.indice, c.maybes);
+			poke(c.indice, c.maybes);
 	}
 
 	/**
@@ -232,7 +262,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		int mine;
 		for ( final Cell cell : cells )
 			if ( (mine=cell.maybes & cands) > 0 ) // 9bits
-				put(cell.indice, mine);
+				poke(cell.indice, mine);
 	}
 
 	/**
@@ -249,7 +279,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		Cell cell;
 		for ( int myCands,i=0; i<n; ++i )
 			if ( (myCands=(cell=cells[i]).maybes & cands) > 0 ) // 9bits
-				put(cell.indice, myCands);
+				poke(cell.indice, myCands);
 	}
 
 	/**
@@ -268,7 +298,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		Cell cell; int mine;
 		for ( int i : INDEXES[indexes] )
 			if ( (mine=(cell=cells[i]).maybes & cands) > 0 ) // 9bits
-				put(cell.indice, mine);
+				poke(cell.indice, mine);
 	}
 
 	/**
@@ -335,9 +365,273 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 *  with the cell field set, or you will get an NPE
 	 */
 	public Pots(final Iterable<AHint> hints) {
-		hints.forEach((h)->put(h.cell.indice, VSHFT[h.value]));
+		hints.forEach((h)->poke(h.cell.indice, VSHFT[h.value]));
+	}
+
+	// ------------------------------ primitives ------------------------------
+
+	/**
+	 * Is indice a key in this Pots?
+	 * <p>
+	 * This primitive overload of {@link #containsKey(Object)} does not box.
+	 *
+	 * @param indice of the cell
+	 * @return is this cell in this Pots
+	 */
+	public boolean containsKey(final int indice) {
+		if ( indice < FIFTY_FOUR )
+			return (m0 & 1L<<indice) != 0L;
+		return (m1 & 1<<(indice-FIFTY_FOUR)) != 0;
+	}
+
+	/**
+	 * Get the cands of the cell at indice, else 0 if it is not in this Pots.
+	 * <p>
+	 * This is the primitive version of {@link #get(Object)}, which does not
+	 * box, and returns 0 (not null) when indice is not a key.
+	 *
+	 * @param indice of the cell
+	 * @return a bitset of the values of indice in this Pots, else 0
+	 */
+	public int getCands(final int indice) {
+		return cands[indice];
+	}
+
+	/**
+	 * Returns an {@link IntQueue} of the indices (keys) in this Pots, in
+	 * ascending order, so you can iterate me without creating an Entry, or
+	 * boxing the key and value.
+	 * <pre>{@code
+	 * for ( IntQueue q=pots.indices(); (i=q.poll())>QEMPTY; )
+	 *     doSomethingWith(i, pots.getCands(i));
+	 * }</pre>
+	 *
+	 * @return a new {@link Idx.MyIntQueue} of my keys
+	 */
+	public IntQueue indices() {
+		return new Idx.MyIntQueue(m0, m1);
+	}
+
+	// put cands for indice: the primitive put. Adds indice if its not a key,
+	// even if cands is 0, as per TreeMap.
+	// @return was indice added (ie it was not already a key)
+	private boolean poke(final int indice, final int cands) {
+		this.cands[indice] = cands;
+		if ( indice < FIFTY_FOUR ) {
+			final long b = 1L<<indice;
+			if ( (m0 & b) != 0L )
+				return false;
+			m0 |= b;
+		} else {
+			final int b = 1<<(indice-FIFTY_FOUR);
+			if ( (m1 & b) != 0 )
+				return false;
+			m1 |= b;
+		}
+		++size;
+		return true;
+	}
+
+	// remove indice: the primitive remove.
+	// @return was indice removed (ie it was a key)
+	private boolean unpoke(final int indice) {
+		if ( indice < FIFTY_FOUR ) {
+			final long b = 1L<<indice;
+			if ( (m0 & b) == 0L )
+				return false;
+			m0 &= ~b;
+		} else {
+			final int b = 1<<(indice-FIFTY_FOUR);
+			if ( (m1 & b) == 0 )
+				return false;
+			m1 &= ~b;
+		}
+		cands[indice] = 0;
+		--size;
+		return true;
+	}
+
+	// -------------------------------- Map ---------------------------------
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return key instanceof Integer && containsKey((int)(Integer)key);
+	}
+
+	@Override
+	public Integer put(final Integer indice, final Integer cands) {
+		final int i = indice;
+		final int old = this.cands[i];
+		return poke(i, cands) ? null : old;
+	}
+
+	@Override
+	public Integer remove(final Object key) {
+		if ( !(key instanceof Integer) )
+			return null;
+		final int i = (Integer)key;
+		final int old = cands[i];
+		return unpoke(i) ? old : null;
+	}
+
+	@Override
+	public void clear() {
+		if ( size > 0 ) {
+			int i;
+			for ( final IntQueue q=new Idx.MyIntQueue(m0,m1); (i=q.poll())>QEMPTY; )
+				cands[i] = 0;
+			m0 = 0L;
+			m1 = size = 0;
+		}
 	}
 
+	/**
+	 * Returns the first (lowest) indice in this Pots, as per TreeMap.
+	 *
+	 * @return the first indice
+	 * @throws NoSuchElementException if this Pots is empty
+	 */
+	public Integer firstKey() {
+		if ( size == 0 )
+			throw new NoSuchElementException();
+		if ( m0 != 0L )
+			return Long.numberOfTrailingZeros(m0);
+		return FIFTY_FOUR + Integer.numberOfTrailingZeros(m1);
+	}
+
+	@Override
+	public Set<Integer> keySet() {
+		return new AbstractSet<Integer>() {
+			@Override
+			public Iterator<Integer> iterator() {
+				return new KeyIterator();
+			}
+			@Override
+			public int size() {
+				return size;
+			}
+			@Override
+			public boolean contains(final Object o) {
+				return containsKey(o);
+			}
+			@Override
+			public boolean remove(final Object o) {
+				return o instanceof Integer && unpoke((Integer)o);
+			}
+			@Override
+			public void clear() {
+				Pots.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<Integer, Integer>> entrySet() {
+		return new AbstractSet<Map.Entry<Integer, Integer>>() {
+			@Override
+			public Iterator<Map.Entry<Integer, Integer>> iterator() {
+				return new EntryIterator();
+			}
+			@Override
+			public int size() {
+				return size;
+			}
+			@Override
+			public void clear() {
+				Pots.this.clear();
+			}
+		};
+	}
+
+	// iterates my keys in ascending order, supporting remove
+	private abstract class Cursor {
+		private long n0 = m0; private int n1 = m1; // the next keys
+		int last = -1; // the last indice returned by nextIndice
+		public boolean hasNext() {
+			return (n0|n1) != 0L;
+		}
+		int nextIndice() {
+			if ( n0 != 0L ) {
+				last = Long.numberOfTrailingZeros(n0);
+				n0 &= n0 - 1L;
+			} else if ( n1 != 0 ) {
+				last = FIFTY_FOUR + Integer.numberOfTrailingZeros(n1);
+				n1 &= n1 - 1;
+			} else
+				throw new NoSuchElementException();
+			return last;
+		}
+		public void remove() {
+			if ( last < 0 )
+				throw new IllegalStateException();
+			unpoke(last);
+			last = -1;
+		}
+	}
+
+	private final class KeyIterator extends Cursor implements Iterator<Integer> {
+		@Override
+		public Integer next() {
+			return nextIndice();
+		}
+	}
+
+	// iterates my entries in ascending order. Entry.setValue writes-through.
+	private final class EntryIterator extends Cursor implements Iterator<Map.Entry<Integer, Integer>> {
+		@Override
+		public Map.Entry<Integer, Integer> next() {
+			return new Entry(nextIndice());
+		}
+	}
+
+	private final class Entry implements Map.Entry<Integer, Integer> {
+		private final int indice;
+		Entry(final int indice) {
+			this.indice = indice;
+		}
+		@Override
+		public Integer getKey() {
+			return indice;
+		}
+		@Override
+		public Integer getValue() {
+			return cands[indice];
+		}
+		@Override
+		public Integer setValue(final Integer value) {
+			final int old = cands[indice];
+			cands[indice] = value;
+			return old;
+		}
+		@Override
+		public boolean equals(final Object o) {
+			if ( !(o instanceof Map.Entry) )
+				return false;
+			final Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+			return getKey().equals(e.getKey()) && getValue().equals(e.getValue());
+		}
+		@Override
+		public int hashCode() {
+			return indice ^ cands[indice];
+		}
+		@Override
+		public String toString() {
+			return indice+"="+cands[indice];
+		}
+	}
+
+	// ------------------------------ operations ------------------------------
+
 	/**
 	 * Clear all the Cell=&gt;Values from this Pots and return this Pots.
 	 *
@@ -354,11 +648,13 @@ public final class Pots extends TreeMap<Integer, Integer> {
 
 	@Override
 	public Integer get(final Object key) {
-		if ( key instanceof Integer )
-			return super.get(key);
+		if ( key instanceof Integer ) {
+			final int i = (Integer)key;
+			return containsKey(i) ? cands[i] : null;
+		}
 		if ( key instanceof Cell ) {
 			CRAP.add(StackTrace.of(new RuntimeException()));
-			return super.get(((Cell)key).indice);
+			return get((Integer)((Cell)key).indice);
 		}
 		throw new IllegalArgumentException(
 				"Bad key "+key.getClass().getCanonicalName()+": "+key);
@@ -371,8 +667,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return {@code (get(a.indice) & VSHFT[a.value]) > 0} handling null.
 	 */
 	public boolean has(final Ass a) {
-		final Integer cands = get(a.indice);
-		return cands!=null && (cands & VSHFT[a.value]) > 0; // 9bits
+		return (cands[a.indice] & VSHFT[a.value]) > 0; // 9bits
 	}
 
 	/**
@@ -385,7 +680,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return existing value, if any
 	 */
 	public Integer put(final String cellId, final Integer value) {
-		return super.put(Grid.indice(cellId), value);
+		return put((Integer)Grid.indice(cellId), value);
 	}
 
 	/**
@@ -416,7 +711,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		// do nothing if others is null, and head-off adding myself to myself,
 		// and if others is empty then likewise there is nothing to see here.
 		if ( others!=null && others!=this && !others.isEmpty())
-			others.entrySet().forEach((e) -> upsert(e.getKey(), e.getValue(), DUMMY));
+			upsertAny(others);
 		return this;
 	}
 
@@ -427,12 +722,9 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return this Pots for method chaining
 	 */
 	public boolean addAllAny(final Pots others) {
-		boolean result = false;
 		if ( others==null || others==this )
-			return result;
-		for ( Map.Entry<Integer, Integer> e : others.entrySet() )
-			result |= upsert(e.getKey(), e.getValue(), DUMMY);
-		return result;
+			return false;
+		return upsertAny(others);
 	}
 
 	/**
@@ -481,12 +773,12 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		// It happens rarely enough for invocation to not be a big speed-drag.
 		if ( cands == 0 )
 			return false;
-		final Integer existing = get(indice);
-		if ( existing == null )
-			return put(indice, cands) == null;
-		final int aggregate = existing | cands;
-		return aggregate != existing
-			&& put(indice, aggregate) != null;
+		final int existing = this.cands[indice];
+		if ( (existing | cands) == existing )
+			// nb: existing is 0 if indice is not a key
+			return false;
+		poke(indice, existing | cands);
+		return true;
 	}
 
 	/**
@@ -497,9 +789,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 */
 	public Pots upsertAll(final Pots src) {
 		if ( src != null )
-			src.entrySet().forEach(
-				(e) -> upsert(e.getKey(), e.getValue(), DUMMY)
-			);
+			upsertAny(src);
 		return this;
 	}
 
@@ -511,9 +801,12 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 */
 	public boolean upsertAny(final Pots src) {
 		boolean any = false;
-		if ( src != null )
-			for ( Map.Entry<Integer,Integer> e : src.entrySet() )
-				any |= upsert(e.getKey(), e.getValue(), DUMMY);
+		if ( src != null ) {
+			final int[] srcCands = src.cands;
+			int i;
+			for ( final IntQueue q=src.indices(); (i=q.poll())>QEMPTY; )
+				any |= upsert(i, srcCands[i], DUMMY);
+		}
 		return any;
 	}
 
@@ -623,10 +916,9 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 *  in this Pots.
 	 */
 	public void insertOnly(final int indice, final int values) {
-		final Integer existing = get(indice);
-		if ( existing != null )
-			throw new IToldHimWeveAlreadyGotOneException(CELL_IDS[indice]+PLUS+existing+PLUS+MAYBES_STR[values]);
-		put(indice, values);
+		if ( containsKey(indice) )
+			throw new IToldHimWeveAlreadyGotOneException(CELL_IDS[indice]+PLUS+cands[indice]+PLUS+MAYBES_STR[values]);
+		poke(indice, values);
 	}
 
 	/**
@@ -637,7 +929,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	public void removeAll(final Iterable<Cell> cells) {
 		if ( cells != null )
 			for ( Cell cell : cells )
-				remove(cell.indice);
+				unpoke(cell.indice);
 	}
 
 	/**
@@ -650,16 +942,13 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 */
 	public Pots removeAll(final Pots others) {
 		if ( others != null ) {
-			Integer mine;
-			for ( java.util.Map.Entry<Integer,Integer> e : others.entrySet() )
+			final int[] his = others.cands;
+			int i;
+			for ( final IntQueue q=others.indices(); (i=q.poll())>QEMPTY; )
 				// remove others values from my values, and if that leaves my
 				// values empty then remove my cell also
-				if ( (mine=get(e.getKey()))!=null ) {
-					final int now;
-					put(e.getKey(), now=mine & ~e.getValue());
-					if ( now == 0 )
-						remove(e.getKey());
-				}
+				if ( containsKey(i) && (cands[i] &= ~his[i]) == 0 )
+					unpoke(i);
 		}
 		return this; // may be empty
 	}
@@ -685,25 +974,21 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return
 	 */
 	public Pots intersection(final Pots others) {
-		Integer indice, myValues, otherValues;
-		int commonValues; // values common to this cell in both me and others
+		int i, commonValues; // values common to this cell in me and others
 		final Pots result = new Pots();
-		for ( java.util.Map.Entry<Integer,Integer> e : entrySet() )
-			if ( (myValues=e.getValue()) > 0 // 9bits
-			  // but otherValue pretty obviously can be null.
-			  && (otherValues=others.get(indice=e.getKey())) != null
-			  // are there any common values?
-			  && (commonValues=myValues & otherValues) > 0 ) // 9bits
+		for ( final IntQueue q=indices(); (i=q.poll())>QEMPTY; )
+			// are there any common values? nb: others.cands is 0 if absent
+			if ( (commonValues=cands[i] & others.cands[i]) > 0 ) // 9bits
 				// add the common values to the result.
-				result.put(indice, commonValues);
+				result.poke(i, commonValues);
 		return result; // which may still be empty!
 	}
 
 	/** @return the total of the sizes of all the values in these Pots. */
 	public int totalSize() {
-		int result = 0;
-		for ( int value : values() )
-			result += VSIZE[value];
+		int i, result = 0;
+		for ( final IntQueue q=indices(); (i=q.poll())>QEMPTY; )
+			result += VSIZE[cands[i]];
 		return result;
 	}
 
@@ -713,9 +998,9 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return a bitset of all the values in this pots.
 	 */
 	public int candsOf() {
-		int result = 0;
-		for ( int cands : values() )
-			result |= cands;
+		int i, result = 0;
+		for ( final IntQueue q=indices(); (i=q.poll())>QEMPTY; )
+			result |= cands[i];
 		return result;
 	}
 
@@ -727,10 +1012,10 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return
 	 */
 	public boolean isSubsetOf(final Pots others) {
-		Integer myValues;
-		for ( java.util.Map.Entry<Integer,Integer> e : others.entrySet() )
-			if ( (myValues=get(e.getKey())) == null
-			  || (e.getValue() & myValues) != myValues )
+		int i, myValues;
+		for ( final IntQueue q=others.indices(); (i=q.poll())>QEMPTY; )
+			if ( !containsKey(i)
+			  || (others.cands[i] & (myValues=cands[i])) != myValues )
 				return false;
 		return true;
 	}
@@ -746,8 +1031,9 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 */
 	public boolean anyCurrent(final Grid grid) {
 		final int[] maybes = grid.maybes;
-		for ( java.util.Map.Entry<Integer,Integer> e : entrySet() )
-			if ( (maybes[e.getKey()] & e.getValue()) > 0 )
+		int i;
+		for ( final IntQueue q=indices(); (i=q.poll())>QEMPTY; )
+			if ( (maybes[i] & cands[i]) > 0 )
 				return true;
 		return false;
 	}
@@ -761,12 +1047,10 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return
 	 */
 	public int setCells(final boolean isAutosolving, final Grid grid) {
-		Integer indice;
-		int sv, numSet = 0;
+		int indice, sv, numSet = 0;
 		final Cell cells[] = grid.cells;
-		for ( java.util.Map.Entry<Integer,Integer> e : entrySet() ) {
-			indice = e.getKey();
-			sv = e.getValue();
+		for ( final IntQueue q=indices(); (indice=q.poll())>QEMPTY; ) {
+			sv = cands[indice];
 			assert VSIZE[sv] == 1; // ONE value per cell in a setPots!
 			if ( Run.isBatch() && !isAutosolving )
 				numSet += cells[indice].set(VFIRST[sv]);
@@ -787,19 +1071,19 @@ public final class Pots extends TreeMap<Integer, Integer> {
 		if ( n == 0 )
 			return "";
 		if ( n == 1 ) {
-			final Integer indice = firstKey();
-			return CELL_IDS[indice]+MINUS+MAYBES_STR[get(indice)];
+			final int indice = firstKey();
+			return CELL_IDS[indice]+MINUS+MAYBES_STR[cands[indice]];
 		}
 		// select "A1-49" from this
 		final String sep = CSP;
 		final int sepLen = sep.length();
-		int i = 0, totalLength = 0;
+		int indice, i = 0, totalLength = 0;
 		final String[] array = new String[n];
 		final StringBuilder sb = SB(16);
-		for ( java.util.Map.Entry<Integer,Integer> e : entrySet() ) {
+		for ( final IntQueue q=indices(); (indice=q.poll())>QEMPTY; ) {
 			sb.setLength(0);
-			array[i] = sb.append(CELL_IDS[e.getKey()]).append(MINUS)
-					   .append(MAYBES[e.getValue()]).toString();
+			array[i] = sb.append(CELL_IDS[indice]).append(MINUS)
+					   .append(MAYBES[cands[indice]]).toString();
 			totalLength += array[i++].length() + sepLen;
 		}
 		// order by cell.id
@@ -831,11 +1115,11 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return a new int[size()][2]
 	 */
 	public int[][] toArray() {
-		final int[][] array = new int[size()][2];
-		int i = 0;
-		for ( Map.Entry<Integer, Integer> g : entrySet() ) {
-			array[i][INDICE] = g.getKey();
-			array[i][VALUES] = g.getValue();
+		final int[][] array = new int[size][2];
+		int indice, i = 0;
+		for ( final IntQueue q=indices(); (indice=q.poll())>QEMPTY; ) {
+			array[i][INDICE] = indice;
+			array[i][VALUES] = cands[indice];
 			++i;
 		}
 		return array;
@@ -853,16 +1137,13 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	}
 
 	public int commonRibs() {
-		int crs = 0;
-		boolean first = true;
-		for ( int indice : keySet() ) {
-			if ( first ) {
-				first = false;
-				crs = RIBS[indice];
-			} else {
-				crs &= RIBS[indice];
-			}
-		}
+		final IntQueue q = indices();
+		int indice = q.poll();
+		if ( indice == QEMPTY )
+			return 0;
+		int crs = RIBS[indice];
+		while ( (indice=q.poll()) > QEMPTY )
+			crs &= RIBS[indice];
 		return crs;
 	}
 
@@ -885,7 +1166,11 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	@Override
 	public int hashCode() {
 		if ( !hashCodeSet ) {
-			hashCode = super.hashCode();
+			// the same hashCode as a Map: sum of (key ^ value) of each entry
+			int i, h = 0;
+			for ( final IntQueue q=indices(); (i=q.poll())>QEMPTY; )
+				h += i ^ cands[i];
+			hashCode = h;
 			hashCodeSet = true;
 		}
 		return hashCode;
@@ -898,14 +1183,11 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return this contains everything in others
 	 */
 	public boolean contains(final Pots him) {
-		Integer mine, his;
-		for ( Map.Entry<Integer, Integer> he : him.entrySet() ) {
-			if ( (mine=get(he.getKey())) == null )
+		int i, his;
+		for ( final IntQueue q=him.indices(); (i=q.poll())>QEMPTY; )
+			if ( !containsKey(i)
+			  || (cands[i] & (his=him.cands[i])) != his )
 				return false;
-			his = he.getValue();
-			if ( (mine & his) != his )
-				return false;
-		}
 		return true;
 	}
 
@@ -939,7 +1221,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 //		for ( Integer indice : keySet() )
 //			return indice;
 //		return 0; // something other than -1
-		return super.firstKey();
+		return firstKey();
 	}
 
 	/**
@@ -949,11 +1231,10 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 */
 	public void toIdxs(final Idx[] result) {
 		int v=1; do result[v].clear(); while(++v<VALUE_CEILING);
-		entrySet().forEach((e) -> {
-			final int indice = e.getKey();
-			for ( int v2 : VALUESES[e.getValue()] )
+		int indice;
+		for ( final IntQueue q=indices(); (indice=q.poll())>QEMPTY; )
+			for ( int v2 : VALUESES[cands[indice]] )
 				result[v2].add(indice);
-		});
 	}
 
 	/**
@@ -962,10 +1243,7 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return the number of values in this Pots
 	 */
 	public int count() {
-		int count = 0;
-		for ( Map.Entry<Integer, Integer> e : entrySet() )
-			count += VSIZE[e.getValue()];
-		return count;
+		return totalSize();
 	}
 
 	/**
@@ -974,14 +1252,12 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return a new Idx of cells in this Pots.
 	 */
 	public Idx idx() {
-		final Idx result = new Idx();
-		for ( int indice : keySet() )
-			result.add(indice);
-		return result;
+		// my keys are an Idx-style m0,m1 already
+		return new Idx(m0, m1);
 	}
 
 	public Integer firstValue() {
-		return get(super.firstKey());
+		return cands[firstKey()];
 	}
 
 	/**
@@ -996,8 +1272,9 @@ public final class Pots extends TreeMap<Integer, Integer> {
 	 * @return Does this pots contain any SET_BIT
 	 */
 	public boolean anyOns() {
-		for ( int value : values() )
-			if ( (value & SET_BIT) > 0 )
+		int i;
+		for ( final IntQueue q=indices(); (i=q.poll())>QEMPTY; )
+			if ( (cands[i] & SET_BIT) > 0 )
 				return true;
 		return false;
 	}
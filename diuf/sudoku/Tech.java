@@ -168,9 +168,9 @@ public enum Tech {
 	, KrakenJellyfish	(81, 4, KrakenFisherman.class,  T,F,T, "DROP: TOO SLOW (30 mins). 4 bases/cover with fins and chains")
 
 	// Ligature                                         W,W, (Wanted, Warning)
-	, AlignedPair		(90, 2, AlignedExclusion.class, F,F, "DROP: None! 2 cells aligned around two 2valued cells")
-	, AlignedTriple		(91, 3, AlignedExclusion.class, F,F, "DROP: Rare (7). 3 cells aligned around two 2..3valued cells")
-	, AlignedQuad		(92, 4, AlignedExclusion.class, F,F, "DROP: Rare (3). 4 cells aligned around two 2..4valued cells")
+	, AlignedPair		(90, 2, AlignedExclusion.class, F,F, "DROP: None! 2 cells aligned around one or more 2valued cells")
+	, AlignedTriple		(91, 3, AlignedExclusion.class, F,F, "DROP: Slow. 3 cells aligned around one or more 2..3valued cells")
+	, AlignedQuad		(92, 4, AlignedExclusion.class, F,F, "DROP: Slow. 4 cells aligned around one or more 2..4valued cells")
 	, AlignedPent		(93, 5, AlignedExclusion.class, F,F, "DROP: None! 5 cells aligned around two 2..5valued cells")
 	, AlignedHex		(94, 6, AlignedExclusion.class, F,F, "DROP: None! 6 cells aligned around two 2..6valued cells")
 	, AlignedSept		(95, 7, AlignedExclusion.class, F,T, "DROP: Slow (1 min) and Rare (5). 7 cells aligned around two 2..7valued cells")
@@ -0,0 +1,271 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.gui;
+
+import diuf.sudoku.Canonicaliser;
+import diuf.sudoku.Difficulty;
+import diuf.sudoku.Grid;
+import diuf.sudoku.Run;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import diuf.sudoku.io.IO;
+import diuf.sudoku.io.StdErr;
+import diuf.sudoku.solver.HinterruptException;
+import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.LogicalSolverFactory;
+import static diuf.sudoku.utils.Frmt.NL;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * BulkGenerator is a headless (no Swing) puzzle generator, for generating
+ * puzzles in bulk, for publishing. It runs N worker threads, each with its
+ * own {@link Generator}, hence its own BruteForce and LogicalSolver, until
+ * count puzzles of the given Difficulty are generated. Each puzzle is
+ * appended to the output .mt file (one puzzle per line) as soon as it is
+ * generated, so you can kill it whenever, and keep what you have got.
+ * <pre>
+ * usage: java -cp SudokuExplainer.jar diuf.sudoku.gui.BulkGenerator
+ *        Difficulty count output.mt [-threads N] [-symmetries A,B,C]
+ *        [-exact true|false]
+ * </pre>
+ * Difficulty is the name of a {@link Difficulty}: Easy..IDKFA.
+ * <br>-threads defaults to the number of processors.
+ * <br>-symmetries is a comma separated list of {@link GenSymmetry} names,
+ *  which defaults to all of them. Diabolical and above always use None, as
+ *  per the GUI, coz symmetry impedes the generation of hard puzzles.
+ * <br>-exact false accepts puzzles upto Difficulty, not just in it.
+ * <p>
+ * The GUI generates one puzzle at a time, behind the analyseLock, which is
+ * fine for a user who wants a puzzle to solve, but an IDKFA takes minutes,
+ * so making a few hundred of them on one thread takes all week. Here the
+ * workers do not share any state, except the output file, so it scales with
+ * your cores. When count puzzles are written I set Run.setHinterrupt(true),
+ * which stops the other workers mid-puzzle.
+ * <p>
+ * The surplus puzzles (those not of the desired Difficulty) that each worker
+ * rates along the way are added to the {@link GenPuzzleStore}, from which the
+ * GUI serves them, so they are not wasted.
+ * <p>
+ * A puzzle that is isomorphic to (a transposed, permuted or relabelled copy
+ * of) one already in the output file is not written, per the 64-bit
+ * {@link Canonicaliser#hash} of its canonical form, so count puzzles are
+ * count distinct puzzles, even when you append to an existing file.
+ */
+public final class BulkGenerator {
+
+	private static final String USAGE = "usage: BulkGenerator Difficulty count output.mt [-threads N] [-symmetries A,B,C] [-exact true|false]";
+
+	public static void main(final String[] args) {
+		try {
+			// set once, for all the workers. Never reset, coz we exit.
+			Run.setRunType(Run.Type.Generator);
+			System.exit(run(args));
+		} catch (Exception ex) {
+			StdErr.whinge("WARN: BulkGenerator failed.", ex);
+			System.exit(1);
+		}
+	}
+
+	private static int run(final String[] args) throws IOException, InterruptedException {
+		if ( args.length < 3 ) {
+			System.err.println(USAGE);
+			return 1;
+		}
+		final Difficulty difficulty = Difficulty.valueOf(args[0]);
+		final int count = Integer.parseInt(args[1]);
+		final String outFilename = args[2];
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		ArrayList<GenSymmetry> symmetries = GenSymmetry.alues();
+		boolean isExact = true;
+		for ( int i=3; i<args.length; i+=2 ) {
+			if ( i+1 == args.length ) {
+				System.err.println(USAGE);
+				return 1;
+			}
+			switch ( args[i] ) {
+				case "-threads": numThreads = Integer.parseInt(args[i+1]); break;
+				case "-symmetries": symmetries = parseSymmetries(args[i+1]); break;
+				case "-exact": isExact = Boolean.parseBoolean(args[i+1]); break;
+				default:
+					System.err.println("Unknown arg: "+args[i]+NL+USAGE);
+					return 1;
+			}
+		}
+		if ( count < 1 || numThreads < 1 ) {
+			System.err.println("count and threads must be atleast 1"+NL+USAGE);
+			return 1;
+		}
+		final Set<Long> seen = readSeen(outFilename);
+		final BulkGenerator bulk;
+		try ( PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(outFilename, true))) ) {
+			bulk = new BulkGenerator(out, count, seen);
+			bulk.generate(numThreads, symmetries, difficulty, isExact);
+		}
+		System.out.format("%,d of %,d %s puzzles in %s%s", bulk.numWritten
+				, count, difficulty, outFilename, NL);
+		return bulk.numWritten==count ? 0 : 1;
+	}
+
+	// parse a comma separated list of GenSymmetry names
+	private static ArrayList<GenSymmetry> parseSymmetries(final String csv) {
+		final String[] names = csv.split(" *, *");
+		final ArrayList<GenSymmetry> result = new ArrayList<>(names.length);
+		for ( String name : names )
+			result.add(GenSymmetry.valueOf(name));
+		return result;
+	}
+
+	// the canonical hashes of the puzzles in an existing output file
+	private static Set<Long> readSeen(final String outFilename) throws IOException {
+		final Set<Long> result = new HashSet<>();
+		final File file = new File(outFilename);
+		if ( file.exists() ) {
+			final Canonicaliser canonicaliser = new Canonicaliser();
+			for ( String line : IO.slurp(file) )
+				if ( line.length() >= GRID_SIZE )
+					result.add(canonicaliser.canonicalHash(line));
+			result.remove(0L); // none
+		}
+		return result;
+	}
+
+	// the output file, which is shared by all the workers
+	private final PrintWriter out;
+	// canonical hashes of the puzzles written, to skip isomorphs
+	private final Set<Long> seen;
+	// the number of puzzles wanted
+	private final int count;
+	// the number of puzzles written so far
+	private int numWritten;
+	// when we started, for the progress report
+	private final long start = System.nanoTime();
+
+	private BulkGenerator(final PrintWriter out, final int count
+			, final Set<Long> seen) {
+		this.out = out;
+		this.count = count;
+		this.seen = seen;
+	}
+
+	// run numThreads workers til count puzzles are written, or they all quit
+	private void generate(final int numThreads
+			, final ArrayList<GenSymmetry> symmetries
+			, final Difficulty difficulty, final boolean isExact)
+			throws InterruptedException {
+		// the surplus puzzles go into the GUIs store, for the user
+		final GenPuzzleStore store = GenPuzzleStore.getInstance();
+		final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			final List<Future<Void>> futures = new ArrayList<>(numThreads);
+			for ( int i=0; i<numThreads; ++i )
+				futures.add(executor.submit(new Worker(symmetries, difficulty, isExact, store)));
+			for ( Future<Void> future : futures ) {
+				try {
+					future.get();
+				} catch (ExecutionException ex) {
+					StdErr.whinge("WARN: BulkGenerator worker failed", ex.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * A worker calls me with each puzzle that it generates. I write puzzle to
+	 * the output file, and report progress to stdout, unless it is isomorphic
+	 * to a puzzle that is already in the output file.
+	 *
+	 * @param puzzle that was generated
+	 * @param hash the canonical hash of puzzle, else 0 meaning none, which is
+	 *  never seen before
+	 * @return should the worker keep going; false when count are written
+	 */
+	private synchronized boolean add(final Grid puzzle, final long hash) {
+		if ( numWritten < count && (hash==0L || seen.add(hash)) ) {
+			out.println(puzzle.toShortString());
+			out.flush(); // stream each puzzle, in case we are killed
+			++numWritten;
+			System.out.format("%,d/%,d\t%,d secs\t%s%s", numWritten, count
+					, (System.nanoTime()-start)/1_000_000_000L
+					, puzzle.toShortString(), NL);
+		}
+		if ( numWritten < count )
+			return true;
+		Run.setHinterrupt(true); // stop the other workers
+		return false;
+	}
+
+	/**
+	 * A Worker generates puzzles, on its own thread, with its own Generator,
+	 * hence its own BruteForce and LogicalSolver, til we have enough.
+	 */
+	private final class Worker implements Callable<Void> {
+
+		private final ArrayList<GenSymmetry> symmetries;
+		private final Difficulty difficulty;
+		private final boolean isExact;
+		private final GenPuzzleStore store;
+
+		Worker(final ArrayList<GenSymmetry> symmetries
+				, final Difficulty difficulty, final boolean isExact
+				, final GenPuzzleStore store) {
+			this.symmetries = symmetries;
+			this.difficulty = difficulty;
+			this.isExact = isExact;
+			this.store = store;
+		}
+
+		@Override
+		public Void call() throws IOException {
+			final LogicalSolver solver = LogicalSolverFactory.newWorker();
+			// Grid.solution() gets THE solver, so bind mine
+			LogicalSolverFactory.bind(solver);
+			try {
+				final Generator generator = new Generator(solver);
+				final Canonicaliser canonicaliser = new Canonicaliser();
+				Grid puzzle;
+				while ( !Run.isHinterrupted() ) {
+					try {
+						puzzle = generator.generate(null, store, symmetries, difficulty, isExact);
+					} catch (HinterruptException eaten) {
+						break; // we have enough
+					} catch (TuringException ex) {
+						// MAX_TRIES exceeded: unlucky, so go again
+						StdErr.whinge("WARN: "+ex);
+						continue;
+					}
+					if ( puzzle == null ) {
+						if ( !Run.isHinterrupted() ) // MAX_FAILURES exceeded
+							StdErr.whinge("WARN: BulkGenerator worker gave up");
+						break;
+					}
+					if ( !add(puzzle, canonicaliser.canonicalHash(puzzle)) )
+						break;
+				}
+			} finally {
+				LogicalSolverFactory.unbind();
+				solver.close();
+			}
+			return null;
+		}
+
+	}
+
+}
@@ -178,11 +178,12 @@ class FileOpener {
 			if ( f.isDirectory() )
 				return true;
 			return nameEndsWith(f, ".txt")
-				|| nameEndsWith(f, ".mt");
+				|| nameEndsWith(f, ".mt")
+				|| nameEndsWith(f, ".mtb");
 		}
 		@Override
 		public String getDescription() {
-			return "Puzzle files (*.txt;*.mt)";
+			return "Puzzle files (*.txt;*.mt;*.mtb)";
 		}
 	}
 
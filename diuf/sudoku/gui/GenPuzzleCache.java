@@ -15,7 +15,6 @@ import static diuf.sudoku.gui.Generator.PRODUCE_THREAD_NAME;
 import diuf.sudoku.io.IO;
 import diuf.sudoku.io.StdErr;
 import diuf.sudoku.solver.HinterruptException;
-import static diuf.sudoku.solver.LogicalSolver.ANALYSE_LOCK;
 import static diuf.sudoku.utils.Frmt.NL;
 import diuf.sudoku.utils.Log;
 import java.io.IOException;
@@ -114,15 +113,21 @@ final class GenPuzzleCache {
 	}
 
 	/**
-	 * Set {@code PUZZLE_CACHE[diff.ordinal()] = puzzle} if diff is NOT null,
-	 * but note that the given puzzle may be null.
+	 * Set {@code PUZZLE_CACHE[diff.ordinal()] = puzzle} if diff is NOT null
+	 * and that slot is empty.
+	 * <p>
+	 * An occupied slot is not replaced: the Generator adds a puzzle
+	 * that I refuse to its {@link GenPuzzleStore}, so nothing is lost.
 	 *
-	 * @param diff
-	 * @param puzzle
+	 * @param diff the Difficulty of puzzle
+	 * @param puzzle to cache
+	 * @return was puzzle cached
 	 */
-	void set(final Difficulty diff, final Grid puzzle) {
-		if ( diff != null )
-			CACHE[diff.ordinal()] = puzzle;
+	boolean set(final Difficulty diff, final Grid puzzle) {
+		if ( diff==null || CACHE[diff.ordinal()]!=null )
+			return false;
+		CACHE[diff.ordinal()] = puzzle;
+		return true;
 	}
 
 	// PuzzleCache.generate retrieves a puzzle from the cache and then replaces
@@ -229,8 +234,8 @@ final class GenPuzzleCache {
 				lieDown(250);
 				// then we synchronize so that my background generate starts
 				// when the foreground analyse completes, to avoid two solves
-				// running concurrently (tripping-over stateful static vars).
-				synchronized (ANALYSE_LOCK) {
+				// running concurrently in the one LogicalSolver.
+				synchronized (Generator.getInstance().getSolver().analyseLock) {
 					try {
 						generate(mySyms, difficulty, true);
 					} catch (Exception eaten) {
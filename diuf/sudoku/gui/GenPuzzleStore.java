@@ -0,0 +1,396 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.gui;
+
+import diuf.sudoku.Difficulty;
+import static diuf.sudoku.Difficulty.Diabolical;
+import diuf.sudoku.Grid;
+import diuf.sudoku.io.IO;
+import diuf.sudoku.io.StdErr;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import java.nio.channels.FileLock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GenPuzzleStore is a disk-backed store of every surplus puzzle that the
+ * Generator rates completely, indexed by Difficulty and GenSymmetry. A puzzle
+ * harder than the target is not stored, because its rating stopped at the
+ * target's ceiling, so it is only a lower bound.
+ * <p>
+ * The Generator generates random puzzles until it hits one of the target
+ * Difficulty, rating each one along the way. GenPuzzleCache keeps only one
+ * puzzle per Difficulty, so the rest were thrown away, which is a crime for
+ * the Diabolicals and IDKFAs that took minutes of CPU each. Now the Generator
+ * adds each surplus puzzle to me, and {@link Generator#cachedGenerate} takes
+ * a puzzle from me, if I have one, before it resorts to generating.
+ * <p>
+ * The file is an append-only log of plain text, one line per add or take:
+ * <pre>
+ * Difficulty,GenSymmetry,rating,puzzle
+ * -,puzzle
+ * </pre>
+ * The second is a tombstone: the puzzle has been taken, so it is served only
+ * once. Each add and take appends one line, so nothing is lost if we are
+ * killed; and the file grows with every take, so when it holds more dead
+ * lines (taken puzzles and their tombstones) than live puzzles it is
+ * compacted: rewritten with only the live puzzles, under a header line that
+ * holds a generation number, which the compaction increments.
+ * <p>
+ * The GUI and BulkGenerator may share the file, so each add and take is made
+ * under an exclusive FileLock, after reading the lines that other processes
+ * have appended since (so a puzzle that another process has taken is not
+ * served again). If another process has compacted the file (the generation
+ * has changed) then I forget everything and reread it. A partial last line
+ * (where a process was killed mid-write) is truncated.
+ * <p>
+ * I am thread-safe, so that {@link BulkGenerator} workers can share me.
+ */
+final class GenPuzzleStore {
+
+	private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+	private static final GenSymmetry[] SYMMETRIES = GenSymmetry.values();
+
+	private static final String SEP = ",";
+
+	// the first field of a tombstone line
+	private static final String TAKEN = "-";
+
+	// the header line is HEADER and the generation in 16 hex digits, so that
+	// it is a fixed length, including the newline.
+	private static final String HEADER = "#GenPuzzleStore ";
+	private static final int HEADER_LENGTH = HEADER.length() + 16 + 1;
+
+	// compact my file when it has atleast MIN_DEAD dead lines, and more dead
+	// lines than live puzzles
+	private static final int MIN_DEAD = 64;
+
+	private static GenPuzzleStore theInstance;
+
+	/**
+	 * Get THE instance of GenPuzzleStore, which is loaded from
+	 * {@link IO#PUZZLE_STORE} the first time.
+	 *
+	 * @return THE instance of GenPuzzleStore
+	 */
+	static synchronized GenPuzzleStore getInstance() {
+		if ( theInstance == null )
+			theInstance = new GenPuzzleStore(IO.PUZZLE_STORE);
+		return theInstance;
+	}
+
+	// A stored puzzle: one line in my file.
+	private static final class Entry {
+		final Difficulty difficulty;
+		final GenSymmetry symmetry;
+		final int rating;
+		final String puzzle; // Grid.toShortString
+		Entry(final Difficulty difficulty, final GenSymmetry symmetry
+				, final int rating, final String puzzle) {
+			this.difficulty = difficulty;
+			this.symmetry = symmetry;
+			this.rating = rating;
+			this.puzzle = puzzle;
+		}
+		@Override
+		public String toString() {
+			// names, coz GenSymmetry.toString is for the GUI
+			return difficulty.name()+SEP+symmetry.name()+SEP+rating+SEP+puzzle;
+		}
+	}
+
+	// the file in which I persist; raf is null if it will not open
+	private final File file;
+	private RandomAccessFile raf;
+	// the generation of my file, from its header, else 0 if none
+	private long generation;
+	// the length of my file that I have read
+	private long read;
+	// the number of dead lines in my file: taken puzzles and tombstones
+	private int dead;
+
+	// puzzle => the Entry of every stored puzzle
+	private final Map<String, Entry> live = new HashMap<>();
+
+	// the stored puzzles: [Difficulty.ordinal][GenSymmetry.ordinal]
+	@SuppressWarnings({"rawtypes","unchecked"})
+	private final ArrayDeque<Entry>[][] index = new ArrayDeque[DIFFICULTIES.length][SYMMETRIES.length];
+
+	private GenPuzzleStore(final File file) {
+		this.file = file;
+		for ( int d=0; d<DIFFICULTIES.length; ++d )
+			for ( int s=0; s<SYMMETRIES.length; ++s )
+				index[d][s] = new ArrayDeque<>();
+		try {
+			raf = new RandomAccessFile(file, "rw");
+		} catch (IOException ex) {
+			StdErr.whinge("WARN: GenPuzzleStore load failed: "+file, ex);
+		}
+		release(lock()); // read my file
+	}
+
+	// forget my file, and carry on in memory only
+	private void close() {
+		if ( raf != null )
+			try {
+				raf.close();
+			} catch (IOException eaten) {
+				// Do nothing
+			}
+		raf = null;
+	}
+
+	// release lock, if any, which fails only if the channel is closed, which
+	// releases it anyway
+	private static void release(final FileLock lock) {
+		if ( lock != null )
+			try {
+				lock.release();
+			} catch (IOException eaten) {
+				// Do nothing
+			}
+	}
+
+	// reopen my file, if an interrupt has closed its channel (a FileLock is
+	// interruptible, and an interrupt closes the channel and the file).
+	private boolean isOpen() {
+		if ( raf != null && !raf.getChannel().isOpen() )
+			try {
+				raf = new RandomAccessFile(file, "rw");
+			} catch (IOException ex) {
+				StdErr.whinge("WARN: GenPuzzleStore reopen failed: "+file, ex);
+				raf = null;
+			}
+		return raf != null;
+	}
+
+	// lock my file exclusively, and read the lines appended since I last read
+	// it. Returns the lock, for the caller to release, else null meaning my
+	// file is not open, or it failed, so carry on in memory only.
+	private FileLock lock() {
+		if ( !isOpen() )
+			return null;
+		FileLock lock = null;
+		try {
+			lock = raf.getChannel().lock();
+			catchUp();
+			return lock;
+		} catch (IOException ex) {
+			StdErr.whinge("WARN: GenPuzzleStore read failed: "+file, ex);
+			release(lock);
+			return null;
+		}
+	}
+
+	// read the lines appended to my file since I last read it, by any process.
+	// If my file has been compacted since (its generation has changed) then
+	// forget everything and reread it. The caller holds the lock.
+	private void catchUp() throws IOException {
+		final long length = raf.length();
+		final long gen = generation(length);
+		if ( gen!=generation || length<read ) {
+			for ( ArrayDeque<Entry>[] bySym : index )
+				for ( ArrayDeque<Entry> entries : bySym )
+					entries.clear();
+			live.clear();
+			generation = gen;
+			read = 0L;
+			dead = 0;
+		}
+		if ( read >= length )
+			return;
+		if ( length-read > Integer.MAX_VALUE )
+			throw new IOException("too big: "+(length-read));
+		final byte[] bytes = new byte[(int)(length - read)];
+		raf.seek(read);
+		raf.readFully(bytes);
+		int start = 0;
+		for ( int i=0; i<bytes.length; ++i )
+			if ( bytes[i] == '\n' ) {
+				parse(new String(bytes, start, i-start, US_ASCII).trim());
+				start = i + 1;
+			}
+		if ( start < bytes.length ) {
+			StdErr.whinge("WARN: "+file+": truncated at "+(read+start));
+			raf.setLength(read + start);
+		}
+		read += start;
+	}
+
+	// the generation in the header of my file, else 0 meaning none
+	private long generation(final long length) throws IOException {
+		if ( length < HEADER_LENGTH )
+			return 0L;
+		final byte[] bytes = new byte[HEADER_LENGTH];
+		raf.seek(0L);
+		raf.readFully(bytes);
+		final String line = new String(bytes, US_ASCII);
+		if ( !line.startsWith(HEADER) )
+			return 0L;
+		try {
+			return Long.parseUnsignedLong(line.substring(HEADER.length(), HEADER_LENGTH-1), 16);
+		} catch (NumberFormatException ex) {
+			return 0L;
+		}
+	}
+
+	// apply this line of my file. A dodgy line is skipped, with a whinge.
+	private void parse(final String line) {
+		if ( line.isEmpty() || line.charAt(0)=='#' )
+			return;
+		try {
+			final String[] fields = line.split(SEP);
+			if ( fields.length==2 && TAKEN.equals(fields[0]) ) {
+				dead += remove(fields[1]) ? 2 : 1;
+				return;
+			}
+			if ( fields.length!=4 || fields[3].length()!=81 )
+				throw new IllegalArgumentException("bad line");
+			if ( !put(new Entry(Difficulty.valueOf(fields[0])
+					, GenSymmetry.valueOf(fields[1])
+					, Integer.parseInt(fields[2]), fields[3])) )
+				++dead; // a duplicate
+		} catch (IllegalArgumentException ex) {
+			StdErr.whinge("WARN: "+file+": skipped: "+line+": "+ex);
+			++dead;
+		}
+	}
+
+	// store e, unless its puzzle is already stored
+	private boolean put(final Entry e) {
+		if ( live.putIfAbsent(e.puzzle, e) != null )
+			return false;
+		index[e.difficulty.ordinal()][e.symmetry.ordinal()].add(e);
+		return true;
+	}
+
+	// remove puzzle, which another process has taken
+	private boolean remove(final String puzzle) {
+		final Entry e = live.remove(puzzle);
+		if ( e == null )
+			return false;
+		index[e.difficulty.ordinal()][e.symmetry.ordinal()].removeFirstOccurrence(e);
+		return true;
+	}
+
+	// append line to my file. The caller holds the lock, so read is the
+	// length of my file.
+	private void append(final String line) throws IOException {
+		final byte[] bytes = (line+"\n").getBytes(US_ASCII);
+		raf.seek(read);
+		raf.write(bytes); // one write, so a kill leaves less mess
+		read += bytes.length;
+	}
+
+	// rewrite my file with only the live puzzles, in a new generation, so that
+	// other processes know to reread it. The caller holds the lock.
+	private void compact() throws IOException {
+		final StringBuilder sb = new StringBuilder(HEADER_LENGTH + live.size()*128);
+		sb.append(HEADER).append(String.format("%016x", ++generation)).append('\n');
+		for ( ArrayDeque<Entry>[] bySym : index )
+			for ( ArrayDeque<Entry> entries : bySym )
+				for ( Entry e : entries )
+					sb.append(e).append('\n');
+		final byte[] bytes = sb.toString().getBytes(US_ASCII);
+		raf.setLength(0L);
+		raf.seek(0L);
+		raf.write(bytes);
+		read = bytes.length;
+		dead = 0;
+	}
+
+	/**
+	 * Add a rated puzzle to this store, and append it to my file.
+	 *
+	 * @param difficulty the Difficulty of rating
+	 * @param symmetry with which the puzzle was generated
+	 * @param rating the difficulty rating of puzzle, from analyseDifficulty
+	 * @param puzzle the puzzle to store
+	 */
+	synchronized void add(final Difficulty difficulty, final GenSymmetry symmetry
+			, final int rating, final Grid puzzle) {
+		final Entry e = new Entry(difficulty, symmetry, rating, puzzle.toShortString());
+		final FileLock lock = lock();
+		try {
+			if ( put(e) && lock!=null )
+				append(e.toString());
+		} catch (IOException ex) {
+			StdErr.whinge("WARN: GenPuzzleStore append failed", ex);
+			close();
+		} finally {
+			release(lock);
+		}
+	}
+
+	/**
+	 * Take (remove and return) the oldest stored puzzle of this difficulty
+	 * with any of these symmetries, else null meaning none.
+	 * <p>
+	 * Diabolical and above are generated with Symmetry.None only, so for them
+	 * I ignore symmetries, and take a puzzle of any symmetry.
+	 *
+	 * @param symmetries the acceptable symmetries
+	 * @param difficulty the desired Difficulty
+	 * @return a new Grid of the stored puzzle, else null meaning none
+	 */
+	synchronized Grid take(final ArrayList<GenSymmetry> symmetries
+			, final Difficulty difficulty) {
+		final boolean anySym = difficulty.ordinal() >= Diabolical.ordinal();
+		final ArrayDeque<Entry>[] bySym = index[difficulty.ordinal()];
+		final FileLock lock = lock();
+		try {
+			for ( int s=0; s<SYMMETRIES.length; ++s ) {
+				if ( !bySym[s].isEmpty()
+				  && (anySym || symmetries.contains(SYMMETRIES[s])) ) {
+					final Entry e = bySym[s].poll();
+					live.remove(e.puzzle);
+					if ( lock != null )
+						try {
+							append(TAKEN+SEP+e.puzzle);
+							dead += 2;
+							if ( dead>=MIN_DEAD && dead>live.size() )
+								compact();
+						} catch (IOException ex) {
+							StdErr.whinge("WARN: GenPuzzleStore take failed", ex);
+							close();
+						}
+					return new Grid(e.puzzle);
+				}
+			}
+			return null;
+		} finally {
+			release(lock);
+		}
+	}
+
+	/**
+	 * The sizes are as of my last add or take, so they exclude the puzzles
+	 * that other processes have added or taken since.
+	 *
+	 * @param difficulty the Difficulty
+	 * @return the number of stored puzzles of difficulty
+	 */
+	synchronized int size(final Difficulty difficulty) {
+		int count = 0;
+		for ( ArrayDeque<Entry> entries : index[difficulty.ordinal()] )
+			count += entries.size();
+		return count;
+	}
+
+	/**
+	 * @return the total number of stored puzzles
+	 */
+	synchronized int size() {
+		return live.size();
+	}
+
+}
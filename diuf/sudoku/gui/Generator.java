@@ -11,6 +11,7 @@ import diuf.sudoku.Difficulty;
 import static diuf.sudoku.Difficulty.Diabolical;
 import diuf.sudoku.Grid;
 import diuf.sudoku.Grid.Cell;
+import diuf.sudoku.GridState;
 import static diuf.sudoku.Grid.GRID_SIZE;
 import static diuf.sudoku.Grid.MIN_CLUES;
 import static diuf.sudoku.Grid.REGION_SIZE;
@@ -20,6 +21,7 @@ import static diuf.sudoku.solver.LogicalSolver.ANALYSE_INTERRUPTED;
 import diuf.sudoku.solver.LogicalSolverFactory;
 import diuf.sudoku.solver.UnsolvableException;
 import diuf.sudoku.solver.checks.BruteForce;
+import diuf.sudoku.solver.checks.UniquenessChecker;
 import static diuf.sudoku.utils.Frmt.NL;
 import diuf.sudoku.utils.Log;
 import java.util.ArrayList;
@@ -87,18 +89,23 @@ final class Generator {
 			INDEXES[i] = i;
 	}
 
+	// my indexes, coz BulkGenerator runs a Generator per
+	// thread, so the shuffled indexes can no longer be static.
+	private final int[] indexes = INDEXES.clone();
+
 	// return an array of N indexes shuffled into pseudo-random order
-	private static int[] shuffle(final Random rnd) {
+	private int[] shuffle(final Random rnd) {
+		final int[] indexes = this.indexes;
 		// shuffle once
 		for ( int i=0; i<NN; ++i ) {
 			final int a = rnd.nextInt(NN);
 			final int b = otherThan(a, rnd); // random other than a
 			// swap p1 and p2
-			final int temp = INDEXES[a];
-			INDEXES[a] = INDEXES[b];
-			INDEXES[b] = temp;
+			final int temp = indexes[a];
+			indexes[a] = indexes[b];
+			indexes[b] = temp;
 		}
-		return INDEXES;
+		return indexes;
 	}
 
 	// return a random indice 0..N-1 other than avoid
@@ -126,12 +133,18 @@ final class Generator {
 	// my analyser generates random puzzles
 	private final BruteForce analyser;
 
+	// checks that strip leaves the puzzle unique, incrementally
+	private final UniquenessChecker uniqueness = new UniquenessChecker();
+
 	// my logicalSolver determines each puzzles difficulty
 	private final LogicalSolver solver;
 
 	// my cache of generated puzzles
 	private final GenPuzzleCache cache;
 
+	// my store of surplus generated puzzles, on disk
+	private final GenPuzzleStore store;
+
 	static Generator getInstance() {
 		if ( theInstance == null )
 			theInstance = new Generator(SudokuExplainer.getInstance().getFrame());
@@ -139,6 +152,11 @@ final class Generator {
 	}
 	private static Generator theInstance;
 
+	// the LogicalSolver that rates my puzzles, for its analyseLock
+	LogicalSolver getSolver() {
+		return solver;
+	}
+
 	private boolean troubleInParadise;
 	void setTroubleInParadise(final boolean b) {
 		troubleInParadise = b;
@@ -153,6 +171,21 @@ final class Generator {
 		this.solver = LogicalSolverFactory.get();
 		this.analyser = new BruteForce(solver.getBasicHinters());
 		this.cache = GenPuzzleCache.getInstance(parent);
+		this.store = GenPuzzleStore.getInstance();
+	}
+
+	/**
+	 * Constructor for a headless {@link BulkGenerator} worker, which has no
+	 * GUI, hence no GenPuzzleCache. It uses only {@link #generate}, passing
+	 * it the store.
+	 *
+	 * @param solver this workers own LogicalSolver, to rate my puzzles
+	 */
+	Generator(final LogicalSolver solver) {
+		this.solver = solver;
+		this.analyser = new BruteForce(solver.getBasicHinters());
+		this.cache = null;
+		this.store = null;
 	}
 
 	/** The "Stop" button stops generate.*/
@@ -189,6 +222,11 @@ final class Generator {
 	Grid cachedGenerate(final ArrayList<GenSymmetry> symetries
 			, final Difficulty difficulty
 			, final boolean isExact) {
+		// serve from the store, if it has one; which is
+		// instant, so the cache remains untouched.
+		final Grid stored = store.take(symetries, difficulty);
+		if ( stored != null )
+			return stored;
 		// caches before calling-back my generate method.
 		return cache.generate(symetries, difficulty, isExact);
 	}
@@ -206,74 +244,11 @@ final class Generator {
 			, final boolean isExact) {
 		// one does NOT do null!
 		assert cache != null;
-		assert symmetries != null;
-		assert target != null;
 		Run.setHinterrupt(false); // reset from last-time
 		final Run.Type prevRunType = Run.setRunType(Run.Type.Generator);
-		Grid puzzle = null; // returned only if in target.min..target.max
+		final Grid puzzle;
 		try {
-			Random rnd;
-			Difficulty difficulty; // the Difficulty of d, as a Difficulty.
-			int d; // the difficulty rating of this puzzle, as a double.
-			int failures = 0; // number of analyse-failures
-			final int minD = isExact ? target.min : 0;
-			final int maxD = target.max; // ceiling, not max. Sigh.
-			assert minD < maxD; // maxD is exclusive, so they cannot be equal
-			// Diabolical+ are too slow with anything but Symmetry.None
-			final boolean small = target.ordinal() < Diabolical.ordinal();
-			final ArrayList<GenSymmetry> syms = small ? symmetries : null;
-			GenSymmetry sym = small ? null : GenSymmetry.None;
-			final int n = syms!=null ? syms.size() : 1; // n is 1 for "large"
-			int i = (rnd=new Random()).nextInt(n);
-			int tries = MAX_TRIES + 1;
-			for (;;) {
-				if ( --tries < 1 )
-					throw new TuringException(Log.me()+" exceeded "+MAX_TRIES);
-				if ( Run.isHinterrupted() ) {
-					puzzle = null;
-					break; // interrupted
-				}
-				if ( small )
-					sym = syms.get(i=(i+1)%n);
-				if ( (puzzle=strip(rnd, analyser.buildRandomPuzzle(rnd), sym)) == null )
-					break; // strip interrupted, or puzzle completely rooted
-				// is it a valid Sudoku? if not it does not count as a failure
-				if ( solver.validatePuzzleAndGrid(puzzle, false) == null ) {
-					try {
-						// prepare and solve, to findout how hard it is.
-						solver.prepare(puzzle);
-						if ( (d=solver.analyseDifficulty(puzzle, maxD)) == ANALYSE_INTERRUPTED ) {
-							System.out.println("STOP: "+Log.me()+": Interrupted!");
-							puzzle = null;
-							break;
-						}
-						cache.set(difficulty=Difficulty.get(d), puzzle);
-						if (Log.LOG_MODE >= Log.NORMAL_MODE) {
-							System.out.format("%4d\t%-20s\t%5d\t%-10s\t%s%s", tries, sym, d, difficulty, puzzle.toShortString(), NL);
-						}
-						if ( d>=minD && d<maxD ) // puzzle is pre-set
-							break;
-					} catch (UnsolvableException ex) {
-// Do not tell da user you are incompetent, let em figure it out for themselves
-						++failures; // remove the below ++
-						Log.println(puzzle);
-						Log.println("WARN: analyse failure "+failures+": "+ex);
-// I wish there was an easy way to print-out DISTINCT stack traces.
-//						ex.printStackTrace(Log.out);
-						Log.out.flush();
-						if ( failures > MAX_FAILURES ) {
-							Log.teeln("WARN: "+Log.me()+": GIVE-UP: MAX_FAILURES="+MAX_FAILURES+" exceeded");
-							puzzle = null;
-							break;
-						}
-					} catch (Exception ex) {
-						setTroubleInParadise(true);
-						throw ex;
-					}
-				}
-				// recreate each time to generate more IDKFAs
-				rnd = new Random();
-			}
+			puzzle = generate(cache, store, symmetries, target, isExact);
 		} finally {
 			Run.setRunType(prevRunType);
 		}
@@ -290,19 +265,119 @@ final class Generator {
 		return puzzle;
 	}
 
+	/**
+	 * Generate random puzzles until one is of the target Difficulty.
+	 * <p>
+	 * This is the guts of actuallyGenerate, sans GUI. It does not touch the
+	 * Run.Type or the hinterrupt flag, so that {@link BulkGenerator} can run
+	 * a Generator per thread: it sets the Run.Type once, and stops all of its
+	 * workers via Run.setHinterrupt(true) when it has enough puzzles.
+	 *
+	 * @param cache to set each surplus puzzle in, else null for none
+	 * @param store to add each surplus puzzle that cache refuses to, else
+	 *  null to discard them. Only a puzzle easier than target goes into the
+	 *  store, because the rating of a harder one is incomplete
+	 * @param symmetries to strip the cell values of small puzzles with
+	 * @param target the desired Difficulty
+	 * @param isExact is target.min respected
+	 * @return the generated puzzle, else null if interrupted or give-up
+	 */
+	Grid generate(final GenPuzzleCache cache
+			, final GenPuzzleStore store
+			, final ArrayList<GenSymmetry> symmetries
+			, final Difficulty target
+			, final boolean isExact) {
+		assert symmetries != null;
+		assert target != null;
+		Grid puzzle = null; // returned only if in target.min..target.max
+		Random rnd;
+		Difficulty difficulty; // the Difficulty of d, as a Difficulty.
+		int d; // the difficulty rating of this puzzle, as a double.
+		int failures = 0; // number of analyse-failures
+		final int minD = isExact ? target.min : 0;
+		final int maxD = target.max; // ceiling, not max. Sigh.
+		assert minD < maxD; // maxD is exclusive, so they cannot be equal
+		// Diabolical+ are too slow with anything but Symmetry.None
+		final boolean small = target.ordinal() < Diabolical.ordinal();
+		final ArrayList<GenSymmetry> syms = small ? symmetries : null;
+		GenSymmetry sym = small ? null : GenSymmetry.None;
+		final int n = syms!=null ? syms.size() : 1; // n is 1 for "large"
+		int i = (rnd=new Random()).nextInt(n);
+		int tries = MAX_TRIES + 1;
+		for (;;) {
+			if ( --tries < 1 )
+				throw new TuringException(Log.me()+" exceeded "+MAX_TRIES);
+			if ( Run.isHinterrupted() ) {
+				puzzle = null;
+				break; // interrupted
+			}
+			if ( small )
+				sym = syms.get(i=(i+1)%n);
+			if ( (puzzle=strip(rnd, analyser.buildRandomPuzzle(rnd), sym)) == null )
+				break; // strip interrupted, or puzzle completely rooted
+			// is it a valid Sudoku? if not it does not count as a failure
+			if ( solver.validatePuzzleAndGrid(puzzle, false) == null ) {
+				try {
+					// prepare and solve, to findout how hard it is.
+					solver.prepare(puzzle);
+					if ( (d=solver.analyseDifficulty(puzzle, maxD)) == ANALYSE_INTERRUPTED ) {
+						System.out.println("STOP: "+Log.me()+": Interrupted!");
+						puzzle = null;
+						break;
+					}
+					difficulty = Difficulty.get(d);
+					if (Log.LOG_MODE >= Log.NORMAL_MODE) {
+						System.out.format("%4d\t%-20s\t%5d\t%-10s\t%s%s", tries, sym, d, difficulty, puzzle.toShortString(), NL);
+					}
+					if ( d>=minD && d<maxD ) // the caller caches puzzle
+						break;
+					// a surplus puzzle: into the cache, else the store. The
+					// store persists, so it takes only complete ratings: when
+					// d>=maxD analyseDifficulty stopped at maxD, so d is only
+					// a lower bound, and Difficulty.get(d) may understate it.
+					if ( (cache==null || !cache.set(difficulty, puzzle))
+					  && store != null && d < maxD )
+						store.add(difficulty, sym, d, puzzle);
+				} catch (UnsolvableException ex) {
+// Do not tell da user you are incompetent, let em figure it out for themselves
+					++failures; // remove the below ++
+					Log.println(puzzle);
+					Log.println("WARN: analyse failure "+failures+": "+ex);
+// I wish there was an easy way to print-out DISTINCT stack traces.
+//						ex.printStackTrace(Log.out);
+					Log.out.flush();
+					if ( failures > MAX_FAILURES ) {
+						Log.teeln("WARN: "+Log.me()+": GIVE-UP: MAX_FAILURES="+MAX_FAILURES+" exceeded");
+						puzzle = null;
+						break;
+					}
+				} catch (Exception ex) {
+					setTroubleInParadise(true);
+					throw ex;
+				}
+			}
+			// recreate each time to generate more IDKFAs
+			rnd = new Random();
+		}
+		return puzzle;
+	}
+
 	// semi-randomly remove cell values using the given symmetry
 	private Grid strip(final Random rnd
 			, final Grid grid
 			, final GenSymmetry symmetry) {
 		GenPoint[] points;
 		Cell cell;
-		int i, idx, cntDown, sols, numZaps;
+		int i, idx, cntDown, numZaps;
 		boolean anyRemoved;
-		final Grid solution = new Grid(grid);
+		final GridState solution = grid.snapshot();
+		// the indices of the cells zapped this time
+		final int[] zapped = new int[8];
+		// grid is solved, hence unique
+		uniqueness.reset(grid);
 		// randomly shuffle 81 indexes: an array of ints 0..80
 		final int[] idxs = shuffle(rnd);
 		final Cell[] cells = grid.cells;
-		final Cell[] solutionCells = solution.cells;
 		// the rubbish bin: indices of cells which when cleared do not remove
 		// anything, so it is a bit faster if we never try that trick again.
 		final boolean[] rubbish = new boolean[NN];
@@ -327,7 +402,7 @@ final class Generator {
 				for ( GenPoint p : points )
 					if ( (cell=cells[p.i]).value > 0 ) { // NEVER negative
 						cell.value = 0; // nb: grid.prep() cleans-up my mess.
-						++numZaps;
+						zapped[numZaps++] = p.i;
 					}
 				if ( numZaps == 0 ) {
 					// none were removed so remember that this index is rubbish
@@ -338,31 +413,28 @@ final class Generator {
 						if(!rubbish[i] || --cntDown<1) break;
 					}
 				} else {
-					// brute-force solve the puzzle forwards and backwards
-					// without using logic (ie brute-force only). Using logic
-					// has had many many problems over time, so I dropped it,
-					// but only in countSolutions, ie the generator only.
-					switch ( sols = analyser.countSolutions(grid) ) {
-						case 1: // Success: still a unique solution
-							anyRemoved = true; // cell values removed
-							if ( (grid.numSet-=numZaps) < floor )
-								break OUTER; // done!
-							break;
-						case 2: // Failed: so revert and try the next point.
-							for ( GenPoint p : points )
-								cells[p.i].value = solutionCells[p.i].value;
-							// it broke, so remember that this index is rubbish
-							rubbish[i] = true;
-							// increment the index, skipping existing rubbish.
-							for(;;) {
-								i = (i+1) % NN; //next indexes
-								if(!rubbish[i] || --cntDown<1) break;
-							}
-							break;
-						case 0: // the puzzle is COMPLETELY rooted
-							return null; // Never happens. Never say never.
-						default:
-							throw new UnsolvableException("bad solutions="+sols);
+					// not analyser.countSolutions(grid), which
+					// brute-force solves the whole puzzle forwards and
+					// backwards, but we know the solution, so uniqueness
+					// just seeks another solution that differs from it in a
+					// zapped cell, which is MUCH faster. No logic, as per
+					// countSolutions, coz logic has had many many problems.
+					if ( uniqueness.remove(zapped, numZaps) ) {
+						// Success: still a unique solution
+						anyRemoved = true; // cell values removed
+						if ( (grid.numSet-=numZaps) < floor )
+							break OUTER; // done!
+					} else {
+						// Failed: so revert and try the next point.
+						for ( GenPoint p : points )
+							cells[p.i].value = solution.value(p.i);
+						// it broke, so remember that this index is rubbish
+						rubbish[i] = true;
+						// increment the index, skipping existing rubbish.
+						for(;;) {
+							i = (i+1) % NN; //next indexes
+							if(!rubbish[i] || --cntDown<1) break;
+						}
 					}
 				}
 			} while ( !anyRemoved && --cntDown>0 );
@@ -13,15 +13,14 @@ import static diuf.sudoku.Grid.REGION_SIZE;
 import diuf.sudoku.SourceID;
 import static diuf.sudoku.Values.VSHFT;
 import diuf.sudoku.io.IO;
+import diuf.sudoku.io.LineIndex;
+import diuf.sudoku.io.Mtb;
 import diuf.sudoku.io.StdErr;
 import static diuf.sudoku.utils.Frmt.COMMA;
 import static diuf.sudoku.utils.Frmt.NL;
 import diuf.sudoku.utils.IAsker;
 import diuf.sudoku.utils.Log;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import static diuf.sudoku.Grid.BY9;
@@ -74,6 +73,8 @@ class GridLoader {
 	 *   bastards, to save me from a mountain of backwards complexity.</li>
 	 *  </ul>
 	 *  </li>
+	 * <li>Multiple puzzles are also stored in .mtb (MagicTour Binary) format,
+	 *  which is a packed binary .mt file. See {@link Mtb}.</li>
 	 * </ul>
 	 *
 	 * @param asker the SudokuFrame, or any other implementation of IAsker.
@@ -90,6 +91,8 @@ class GridLoader {
 	static boolean load(final IAsker asker, final Grid grid, final File file, final int lineNumber) {
 		if ( nameEndsWith(file, ".mt") ) // multi-puzzle format
 			return MagicTourFormat.load(asker, grid, file, lineNumber);
+		if ( nameEndsWith(file, Mtb.EXTENSION) ) // binary multi-puzzle format
+			return MagicTourBinaryFormat.load(asker, grid, file, lineNumber);
 		if ( nameEndsWith(file, ".txt") ) // single-puzzle format
 			return TextFormat.load(grid, file);
 		return StdErr.whinge("Unrecognised file format: "+file);
@@ -110,8 +113,9 @@ class GridLoader {
 				+"So which line (1 based) do you want?";
 
 		static boolean load(final IAsker asker, final Grid grid, final File file, final int lineNumberParam) {
-			try {
-				final int lineCount = countLines(file);
+			// LineIndex seeks straight to the line
+			try ( LineIndex index = LineIndex.get(file) ) {
+				final int lineCount = index.size();
 				final int lineNumber;
 				if ( lineNumberParam>0 && lineNumberParam<=lineCount )
 					lineNumber = lineNumberParam;
@@ -123,10 +127,8 @@ class GridLoader {
 						// only at start-up if a .mt file is ever truncated.
 						lineNumber = Ask.forInt(LINE_NUMBER_QUESTION, 1, lineCount);
 					}
-				try ( BufferedReader reader = new BufferedReader(new FileReader(file)) ) {
-					for ( int i=1; i<lineNumber; ++i )
-						reader.readLine();
-					String line = reader.readLine();
+				try {
+					final String line = index.readLine(lineNumber);
 					if ( line==null || line.length()<GRID_SIZE )
 						throw new IOException("Not "+GRID_SIZE+" chars:"+NL+line);
 					// MT (MagicTour) is Grids native format.
@@ -142,20 +144,46 @@ class GridLoader {
 			}
 		}
 
-		/**
-		 * Counts the number of lines (1 based) in the given file.
-		 * @param file to count lines of/in (I never know).
-		 * @return the 1 based number of lines in this file. WARN: maybe 0.
-		 * @throws FileNotFoundException
-		 * @throws IOException
-		 */
-		private static int countLines(final File file) throws FileNotFoundException, IOException {
-			int lineCount = 0;
-			try ( BufferedReader reader = new BufferedReader(new FileReader(file)) ) {
-				while ( reader.readLine() != null )
-					++lineCount;
+	}
+
+	/**
+	 * MagicTourBinaryFormat loads this .mtb (MagicTour Binary) record into
+	 * this Grid. The record number is 1 based, like an .mt line number, so
+	 * everything else (the recent files list, et al) need not care.
+	 */
+	private static class MagicTourBinaryFormat {
+
+		private static final String RECORD_NUMBER_QUESTION =
+				"MagicTour Binary (*.mtb) is a multi-puzzle format."+NL
+				+"So which puzzle (1 based) do you want?";
+
+		static boolean load(final IAsker asker, final Grid grid, final File file, final int recordNumberParam) {
+			try {
+				final int count = Mtb.count(file);
+				final int recordNumber;
+				if ( recordNumberParam>0 && recordNumberParam<=count )
+					recordNumber = recordNumberParam;
+				else if ( asker != null )
+					recordNumber = asker.askForInt(RECORD_NUMBER_QUESTION, 1, count);
+				else
+					recordNumber = Ask.forInt(RECORD_NUMBER_QUESTION, 1, count);
+				final int[] clues = new int[GRID_SIZE];
+				final int[] solution = new int[GRID_SIZE];
+				// Mtb.read returns false for a record without a solution, which
+				// is fine; it throws if the record is bad.
+				try {
+					Mtb.read(file, recordNumber, clues, solution);
+					if ( !grid.load(clues, solution) )
+						return StdErr.whinge("WARN: MagicTourBinaryFormat.load failed: "+recordNumber+"#"+file);
+				} catch (Exception ex) {
+					return StdErr.whinge("WARN: MagicTourBinaryFormat.load failed: "+recordNumber+"#"+file, ex);
+				}
+				grid.isMaybesLoaded = false;
+				grid.source = new SourceID(file, recordNumber);
+				return true;
+			} catch (IOException ex) {
+				return StdErr.whinge("WARN: "+Log.me()+" IOException", ex);
 			}
-			return lineCount;
 		}
 
 	}
@@ -983,8 +983,9 @@ public final class SudokuExplainer implements Closeable {
 						if ( solver.solveWithSingles(copy, accu, false) )
 							// hold down the Shift key to get the solution NOW!
 							hintsCache = AHint.linkedList(new SolutionHint(copy, solver.singles));
-					} else // find the next hint
-						hintsCache = solver.getAllHints(copy, wantMore, logGrid, logHints, printHints);
+					} else // find the next hint, not in the solvers hintCache,
+						// coz the copy is thrown away, so its hints never hit
+						hintsCache = solver.getAllHints(copy, wantMore, logGrid, logHints, printHints, false);
 				}
 			}
 		} catch (Exception ex) {
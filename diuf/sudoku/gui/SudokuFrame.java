@@ -1474,7 +1474,7 @@ public final class SudokuFrame extends JFrame implements IAsker {
 		}
 		// load the next puzzle (normally)
 		final SourceID pid;
-		if ( nameEndsWith(src.file, ".mt") ) {
+		if ( nameEndsWith(src.file, ".mt") || nameEndsWith(src.file, ".mtb") ) {
 			clearHintDetailArea();
 			pid = engine.loadNextPuzzle();
 		} else if ( nameEndsWith(src.file, ".txt") ) {
@@ -112,6 +112,14 @@ public final class IO {
 	public static final File PUZZLE_CACHE
 			= new File(HOME+"DiufSudoku_PuzzleCache.txt");
 
+	/** File in which GenPuzzleStore stores every surplus generated puzzle. */
+	public static final File PUZZLE_STORE
+			= new File(HOME+"DiufSudoku_PuzzleStore.txt");
+
+	/** File in which RatingCache stores puzzle ratings - a binary file. */
+	public static final File RATING_CACHE
+			= new File(HOME+"DiufSudoku_RatingCache.dat");
+
 	/** The list of hint-regexs for SEs log-view feature. */
 	public static final File LOG_VIEW_HINT_REGEXS
 			= new File(HOME+"DiufSudoku_log_view_hint_regexs.txt");
@@ -277,6 +285,20 @@ public final class IO {
 		}
 	}
 
+	/**
+	 * Append a line to text-file, creating it if need be.
+	 *
+	 * @param line to append, sans the line separator
+	 * @param file to append to
+	 * @throws IOException (it is your problem)
+	 */
+	public static void append(final String line, final File file) throws IOException {
+		try ( final BufferedWriter writer = new BufferedWriter(new FileWriter(file, true)) ) {
+			writer.write(line);
+			writer.newLine();
+		}
+	}
+
 	/**
 	 * Save lines to text-file.
 	 *
@@ -0,0 +1,308 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A LineIndex gives random access to the lines of a text file (an .mt file
+ * of puzzles, one per line) via a line-offset index, so that reading line N
+ * is one seek, instead of reading all N-1 lines before it.
+ * <p>
+ * The index is persisted in a sidecar file: $file.idx, which is built ONCE
+ * (the first time anybody asks) and thereafter memory-mapped, so opening it
+ * is quick, even for a 50M line file. The index is rebuilt automatically if
+ * the source file changes (its length or lastModified is not as indexed).
+ * If the sidecar cannot be written (a read-only directory, say) then the
+ * index is built in memory, which is still faster than reading every line,
+ * every time, but costs a full read of the file each time it is opened.
+ * <p>
+ * The sidecar format is a 32 byte header, then numLines+1 longs (the offset
+ * of the start of each line, then the offset of the end of the last line):
+ * <pre>
+ * int  MAGIC 'MTIX'
+ * int  VERSION
+ * long source.length()
+ * long source.lastModified()
+ * long numLines
+ * long offsets[numLines+1]
+ * </pre>
+ * Line numbers are 1 based, as per TestHelp.readALine, and the GUI.
+ * <p>
+ * Reading is thread-safe: offsets are read from a MappedByteBuffer (absolute
+ * gets) and lines are read with positional FileChannel reads. The LineIndex
+ * from {@link #get} is shared (it is reference counted), so each caller must
+ * close it, once, and its channel is closed when the last one does.
+ * <p>
+ * Note that a MappedByteBuffer is limited to 2GB, ie 268M lines, so a bigger
+ * sidecar is not mapped, and the index is built in memory instead.
+ */
+public final class LineIndex implements Closeable {
+
+	/** The extension of the sidecar index file: "$file.idx". */
+	public static final String EXTENSION = ".idx";
+
+	private static final int MAGIC = 0x4D544958; // 'MTIX'
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int NUM_LINES_POS = 24;
+
+	private static final Charset CHARSET = Charset.defaultCharset();
+
+	/**
+	 * The most-recently-used LineIndex, so that repeated calls for the same
+	 * file (TestHelp.readALine in a pid loop, say) open it ONCE. The MRU holds
+	 * a reference to it, as does each caller of get who has not yet closed it.
+	 */
+	private static LineIndex mru;
+
+	/**
+	 * Get the LineIndex of $file, which is cached (an MRU of size 1) and
+	 * shared, so it is your job to close it, once, when you are done with it.
+	 * It is really closed when it has been replaced in the MRU (when another
+	 * file is indexed) and all of its callers have closed it, so one thread
+	 * cannot close it while another (-threads) is still reading it.
+	 *
+	 * @param file to index
+	 * @return the LineIndex of file, which it is your job to close
+	 * @throws IOException if the file cannot be read
+	 */
+	public static synchronized LineIndex get(final File file) throws IOException {
+		if ( mru==null || !mru.isCurrent(file) ) {
+			final LineIndex index = open(file); // with the MRU's reference
+			if ( mru != null )
+				mru.close(); // release the MRU's reference
+			mru = index;
+		}
+		++mru.refs; // the callers reference
+		return mru;
+	}
+
+	/**
+	 * Open a new LineIndex of $file, building the sidecar if necessary.
+	 * It is your job to close it.
+	 *
+	 * @param file to index
+	 * @return a new LineIndex of file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static LineIndex open(final File file) throws IOException {
+		final File idxFile = sidecar(file);
+		LongBuffer offsets;
+		try {
+			offsets = map(file, idxFile);
+			if ( offsets == null ) {
+				try {
+					build(file, idxFile);
+					offsets = map(file, idxFile);
+				} catch (IOException ex) {
+					StdErr.whinge("WARN: LineIndex: cannot write "+idxFile+": "+ex);
+				}
+			}
+		} catch (IllegalArgumentException ex) {
+			// the sidecar is over 2GB, which is too big to map
+			StdErr.whinge("WARN: LineIndex: cannot map "+idxFile+": "+ex);
+			offsets = null;
+		}
+		if ( offsets == null )
+			offsets = LongBuffer.wrap(buildInMemory(file));
+		return new LineIndex(file, offsets);
+	}
+
+	/**
+	 * @param file the source file
+	 * @return the sidecar index File of the given source file
+	 */
+	public static File sidecar(final File file) {
+		return new File(file.getPath() + EXTENSION);
+	}
+
+	// map the sidecar, else null meaning missing/stale/foreign, so rebuild.
+	// throws IllegalArgumentException if the sidecar is over 2GB.
+	private static LongBuffer map(final File file, final File idxFile) throws IOException {
+		if ( !idxFile.exists() || idxFile.length() < HEADER_SIZE+8 )
+			return null;
+		try ( FileChannel fc = FileChannel.open(idxFile.toPath(), StandardOpenOption.READ) ) {
+			final ByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+			if ( bb.getInt(0) != MAGIC
+			  || bb.getInt(4) != VERSION
+			  || bb.getLong(8) != file.length()
+			  || bb.getLong(16) != file.lastModified() )
+				return null;
+			final long numLines = bb.getLong(NUM_LINES_POS);
+			if ( numLines<0 || HEADER_SIZE+(numLines+1)*8 != fc.size() )
+				return null;
+			bb.position(HEADER_SIZE);
+			// nb: the mapping remains valid after the channel is closed
+			return bb.slice().asLongBuffer();
+		}
+	}
+
+	// the offsets are written to out: the start of each line, then the end.
+	// @return numLines
+	private static long scan(final File file, final LongSink out) throws IOException {
+		final byte[] buf = new byte[64*1024];
+		long pos = 0L; // position in file
+		long numOffsets = 1;
+		int n;
+		byte last = '\n';
+		out.add(0L);
+		try ( InputStream in = new FileInputStream(file) ) {
+			while ( (n=in.read(buf)) > -1 ) {
+				for ( int i=0; i<n; ++i )
+					if ( buf[i] == '\n' ) {
+						out.add(pos + i + 1);
+						++numOffsets;
+					}
+				if ( n > 0 )
+					last = buf[n-1];
+				pos += n;
+			}
+		}
+		// the last line has no newline
+		if ( last != '\n' ) {
+			out.add(pos);
+			++numOffsets;
+		}
+		return numOffsets - 1;
+	}
+
+	// a primitive long consumer, to avoid boxing 50M Longs
+	private interface LongSink {
+		void add(long offset) throws IOException;
+	}
+
+	// build the sidecar: write to a temp file, then move it into place, so
+	// that a half-built index is never seen by anybody.
+	private static void build(final File file, final File idxFile) throws IOException {
+		final File tmp = new File(idxFile.getPath() + ".tmp");
+		final long length = file.length();
+		final long lastModified = file.lastModified();
+		final long numLines;
+		try ( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 64*1024)) ) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(length);
+			out.writeLong(lastModified);
+			out.writeLong(-1L); // numLines is patched below
+			numLines = scan(file, out::writeLong);
+		}
+		try ( RandomAccessFile raf = new RandomAccessFile(tmp, "rw") ) {
+			raf.seek(NUM_LINES_POS);
+			raf.writeLong(numLines);
+		}
+		Files.move(tmp.toPath(), idxFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	// build the offsets in memory, when the sidecar cannot be written.
+	private static long[] buildInMemory(final File file) throws IOException {
+		final long[][] a = {new long[1024]};
+		final int[] n = {0};
+		scan(file, (offset) -> {
+			if ( n[0] == a[0].length )
+				a[0] = Arrays.copyOf(a[0], n[0]<<1);
+			a[0][n[0]++] = offset;
+		});
+		return Arrays.copyOf(a[0], n[0]);
+	}
+
+	// ----------------------------- instanceland -----------------------------
+
+	private final File file;
+	private final long length;
+	private final long lastModified;
+	private final LongBuffer offsets;
+	private final int numLines;
+	private final FileChannel channel;
+	// the number of references to me, guarded by LineIndex.class
+	private int refs = 1;
+
+	private LineIndex(final File file, final LongBuffer offsets) throws IOException {
+		this.file = file;
+		this.length = file.length();
+		this.lastModified = file.lastModified();
+		this.offsets = offsets;
+		this.numLines = offsets.limit() - 1;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+	}
+
+	// is this index of file, and is file unchanged since it was indexed.
+	private boolean isCurrent(final File f) {
+		return file.equals(f)
+			&& length == f.length()
+			&& lastModified == f.lastModified();
+	}
+
+	/**
+	 * @return the number of lines in the file
+	 */
+	public int size() {
+		return numLines;
+	}
+
+	/**
+	 * Read the given line (1 based) from the file.
+	 *
+	 * @param lineNumber 1 based line number
+	 * @return the line, without its line-separator, else null if there is no
+	 *  such line
+	 * @throws IOException if the read fails
+	 */
+	public String readLine(final int lineNumber) throws IOException {
+		if ( lineNumber<1 || lineNumber>numLines )
+			return null;
+		final long start = offsets.get(lineNumber - 1);
+		final long end = offsets.get(lineNumber);
+		final ByteBuffer bb = ByteBuffer.allocate((int)(end - start));
+		long pos = start;
+		while ( bb.hasRemaining() ) {
+			final int n = channel.read(bb, pos);
+			if ( n < 0 )
+				throw new IOException("EOF at "+pos+" in "+file);
+			pos += n;
+		}
+		int len = bb.position();
+		final byte[] bytes = bb.array();
+		if ( len>0 && bytes[len-1]=='\n' )
+			--len;
+		if ( len>0 && bytes[len-1]=='\r' )
+			--len;
+		return new String(bytes, 0, len, CHARSET);
+	}
+
+	/**
+	 * Release a reference to this LineIndex, and close its channel when the
+	 * last reference is released.
+	 *
+	 * @throws IOException if the channel will not close
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized ( LineIndex.class ) {
+			if ( --refs > 0 )
+				return;
+		}
+		channel.close();
+	}
+
+}
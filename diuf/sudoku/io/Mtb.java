@@ -0,0 +1,470 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.io;
+
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.utils.MyFile.nameEndsWith;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Mtb (MagicTour Binary) is a packed binary puzzle corpus format: the binary
+ * equivalent of an .mt file, for corpora of tens of millions of puzzles, so
+ * they are about half the size on disk, and reading one does not parse text.
+ * <p>
+ * An .mtb file is a fixed-size file header, then fixed-size records, so the
+ * N'th puzzle is at HEADER_SIZE + (N-1)*recordSize; ie random access is one
+ * seek, without an index (cf {@link LineIndex} for .mt files).
+ * <pre>
+ * file header (16 bytes):
+ *   int   MAGIC 'MTB1'
+ *   short VERSION
+ *   short flags: HAS_SOLUTIONS means each record has room for a solution
+ *   int   recordSize
+ *   int   reserved (0)
+ * record (43 bytes, or 84 bytes with solutions):
+ *   byte  flags: SOLVED means this records solution is present
+ *   byte  numClues
+ *   byte[41] clues: 81 nibbles, high nibble first; 0 is empty, else 1..9
+ *   byte[41] solution: 81 nibbles, if HAS_SOLUTIONS; zeros unless SOLVED
+ * </pre>
+ * All values are big-endian (DataOutputStream). The number of records is not
+ * stored: it is (file.length() - HEADER_SIZE) / recordSize, so that a Writer
+ * can stream without seeking back to patch the header.
+ * <p>
+ * The {@link Reader} and {@link Writer} stream a whole file. {@link #read}
+ * reads one record from anywhere. The tools MtToMtb and MtbToMt convert both
+ * ways. Grid.load(int[], int[]) loads the unpacked clues, and the solution,
+ * if any, which saves the brute-force solve that Grid.load(String) does.
+ */
+public final class Mtb {
+
+	/** The file extension: ".mtb". */
+	public static final String EXTENSION = ".mtb";
+
+	/** file header flag: each record has room for a solution. */
+	public static final int HAS_SOLUTIONS = 0x01;
+
+	/** record flag: this records solution is present. */
+	public static final int SOLVED = 0x01;
+
+	private static final int MAGIC = 0x4D544231; // 'MTB1'
+	private static final int VERSION = 1;
+
+	/** The size of the file header in bytes. */
+	public static final int HEADER_SIZE = 16;
+
+	// the size of the record header: flags and numClues
+	private static final int RECORD_HEADER_SIZE = 2;
+
+	// the size of 81 nibbles: 40 full bytes and a half
+	private static final int PACKED_SIZE = (GRID_SIZE + 1) >> 1;
+
+	/**
+	 * Returns the size of each record, with or without solutions.
+	 *
+	 * @param withSolutions does each record have room for a solution
+	 * @return the size of each record, in bytes
+	 */
+	public static int recordSize(final boolean withSolutions) {
+		return RECORD_HEADER_SIZE + PACKED_SIZE + (withSolutions ? PACKED_SIZE : 0);
+	}
+
+	/**
+	 * @param file to examine
+	 * @return does this file have the .mtb extension (OS_NAME aware)
+	 */
+	public static boolean isMtb(final File file) {
+		return nameEndsWith(file, EXTENSION);
+	}
+
+	// ------------------------------ packing ---------------------------------
+
+	/**
+	 * Pack 81 values (0..9) into 41 bytes of nibbles.
+	 *
+	 * @param values 81 values: 0 is empty, else 1..9
+	 * @param dst the byte array to pack into
+	 * @param off the offset in dst
+	 */
+	public static void pack(final int[] values, final byte[] dst, final int off) {
+		int i = 0, j = off;
+		for ( ; i<GRID_SIZE-1; i+=2 )
+			dst[j++] = (byte)((values[i]<<4) | values[i+1]);
+		dst[j] = (byte)(values[i]<<4); // the odd one out
+	}
+
+	/**
+	 * Unpack 41 bytes of nibbles into 81 values (0..9).
+	 *
+	 * @param src the byte array to unpack from
+	 * @param off the offset in src
+	 * @param values 81 values to set: 0 is empty, else 1..9
+	 * @throws IOException if a nibble is not 0..9 (ie not an .mtb file)
+	 */
+	public static void unpack(final byte[] src, final int off, final int[] values) throws IOException {
+		int b, hi, lo, i = 0, j = off;
+		for ( ; i<GRID_SIZE-1; i+=2 ) {
+			b = src[j++] & 0xFF;
+			if ( (hi=b>>4)>9 || (lo=b&0x0F)>9 )
+				throw new IOException("bad nibble "+b+" at byte "+(j-1));
+			values[i] = hi;
+			values[i+1] = lo;
+		}
+		if ( (hi=(src[j]&0xFF)>>4) > 9 )
+			throw new IOException("bad nibble "+hi+" at byte "+j);
+		values[i] = hi;
+	}
+
+	/**
+	 * Parse an .mt line (81 chars: 1..9 is a clue, anything else is empty)
+	 * into 81 values.
+	 *
+	 * @param line the .mt line, of atleast 81 characters
+	 * @param values 81 values to set: 0 is empty, else 1..9
+	 * @return the number of clues
+	 * @throws IllegalArgumentException if line is shorter than 81 chars
+	 */
+	public static int parse(final String line, final int[] values) {
+		if ( line==null || line.length()<GRID_SIZE )
+			throw new IllegalArgumentException("Not "+GRID_SIZE+" chars: "+line);
+		char c;
+		int numClues = 0;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			if ( (c=line.charAt(i))>='1' && c<='9' ) {
+				values[i] = c - '0';
+				++numClues;
+			} else
+				values[i] = 0;
+		return numClues;
+	}
+
+	/**
+	 * Format 81 values as an .mt line, with '.' for empty cells.
+	 *
+	 * @param values 81 values: 0 is empty, else 1..9
+	 * @return an 81 char .mt line
+	 */
+	public static String format(final int[] values) {
+		final char[] chars = new char[GRID_SIZE];
+		for ( int i=0; i<GRID_SIZE; ++i )
+			chars[i] = values[i]==0 ? '.' : (char)('0'+values[i]);
+		return new String(chars);
+	}
+
+	// ----------------------------- random access ----------------------------
+
+	/**
+	 * Count the records in an .mtb file, without reading it.
+	 *
+	 * @param file an .mtb file
+	 * @return the number of puzzles in file
+	 * @throws IOException if file is not an .mtb file
+	 */
+	public static int count(final File file) throws IOException {
+		try ( RandomAccessFile raf = new RandomAccessFile(file, "r") ) {
+			return count(file, readHeader(raf));
+		}
+	}
+
+	private static int count(final File file, final int recordSize) {
+		return (int)((file.length() - HEADER_SIZE) / recordSize);
+	}
+
+	/**
+	 * Read the given record (1 based, like .mt line numbers) from an .mtb
+	 * file. Random access: one seek.
+	 *
+	 * @param file an .mtb file
+	 * @param recordNumber 1 based record number
+	 * @param clues 81 values to set: 0 is empty, else 1..9
+	 * @param solution 81 values to set, else null; set to all zeros if the
+	 *  record has no solution
+	 * @return does this record have a solution, else false. If there is no
+	 *  such record an IOException is thrown
+	 * @throws IOException if file is not an .mtb file, or no such record
+	 */
+	public static boolean read(final File file, final int recordNumber
+			, final int[] clues, final int[] solution) throws IOException {
+		try ( RandomAccessFile raf = new RandomAccessFile(file, "r") ) {
+			final int recordSize = readHeader(raf);
+			final int n = count(file, recordSize);
+			if ( recordNumber<1 || recordNumber>n )
+				throw new IOException("record "+recordNumber+" not in 1.."+n+" in "+file);
+			final byte[] record = new byte[recordSize];
+			raf.seek(HEADER_SIZE + (long)(recordNumber - 1) * recordSize);
+			raf.readFully(record);
+			return decode(record, recordSize, clues, solution);
+		}
+	}
+
+	/**
+	 * Read the given record (1 based) from an .mtb file as an .mt line.
+	 *
+	 * @param file an .mtb file
+	 * @param recordNumber 1 based record number
+	 * @return the puzzle as an 81 char .mt line, else null if no such record
+	 * @throws IOException if file is not an .mtb file
+	 */
+	public static String readLine(final File file, final int recordNumber) throws IOException {
+		if ( recordNumber<1 || recordNumber>count(file) )
+			return null;
+		final int[] clues = new int[GRID_SIZE];
+		read(file, recordNumber, clues, null);
+		return format(clues);
+	}
+
+	// read and validate the file header. @return recordSize
+	private static int readHeader(final DataInput in) throws IOException {
+		final int magic, version, flags, recordSize;
+		try {
+			magic = in.readInt();
+			version = in.readShort();
+			flags = in.readShort();
+			recordSize = in.readInt();
+			in.readInt(); // reserved
+		} catch (EOFException ex) {
+			throw new IOException("not an "+EXTENSION+" file: no header");
+		}
+		if ( magic != MAGIC )
+			throw new IOException("not an "+EXTENSION+" file: bad magic "+Integer.toHexString(magic));
+		if ( version != VERSION )
+			throw new IOException("unsupported "+EXTENSION+" version "+version);
+		if ( recordSize != recordSize((flags & HAS_SOLUTIONS) != 0) )
+			throw new IOException("bad "+EXTENSION+" recordSize "+recordSize);
+		return recordSize;
+	}
+
+	// unpack a record. @return has solution
+	private static boolean decode(final byte[] record, final int recordSize
+			, final int[] clues, final int[] solution) throws IOException {
+		unpack(record, RECORD_HEADER_SIZE, clues);
+		final boolean isSolved = (record[0] & SOLVED) != 0
+				&& recordSize > RECORD_HEADER_SIZE + PACKED_SIZE;
+		if ( solution != null )
+			if ( isSolved )
+				unpack(record, RECORD_HEADER_SIZE + PACKED_SIZE, solution);
+			else
+				Arrays.fill(solution, 0);
+		return isSolved;
+	}
+
+	// ------------------------------- streaming ------------------------------
+
+	/**
+	 * A Reader streams the records of an .mtb file, in order.
+	 * <pre>{@code
+	 * try ( Mtb.Reader reader = new Mtb.Reader(file) ) {
+	 *     final int[] clues = new int[81];
+	 *     while ( reader.next(clues, null) )
+	 *         grid.load(clues, null);
+	 * }
+	 * }</pre>
+	 * A Reader is NOT thread-safe.
+	 */
+	public static final class Reader implements Closeable {
+
+		private final DataInputStream in;
+		private final int recordSize;
+		private final boolean hasSolutions;
+		private final byte[] record;
+		private final int[] clues = new int[GRID_SIZE];
+		private int recordNumber;
+
+		public Reader(final File file) throws IOException {
+			this(new FileInputStream(file));
+		}
+
+		public Reader(final InputStream in) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(in, 64*1024));
+			try {
+				this.recordSize = readHeader(this.in);
+			} catch (IOException ex) {
+				this.in.close();
+				throw ex;
+			}
+			this.hasSolutions = recordSize > RECORD_HEADER_SIZE + PACKED_SIZE;
+			this.record = new byte[recordSize];
+		}
+
+		/**
+		 * @return does this file have room for solutions
+		 */
+		public boolean hasSolutions() {
+			return hasSolutions;
+		}
+
+		/**
+		 * @return the 1 based number of the last record read, else 0
+		 */
+		public int recordNumber() {
+			return recordNumber;
+		}
+
+		/**
+		 * Read the next record.
+		 *
+		 * @param clues 81 values to set: 0 is empty, else 1..9
+		 * @param solution 81 values to set, else null for no solution
+		 * @return true if a record was read, false at EOF
+		 * @throws IOException on a truncated record, or a bad nibble
+		 */
+		public boolean next(final int[] clues, final int[] solution) throws IOException {
+			if ( !readRecord() )
+				return false;
+			decode(record, recordSize, clues, solution);
+			return true;
+		}
+
+		/**
+		 * Read the next record as an .mt line, so that .mtb can stand-in for
+		 * the BufferedReader of an .mt file.
+		 *
+		 * @return the puzzle as an 81 char .mt line, else null at EOF
+		 * @throws IOException on a truncated record, or a bad nibble
+		 */
+		public String readLine() throws IOException {
+			if ( !readRecord() )
+				return null;
+			unpack(record, RECORD_HEADER_SIZE, clues);
+			return format(clues);
+		}
+
+		// read the next record into the record buffer. @return false at EOF
+		private boolean readRecord() throws IOException {
+			int n = 0, r;
+			while ( n < recordSize ) {
+				if ( (r=in.read(record, n, recordSize - n)) < 0 ) {
+					if ( n == 0 )
+						return false;
+					throw new EOFException("truncated record "+(recordNumber+1));
+				}
+				n += r;
+			}
+			++recordNumber;
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+	}
+
+	/**
+	 * A Writer streams records into a new .mtb file.
+	 * <pre>{@code
+	 * try ( Mtb.Writer writer = new Mtb.Writer(file, false) ) {
+	 *     for ( String line : lines )
+	 *         writer.write(line);
+	 * }
+	 * }</pre>
+	 * A Writer is NOT thread-safe.
+	 */
+	public static final class Writer implements Closeable {
+
+		private final DataOutputStream out;
+		private final int recordSize;
+		private final boolean hasSolutions;
+		private final byte[] record;
+		private final int[] clues = new int[GRID_SIZE];
+		private int count;
+
+		/**
+		 * Construct a new Writer, which overwrites file.
+		 *
+		 * @param file to write
+		 * @param withSolutions does each record have room for a solution
+		 * @throws IOException if file cannot be written
+		 */
+		public Writer(final File file, final boolean withSolutions) throws IOException {
+			this(new FileOutputStream(file), withSolutions);
+		}
+
+		public Writer(final OutputStream out, final boolean withSolutions) throws IOException {
+			this.out = new DataOutputStream(new BufferedOutputStream(out, 64*1024));
+			this.hasSolutions = withSolutions;
+			this.recordSize = recordSize(withSolutions);
+			this.record = new byte[recordSize];
+			this.out.writeInt(MAGIC);
+			this.out.writeShort(VERSION);
+			this.out.writeShort(withSolutions ? HAS_SOLUTIONS : 0);
+			this.out.writeInt(recordSize);
+			this.out.writeInt(0); // reserved
+		}
+
+		/**
+		 * @return the number of records written so far
+		 */
+		public int count() {
+			return count;
+		}
+
+		/**
+		 * Write an .mt line (without a solution).
+		 *
+		 * @param line 81 chars: 1..9 is a clue, anything else is empty
+		 * @throws IOException if the write fails
+		 */
+		public void write(final String line) throws IOException {
+			final int numClues = parse(line, clues);
+			write(clues, numClues, null);
+		}
+
+		/**
+		 * Write a puzzle, and its solution, if any.
+		 *
+		 * @param clues 81 values: 0 is empty, else 1..9
+		 * @param solution 81 values 1..9, else null meaning unknown. Ignored
+		 *  if this file has no room for solutions
+		 * @throws IOException if the write fails
+		 */
+		public void write(final int[] clues, final int[] solution) throws IOException {
+			int numClues = 0;
+			for ( int i=0; i<GRID_SIZE; ++i )
+				if ( clues[i] != 0 )
+					++numClues;
+			write(clues, numClues, solution);
+		}
+
+		private void write(final int[] clues, final int numClues, final int[] solution) throws IOException {
+			final boolean isSolved = hasSolutions && solution!=null;
+			record[0] = (byte)(isSolved ? SOLVED : 0);
+			record[1] = (byte)numClues;
+			pack(clues, record, RECORD_HEADER_SIZE);
+			if ( isSolved )
+				pack(solution, record, RECORD_HEADER_SIZE + PACKED_SIZE);
+			else if ( hasSolutions )
+				Arrays.fill(record, RECORD_HEADER_SIZE + PACKED_SIZE, recordSize, (byte)0);
+			out.write(record);
+			++count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+
+	}
+
+	private Mtb() { } // never used
+
+}
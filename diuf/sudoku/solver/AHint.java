@@ -26,6 +26,8 @@ import diuf.sudoku.solver.hinters.als.Als;
 import diuf.sudoku.solver.hinters.als.AlsChainHint;
 import diuf.sudoku.utils.Debug;
 import static diuf.sudoku.utils.Frmt.*;
+import diuf.sudoku.utils.IntQueue;
+import static diuf.sudoku.utils.IntQueue.QEMPTY;
 import diuf.sudoku.utils.Log;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,7 +35,6 @@ import java.util.Comparator;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import static diuf.sudoku.utils.MyMath.powerOf2;
 
@@ -346,27 +347,21 @@ public abstract class AHint implements Comparable<AHint> {
 			if ( reds != null ) {
 				if ( reds.isEmpty() ) // empty means trouble (nullable)
 					throw new UnsolvableException("applyImpl: reds.isEmpty!");
-				int indice, values, pinkos;
+				int indice, pinkos;
 				final int[] maybes = grid.maybes;
 				if ( isAutosolving ) {
 					final Deque<Single> singles = grid.getSinglesQueue();
-					for ( Map.Entry<Integer,Integer> e : reds.entrySet() ) {
-						indice = e.getKey();
-						values = e.getValue();
-						if ( (pinkos=maybes[indice] & values) > 0 )
+					for ( final IntQueue q=reds.indices(); (indice=q.poll())>QEMPTY; )
+						if ( (pinkos=maybes[indice] & reds.getCands(indice)) > 0 )
 							myNumElims += cells[indice].canNotBeBits(pinkos, singles);
-					}
 					for ( Single s; (s=singles.poll())!=null; ) {
 						if ( cells[s.indice].value == 0 ) // skip already set
 							myNumElims += 10 * cells[s.indice].set(s.value, 0, true, funnySB);
 					}
 				} else {
-					for ( Map.Entry<Integer,Integer> e : reds.entrySet() ) {
-						indice = e.getKey();
-						values = e.getValue();
-						if ( (pinkos=maybes[indice] & values) > 0 )
+					for ( final IntQueue q=reds.indices(); (indice=q.poll())>QEMPTY; )
+						if ( (pinkos=maybes[indice] & reds.getCands(indice)) > 0 )
 							myNumElims += cells[indice].canNotBeBits(pinkos);
-					}
 				}
 			}
 			if ( cell==null && reds==null ) {
@@ -0,0 +1,118 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver;
+
+import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HintCache is LogicalSolvers transposition table: the hints found in each
+ * recently seen grid state, so that a repeated state is answered without
+ * running the hinters again. The GUI repeats states all the time: undo,
+ * redo, re-analysis, and stepping back and forth through a puzzle.
+ * <p>
+ * The key is {@link Grid#stateHash}, which the Grid maintains incrementally,
+ * mixed with a fingerprint of the hinters: which are wanted and enabled, and
+ * how they were asked (wantMore, filtering). Each entry also holds its Grid
+ * and a copy of the values and maybes, which a hit must match exactly, so a
+ * hash collision (or a stale stateHash) is a miss, never the wrong hints.
+ * The hints reference the cells of their Grid, so they are returned only to
+ * the same Grid.
+ * <p>
+ * At most MAX_SIZE states are kept, evicting the least recently used. Only
+ * the GUI's own Grid is cached: a throwaway copy (SudokuExplainer.cacheHints)
+ * is not, because its hints are never hit; see LogicalSolver.getAllHints.
+ * <p>
+ * Each LogicalSolver has its own HintCache. The GUI may use it from both the
+ * EDT and the getAllHintsInBackground thread, and a get reorders my map (it
+ * is in access order), so my methods are synchronized.
+ */
+final class HintCache {
+
+	// the maximum number of grid states remembered
+	private static final int MAX_SIZE = 256;
+
+	// the hints found in a grid state
+	private static final class Entry {
+		final Grid grid;
+		final long fingerprint;
+		final int[] values = new int[GRID_SIZE];
+		final int[] maybes;
+		final AHint[] hints;
+		Entry(final Grid grid, final long fingerprint, final List<AHint> hints) {
+			this.grid = grid;
+			this.fingerprint = fingerprint;
+			for ( int i=0; i<GRID_SIZE; ++i )
+				values[i] = grid.cells[i].value;
+			this.maybes = grid.maybes.clone();
+			this.hints = hints.toArray(new AHint[hints.size()]);
+		}
+		// is this entry of grid in its current state
+		boolean matches(final Grid grid, final long fingerprint) {
+			if ( grid!=this.grid || fingerprint!=this.fingerprint
+			  || !Arrays.equals(maybes, grid.maybes) )
+				return false;
+			for ( int i=0; i<GRID_SIZE; ++i )
+				if ( values[i] != grid.cells[i].value )
+					return false;
+			return true;
+		}
+	}
+
+	private final Map<Long, Entry> map = new LinkedHashMap<Long, Entry>(MAX_SIZE, 0.75F, true) {
+		private static final long serialVersionUID = 2023112401L;
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Long, Entry> e) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	// the key of grid's current state and fingerprint
+	private static long key(final Grid grid, final long fingerprint) {
+		return grid.stateHash ^ Long.rotateLeft(fingerprint * 0x9E3779B97F4A7C15L, 17);
+	}
+
+	/**
+	 * Get the hints previously found in grid in its current state by hinters
+	 * with this fingerprint, else null meaning none.
+	 *
+	 * @param grid the grid to get hints for
+	 * @param fingerprint of the hinters, and how they are asked
+	 * @return the cached hints, else null
+	 */
+	synchronized AHint[] get(final Grid grid, final long fingerprint) {
+		final Entry e = map.get(key(grid, fingerprint));
+		if ( e==null || !e.matches(grid, fingerprint) )
+			return null;
+		return e.hints;
+	}
+
+	/**
+	 * Remember these hints, found in grid in its current state by hinters with
+	 * this fingerprint. Empty hints are not remembered: that is interrupted.
+	 *
+	 * @param grid the grid in which the hints were found
+	 * @param fingerprint of the hinters, and how they are asked
+	 * @param hints that were found
+	 */
+	synchronized void put(final Grid grid, final long fingerprint, final List<AHint> hints) {
+		if ( !hints.isEmpty() )
+			map.put(key(grid, fingerprint), new Entry(grid, fingerprint, hints));
+	}
+
+	/**
+	 * Forget everything.
+	 */
+	synchronized void clear() {
+		map.clear();
+	}
+
+}
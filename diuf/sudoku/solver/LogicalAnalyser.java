@@ -8,10 +8,12 @@ package diuf.sudoku.solver;
 
 import diuf.sudoku.Tech;
 import diuf.sudoku.io.StdErr;
-import static diuf.sudoku.solver.LogicalSolver.ANALYSE_LOCK;
 import diuf.sudoku.solver.checks.AWarningHinter;
 import diuf.sudoku.solver.checks.AnalysisHint;
 import diuf.sudoku.solver.checks.WarningHint;
+import diuf.sudoku.solver.hinters.IHinter;
+import java.util.ArrayList;
+import java.util.Map;
 import diuf.sudoku.utils.Log;
 
 /**
@@ -44,6 +46,11 @@ import diuf.sudoku.utils.Log;
  * ergo ttlDiff. The batch reports maxD for humans, and ttlDiff for techies.
  * Total difficulty has a MUCH closer correlation with the total time required
  * to solve a puzzle, ergo CPU-time.
+ * <p>
+ * Unless logging, I consult the {@link RatingCache} first, so
+ * a puzzle (or an isomorph) that has been analysed before, by the same wanted
+ * hinters, is not re-solved. The UsageMap of a cached analysis has no calls,
+ * times or sub-hint-types, just the hints, elims and difficulties.
  *
  * @see diuf.sudoku.solver.checks.AnalysisHint
  *
@@ -109,15 +116,28 @@ public final class LogicalAnalyser extends AWarningHinter {
 				accu.add(warning);
 				return true;
 			}
+			// a puzzle that has been analysed before is not re-solved
+			final long hash = logHints ? 0L : solver.ratingHash(grid);
+			final long fingerprint = solver.ratingFingerprint(false);
+			final RatingCache ratings = RatingCache.getInstance();
+			if ( hash != 0L ) {
+				final UsageMap cached = usageMap(solver, ratings.get(hash, fingerprint));
+				if ( cached != null ) {
+					accu.add(new AnalysisHint(this, cached));
+					return true;
+				}
+			}
 			final UsageMap usage = new UsageMap();
 			// I am synchronized so that the generator thread waits for analyse
 			// (ie solve) to finish before generating a puzzle to replenish its
-			// cache. Cant run two solves concurrently coz of stateful statics.
+			// cache. Cant run two solves concurrently in one LogicalSolver.
 			final boolean ok; // did the puzzle solve
-			synchronized ( ANALYSE_LOCK ) {
+			synchronized ( solver.analyseLock ) {
 				// call-back the LogicalSolver that created me.
 				ok = solver.solve(grid, usage, F, F, logHints, logHinterTimes);
 			}
+			if ( ok && hash!=0L )
+				ratings.put(rating(hash, fingerprint, usage));
 			final AHint hint = ok ? new AnalysisHint(this, usage)
 					: new WarningHint(this, "Unsolvable", "Unsolvable.html");
 			accu.add(hint);
@@ -130,6 +150,58 @@ public final class LogicalAnalyser extends AWarningHinter {
 		return true;
 	}
 
+	/**
+	 * The UsageMap of a cached Rating, else null if there is none, or it is
+	 * incomplete, or it uses a hinter that solver does not want.
+	 *
+	 * @param solver whose wanted hinters are the keys of the UsageMap
+	 * @param rating from {@link RatingCache#get}, may be null
+	 * @return a new UsageMap, else null
+	 */
+	public static UsageMap usageMap(final LogicalSolver solver
+			, final RatingCache.Rating rating) {
+		if ( rating==null || !rating.isComplete() || rating.uses.length==0 )
+			return null;
+		final UsageMap usage = new UsageMap();
+		IHinter hinter;
+		Usage u;
+		for ( RatingCache.Use use : rating.uses ) {
+			if ( use.tech==null || (hinter=solver.getWantedHinter(use.tech))==null )
+				return null;
+			u = new Usage(hinter.toString(), 0, use.hints, use.elims, 0L);
+			u.maxDifficulty = use.maxDifficulty;
+			u.ttlDifficulty = use.ttlDifficulty;
+			usage.put(hinter, u);
+		}
+		return usage;
+	}
+
+	/**
+	 * The Rating of the hinters usage in solving a puzzle, for the
+	 * {@link RatingCache}. Only the hinters that hinted are kept.
+	 *
+	 * @param hash {@link LogicalSolver#ratingHash} of the puzzle
+	 * @param fingerprint {@link LogicalSolver#ratingFingerprint}
+	 * @param usage the UsageMap populated by solve
+	 * @return a new Rating
+	 */
+	public static RatingCache.Rating rating(final long hash
+			, final long fingerprint, final UsageMap usage) {
+		final ArrayList<RatingCache.Use> uses = new ArrayList<>(usage.size());
+		int ttlD = 0;
+		Usage u;
+		for ( Map.Entry<IHinter,Usage> e : usage.entrySet() ) {
+			if ( (u=e.getValue()).hints > 0 ) {
+				uses.add(new RatingCache.Use(e.getKey().getTech(), u.hints
+						, u.elims, u.maxDifficulty, u.ttlDifficulty));
+				ttlD += u.ttlDifficulty;
+			}
+		}
+		return new RatingCache.Rating(hash, fingerprint
+				, usage.getMaxDifficulty(), ttlD
+				, uses.toArray(new RatingCache.Use[uses.size()]));
+	}
+
 	@Override
 	public String toString() {
 		return "LogicalAnalyser";
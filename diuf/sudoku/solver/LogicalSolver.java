@@ -21,9 +21,11 @@ import diuf.sudoku.solver.hinters.lock.*;
 import diuf.sudoku.solver.hinters.single.*;
 import diuf.sudoku.utils.*;
 import static diuf.sudoku.utils.Frmt.*;
+import static diuf.sudoku.utils.IntQueue.QEMPTY;
 import static diuf.sudoku.utils.MyStrings.BIG_BFR_SIZE;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.LinkedList;
@@ -35,6 +37,7 @@ import static diuf.sudoku.Config.CFG;
 import static diuf.sudoku.Constants.SB;
 import static diuf.sudoku.Grid.CELL_IDS;
 import static diuf.sudoku.Grid.MAYBES_STR;
+import static diuf.sudoku.Values.BITS9;
 import static diuf.sudoku.Values.VSHFT;
 import java.util.List;
 import static diuf.sudoku.solver.Print.printGridFull;
@@ -225,10 +228,15 @@ public final class LogicalSolver {
 	public static final int ANALYSE_INTERRUPTED = 99999; // an impossibly high number
 
 	/**
-	 * The ANALYSE_LOCK synchronises {@link diuf.sudoku.gen.PuzzleCache}
-	 * with {@link LogicalAnalyser}, so that one solve runs at a time.
+	 * The analyseLock synchronises {@link diuf.sudoku.gui.GenPuzzleCache}
+	 * with {@link LogicalAnalyser}, so that one solve runs at a time in each
+	 * LogicalSolver.
+	 * <p>
+	 * It is not static: the hinters state is
+	 * per-LogicalSolver, so two solvers need not wait for each other; only
+	 * two solves in the same LogicalSolver are mutually exclusive.
 	 */
-	public static final Object ANALYSE_LOCK = new Object();
+	public final Object analyseLock = new Object();
 
 	// NOTE: We must create the basic hinters before the validators.
 	// First the singles: NakedSingle and HiddenSingle;
@@ -362,6 +370,34 @@ public final class LogicalSolver {
 
 	private Cheats cheats;
 
+	/**
+	 * The context holds state that is shared between my hinters, and ONLY my
+	 * hinters, so that two LogicalSolvers may run concurrently. See
+	 * {@link SolverContext}.
+	 */
+	private final SolverContext context = new SolverContext();
+
+	/**
+	 * When not null solve records each grid state, and each hinter call with
+	 * its hint, for HinterReplayer. See {@link ReplayFile}.
+	 */
+	private ReplayFile.Writer recorder;
+
+	/**
+	 * Canonicalises puzzles for the {@link RatingCache} keys. Canonicaliser
+	 * is not thread-safe, and ratingHash is called by the GUI thread (in
+	 * LogicalAnalyser) while the generator thread may be in analyseDifficulty
+	 * on this same solver, hence one per thread.
+	 */
+	private final ThreadLocal<Canonicaliser> canonicaliser
+			= ThreadLocal.withInitial(Canonicaliser::new);
+
+	/**
+	 * The hints found in recently seen grid states, so the GUI does not run
+	 * the hinters again when it revisits a state. See {@link HintCache}.
+	 */
+	private final HintCache hintCache = new HintCache();
+
 	/**
 	 * Constructor sets-up this LogicalSolver to solve logically. All the hard
 	 * work is done by {@link LogicalSolverBuilder#build} before I am called.
@@ -392,6 +428,12 @@ public final class LogicalSolver {
 		// so that the batch can log hinters in execution order.
 		for ( int i=0,n=wantedHinters.length; i<n; ++i )
 			wantedHinters[i].setArrayIndex(i);
+		// each hinter gets my context, for its shared state,
+		// which was static, so all LogicalSolvers shared it. Not anymore.
+		for ( IHinter hinter : basics.values() )
+			hinter.setContext(context);
+		for ( IHinter hinter : wantedHinters )
+			hinter.setContext(context);
 		// bruteForce uses the "basic hinters", so it is creation is delayed,
 		// which in turn delays creation of all dependant artifacts. sigh.
 		bruteForce = new BruteForce(basics);
@@ -409,6 +451,7 @@ public final class LogicalSolver {
 		hiddenSingle = (HiddenSingle)basics.get(Tech.HiddenSingle);
 		locking = (Locking)basics.get(Tech.Locking);
 		siameseLocking = new SiameseLocking(basics);
+		siameseLocking.setContext(context);
 		siameseLocking.arrayIndex = locking.arrayIndex; // not used if 0 (unwanted)
 	}
 
@@ -483,7 +526,10 @@ public final class LogicalSolver {
 		// you get here only when $tech is not wanted and $construct
 		try {
 			// nb: I added optional isNoisy param to constructHinter for this.
-			return LogicalSolverBuilder.constructHinter(tech, Class.forName(tech.className), false);
+			final IHinter result = LogicalSolverBuilder.constructHinter(tech, Class.forName(tech.className), false);
+			if ( result != null )
+				result.setContext(context);
+			return result;
 		} catch ( Exception ex ) {
 			throw new IllegalStateException("Unconstructable: "+tech, ex);
 		}
@@ -607,8 +653,38 @@ public final class LogicalSolver {
 			accu.add(solvedHint);
 			return true;
 		}
-		return getFirstHint(validators, grid, false, accu)
+		// the GUI revisits grid states, so it gets hints from the hintCache
+		final long fingerprint = Run.isGui() ? hintFingerprint(false, true) : 0L;
+		if ( fingerprint != 0L ) {
+			final AHint[] cached = hintCache.get(grid, fingerprint);
+			if ( cached != null ) {
+				accu.add(cached[0]);
+				return true;
+			}
+		}
+		final boolean result = getFirstHint(validators, grid, false, accu)
 			|| getFirstHint(wantedHinters, grid, false, accu);
+		if ( result && fingerprint != 0L )
+			hintCache.put(grid, fingerprint, AHint.list(accu.peek()));
+		return result;
+	}
+
+	/**
+	 * The fingerprint of my hinters, and how they are asked, to key the
+	 * {@link HintCache}: the wanted hinters, whether each is enabled, and
+	 * the wantMore, firstOnly and filtering (Siamese) flags. Never 0.
+	 *
+	 * @param wantMore are all hints from all hinters wanted
+	 * @param firstOnly is only the first hint wanted
+	 * @return a 64-bit hash of my hinter configuration
+	 */
+	private long hintFingerprint(final boolean wantMore, final boolean firstOnly) {
+		long h = (wantMore ? 1L : 0L) | (firstOnly ? 2L : 0L)
+			   | (CFG.isFilteringHints() ? 4L : 0L);
+		for ( IHinter hinter : wantedHinters )
+			h = (h ^ (hinter.getTech().ordinal()<<1 | (hinter.isEnabled() ? 1 : 0)))
+			  * 0x9E3779B97F4A7C15L;
+		return h==0L ? 1L : h;
 	}
 
 	/**
@@ -633,6 +709,27 @@ public final class LogicalSolver {
 	 */
 	public LinkedList<AHint> getAllHints(final Grid grid, final boolean wantMore
 			, final boolean logGrid, final boolean logHints, final boolean printHints) {
+		return getAllHints(grid, wantMore, logGrid, logHints, printHints, true);
+	}
+
+	/**
+	 * getAllHints, as above, but the {@link HintCache} is used only if
+	 * useHintCache, so pass false for a throwaway Grid (a copy, say) whose
+	 * hints would never be hit, because they are returned only to the same
+	 * Grid, so they would just pin the Grid in the cache until evicted.
+	 *
+	 * @param grid the Grid to solve
+	 * @param wantMore are MORE (the Shift in Shift-F5) hints wanted
+	 * @param logGrid should I log the grid.
+	 * @param logHints should I log hints.
+	 * @param printHints should I print hints to stdout.
+	 * @param useHintCache should I get and put the hints of grid from/to my
+	 *  hintCache; only in the GUI
+	 * @return List of AHint
+	 */
+	public LinkedList<AHint> getAllHints(final Grid grid, final boolean wantMore
+			, final boolean logGrid, final boolean logHints, final boolean printHints
+			, final boolean useHintCache) {
 		if (Log.LOG_MODE >= Log.VERBOSE_2_MODE) {
 			if ( logGrid ) {
 				Log.println();
@@ -648,6 +745,15 @@ public final class LogicalSolver {
 			hints.add(solvedHint);
 			return hints; // empty if I was interrupted, or did not find a hint
 		}
+		// the GUI revisits grid states, so it gets hints from the hintCache
+		final long fingerprint = useHintCache && Run.isGui() ? hintFingerprint(wantMore, false) : 0L;
+		if ( fingerprint != 0L ) {
+			final AHint[] cached = hintCache.get(grid, fingerprint);
+			if ( cached != null ) {
+				Collections.addAll(hints, cached);
+				return hints;
+			}
+		}
 		final long start = Run.time = System.nanoTime();
 		// HintsAccumulator.add returns false so hinter keeps searching,
 		// adding each hint to the hints List.
@@ -684,6 +790,8 @@ public final class LogicalSolver {
 			// this is useful in stdout as well as the log
 			Log.teef("<getAllHints%s %d/%s %b %,15d\n", more, grid.hintNumber, grid.sourceShort(), any, took);
 		}
+		if ( fingerprint != 0L )
+			hintCache.put(grid, fingerprint, hints);
 		return hints; // empty if I was interrupted, or did not find a hint
 	}
 
@@ -821,13 +929,55 @@ public final class LogicalSolver {
 	 * @param grid to analyse to find the difficulty (the hardest step)
 	 * @param maxD the maximum desired difficulty (inclusive), a ceiling that
 	 *  stop at if exceeded
+	 * <p>
+	 * The {@link RatingCache} is consulted first, so a puzzle,
+	 * or an isomorph of it, that has been rated before is not re-rated. A
+	 * rating that stopped at maxD is cached as a lower bound, which answers
+	 * any later question whose maxD is no larger.
+	 *
 	 * @return The puzzles difficulty if it is below the given <tt>maxD</tt>,
 	 *  else the arbitrary high value Difficulty.IDKFA.max, currently 100.0.
 	 * @throws HinterruptException from AHinter.interrupt() back-up to generate.
 	 */
 	public int analyseDifficulty(final Grid grid, final int maxD) {
+		final long hash = ratingHash(grid);
+		final long fingerprint = ratingFingerprint(true);
+		final RatingCache ratings = RatingCache.getInstance();
+		if ( hash != 0L ) {
+			final RatingCache.Rating cached = ratings.get(hash, fingerprint);
+			if ( cached != null
+			  && (cached.isComplete() || cached.maxDifficulty>=maxD) )
+				return cached.maxDifficulty;
+		}
+		final int pd = analyseDifficultyImpl(grid, maxD);
+		if ( hash!=0L && pd!=ANALYSE_INTERRUPTED )
+			ratings.put(new RatingCache.Rating(hash, fingerprint, pd
+					, pd>=maxD ? RatingCache.AT_LEAST : 0, new RatingCache.Use[0]));
+		return pd;
+	}
+
+	// the Grid that analyseDifficulty solves, which is reused
+	private Grid analyseGrid;
+
+	// get the analyseGrid in the state of grid: a new copy of grid the first
+	// time, and thereafter restored to a snapshot of grid, which pokes only
+	// the cells that differ, where new Grid(grid) constructs the lot. The
+	// per-puzzle state (solution, isPrepared, puzzleId) is reset, as per a
+	// new Grid, else the validators would check against the wrong solution.
+	private Grid analyseGrid(final Grid grid) {
+		if ( analyseGrid == null )
+			return analyseGrid = new Grid(grid);
+		analyseGrid.restore(grid.snapshot());
+		analyseGrid.source = grid.source;
+		analyseGrid.hintNumber = grid.hintNumber;
+		analyseGrid.puzzleReset();
+		return analyseGrid;
+	}
+
+	// analyseDifficulty sans the RatingCache
+	private int analyseDifficultyImpl(final Grid grid, final int maxD) {
 		int pd = 0; // puzzleDifficulty, my result
-		final Grid copy = new Grid(grid);
+		final Grid copy = analyseGrid(grid);
 		final IAccumulator accu = new SingleHintsAccumulator();
 		// re-enable all hinters just in case we hit a deadCat last time
 		if ( anyDisabled ) {
@@ -876,6 +1026,53 @@ public final class LogicalSolver {
 		return pd;
 	}
 
+	/**
+	 * The hash of the canonical form of grid, to key the {@link RatingCache},
+	 * else 0 if grid is not pristine: an empty cell is missing a maybe that
+	 * the values allow, so it is not just the puzzle of its values; or if it
+	 * has no canonical form: it has too few clues to canonicalise.
+	 *
+	 * <p>
+	 * ratingHash is thread-safe.
+	 *
+	 * @param grid the puzzle
+	 * @return the canonical hash of grid, else 0 meaning do not cache
+	 */
+	public long ratingHash(final Grid grid) {
+		for ( Grid.Cell cell : grid.cells )
+			if ( cell.value==0 && cell.maybes!=(BITS9 & ~cell.seesValues()) )
+				return 0L;
+		return canonicaliser.get().canonicalHash(grid); // 0 means none
+	}
+
+	/**
+	 * The fingerprint of my wanted hinters configuration, to key the
+	 * {@link RatingCache}: a hash of the names of the wanted Techs, in order.
+	 * The hinters that analyseDifficulty disables (KrakHeads of degree 3 and
+	 * up) are left out of its fingerprint, so it rates the same as any other
+	 * configuration that differs only in them.
+	 * <p>
+	 * The ratings persist, so the fingerprint also includes the Build VERSION
+	 * and BUILT, and the CFG settings that change what the hinters find
+	 * (maxFins, maxEndofins and turbo), so that a new build, or a changed
+	 * setting, never gets ratings from an old one.
+	 *
+	 * @param isGenerating is this for analyseDifficulty
+	 * @return a 64-bit hash of my wanted Techs, this build and its settings
+	 */
+	public long ratingFingerprint(final boolean isGenerating) {
+		long h = isGenerating ? 1L : 2L;
+		h = (h ^ Build.VERSION.hashCode()) * 0x9E3779B97F4A7C15L;
+		h = (h ^ Build.BUILT.hashCode()) * 0x9E3779B97F4A7C15L;
+		h = (h ^ (CFG.getInt(Config.maxFins, 7)<<8
+				| CFG.getInt(Config.maxEndofins, 4)<<1
+				| (CFG.getBoolean("turbo", false) ? 1 : 0))) * 0x9E3779B97F4A7C15L;
+		for ( IHinter hinter : wantedHinters )
+			if ( !isGenerating || !hinter.isKrakHead() || hinter.getDegree()<3 )
+				h = (h ^ hinter.getTech().name().hashCode()) * 0x9E3779B97F4A7C15L;
+		return h ^ (h>>>31);
+	}
+
 	/**
 	 * Get the Solution of this puzzle. Used by generate and by the <i>Tools ~
 	 * Analyse</i> menu-item in the SudokuFrame. The normal hint returned is
@@ -1087,6 +1284,8 @@ public final class LogicalSolver {
 		usage.addAll(wantedHinters);
 		// solve the puzzle by finding and applying hints
 		while ( grid.numSet < GRID_SIZE ) {
+			if ( recorder != null )
+				recorder.state(grid);
 			// getHints from each wanted hinter that is still enabled
 			if ( !timeHinters(logHinterTimes, wantedHinters, grid, usage, accu) )
 				break;
@@ -1138,18 +1337,21 @@ public final class LogicalSolver {
 				if ( chuck )
 					throw new UnsolvableException(msg);
 			}
-		else if ( hint.reds != null )
-			for ( Map.Entry<Integer,Integer> e : hint.reds.entrySet() )
-				if ( (e.getValue() & VSHFT[solution[e.getKey()]]) > 0 ) { // 9bits
+		else if ( hint.reds != null ) {
+			final Pots reds = hint.reds;
+			int i;
+			for ( final IntQueue q=reds.indices(); (i=q.poll())>QEMPTY; )
+				if ( (reds.getCands(i) & VSHFT[solution[i]]) > 0 ) { // 9bits
 					hint.setIsInvalid(true); // BEFORE toString!
 					final String msg = "BAD red: "
-					+CELL_IDS[e.getKey()]+"-"+MAYBES_STR[e.getValue()]
-					+" includes solution value "+solution[e.getKey()]
+					+CELL_IDS[i]+"-"+MAYBES_STR[reds.getCands(i)]
+					+" includes solution value "+solution[i]
 					+" in "+hint.toFullString();
 					hint.setDebugMessage(msg);
 					if ( chuck )
 						throw new UnsolvableException(msg);
 				}
+		}
 		return hint;
 	}
 
@@ -1214,6 +1416,8 @@ public final class LogicalSolver {
 //if ( hinter.getTech() == Tech.TableChain && result )
 //	Debug.breakpoint();
 		final long took = System.nanoTime() - start;
+		if ( recorder != null )
+			recorder.call(hinter, result, result ? accumulator.peek() : null);
 		usage.get(hinter).add(1, 0, 0, took);
 		if ( logHinterTimes ) // very verbose
 			Log.teef("\t%,14d\t%s\n", took, hinter);
@@ -1476,6 +1680,28 @@ public final class LogicalSolver {
 		preCaches.forEach((e) -> e.setCaching(true));
 	}
 
+	/**
+	 * Get the SolverContext that I share with my hinters.
+	 *
+	 * @return my context
+	 */
+	public SolverContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Set the recorder, else null to stop recording. When recording, solve
+	 * writes each grid state, and each hinter call (and its first hint) to
+	 * the recorder, so HinterReplayer can replay them to one hinter. Note that
+	 * recording slows the solve, a bit, so do not time a recorded batch.
+	 * It is your job to close the recorder, after you set it to null.
+	 *
+	 * @param recorder to record the solve, else null
+	 */
+	public void setRecorder(final ReplayFile.Writer recorder) {
+		this.recorder = recorder;
+	}
+
 	/**
 	 * Get a map of all hinters by Tech.name().
 	 *
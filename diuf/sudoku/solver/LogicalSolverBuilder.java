@@ -335,11 +335,28 @@ public class LogicalSolverBuilder {
 	 */
 	private final EnumMap<Tech,IHinter> basics;
 
+	/**
+	 * The Techs to use, else null means CFG.getWantedTechs().
+	 */
+	private final EnumSet<Tech> wantedTechs;
+
 	public LogicalSolverBuilder() {
+		this(null);
+	}
+
+	/**
+	 * Construct a LogicalSolverBuilder that builds a LogicalSolver which uses
+	 * the given wantedTechs, rather than the users wantedTechs in the Config.
+	 * This is for the LogicalSolverPool, where each pool has its own Techs.
+	 *
+	 * @param wantedTechs the Techs to use, else null to use the Config
+	 */
+	public LogicalSolverBuilder(final EnumSet<Tech> wantedTechs) {
 		// populate my EnumMap of "basic hinters" Tech=>IHinter
 		// I create the "basic" hinters even if they are not wanted,
 		// ergo I presume that these hinters will always be wanted.
 		this.basics = BasicHintersBuilder.build();
+		this.wantedTechs = wantedTechs;
 	}
 
 	/**
@@ -625,7 +642,7 @@ public class LogicalSolverBuilder {
 	 */
 	private int isWantedTech() {
 		isWantedTech = new boolean[Config.ALL_TECHS.size()];
-		final EnumSet<Tech> wts = CFG.getWantedTechs();
+		final EnumSet<Tech> wts = wantedTechs!=null ? wantedTechs : CFG.getWantedTechs();
 		for ( Tech t : wts )
 			isWantedTech[t.ordinal()] = true;
 		return wts.size();
@@ -6,8 +6,10 @@
  */
 package diuf.sudoku.solver;
 
+import diuf.sudoku.Tech;
 import diuf.sudoku.io.StdErr;
 import diuf.sudoku.utils.Log;
+import java.util.EnumSet;
 
 /**
  * The LogicalSolverFactory is the only way to create a LogicalSolver (outside
@@ -20,7 +22,12 @@ import diuf.sudoku.utils.Log;
  * <p>
  * If I ever figure-out how to get rid of those stateful static fields (like
  * the Naked/Hidden singles queues in AHint.apply, for instance) then we can
- * get rid of this Factory too, I think. This class was incepted to solve
+ * get rid of this Factory too, I think.
+ * <p>
+ * The hinters state is now per-LogicalSolver (SolverContext)
+ * so several LogicalSolvers can run concurrently, each on its own thread.
+ * The GUI still uses THE LogicalSolver from get; but a service that solves
+ * concurrently uses a {@link LogicalSolverPool} instead. This class was incepted to solve
  * static-referencing issues. Also, we can get THE LogicalSolver anywhere
  * without needing a specific type reference, which supports later abstraction.
  * <p>
@@ -32,20 +39,50 @@ public final class LogicalSolverFactory {
 
 	private static LogicalSolver solver;
 
+	// the LogicalSolver bound to the current thread, if any.
+	private static final ThreadLocal<LogicalSolver> BOUND = new ThreadLocal<>();
+
 	/**
 	 * Get the current LogicalSolver, else construct a new LogicalSolver and
 	 * return it; so get is an MRU cache of size 1.
 	 * <p>
 	 * We get/create/build one LogicalSolver at a time, so I am synchronized.
+	 * <p>
+	 * If a LogicalSolver is bound to the current thread then
+	 * I return it instead, so that code which "just gets THE solver" (like
+	 * {@link diuf.sudoku.Grid#solution()}) uses the solver of the worker
+	 * thread it is running in, rather than fighting over the singleton.
 	 *
 	 * @return the current cached LogicalSolver, which may be existing or a
 	 *  new one, depending on if the Earth fundamentally moved for you.
 	 *  Butt one simply loves tearing one a new one. Does not one? Sigh.
 	 */
-	public synchronized static LogicalSolver get() {
-		if ( solver == null )
-			solver = newLogicalSolver();
-		return solver;
+	public static LogicalSolver get() {
+		final LogicalSolver bound = BOUND.get();
+		if ( bound != null )
+			return bound;
+		synchronized ( LogicalSolverFactory.class ) {
+			if ( solver == null )
+				solver = newLogicalSolver(null);
+			return solver;
+		}
+	}
+
+	/**
+	 * Bind the given LogicalSolver to the current thread, so that get returns
+	 * it (in this thread only) until {@link #unbind()}.
+	 *
+	 * @param solver to bind to the current thread
+	 */
+	public static void bind(final LogicalSolver solver) {
+		BOUND.set(solver);
+	}
+
+	/**
+	 * Unbind the LogicalSolver (if any) from the current thread.
+	 */
+	public static void unbind() {
+		BOUND.remove();
 	}
 
 	/**
@@ -63,7 +100,7 @@ public final class LogicalSolverFactory {
 	 */
 	public synchronized static LogicalSolver recreate() {
 		Log.teeln("LogicalSolverFactory is recreating the LogicalSolver...");
-		solver = newLogicalSolver();
+		solver = newLogicalSolver(null);
 		solver.reportConfiguration();
 		return solver;
 	}
@@ -74,17 +111,41 @@ public final class LogicalSolverFactory {
 	 * @return a new LogicalSolver
 	 */
 	public synchronized static LogicalSolver recreateQiuetly() {
-		return solver = newLogicalSolver();
+		return solver = newLogicalSolver(null);
+	}
+
+	/**
+	 * Construct a new LogicalSolver which is NOT cached, for a worker thread
+	 * in the batch (LogicalSolverTester -threads N). Each worker must have
+	 * its own LogicalSolver, which is used by one thread at a time, which it
+	 * binds while in use. It is your job to close it when you are done.
+	 *
+	 * @return a new uncached LogicalSolver
+	 */
+	public static LogicalSolver newWorker() {
+		return newLogicalSolver(null);
+	}
+
+	/**
+	 * Construct a new LogicalSolver which is NOT cached, that uses only the
+	 * given wantedTechs, rather than those in the Config. This is for the
+	 * {@link LogicalSolverPool}, which has its own wantedTechs.
+	 *
+	 * @param wantedTechs the Techs to use, else null to use the Config
+	 * @return a new uncached LogicalSolver
+	 */
+	public static LogicalSolver newWorker(final EnumSet<Tech> wantedTechs) {
+		return newLogicalSolver(wantedTechs);
 	}
 
 	// This method exists to ALWAYS update solvers config by creating a new
 	// LogicalSolver, so that config is logically "pinned" to a solver, and
 	// and simply cannot change during a solve-run.
 	// We get/create/build one LogicalSolver at a time, so I am synchronized.
-	private synchronized static LogicalSolver newLogicalSolver() {
+	private synchronized static LogicalSolver newLogicalSolver(final EnumSet<Tech> wantedTechs) {
 		LogicalSolver newSolver;
 		try {
-			newSolver = new LogicalSolverBuilder().build();
+			newSolver = new LogicalSolverBuilder(wantedTechs).build();
 		} catch (Exception ex) {
 			StdErr.exit("FAIL: Building a new LogicalSolver threw an exception", ex);
 			newSolver = null; // you cannot get here!
@@ -0,0 +1,259 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver;
+
+import diuf.sudoku.Grid;
+import diuf.sudoku.Tech;
+import diuf.sudoku.solver.accu.SingleHintsAccumulator;
+import diuf.sudoku.utils.Log;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A LogicalSolverPool is a fixed-size pool of LogicalSolvers, for embedding
+ * Sudoku Explainer in a service that handles many requests concurrently.
+ * <p>
+ * A LogicalSolver is NOT thread-safe, but each LogicalSolver now has its own
+ * {@link SolverContext} (the hinters used to share static state) so two
+ * LogicalSolvers can run concurrently on two threads. So the pool holds
+ * $size LogicalSolvers, each of which is used by one thread at a time, and
+ * a thread that wants a solver waits until one is free. No global lock.
+ * <p>
+ * Each pool has its own wantedTechs, so you can have a pool of fast solvers
+ * for rating, and another pool with the works. null means the users wanted
+ * Techs from the Config, as per the GUI. Other settings come from the Config.
+ * <p>
+ * There are two ways to use a pool:<ul>
+ * <li>{@link #borrow()} a solver, use it, then {@link #giveBack} the solver
+ *  in a finally block. Borrowing binds the solver to the current thread, so
+ *  code that "just gets THE solver" ({@link LogicalSolverFactory#get()})
+ *  gets yours, until you give it back.
+ * <li>submit a task to my executor, which has one thread per solver:
+ *  {@link #solve}, {@link #analyseDifficulty} and {@link #getFirstHint} are
+ *  the usual suspects. {@link #submit} runs your task with a borrowed solver.
+ * </ul>
+ * Each Grid must be used by ONE task at a time. Solve modifies the grid.
+ * <p>
+ * Solvers are created lazily, upto size. close shuts-down the executor and
+ * closes the solvers. A closed pool is no longer useful.
+ */
+public final class LogicalSolverPool implements Closeable {
+
+	private final int size;
+
+	// the Techs wanted in my solvers; null means CFG.getWantedTechs()
+	private final EnumSet<Tech> wantedTechs;
+
+	// idle solvers, which is all of them when nothing is happening
+	private final BlockingQueue<LogicalSolver> idle;
+
+	// all solvers, for close; guarded by this
+	private final List<LogicalSolver> all;
+
+	// one thread per solver, created on first submit
+	private ExecutorService executor;
+
+	private volatile boolean isClosed;
+
+	/**
+	 * Construct a new LogicalSolverPool of $size solvers that use the wanted
+	 * Techs from the Config.
+	 *
+	 * @param size the maximum number of solvers, ergo concurrent solves
+	 */
+	public LogicalSolverPool(final int size) {
+		this(size, null);
+	}
+
+	/**
+	 * Construct a new LogicalSolverPool of $size solvers, that use only the
+	 * given wantedTechs.
+	 *
+	 * @param size the maximum number of solvers, ergo concurrent solves
+	 * @param wantedTechs the Techs to use, else null to use the Config
+	 */
+	public LogicalSolverPool(final int size, final EnumSet<Tech> wantedTechs) {
+		if ( size < 1 )
+			throw new IllegalArgumentException("size="+size+" < 1");
+		this.size = size;
+		this.wantedTechs = wantedTechs==null ? null : EnumSet.copyOf(wantedTechs);
+		this.idle = new ArrayBlockingQueue<>(size);
+		this.all = new ArrayList<>(size);
+	}
+
+	/**
+	 * @return the maximum number of solvers in this pool
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Borrow a LogicalSolver, waiting for one to become free, if necessary.
+	 * A new solver is created if none are free and there are less than size.
+	 * The solver is bound to the current thread til you {@link #giveBack} it,
+	 * which you must do, in a finally block, else the pool runs dry.
+	 *
+	 * @return a LogicalSolver that is yours til you give it back
+	 * @throws InterruptedException if you are interrupted whilst waiting
+	 */
+	public LogicalSolver borrow() throws InterruptedException {
+		if ( isClosed )
+			throw new IllegalStateException("pool is closed");
+		LogicalSolver solver = idle.poll();
+		if ( solver == null ) {
+			synchronized ( this ) {
+				if ( all.size() < size ) {
+					solver = LogicalSolverFactory.newWorker(wantedTechs);
+					all.add(solver);
+				}
+			}
+			if ( solver == null )
+				solver = idle.take();
+		}
+		LogicalSolverFactory.bind(solver);
+		return solver;
+	}
+
+	/**
+	 * Give back a LogicalSolver that you borrowed, unbinding it from the
+	 * current thread.
+	 *
+	 * @param solver that you borrowed
+	 */
+	public void giveBack(final LogicalSolver solver) {
+		LogicalSolverFactory.unbind();
+		if ( solver != null )
+			idle.add(solver); // never full: we created it
+	}
+
+	/**
+	 * Submit a task to be run with a borrowed LogicalSolver.
+	 *
+	 * @param <T> the type of the result of $task
+	 * @param task to run, which is passed the borrowed solver
+	 * @return the Future result of $task
+	 */
+	public <T> Future<T> submit(final Function<LogicalSolver, T> task) {
+		return executor().submit(() -> {
+			final LogicalSolver solver = borrow();
+			try {
+				return task.apply(solver);
+			} finally {
+				giveBack(solver);
+			}
+		});
+	}
+
+	/**
+	 * Submit solve $grid (which is modified) logically.
+	 *
+	 * @param grid to solve, which is modified
+	 * @param usage to populate with hinter usage. UsageMap is NOT thread-safe
+	 *  so use one per task, and merge them afterwards if you must
+	 * @return Future: was the grid solved; else see grid.invalidity
+	 */
+	public Future<Boolean> solve(final Grid grid, final UsageMap usage) {
+		return submit((solver) -> {
+			solver.prepare(grid);
+			try {
+				return solver.solve(grid, usage, true, false, false, false);
+			} finally {
+				solver.cleanUp();
+			}
+		});
+	}
+
+	/**
+	 * Submit analyseDifficulty of $grid (which is not modified).
+	 *
+	 * @param grid to rate
+	 * @param maxD stop when difficulty exceeds maxD
+	 * @return Future: the difficulty of the puzzle in grid
+	 */
+	public Future<Integer> analyseDifficulty(final Grid grid, final int maxD) {
+		return submit((solver) -> {
+			solver.prepare(grid);
+			return solver.analyseDifficulty(grid, maxD);
+		});
+	}
+
+	/**
+	 * Submit getFirstHint in $grid (which is not modified).
+	 *
+	 * @param grid to search
+	 * @return Future: the first (simplest) hint, else null
+	 */
+	public Future<AHint> getFirstHint(final Grid grid) {
+		return submit((solver) -> {
+			final SingleHintsAccumulator accu = new SingleHintsAccumulator();
+			solver.prepare(grid);
+			if ( solver.getFirstHint(grid, accu) )
+				return accu.poll();
+			return null;
+		});
+	}
+
+	// get the executor, creating it on the first submit.
+	private synchronized ExecutorService executor() {
+		if ( isClosed )
+			throw new IllegalStateException("pool is closed");
+		if ( executor == null )
+			executor = Executors.newFixedThreadPool(size, (r) -> {
+				final Thread t = new Thread(r, "LogicalSolverPool");
+				t.setDaemon(true);
+				return t;
+			});
+		return executor;
+	}
+
+	/**
+	 * Shutdown the executor (waiting a minute for running tasks) and close
+	 * all of my solvers. Closing a closed pool is a no-op.
+	 */
+	@Override
+	public void close() {
+		final ExecutorService x;
+		synchronized ( this ) {
+			if ( isClosed )
+				return;
+			isClosed = true;
+			x = executor;
+		}
+		// nb: outside the lock, coz running tasks borrow, which locks
+		if ( x != null ) {
+			x.shutdown();
+			try {
+				x.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException eaten) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		final List<LogicalSolver> solvers;
+		synchronized ( this ) {
+			solvers = new ArrayList<>(all);
+			all.clear();
+		}
+		idle.clear();
+		for ( LogicalSolver solver : solvers )
+			try {
+				solver.close();
+			} catch (Exception ex) {
+				Log.whinge("WARN: "+Log.me()+": solver.close", ex);
+			}
+	}
+
+}
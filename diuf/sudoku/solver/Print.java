@@ -33,6 +33,10 @@ import java.util.Locale;
  */
 public class Print {
 
+	// FORMATTER formats into its own StringBuilder, which each
+	// FormatString[] it parsed is bound to, so format and toString it whilst
+	// synchronized on FORMATTER, because the batch may print from several
+	// threads concurrently (LogicalSolverTester -threads N).
 	public static final Formatter FORMATTER = new Formatter();
 	public static final Locale LOCALE = Locale.getDefault();
 
@@ -45,8 +49,12 @@ public class Print {
 		"\n%d/%s\n%s\n");
 
 	public static void printGrid(final PrintStream out, final Grid grid) {
-		out.print(FORMATTER.format(LOCALE, GRID_FSA, grid.hintNumber
-				, grid.sourceShort(), grid.toString()));
+		final String s;
+		synchronized ( FORMATTER ) {
+			s = FORMATTER.format(LOCALE, GRID_FSA, grid.hintNumber
+				, grid.sourceShort(), grid.toString()).toString();
+		}
+		out.print(s);
 	}
 
 	/**
@@ -76,9 +84,13 @@ public class Print {
 			, final Grid grid, final int numElims, long took) {
 		// nb: I use my Format, which parses the format String once then
 		// reuses the FormatString[] to print each hint, coz its faster.
-		out.print(FORMATTER.format(LOCALE, HINT_FULL_FSA, grid.hintNumber
-			, took, grid.numSet, grid.numMaybes, numElims, hint.hinter
-			, hint.toFullString()));
+		final String s;
+		synchronized ( FORMATTER ) {
+			s = FORMATTER.format(LOCALE, HINT_FULL_FSA, grid.hintNumber
+				, took, grid.numSet, grid.numMaybes, numElims, hint.hinter
+				, hint.toFullString()).toString();
+		}
+		out.print(s);
 	}
 
 	public static void printGridFull(final PrintStream out, final AHint hint
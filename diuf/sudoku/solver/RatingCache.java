@@ -0,0 +1,478 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver;
+
+import diuf.sudoku.Tech;
+import diuf.sudoku.io.IO;
+import diuf.sudoku.io.StdErr;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RatingCache is a persistent cache of puzzle difficulty ratings, keyed by the
+ * 64-bit hash of the canonical form of the puzzle (see
+ * {@link diuf.sudoku.Canonicaliser}) and a fingerprint of the wanted hinters
+ * (see {@link LogicalSolver#ratingFingerprint}), so a puzzle, or any isomorph
+ * of it, is rated once per hinter configuration, not once per run. It is
+ * consulted by {@link LogicalSolver#analyseDifficulty} (the Generator),
+ * {@link LogicalAnalyser} (the GUI) and LogicalSolverTester -cached.
+ * <p>
+ * An isomorph solves with the same hints in a different order, so its rating
+ * is the same, except that ttlDifficulty may vary slightly, where the order
+ * of the hints makes different hints available. I can live with that.
+ * <p>
+ * The recently used ratings are in memory, in an LRU of at most MAX_SIZE.
+ * Every rating is also appended to {@link IO#RATING_CACHE} as it is put, so
+ * an evicted rating is only spilled, not lost. An index of the file (key to
+ * file offset) is built when I am loaded, and maintained by put, so a rating
+ * that is not in the LRU is read back from the file. A later record for a
+ * key supersedes an earlier one, so the file is append-only. The fingerprint
+ * includes the Build, so a new build never gets the ratings of an old one,
+ * which just sit in the file. Delete the file to reclaim that space.
+ * <p>
+ * The GUI and BulkGenerator (and LogicalSolverTester -cached) may share the
+ * file, so each append is made under an exclusive FileLock, and the records
+ * appended by other processes are indexed (under a shared lock) before each
+ * append, and upon a miss. A bad record (a partial last record, where a
+ * process was killed mid-write) is truncated, under the exclusive lock.
+ * <p>
+ * Each record is: hash, fingerprint, maxDifficulty, ttlDifficulty, then the
+ * Usage of each hinter that hinted, as Tech name, hints, elims, maxDifficulty
+ * and ttlDifficulty; from which {@link LogicalAnalyser} rebuilds the UsageMap
+ * of its AnalysisHint. The numbers of calls and times are not kept.
+ * <p>
+ * A rating from analyseDifficulty has no usages and a ttlDifficulty of 0,
+ * and may be incomplete: it stops when maxD is exceeded, so the puzzle is
+ * atleast that difficult, which has a ttlDifficulty of {@link #AT_LEAST}.
+ * The two have different fingerprints, so they never mix.
+ * <p>
+ * I am thread-safe, so that many LogicalSolvers may share me.
+ */
+public final class RatingCache {
+
+	/** The ttlDifficulty of a rating whose maxDifficulty is a lower bound. */
+	public static final int AT_LEAST = -1;
+
+	// the maximum number of ratings in memory
+	private static final int MAX_SIZE = 1<<14;
+
+	private static RatingCache theInstance;
+
+	/**
+	 * Get THE instance of RatingCache, which is loaded from
+	 * {@link IO#RATING_CACHE} the first time.
+	 *
+	 * @return THE instance of RatingCache
+	 */
+	public static synchronized RatingCache getInstance() {
+		if ( theInstance == null )
+			theInstance = new RatingCache(IO.RATING_CACHE);
+		return theInstance;
+	}
+
+	/**
+	 * The Usage of a hinter in a Rating. The tech is null if it has been
+	 * renamed since the rating was put.
+	 */
+	public static final class Use {
+		public final Tech tech;
+		public final int hints, elims, maxDifficulty, ttlDifficulty;
+		public Use(final Tech tech, final int hints, final int elims
+				, final int maxDifficulty, final int ttlDifficulty) {
+			this.tech = tech;
+			this.hints = hints;
+			this.elims = elims;
+			this.maxDifficulty = maxDifficulty;
+			this.ttlDifficulty = ttlDifficulty;
+		}
+	}
+
+	/**
+	 * The rating of a puzzle.
+	 */
+	public static final class Rating {
+		final long hash, fingerprint;
+		/** the maximum hint difficulty: the puzzles difficulty. */
+		public final int maxDifficulty;
+		/** the total hint difficulty, else AT_LEAST. */
+		public final int ttlDifficulty;
+		/** the usage of each hinter that hinted, empty if AT_LEAST. */
+		public final Use[] uses;
+		public Rating(final long hash, final long fingerprint
+				, final int maxDifficulty, final int ttlDifficulty
+				, final Use[] uses) {
+			this.hash = hash;
+			this.fingerprint = fingerprint;
+			this.maxDifficulty = maxDifficulty;
+			this.ttlDifficulty = ttlDifficulty;
+			this.uses = uses;
+		}
+		/** @return is this rating complete, ie not AT_LEAST. */
+		public boolean isComplete() {
+			return ttlDifficulty != AT_LEAST;
+		}
+	}
+
+	private static final Use[] NO_USES = new Use[0];
+
+	// the maximum number of Uses in a valid record
+	private static final int MAX_USES = Tech.values().length;
+
+	// the in-memory key of hash and fingerprint. A Rating remembers both, so
+	// a (most unlikely) collision is a miss, not a wrong rating.
+	private static long key(final long hash, final long fingerprint) {
+		long h = hash ^ Long.rotateLeft(fingerprint, 32) * 0x9E3779B97F4A7C15L;
+		h = (h ^ (h>>>29)) * 0xBF58476D1CE4E5B9L;
+		return h ^ (h>>>32);
+	}
+
+	/**
+	 * Index is a map of key to file offset, in two arrays of primitives, with
+	 * open addressing. Unlike LongLongHashMap it grows, coz it indexes every
+	 * rating on file, which may be millions.
+	 */
+	private static final class Index {
+		static final long NOT_FOUND = -1L;
+		private long[] keys = new long[1<<12];
+		// offset+1, so that 0 is an empty slot
+		private long[] offsets = new long[1<<12];
+		private int size;
+		// the slot of key; keys are already well mixed
+		private static int slot(final long key, final int mask) {
+			return (int)(key ^ (key>>>32)) & mask;
+		}
+		long get(final long key) {
+			final int mask = keys.length - 1;
+			for ( int i=slot(key, mask); offsets[i]!=0L; i=(i+1)&mask )
+				if ( keys[i] == key )
+					return offsets[i] - 1L;
+			return NOT_FOUND;
+		}
+		void put(final long key, final long offset) {
+			if ( size<<1 >= keys.length )
+				grow();
+			final int mask = keys.length - 1;
+			int i = slot(key, mask);
+			for ( ; offsets[i]!=0L; i=(i+1)&mask )
+				if ( keys[i] == key ) {
+					offsets[i] = offset + 1L;
+					return;
+				}
+			keys[i] = key;
+			offsets[i] = offset + 1L;
+			++size;
+		}
+		// double my capacity, to keep the load factor at most a half
+		private void grow() {
+			final long[] oldKeys = keys, oldOffsets = offsets;
+			keys = new long[oldKeys.length<<1];
+			offsets = new long[oldKeys.length<<1];
+			final int mask = keys.length - 1;
+			int i;
+			for ( int j=0; j<oldKeys.length; ++j )
+				if ( oldOffsets[j] != 0L ) {
+					for ( i=slot(oldKeys[j], mask); offsets[i]!=0L; i=(i+1)&mask ) { }
+					keys[i] = oldKeys[j];
+					offsets[i] = oldOffsets[j];
+				}
+		}
+		int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * Counter counts the bytes read through it, so that reading records
+	 * through a buffer still knows the file offset of each.
+	 */
+	private static final class Counter extends FilterInputStream {
+		long count;
+		Counter(final InputStream in) {
+			super(in);
+		}
+		@Override
+		public int read() throws IOException {
+			final int b = super.read();
+			if ( b > -1 )
+				++count;
+			return b;
+		}
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			final int n = super.read(b, off, len);
+			if ( n > 0 )
+				count += n;
+			return n;
+		}
+		@Override
+		public long skip(final long n) throws IOException {
+			final long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+
+	// the file in which I persist; null if it will not open
+	private final File file;
+	private RandomAccessFile raf;
+	// the length of my file that is indexed. Beyond it are records that other
+	// processes have appended since.
+	private long indexed;
+	// key => file offset of the latest record of every rating on file
+	private final Index index = new Index();
+	// the recently used ratings, in access order, evicting the eldest
+	private final Map<Long, Rating> lru = new LinkedHashMap<Long, Rating>(MAX_SIZE, 0.75F, true) {
+		private static final long serialVersionUID = 2023112301L;
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Long, Rating> e) {
+			return size() > MAX_SIZE; // it is already on file
+		}
+	};
+
+	private RatingCache(final File file) {
+		this.file = file;
+		try {
+			raf = new RandomAccessFile(file, "rw");
+			final FileLock lock = raf.getChannel().lock();
+			try {
+				catchUp(true);
+			} finally {
+				release(lock);
+			}
+		} catch (IOException | RuntimeException ex) {
+			StdErr.whinge("WARN: RatingCache load failed: "+file, ex);
+			close(); // memory only
+		}
+	}
+
+	// forget my file, and carry on in memory only
+	private void close() {
+		if ( raf != null )
+			try {
+				raf.close();
+			} catch (IOException eaten) {
+				// Do nothing
+			}
+		raf = null;
+	}
+
+	// release lock, which fails only if the channel is closed, which releases
+	// it anyway
+	private static void release(final FileLock lock) {
+		try {
+			lock.release();
+		} catch (IOException eaten) {
+			// Do nothing
+		}
+	}
+
+	// reopen my file, if an interrupt has closed its channel (a FileLock is
+	// interruptible, and an interrupt closes the channel and the file).
+	private boolean isOpen() {
+		if ( raf != null && !raf.getChannel().isOpen() )
+			try {
+				raf = new RandomAccessFile(file, "rw");
+			} catch (IOException ex) {
+				StdErr.whinge("WARN: RatingCache reopen failed: "+file, ex);
+				raf = null;
+			}
+		return raf != null;
+	}
+
+	// a stream of my file from offset, buffering size bytes, and counting the
+	// bytes read, to know the offset of each record. The RandomAccessFile is
+	// read directly (not via its channel) coz its reads are not interruptible.
+	private Counter input(final long offset, final int size) throws IOException {
+		raf.seek(offset);
+		return new Counter(new BufferedInputStream(new InputStream() {
+			@Override
+			public int read() throws IOException {
+				return raf.read();
+			}
+			@Override
+			public int read(final byte[] b, final int off, final int len) throws IOException {
+				return raf.read(b, off, len);
+			}
+		}, size));
+	}
+
+	// index the records from indexed to the end of my file. A bad record is
+	// truncated if exclusive, else it is left for the next put to truncate.
+	// The caller holds a FileLock: exclusive, or shared if not exclusive.
+	private void catchUp(final boolean exclusive) throws IOException {
+		final long length = raf.length();
+		if ( indexed >= length )
+			return;
+		final Counter counter = input(indexed, 1<<16);
+		final DataInputStream in = new DataInputStream(counter);
+		long offset = indexed;
+		try {
+			Rating r;
+			while ( offset < length ) {
+				r = read(in);
+				index.put(key(r.hash, r.fingerprint), offset);
+				offset = indexed + counter.count;
+			}
+		} catch (IOException ex) { // EOF, bad UTF, or bad record
+			if ( exclusive ) {
+				StdErr.whinge("WARN: "+file+": truncated at "+offset+": "+ex);
+				raf.setLength(offset);
+			}
+		}
+		indexed = offset;
+	}
+
+	// read a record from in, validating it
+	private static Rating read(final DataInputStream in) throws IOException {
+		final long hash = in.readLong();
+		final long fingerprint = in.readLong();
+		final int maxD = in.readInt();
+		final int ttlD = in.readInt();
+		final int n = in.readShort();
+		if ( maxD<0 || ttlD<AT_LEAST || n<0 || n>MAX_USES )
+			throw new IOException("bad record");
+		final Use[] uses = n==0 ? NO_USES : new Use[n];
+		for ( int i=0; i<n; ++i )
+			uses[i] = new Use(tech(in.readUTF()), in.readInt()
+					, in.readInt(), in.readInt(), in.readInt());
+		return new Rating(hash, fingerprint, maxD, ttlD, uses);
+	}
+
+	// the Tech of this name, else null if it has since been renamed
+	private static Tech tech(final String name) {
+		try {
+			return Tech.valueOf(name);
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	// the Rating of key in the LRU or on file (as indexed), else null
+	private Rating lookup(final long key) throws IOException {
+		Rating r = lru.get(key);
+		if ( r == null && raf != null ) {
+			final long offset = index.get(key);
+			if ( offset == Index.NOT_FOUND )
+				return null;
+			lru.put(key, r=read(new DataInputStream(input(offset, 256))));
+		}
+		return r;
+	}
+
+	/**
+	 * Get the Rating of the puzzle with this canonical hash, rated by hinters
+	 * with this fingerprint, else null meaning none.
+	 *
+	 * @param hash {@link diuf.sudoku.Canonicaliser#hash} of the puzzle
+	 * @param fingerprint {@link LogicalSolver#ratingFingerprint}
+	 * @return the cached Rating, else null
+	 */
+	public synchronized Rating get(final long hash, final long fingerprint) {
+		final long key = key(hash, fingerprint);
+		Rating r;
+		try {
+			isOpen(); // reopen my file if an interrupt closed it
+			if ( (r=lookup(key)) == null && raf != null
+			  && raf.length() > indexed ) {
+				// another process has appended, so index its records
+				final FileLock lock = raf.getChannel().lock(0L, Long.MAX_VALUE, true);
+				try {
+					catchUp(false);
+				} finally {
+					release(lock);
+				}
+				r = lookup(key);
+			}
+		} catch (IOException ex) {
+			StdErr.whinge("WARN: RatingCache read failed", ex);
+			return null;
+		}
+		if ( r == null || r.hash != hash || r.fingerprint != fingerprint )
+			return null;
+		return r;
+	}
+
+	/**
+	 * Put this Rating, and append it to my file. An incomplete rating does
+	 * not replace a complete one, nor a larger lower bound.
+	 *
+	 * @param r the Rating to cache
+	 */
+	public synchronized void put(final Rating r) {
+		final long key = key(r.hash, r.fingerprint);
+		try {
+			if ( !isOpen() ) { // memory only
+				if ( supersedes(r, lru.get(key)) )
+					lru.put(key, r);
+				return;
+			}
+			final FileLock lock = raf.getChannel().lock();
+			try {
+				catchUp(true);
+				if ( !supersedes(r, lookup(key)) )
+					return;
+				lru.put(key, r);
+				final byte[] bytes = toBytes(r);
+				final long offset = raf.length(); // == indexed
+				raf.seek(offset);
+				raf.write(bytes); // one write, so a kill leaves less mess
+				index.put(key, offset);
+				indexed = offset + bytes.length;
+			} finally {
+				release(lock);
+			}
+		} catch (IOException ex) {
+			StdErr.whinge("WARN: RatingCache append failed", ex);
+		}
+	}
+
+	// does r supersede the existing rating (if any) of its puzzle
+	private static boolean supersedes(final Rating r, final Rating existing) {
+		return existing == null
+			|| existing.hash != r.hash || existing.fingerprint != r.fingerprint
+			|| (!existing.isComplete()
+			    && (r.isComplete() || r.maxDifficulty > existing.maxDifficulty));
+	}
+
+	// the record of r
+	private static byte[] toBytes(final Rating r) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeLong(r.hash);
+		out.writeLong(r.fingerprint);
+		out.writeInt(r.maxDifficulty);
+		out.writeInt(r.ttlDifficulty);
+		out.writeShort(r.uses.length);
+		for ( Use u : r.uses ) {
+			out.writeUTF(u.tech.name());
+			out.writeInt(u.hints);
+			out.writeInt(u.elims);
+			out.writeInt(u.maxDifficulty);
+			out.writeInt(u.ttlDifficulty);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @return the number of ratings on file (or in memory, if no file)
+	 */
+	public synchronized int size() {
+		return raf==null ? lru.size() : index.size();
+	}
+
+}
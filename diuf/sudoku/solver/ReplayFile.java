@@ -0,0 +1,365 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver;
+
+import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.Grid.MAYBES_STR;
+import diuf.sudoku.Pots;
+import diuf.sudoku.io.StdErr;
+import diuf.sudoku.solver.hinters.IHinter;
+import diuf.sudoku.utils.IntQueue;
+import static diuf.sudoku.utils.IntQueue.QEMPTY;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ReplayFile records every grid state that {@link LogicalSolver#solve} feeds
+ * to each hinter, and the hint (if any) that each hinter produced; so that
+ * the replayer (diuf.sudoku.test.HinterReplayer) can feed exactly those grids
+ * to ONE hinter in a tight loop, to profile it on the positions it sees in
+ * the batch, without the whole solve around it. The replayer also checks
+ * that the hinter still produces the same eliminations.
+ * <p>
+ * The file is a stream of records, each starting with a type byte:
+ * <pre>
+ * header: int MAGIC 'SERF', short VERSION
+ * 'T' tech:  byte id, UTF techName. Defines id, the first time a Tech is seen
+ * 'S' state: long puzzleId, int hintNumber, 81 * short (value&lt;&lt;9 | maybes)
+ * 'C' call:  byte id, byte result (0/1), and if result the first hint:
+ *            byte cell indice (-1 for none), byte value,
+ *            short numReds, numReds * (byte indice, short maybes)
+ * </pre>
+ * Each 'C' call is on the grid in the preceding 'S' state. A step is one
+ * state, followed by a call to each hinter til one hints, so all but the last
+ * call in each step are false.
+ * <p>
+ * The grids puzzleId and hintNumber are recorded, and restored by newGrid,
+ * because hinters cache by them: the chainers return a cached hint when the
+ * puzzleId and numSet are unchanged, for example. So replaying the Calls in
+ * order reproduces the hinters internal state, hence its hints.
+ * <p>
+ * Neither {@link Writer} nor {@link Reader} is thread-safe. Each LogicalSolver
+ * has its own Writer, if any.
+ */
+public final class ReplayFile {
+
+	/** The conventional file extension: ".replay". */
+	public static final String EXTENSION = ".replay";
+
+	private static final int MAGIC = 0x53455246; // 'SERF'
+	private static final int VERSION = 1;
+
+	private static final byte TECH = 'T';
+	private static final byte STATE = 'S';
+	private static final byte CALL = 'C';
+
+	/**
+	 * A Call is one recorded call to a hinters findHints, and its result.
+	 */
+	public static final class Call {
+		/** The name of the Tech of the hinter that was called. */
+		public final String techName;
+		/** The grid state: values and maybes. */
+		public final int[] values, maybes;
+		/** The grid.puzzleId. */
+		public final long puzzleId;
+		/** The grid.hintNumber. */
+		public final int hintNumber;
+		/** What findHints returned. */
+		public final boolean result;
+		/** The first hints cell to set: indice and value, else -1 and 0. */
+		public final int cell, value;
+		/** The first hints eliminations: indice => maybes, else empty. */
+		public final Map<Integer,Integer> reds;
+
+		Call(final String techName, final int[] values, final int[] maybes
+				, final long puzzleId, final int hintNumber
+				, final boolean result, final int cell, final int value
+				, final Map<Integer,Integer> reds) {
+			this.techName = techName;
+			this.values = values;
+			this.maybes = maybes;
+			this.puzzleId = puzzleId;
+			this.hintNumber = hintNumber;
+			this.result = result;
+			this.cell = cell;
+			this.value = value;
+			this.reds = reds;
+		}
+
+		/**
+		 * Create a new Grid of my state, in the format of Grid.toString: a
+		 * line of values and a line of maybes, so it loads exactly as-is;
+		 * with the recorded puzzleId and hintNumber.
+		 *
+		 * @return a new Grid containing my state
+		 */
+		public Grid newGrid() {
+			final StringBuilder sb = new StringBuilder(512);
+			for ( int i=0; i<GRID_SIZE; ++i )
+				sb.append(values[i]==0 ? '.' : (char)('0'+values[i]));
+			sb.append('\n').append(MAYBES_STR[maybes[0]]);
+			for ( int i=1; i<GRID_SIZE; ++i )
+				sb.append(',').append(MAYBES_STR[maybes[i]]);
+			final Grid grid = new Grid(sb.toString());
+			grid.puzzleId = puzzleId;
+			grid.hintNumber = hintNumber;
+			return grid;
+		}
+
+		/**
+		 * Does this hint produce the same eliminations as this Call?
+		 *
+		 * @param result what findHints returned
+		 * @param hint the first hint, if any
+		 * @return null if they are the same, else a description of the first
+		 *  difference
+		 */
+		public String diff(final boolean result, final AHint hint) {
+			if ( result != this.result )
+				return "result "+result+" != recorded "+this.result;
+			if ( !result )
+				return null;
+			if ( hint == null )
+				return "true but no hint";
+			final int c = hint.cell==null ? -1 : hint.cell.indice;
+			if ( c!=cell || (c>-1 && hint.value!=value) )
+				return "set "+c+"+"+hint.value+" != recorded "+cell+"+"+value;
+			final Pots pots = hint.reds;
+			final int n = pots==null ? 0 : pots.size();
+			if ( n != reds.size() )
+				return "numReds "+n+" != recorded "+reds.size();
+			if ( n > 0 ) {
+				int i;
+				for ( final IntQueue q=pots.indices(); (i=q.poll())>QEMPTY; )
+					if ( !reds.containsKey(i) || pots.getCands(i)!=reds.get(i) )
+						return "red "+i+"-"+pots.getCands(i)+" != recorded "+reds.get(i);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * A Writer records the solve. Pass it to
+	 * {@link LogicalSolver#setRecorder(ReplayFile.Writer)}.
+	 * <p>
+	 * The Writer does not throw: if a write fails it whinges once and stops
+	 * recording, so that a full disk does not stop the batch.
+	 */
+	public static final class Writer implements Closeable {
+
+		private final DataOutputStream out;
+		private final Map<String,Integer> ids = new HashMap<>(64, 0.75F);
+		private boolean isBroken;
+
+		public Writer(final File file) throws IOException {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64*1024));
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+		}
+
+		/**
+		 * Record the state of grid, which is fed to the following calls.
+		 *
+		 * @param grid to record
+		 */
+		public void state(final Grid grid) {
+			if ( isBroken )
+				return;
+			try {
+				out.writeByte(STATE);
+				out.writeLong(grid.puzzleId);
+				out.writeInt(grid.hintNumber);
+				final int[] maybes = grid.maybes;
+				for ( int i=0; i<GRID_SIZE; ++i )
+					out.writeShort(grid.cells[i].value<<9 | maybes[i]);
+			} catch (IOException ex) {
+				broken(ex);
+			}
+		}
+
+		/**
+		 * Record a call to hinter.findHints on the last state.
+		 *
+		 * @param hinter that was called
+		 * @param result that findHints returned
+		 * @param hint the first hint in the accumulator, else null
+		 */
+		public void call(final IHinter hinter, final boolean result, final AHint hint) {
+			if ( isBroken )
+				return;
+			try {
+				final String techName = hinter.getTech().name();
+				Integer id = ids.get(techName);
+				if ( id == null ) {
+					ids.put(techName, id = ids.size());
+					out.writeByte(TECH);
+					out.writeByte(id);
+					out.writeUTF(techName);
+				}
+				out.writeByte(CALL);
+				out.writeByte(id);
+				out.writeByte(result && hint!=null ? 1 : 0);
+				if ( result && hint!=null ) {
+					out.writeByte(hint.cell==null ? -1 : hint.cell.indice);
+					out.writeByte(hint.cell==null ? 0 : hint.value);
+					final Pots reds = hint.reds;
+					if ( reds == null )
+						out.writeShort(0);
+					else {
+						out.writeShort(reds.size());
+						int i;
+						for ( final IntQueue q=reds.indices(); (i=q.poll())>QEMPTY; ) {
+							out.writeByte(i);
+							out.writeShort(reds.getCands(i));
+						}
+					}
+				}
+			} catch (IOException ex) {
+				broken(ex);
+			}
+		}
+
+		private void broken(final IOException ex) {
+			isBroken = true;
+			StdErr.whinge("WARN: ReplayFile.Writer: recording stopped", ex);
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+
+	}
+
+	/**
+	 * A Reader reads the Calls in a ReplayFile, in order.
+	 */
+	public static final class Reader implements Closeable {
+
+		private final DataInputStream in;
+		private final List<String> names = new ArrayList<>(64);
+		private int[] values, maybes;
+		private long puzzleId;
+		private int hintNumber;
+
+		public Reader(final File file) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64*1024));
+			if ( in.readInt() != MAGIC ) {
+				in.close();
+				throw new IOException("not a replay file: "+file);
+			}
+			final int version = in.readShort();
+			if ( version != VERSION ) {
+				in.close();
+				throw new IOException("unsupported replay version "+version+": "+file);
+			}
+		}
+
+		/**
+		 * Read the next Call.
+		 *
+		 * @return the next Call, else null at EOF
+		 * @throws IOException if the file is corrupt
+		 */
+		public Call next() throws IOException {
+			int type;
+			for (;;) {
+				if ( (type=in.read()) < 0 )
+					return null;
+				switch ( type ) {
+					case TECH:
+						final int id = in.readByte();
+						if ( id != names.size() )
+							throw new IOException("tech id "+id+" != "+names.size());
+						names.add(in.readUTF());
+						break;
+					case STATE:
+						puzzleId = in.readLong();
+						hintNumber = in.readInt();
+						// a new array each state, coz Calls hold them
+						values = new int[GRID_SIZE];
+						maybes = new int[GRID_SIZE];
+						for ( int i=0,s; i<GRID_SIZE; ++i ) {
+							s = in.readShort();
+							values[i] = s>>9 & 0x0F;
+							maybes[i] = s & 0x1FF;
+						}
+						break;
+					case CALL:
+						if ( values == null )
+							throw new IOException("call before state");
+						return readCall();
+					default:
+						throw new IOException("bad record type "+type);
+				}
+			}
+		}
+
+		private Call readCall() throws IOException {
+			final String techName = names.get(in.readByte());
+			final boolean result = in.readByte() != 0;
+			if ( !result )
+				return new Call(techName, values, maybes, puzzleId, hintNumber
+						, false, -1, 0, new HashMap<>(0));
+			final int cell = in.readByte();
+			final int value = in.readByte();
+			final int n = in.readShort();
+			final Map<Integer,Integer> reds = new HashMap<>(n<12 ? 16 : n*2, 0.75F);
+			for ( int i=0; i<n; ++i )
+				reds.put(in.readByte() & 0xFF, in.readShort() & 0x1FF);
+			return new Call(techName, values, maybes, puzzleId, hintNumber
+					, true, cell, value, reds);
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+	}
+
+	/**
+	 * Read all of the Calls to techName from a ReplayFile.
+	 *
+	 * @param file to read
+	 * @param techName the name of the Tech whose calls you want
+	 * @return the Calls to techName, in order
+	 * @throws IOException if the file is not a ReplayFile, or is corrupt
+	 */
+	public static List<Call> load(final File file, final String techName) throws IOException {
+		final List<Call> calls = new ArrayList<>(1024);
+		try ( Reader reader = new Reader(file) ) {
+			Call call;
+			try {
+				while ( (call=reader.next()) != null )
+					if ( call.techName.equals(techName) )
+						calls.add(call);
+			} catch (EOFException ex) {
+				// the batch was killed, so the last record is truncated
+				StdErr.whinge("WARN: truncated replay file: "+file);
+			}
+		}
+		return calls;
+	}
+
+	private ReplayFile() { } // never used
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver;
+
+import diuf.sudoku.solver.hinters.als.AlsCache;
+import diuf.sudoku.solver.hinters.table.ATableChainer.Tables;
+
+/**
+ * A SolverContext holds the scratch state that is shared between hinters in
+ * ONE LogicalSolver. Each LogicalSolver has its own context, which it passes
+ * to each of its hinters via {@link diuf.sudoku.solver.hinters.IHinter#setContext}
+ * so that the hinters in two LogicalSolvers do not stamp on each others state
+ * when two threads solve two puzzles concurrently, ie the hinters are now
+ * re-entrant, so long as each thread has its own LogicalSolver.
+ * <p>
+ * This state used to be static, which was fine while there was only ever one
+ * LogicalSolver at a time, but it means the batch cannot run two puzzles in
+ * parallel. What is per-call scratch (the chainers onQ/offQ, SiameseLocking
+ * IDX/BUDS, etc) is now just instance state in each hinter; so I hold only
+ * the state that is SHARED between hinters:<ul>
+ * <li>{@link AlsCache} the ALSS and RCCS shared by all ALS hinters (AlsXz,
+ *  AlsWing, AlsChain, BigWings, DeathBlossom), and there RccFinders.
+ * <li>{@link Tables} the static forcing chains shared by all table chainers
+ *  (TableChains, Abduction) and KrakenFisherman and KrackFisherman.
+ * </ul>
+ * Everything is lazy: if no ALS hinter is wanted then no AlsCache is created.
+ * <p>
+ * A SolverContext is NOT thread-safe. It needs not be. A LogicalSolver (and
+ * so its context) is used by one thread at a time. A hinter that is created
+ * outside of a LogicalSolver (ie in the test-cases) has no context, so it
+ * creates its own private state, just like it always did.
+ */
+public final class SolverContext {
+
+	private AlsCache alsCache;
+
+	private Tables tables;
+
+	/**
+	 * Get the AlsCache shared by the ALS hinters in this LogicalSolver.
+	 *
+	 * @return the one AlsCache in this context, created on first use
+	 */
+	public AlsCache getAlsCache() {
+		if ( alsCache == null )
+			alsCache = new AlsCache();
+		return alsCache;
+	}
+
+	/**
+	 * Get the Tables shared by table chainers in this LogicalSolver.
+	 *
+	 * @return the one Tables in this context, created on first use
+	 */
+	public Tables getTables() {
+		if ( tables == null )
+			tables = new Tables();
+		return tables;
+	}
+
+}
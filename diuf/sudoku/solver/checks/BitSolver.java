@@ -0,0 +1,385 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver.checks;
+
+import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.BOX_OF;
+import static diuf.sudoku.Grid.COL_OF;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.Grid.REGION_SIZE;
+import static diuf.sudoku.Grid.ROW_OF;
+
+/**
+ * BitSolver is a bitboard brute-force Sudoku solver, which counts solutions
+ * upto a limit, for {@link BruteForce}: countSolutions, solve and findHints
+ * (validation). It does not use Grid, or Backup, or any hinters, or the
+ * accumulators; and it creates no objects while solving.
+ * <p>
+ * The state is a bitboard per digit: the 81 cells as three bands of 27 bits
+ * (three rows of nine cells) in an int each, so f[d*3+b] is the cells in
+ * band b that maybe digit d (solved cells retain the bit of there digit);
+ * plus the unsolved cells in each band. That is 30 ints, which is the whole
+ * state, so a guess pushes 30 ints onto my explicit stack, and backtracking
+ * pops them, where recursiveSolve took a Backup of the whole Grid.
+ * <p>
+ * Propagation is band-wise, cheapest first:<ul>
+ * <li>naked singles: per band, bit-sliced counters over the nine digits give
+ *  the cells with no candidates (a dead end) and those with exactly one;
+ * <li>hidden singles: per digit, rows and boxs are within a band, and cols
+ *  are bit-sliced (count to two) over the nine rows; no place is a dead end,
+ *  and one unsolved place is a single;
+ * <li>locked candidates: per digit and band, the nine minirows (three cells
+ *  of a row in a box) that maybe the digit index a table of the minirows
+ *  that survive pointing and claiming.
+ * </ul>
+ * then guess a cell with the fewest candidates, bivalue if any.
+ * <p>
+ * On my box it checks a minimal (unique) puzzle in about 20 microseconds,
+ * where recursiveSolve forwards and backwards took about 400.
+ * <p>
+ * BitSolver is NOT thread-safe. Each BruteForce has its own.
+ */
+public final class BitSolver {
+
+	// the number of bands, and cells per band
+	private static final int BANDS = 3;
+	private static final int BAND_SIZE = 27;
+	// all 27 cells in a band
+	private static final int ALL = (1<<BAND_SIZE) - 1;
+	// the first box in a band: three cells in each row
+	private static final int BOX = 0x7 | 0x7<<9 | 0x7<<18;
+	// the nine cells in a row
+	private static final int BITS9 = (1<<REGION_SIZE) - 1;
+	// the state is f: 27 digit*band masks, then 3 unsolved band masks
+	private static final int U = REGION_SIZE * BANDS;
+	private static final int STATE_SIZE = U + BANDS;
+	// the results of hiddenSingles
+	private static final int DEAD_END = -1, NONE = 0, CHANGED = 1;
+	// the maximum depth of the stack: atmost one guess per cell
+	private static final int MAX_DEPTH = GRID_SIZE;
+
+	// the band and bit of each cell
+	private static final int[] BAND = new int[GRID_SIZE];
+	private static final int[] BIT = new int[GRID_SIZE];
+	// locked candidates within a band: a minirow is the three cells of row k
+	// in box j, at bit k*3+j in a minirow mask. LOCKED[minirows that maybe d]
+	// is the minirows that still maybe d after pointing (d in box j only in
+	// row k, so not elsewhere in row k) and claiming (d in row k only in box
+	// j, so not elsewhere in box j), repeated til there are no more; and
+	// CELLS[minirows] is the cells in those minirows.
+	private static final int[] LOCKED = new int[1<<REGION_SIZE];
+	private static final int[] CELLS = new int[1<<REGION_SIZE];
+	static {
+		int mr, prev, k, j, x, y;
+		for ( int i=0; i<(1<<REGION_SIZE); ++i ) {
+			for ( mr=0; mr<REGION_SIZE; ++mr )
+				if ( (i & 1<<mr) != 0 )
+					CELLS[i] |= 0x7 << (mr/3*9 + mr%3*3);
+			mr = i;
+			do {
+				prev = mr;
+				for ( k=0; k<3; ++k )
+					for ( j=0; j<3; ++j ) {
+						x = 1<<(k*3+j);
+						// box j has d only in row k: pointing
+						y = 1<<j | 1<<(3+j) | 1<<(6+j);
+						if ( (mr & y) == x )
+							mr &= ~(0x7<<(k*3)) | x;
+						// row k has d only in box j: claiming
+						y = 0x7<<(k*3);
+						if ( (mr & y) == x )
+							mr &= ~(1<<j | 1<<(3+j) | 1<<(6+j)) | x;
+					}
+			} while ( mr != prev );
+			LOCKED[i] = mr;
+		}
+	}
+
+	// the siblings of each cell, as a mask per band: cell*3+band
+	private static final int[] PEERS = new int[GRID_SIZE * BANDS];
+	static {
+		int i, j;
+		for ( i=0; i<GRID_SIZE; ++i ) {
+			BAND[i] = i / BAND_SIZE;
+			BIT[i] = 1 << (i % BAND_SIZE);
+		}
+		for ( i=0; i<GRID_SIZE; ++i ) {
+			for ( j=0; j<GRID_SIZE; ++j )
+				if ( j!=i && (ROW_OF[j]==ROW_OF[i] || COL_OF[j]==COL_OF[i]
+						|| BOX_OF[j]==BOX_OF[i]) )
+					PEERS[i*BANDS + BAND[j]] |= BIT[j];
+		}
+	}
+
+	// the current state: f[d*3+b] then unsolved[b] at U+b
+	private final int[] s = new int[STATE_SIZE];
+	// the explicit stack: the state before each guess, the cell guessed, and
+	// the candidates still to guess
+	private final int[] stack = new int[MAX_DEPTH * STATE_SIZE];
+	private final int[] stackCell = new int[MAX_DEPTH];
+	private final int[] stackCands = new int[MAX_DEPTH];
+	// the cell values of the Grid to solve
+	private final int[] input = new int[GRID_SIZE];
+
+	/** The first two solutions found by countSolutions: values 1..9. */
+	public final int[][] solutions = new int[2][GRID_SIZE];
+
+	/**
+	 * Count the solutions of the given grid, upto limit. Only the cell values
+	 * are used, not the maybes, as per BruteForce.
+	 *
+	 * @param grid the puzzle
+	 * @param limit the maximum number of solutions to find: 1 to solve, or 2
+	 *  to check uniqueness
+	 * @return the number of solutions found, 0..limit. The first (upto two)
+	 *  are in {@link #solutions}.
+	 */
+	public int countSolutions(final Grid grid, final int limit) {
+		final Grid.Cell[] cells = grid.cells;
+		final int[] values = input;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			values[i] = cells[i].value;
+		return countSolutions(values, limit);
+	}
+
+	/**
+	 * Count the solutions of the given cell values, upto limit.
+	 *
+	 * @param values the value of each cell, 0 for empty
+	 * @param limit the maximum number of solutions to find
+	 * @return the number of solutions found, 0..limit
+	 */
+	public int countSolutions(final int[] values, final int limit) {
+		final int[] s = this.s;
+		int i;
+		for ( i=0; i<U; ++i )
+			s[i] = ALL;
+		s[U] = s[U+1] = s[U+2] = ALL;
+		for ( i=0; i<GRID_SIZE; ++i )
+			if ( values[i] > 0 && !assign(i, values[i]-1) )
+				return 0; // a value is doubled
+		return search(limit);
+	}
+
+	// depth-first search upto limit solutions, with an explicit stack.
+	private int search(final int limit) {
+		final int[] s = this.s;
+		final int[] stack = this.stack;
+		int sp=0, n=0, top, c, x;
+		boolean ok = propagate();
+		for (;;) {
+			if ( ok ) {
+				if ( (s[U] | s[U+1] | s[U+2]) == 0 ) {
+					// solved
+					if ( n < solutions.length )
+						read(solutions[n]);
+					if ( ++n == limit )
+						return n;
+				} else {
+					// push: the state, the cell to guess, and its candidates
+					stackCell[sp] = c = guessCell();
+					stackCands[sp] = cands(c);
+					System.arraycopy(s, 0, stack, sp*STATE_SIZE, STATE_SIZE);
+					++sp;
+				}
+			}
+			// pop exhausted guesses
+			while ( sp>0 && stackCands[sp-1]==0 )
+				--sp;
+			if ( sp == 0 )
+				return n;
+			// guess the next candidate of the top cell, lowest first
+			top = sp - 1;
+			System.arraycopy(stack, top*STATE_SIZE, s, 0, STATE_SIZE);
+			x = stackCands[top];
+			stackCands[top] = x & (x-1);
+			ok = assign(stackCell[top], Integer.numberOfTrailingZeros(x))
+			  && propagate();
+		}
+	}
+
+	// set cell i to digit d (0..8). @return false if d is not a candidate
+	private boolean assign(final int i, final int d) {
+		final int[] s = this.s;
+		final int b = BAND[i], bit = BIT[i], nb = ~bit;
+		if ( (s[d*BANDS+b] & bit) == 0 )
+			return false;
+		for ( int e=0; e<REGION_SIZE; ++e )
+			if ( e != d )
+				s[e*BANDS+b] &= nb;
+		final int p = i * BANDS;
+		final int f = d * BANDS;
+		s[f] &= ~PEERS[p];
+		s[f+1] &= ~PEERS[p+1];
+		s[f+2] &= ~PEERS[p+2];
+		s[U+b] &= nb;
+		return true;
+	}
+
+	// set naked and hidden singles, and eliminate locked candidates, til
+	// there are none. @return false if we hit a dead end: a cell or unit
+	// has no place for a digit, or two singles collide.
+	private boolean propagate() {
+		final int[] s = this.s;
+		int b, d, f, m, v, mr, uns, ones, twos, singles, bit;
+		boolean any;
+		do {
+			any = false;
+			// naked singles
+			for ( b=0; b<BANDS; ++b ) {
+				if ( (uns=s[U+b]) == 0 )
+					continue;
+				ones = twos = 0;
+				for ( d=0; d<REGION_SIZE; ++d ) {
+					m = s[d*BANDS+b];
+					twos |= ones & m;
+					ones |= m;
+				}
+				if ( (uns & ~ones) != 0 )
+					return false; // a cell has no candidates
+				singles = uns & ~twos;
+				while ( singles != 0 ) {
+					bit = singles & -singles;
+					singles ^= bit;
+					// an earlier single may have stolen my candidate
+					for ( d=0; d<REGION_SIZE; ++d )
+						if ( (s[d*BANDS+b] & bit) != 0 )
+							break;
+					if ( d==REGION_SIZE
+					  || !assign(b*BAND_SIZE + Integer.numberOfTrailingZeros(bit), d) )
+						return false;
+					any = true;
+				}
+			}
+			if ( any )
+				continue; // naked singles first, coz they are cheapest
+			switch ( hiddenSingles() ) {
+				case DEAD_END: return false;
+				case CHANGED: any = true; continue;
+			}
+			// locked candidates, per digit and band
+			for ( f=0; f<U; ++f ) {
+				if ( ((m=s[f]) & s[U+f%BANDS]) == 0 )
+					continue; // d is placed in this band
+				// the minirows that maybe d
+				v = m | m>>1 | m>>2;
+				mr = (v & 1) | (v>>2 & 2) | (v>>4 & 4)
+				   | (v>>6 & 8) | (v>>8 & 16) | (v>>10 & 32)
+				   | (v>>12 & 64) | (v>>14 & 128) | (v>>16 & 256);
+				if ( (v=m & CELLS[LOCKED[mr]]) != m ) {
+					s[f] = v;
+					any = true;
+				}
+			}
+		} while ( any );
+		return true;
+	}
+
+	// set hidden singles, per digit: rows and boxs are in a band, and cols
+	// are bit-sliced over the nine rows. @return DEAD_END, CHANGED, or NONE
+	private int hiddenSingles() {
+		final int[] s = this.s;
+		int b, d, f, k, sh, m, v, ones, twos, singles, bit;
+		int result = NONE;
+		for ( d=0; d<REGION_SIZE; ++d ) {
+			f = d * BANDS;
+			// skip this digit if it is placed everywhere
+			if ( ((s[f]&s[U]) | (s[f+1]&s[U+1]) | (s[f+2]&s[U+2])) == 0 )
+				continue;
+			ones = twos = 0;
+			for ( b=0; b<BANDS; ++b ) {
+				m = s[f+b];
+				for ( k=0,sh=0; k<BANDS; ++k,sh+=REGION_SIZE ) {
+					// row k of band b
+					if ( (v=m>>sh & BITS9) == 0 )
+						return DEAD_END; // d has no place in row
+					if ( (v & (v-1)) == 0 && (s[U+b] & (bit=v<<sh)) != 0 ) {
+						if ( !assign(b*BAND_SIZE+Integer.numberOfTrailingZeros(bit), d) )
+							return DEAD_END;
+						result = CHANGED;
+					}
+					// box k of band b
+					if ( (v=m & BOX<<(k*3)) == 0 )
+						return DEAD_END; // d has no place in box
+					if ( (v & (v-1)) == 0 && (s[U+b] & v) != 0 ) {
+						if ( !assign(b*BAND_SIZE+Integer.numberOfTrailingZeros(v), d) )
+							return DEAD_END;
+						result = CHANGED;
+					}
+					// cols: count to two
+					v = m>>sh & BITS9;
+					twos |= ones & v;
+					ones |= v;
+				}
+			}
+			if ( ones != BITS9 )
+				return DEAD_END; // d has no place in a col
+			// cols with one place for d
+			singles = ones & ~twos;
+			while ( singles != 0 ) {
+				bit = singles & -singles;
+				singles ^= bit;
+				COL: for ( b=0; b<BANDS; ++b )
+					for ( sh=0; sh<BAND_SIZE; sh+=REGION_SIZE )
+						if ( (s[f+b] & (v=bit<<sh)) != 0 ) {
+							if ( (s[U+b] & v) != 0 ) {
+								if ( !assign(b*BAND_SIZE+Integer.numberOfTrailingZeros(v), d) )
+									return DEAD_END;
+								result = CHANGED;
+							}
+							break COL;
+						}
+			}
+		}
+		return result;
+	}
+
+	// the candidates of cell i, as a bitset of digits 0..8
+	private int cands(final int i) {
+		final int[] s = this.s;
+		final int b = BAND[i], bit = BIT[i];
+		int cands = 0;
+		for ( int d=0; d<REGION_SIZE; ++d )
+			if ( (s[d*BANDS+b] & bit) != 0 )
+				cands |= 1<<d;
+		return cands;
+	}
+
+	// the unsolved cell to guess: a bivalue if any, else fewest candidates
+	private int guessCell() {
+		final int[] s = this.s;
+		int b, d, m, uns, ones, twos, threes, bi, i, size, best=-1, bestSize=10;
+		for ( b=0; b<BANDS; ++b ) {
+			if ( (uns=s[U+b]) == 0 )
+				continue;
+			ones = twos = threes = 0;
+			for ( d=0; d<REGION_SIZE; ++d ) {
+				m = s[d*BANDS+b];
+				threes |= twos & m;
+				twos |= ones & m;
+				ones |= m;
+			}
+			if ( (bi=uns & twos & ~threes) != 0 )
+				return b*BAND_SIZE + Integer.numberOfTrailingZeros(bi);
+		}
+		// no bivalues (rare), so the fewest candidates
+		for ( i=0; i<GRID_SIZE; ++i )
+			if ( (s[U+BAND[i]] & BIT[i]) != 0
+			  && (size=Integer.bitCount(cands(i))) < bestSize ) {
+				best = i;
+				bestSize = size;
+			}
+		return best;
+	}
+
+	// read the solved state into values 1..9
+	private void read(final int[] values) {
+		for ( int i=0; i<GRID_SIZE; ++i )
+			values[i] = Integer.numberOfTrailingZeros(cands(i)) + 1;
+	}
+
+}
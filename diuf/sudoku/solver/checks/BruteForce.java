@@ -6,9 +6,9 @@
  */
 package diuf.sudoku.solver.checks;
 
-import diuf.sudoku.Backup;
 import diuf.sudoku.Grid;
 import diuf.sudoku.Grid.Cell;
+import static diuf.sudoku.Grid.GRID_SIZE;
 import static diuf.sudoku.Grid.REGION_SIZE;
 import static diuf.sudoku.Grid.VALUE_CEILING;
 import diuf.sudoku.Run;
@@ -56,6 +56,15 @@ import static diuf.sudoku.Values.VSIZE;
  * <p>
  * nb: One-upon-a-time I renamed this class, but reverted back to BruteForce,
  * because it is a proper noun for algorithmists. My bad. Soz!
+ * <p>
+ * countSolutions, solve, and findHints (validation) now use
+ * my {@link BitSolver}, which counts solutions (upto two) on bitboards, with
+ * no Grid, no Backup, and no hinters; rather than solving the Grid forwards
+ * and backwards with recursiveSolve. It is about ten times faster, and it
+ * is on the path of every puzzle loaded, generated, or batched. The two
+ * solutions in a MultipleSolutionsHint are now the first two found, not the
+ * forwards and backwards solutions. recursiveSolve remains for
+ * buildRandomPuzzle only, coz it guesses in random order.
  */
 public final class BruteForce extends AWarningHinter {
 
@@ -86,17 +95,36 @@ public final class BruteForce extends AWarningHinter {
 
 	// for the solve methods isReverse parameter.
 	private static final boolean FORWARDS = false;
-	// for the solve methods isReverse parameter.
-	private static final boolean BACKWARDS = true;
 
 	// for recursiveSolve methods isLogical param
 	private static final boolean LOGIC = true;
-	// for recursiveSolve methods isLogical param
-	private static final boolean NO_LOGIC = false;
+
+	// solve upto this many solutions: 2 means many
+	private static final int ONE = 1, MANY = 2;
+
+	/**
+	 * Returns a copy of grid with these cell values, ie a solution.
+	 *
+	 * @param grid the puzzle
+	 * @param values the solution values
+	 * @return a new Grid, solved
+	 */
+	private static Grid solved(final Grid grid, final int[] values) {
+		final Grid copy = new Grid(grid);
+		for ( int i=0; i<GRID_SIZE; ++i )
+			copy.cells[i].value = values[i];
+		copy.prep();
+		copy.countNumSet();
+		copy.numMaybes = 0;
+		return copy;
+	}
 
 	/** the solution is derived. */
 	public SolutionHint solutionHint = null;
 
+	// counts solutions, fast
+	private final BitSolver bits = new BitSolver();
+
 	// ---------------------- the solveLogically section ----------------------
 
 	// This is the "normal" hints accumulator, nb: we want only one hint.
@@ -205,24 +233,17 @@ public final class BruteForce extends AWarningHinter {
 	 */
 	public int countSolutions(final Grid grid) {
 		// NO solveLogically, to avert bugs in generator.
-		final boolean isLogical = NO_LOGIC;
-		final Grid f = new Grid(grid); // forwards
-		if ( !doRecursiveSolve(f, FORWARDS, isLogical) )
-			return 0; // 0 solutions: the Sudoku is invalid
-		final Grid b = new Grid(grid); // backwards
-		if ( !doRecursiveSolve(b, BACKWARDS, isLogical) )
-			return 0; // should never happen
-		if ( f.equals(b) )
-			return 1; // the Sudoku is valid
+		final int n = bits.countSolutions(grid, MANY);
+		if ( n < MANY )
+			return n; // 0 is invalid, 1 is valid
 		// There are two-or-more distinct solutions!
 		// An invalid puzzle indicates a bug outside of the Generator; but
 		// MANY MANY invalid puzzles are routine in the Generator, so ignore.
 		if ( !Run.isGenerator() ) {
-			// see the two grids to double-check Grid.equals
-			Log.teef("BruteForce.countSolutions: 2-or-more solutions isLogical=%s\n", isLogical);
+			Log.teef("BruteForce.countSolutions: 2-or-more solutions\n");
 			Log.teef("ORIGINAL:\n%s\n", grid);
-			Log.teef("FORWARDS:\n%s\n", f);
-			Log.teef("BACKWARDS:\n%s\n", b);
+			Log.teef("FIRST:\n%s\n", solved(grid, bits.solutions[0]));
+			Log.teef("SECOND:\n%s\n", solved(grid, bits.solutions[1]));
 		}
 		return 2; // the Sudoku is invalid
 	}
@@ -237,15 +258,9 @@ public final class BruteForce extends AWarningHinter {
 	 * @return a copy of the given grid that has been solved
 	 */
 	public Grid solve(final Grid grid) {
-		// LOGIC is faster! Averting multiple guesses in BruteForce!
-		final Grid copy = new Grid(grid);
-		if ( doRecursiveSolve(copy, FORWARDS, LOGIC) )
-			return copy;
-		// NO_LOGIC is safer! Not broken by bugs in basic hinters.
-		final Grid copy2 = new Grid(grid);
-		if ( doRecursiveSolve(copy2, FORWARDS, NO_LOGIC) )
-			return copy2;
-		// invalid Puzzle or doRecursiveSolve is broken again.
+		if ( bits.countSolutions(grid, ONE) == ONE )
+			return solved(grid, bits.solutions[0]);
+		// invalid Puzzle or BitSolver is broken again.
 		throw new UnsolvableException("invalid Puzzle.");
 	}
 
@@ -270,34 +285,26 @@ public final class BruteForce extends AWarningHinter {
 	public boolean findHints(final Grid grid, final IAccumulator accu) {
 		boolean result = false;
 		try {
-			final Grid f = new Grid(grid); // FORWARDS solution
 			grid.solution = null;
-			if ( doRecursiveSolve(f, FORWARDS, LOGIC) ) {
-				final Grid b = new Grid(grid); // BACKWARDS solution
-				doRecursiveSolve(b, BACKWARDS, LOGIC);
-				if ( b.equals(f) ) {
+			switch ( bits.countSolutions(grid, MANY) ) {
+				case ONE:
 					// the Sudoku is valid: so set grid.solution
-					grid.solution = f.getValues();
+					grid.solution = bits.solutions[0].clone();
 					result = false; // there is no hint here
-				} else {
+					break;
+				case MANY:
 					// the Sudoku is invalid: multiple solutions
-					accu.add(new MultipleSolutionsHint(this, grid, f, b));
+					accu.add(new MultipleSolutionsHint(this, grid
+							, solved(grid, bits.solutions[0])
+							, solved(grid, bits.solutions[1])));
 					result = true; // there is a hint here
-				}
-			} else {
-				// the Sudoku is unsolvable (ie invalid)
-				// but are we just missing some maybe/s?
-				f.copyFrom(grid);
-				// restore any missing maybes, ie part correct missolved puzzle
-				f.rebuildMaybesAndS__t();
-				// if there are missing maybes and it solves with them restored
-				if ( !f.equals(grid) && doRecursiveSolve(f, BACKWARDS, LOGIC) )
-					// Missing maybe/s: a cells solution value has been removed
-					// from its potential values, so the puzzle is unsolvable.
-					accu.add(new WarningHint(this, "Missing maybes", "MissingMaybes.html"));
-				else // the Sudoku is unsolvable in its current form
+					break;
+				default:
+					// the Sudoku is unsolvable (ie invalid). The maybes are
+					// not used (they were rebuilt before solving, even when
+					// this was recursiveSolve) so it is NOT "Missing maybes".
 					accu.add(new WarningHint(this, "Unsolvable", "Unsolvable.html"));
-				result = true; // there is a hint here
+					result = true; // there is a hint here
 			}
 		} catch (Exception ex) {
 			Log.teeTrace("WARN: "+Log.me()+" caught "+ex, ex);
@@ -305,48 +312,6 @@ public final class BruteForce extends AWarningHinter {
 		return result;
 	}
 
-	/**
-	 * Try to solve the given grid, forwards or backwards.
-	 * <p>
-	 * The grid can be solved in forward or reverse direction. Both directions
-	 * result in the same solution if, and only if, the Sudoku has exactly one
-	 * solution.
-	 *
-	 * @param grid the grid to solve
-	 * @param isReverse whether to solve in reverse direction
-	 * @param isNoisy true to log, false to shut the ____ up.
-	 * @param isLogical true calls solveLogically for speed, false does not.
-	 * @return {@code true} meaning the given puzzle is valid; else <br>
-	 *  {@code false} means the puzzle has not been solved, which means that <br>
-	 *  (improbable) the puzzle is actually invalid, or <br>
-	 *  (far more probable) one of the fiveQuickFoxes or BruteForce is broken,
-	 *  so start at the most recent change, and work back.
-	 */
-	private boolean doRecursiveSolve(final Grid grid, final boolean isReverse
-			, final boolean isLogical) {
-		boolean result;
-		try {
-			apcu.grid = grid;
-			grid.rebuildMaybes();
-			result = recursiveSolve(grid, isReverse, null, isLogical, 0);
-		} catch (UnsolvableException ex) {
-			// nb: UnsolvableExceptions stack-trace is useless coz it is a
-			// pre-generated instance, for speed.
-			Log.teeln("WARN: "+Log.me()+": top level of recursiveSolve threw "+ex);
-			result = false; // Sudoku is invalid.
-		} catch (Exception ex) {
-			Log.teeTrace("WARN: "+Log.me()+": top level of recursiveSolve threw ", ex);
-			result = false; // Sudoku is invalid.
-		} finally {
-			apcu.grid = null;
-		}
-		if ( IS_NOISY ) {
-			final String s; if(isReverse) s="back"; else s="for";
-			noiseln("doRecursiveSolve "+s+"wards returns "+result+NL+grid);
-		}
-		return result;
-	}
-
 	/**
 	 * Recursively solves the given puzzle by trying (not very hard) to solve
 	 * the puzzle logically and guessing the value of each indeterminate cell.
@@ -388,8 +353,10 @@ public final class BruteForce extends AWarningHinter {
 		if ( smallestCell == null )
 			return true; // solved
 		// (3) Try each potential value for that cell
-		// we need a backup to revert to if/when we guess a wrong value.
-		final Backup backup = new Backup(grid);
+		// we need a mark to rollback to if/when we guess a wrong value.
+		// mark/rollback undoes only what changed, where
+		// restore(Backup) copied and rebuilt the whole grid per guess.
+		final int mark = grid.mark();
 		// nb: a new values array is used for each level of recursion. I tried
 		// having an array-of-arrays (max recursion depth IS bounded) with each
 		// auto-growing to be as large as required, but it was SLOWER than just
@@ -401,24 +368,28 @@ public final class BruteForce extends AWarningHinter {
 		final int[] values = getValuesToGuess(smallestCell.maybes, rnd, isReverse);
 		final int n = values.length;
 		int i = 0;
-		for (;;) {
-			try {
-				// Guess the value of leastCell
-				// nb: cell.set(... true) also sets any subsequent naked
-				//     or hidden singles, and may throw UnsolvableException
-				smallestCell.set(values[i], 0, true, null); // Grid.AUTOSOLVE
-				if ( recursiveSolve(grid, isReverse, rnd, isLogical, depth+1) )
-					return true; // solved
-			} catch (UnsolvableException eaten) {
-				// guessed wrong, so guess again.
+		try {
+			for (;;) {
+				try {
+					// Guess the value of leastCell
+					// nb: cell.set(... true) also sets any subsequent naked
+					//     or hidden singles, and may throw UnsolvableException
+					smallestCell.set(values[i], 0, true, null); // Grid.AUTOSOLVE
+					if ( recursiveSolve(grid, isReverse, rnd, isLogical, depth+1) )
+						return true; // solved
+				} catch (UnsolvableException eaten) {
+					// guessed wrong, so guess again.
+				}
+				// note that if ++i==n then this is last possible value of cell,
+				// so we do not need to rollback the grid, because we are about
+				// to return false, leaving it upto our caller to guess again,
+				// or return to his caller to guess again, or return to...
+				if ( ++i == n )
+					break;
+				grid.rollback(mark);
 			}
-			// note that if ++i==n then this is last possible value of cell, so
-			// we do not need to restore the grid, because we are about to return
-			// false, leaving it upto our caller to guess again, or return to
-			// his caller to guess again, or return to...
-			if ( ++i == n )
-				break;
-			grid.restore(backup);
+		} finally {
+			grid.release(mark);
 		}
 		return false; // unsolvable
 	}
@@ -0,0 +1,192 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver.checks;
+
+import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.BOX_OF;
+import static diuf.sudoku.Grid.COL_OF;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.Grid.REGION_SIZE;
+import static diuf.sudoku.Grid.ROW_OF;
+import static diuf.sudoku.Values.BITS9;
+import static diuf.sudoku.Values.VSHFT;
+import static diuf.sudoku.Values.VSIZE;
+
+/**
+ * UniquenessChecker is an incremental uniqueness check for the Generator,
+ * which removes clues from a solved grid, a few at a time, reverting each
+ * removal that renders the puzzle invalid (many solutions).
+ * <p>
+ * {@link BruteForce#countSolutions} solves the whole puzzle twice (forwards
+ * and backwards) after each removal, but we already know the solution, and
+ * that the puzzle was unique BEFORE these clues were removed; so any other
+ * solution of the new puzzle must differ from the known solution in one of
+ * the removed cells (else it would be another solution of the old puzzle).
+ * So I just search for a solution with removed cell X != its solution value,
+ * for each removed cell X in turn; and having searched X, I set X back to
+ * its solution value for the subsequent searches, coz all solutions with
+ * X != solution have already been sought. Each search is tightly constrained,
+ * so it almost always fails quickly; where a full solve must actually solve
+ * the puzzle, which takes longer the fewer clues it has.
+ * <p>
+ * My state is kept between checks: the clues, and the values used in each
+ * row, col, and box, which are updated by each removal (and its revert), not
+ * recalculated, so each check costs only the searches.
+ * <p>
+ * The search is a plain recursive guesser over bitsets: fewest candidates
+ * first, with no logic; so it can not be broken by the hinters.
+ * <p>
+ * UniquenessChecker is NOT thread-safe. Each Generator has its own.
+ */
+public final class UniquenessChecker {
+
+	// the known solution: the value of each cell
+	private final int[] solution = new int[GRID_SIZE];
+	// the current value of each cell: the clue, else 0 (unknown)
+	private final int[] values = new int[GRID_SIZE];
+	// the bitset of values used in each row, col, and box
+	private final int[] rows = new int[REGION_SIZE];
+	private final int[] cols = new int[REGION_SIZE];
+	private final int[] boxs = new int[REGION_SIZE];
+	// indices of the empty cells: the search sets cells in values, so it
+	// searches these, to avoid scanning all 81 cells at each level.
+	private final int[] empties = new int[GRID_SIZE];
+	private int numEmpties;
+
+	/**
+	 * Reset me to this solved grid, which is (of course) unique.
+	 *
+	 * @param solved a completely solved Grid, from buildRandomPuzzle
+	 */
+	public void reset(final Grid solved) {
+		int i, sv;
+		for ( i=0; i<REGION_SIZE; ++i )
+			rows[i] = cols[i] = boxs[i] = 0;
+		for ( i=0; i<GRID_SIZE; ++i ) {
+			values[i] = solution[i] = solved.cells[i].value;
+			sv = VSHFT[solution[i]];
+			rows[ROW_OF[i]] |= sv;
+			cols[COL_OF[i]] |= sv;
+			boxs[BOX_OF[i]] |= sv;
+		}
+		numEmpties = 0;
+	}
+
+	/**
+	 * Remove the clues at these indices, if the puzzle remains unique, else
+	 * I revert them, so that my state is always a unique puzzle.
+	 *
+	 * @param indices the indices of the cells to clear. Each must currently
+	 *  be a clue
+	 * @param n the number of indices
+	 * @return true if the puzzle is still unique, so the clues are removed;
+	 *  false if it now has multiple solutions, so the clues are restored
+	 */
+	public boolean remove(final int[] indices, final int n) {
+		int i, x;
+		for ( i=0; i<n; ++i )
+			clear(indices[i]);
+		final int oldNumEmpties = numEmpties;
+		for ( i=0; i<n; ++i )
+			empties[numEmpties++] = indices[i];
+		boolean unique = true;
+		for ( i=0; i<n; ++i ) {
+			x = indices[i];
+			// any other solution has x != solution[x], else it is another
+			// solution of the previous (unique) puzzle, which is impossible.
+			if ( search(x, ~VSHFT[solution[x]] & BITS9) ) {
+				unique = false;
+				break;
+			}
+			// x == solution[x] in all other solutions, so set it, shrinking
+			// the subsequent searches.
+			set(x, solution[x]);
+		}
+		if ( unique ) {
+			// reclear the removed cells, which the searches set
+			for ( i=0; i<n; ++i )
+				clear(indices[i]);
+			return true;
+		}
+		// revert: restore the removed clues
+		for ( i=0; i<n; ++i )
+			if ( values[x=indices[i]] == 0 )
+				set(x, solution[x]);
+		numEmpties = oldNumEmpties;
+		return false;
+	}
+
+	// set cell x to value v
+	private void set(final int x, final int v) {
+		final int sv = VSHFT[v];
+		values[x] = v;
+		rows[ROW_OF[x]] |= sv;
+		cols[COL_OF[x]] |= sv;
+		boxs[BOX_OF[x]] |= sv;
+	}
+
+	// clear cell x, which is set
+	private void clear(final int x) {
+		final int sv = ~VSHFT[values[x]];
+		values[x] = 0;
+		rows[ROW_OF[x]] &= sv;
+		cols[COL_OF[x]] &= sv;
+		boxs[BOX_OF[x]] &= sv;
+	}
+
+	// the candidates of empty cell x
+	private int cands(final int x) {
+		return ~(rows[ROW_OF[x]] | cols[COL_OF[x]] | boxs[BOX_OF[x]]) & BITS9;
+	}
+
+	// Is there a solution with cell x in mask? x is empty. The grid is as it
+	// was when I return.
+	private boolean search(final int x, final int mask) {
+		int c = cands(x) & mask;
+		int sv;
+		while ( c > 0 ) {
+			c &= ~(sv = c & -c);
+			set(x, Integer.numberOfTrailingZeros(sv) + 1);
+			final boolean found = solve();
+			clear(x);
+			if ( found )
+				return true;
+		}
+		return false;
+	}
+
+	// Is there any solution to the empty cells? Recursively guess the empty
+	// cell with the fewest candidates. The grid is as it was when I return.
+	private boolean solve() {
+		int i, x, c, size, best = -1, bestSize = 10;
+		for ( i=0; i<numEmpties; ++i ) {
+			if ( values[x=empties[i]] == 0 ) {
+				if ( (size=VSIZE[cands(x)]) < bestSize ) {
+					if ( size == 0 )
+						return false; // dead end
+					best = x;
+					if ( (bestSize=size) == 1 )
+						break;
+				}
+			}
+		}
+		if ( best < 0 )
+			return true; // all set, so solved
+		int sv;
+		c = cands(best);
+		while ( c > 0 ) {
+			c &= ~(sv = c & -c);
+			set(best, Integer.numberOfTrailingZeros(sv) + 1);
+			final boolean found = solve();
+			clear(best);
+			if ( found )
+				return true;
+		}
+		return false;
+	}
+
+}
@@ -8,6 +8,7 @@ package diuf.sudoku.solver.hinters;
 
 import diuf.sudoku.Grid;
 import diuf.sudoku.Tech;
+import diuf.sudoku.solver.SolverContext;
 import diuf.sudoku.solver.accu.ExplodingHintsAccumulator;
 import diuf.sudoku.solver.accu.IAccumulator;
 import diuf.sudoku.solver.accu.ValidatingHintsAccumulator;
@@ -180,6 +181,21 @@ public interface IHinter {
 		return false;
 	}
 
+	/**
+	 * The LogicalSolver(Builder) passes its SolverContext to each of its
+	 * hinters, so that hinters which share state (the ALS hinters share ALSS
+	 * and RCCS, the table chainers share TABLES) share it only with hinters
+	 * in the same LogicalSolver, which makes the hinters re-entrant, so long
+	 * as each thread has its own LogicalSolver.
+	 * <p>
+	 * Most hinters do not share state, so the default is a no-op.
+	 *
+	 * @param context of the LogicalSolver which contains this hinter
+	 */
+	public default void setContext(SolverContext context) {
+		// a no-op
+	}
+
 	/**
 	 * Various hinters have internal caches, and I want a way to turn them all
 	 * off in logFollow, to minimise lost-hints.
@@ -6,6 +6,8 @@
  */
 package diuf.sudoku.solver.hinters.align;
 
+import diuf.sudoku.Config;
+import static diuf.sudoku.Config.CFG;
 import diuf.sudoku.Grid;
 import static diuf.sudoku.Grid.BUDDIES;
 import static diuf.sudoku.Grid.CELL_IDS;
@@ -21,12 +23,15 @@ import diuf.sudoku.Pots;
 import diuf.sudoku.Tech;
 import diuf.sudoku.Values;
 import static diuf.sudoku.Values.VALUESES;
+import static diuf.sudoku.Values.NUM_MAYBES;
 import static diuf.sudoku.Values.VLAST;
 import static diuf.sudoku.Values.VSHFT;
 import static diuf.sudoku.Values.VSHIFTED;
 import static diuf.sudoku.Values.VSIZE;
 import diuf.sudoku.solver.AHint;
 import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.accu.HintsAccumulator;
+import diuf.sudoku.solver.accu.IAccumulator;
 import diuf.sudoku.solver.hinters.AHinter;
 import static diuf.sudoku.solver.hinters.Validator.*;
 import diuf.sudoku.utils.Debug;
@@ -34,6 +39,10 @@ import static diuf.sudoku.utils.Frmt.MINUS;
 import diuf.sudoku.utils.IntQueue;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * AlignedExclusion implements the AlignedExclusion Sudoku solving technique
@@ -355,6 +364,24 @@ import java.util.LinkedHashSet;
  * pzls        total (ns) (mm:ss)         each (ns)
  * 1465   338,804,037,500 (05:38)       231,265,554
  * </pre>
+ * <p>
+ * The aligned sets are independent of each other, so when
+ * {@link Config#isParallelAligned} they are searched in the common
+ * ForkJoinPool, in a SearchTask per first-cell, each with its own stacks,
+ * allowed array, NonHinters and accumulator. The hints of all tasks are added
+ * to accu in first-cell order, which is the order of the serial search, so
+ * the hints are the same either way. Only the wall-time differs.
+ * <p>
+ * Correct is back, for A2E, A3E and A4E only: sets aligned
+ * around ONE excluder, which finds four to nine times as many hints. What makes
+ * it usable is pruning the combos, not checking them. The excluders are now a
+ * bitset of the combos that cover them (covers), so a partial combo that
+ * covers an excluder skips every combo containing it; a slave with no values
+ * left skips them too; and a partial combo that can not allow a value that
+ * is not already allowed (in itself, or the remaining values of the cells to
+ * its right) skips the lot. Correct A4E is now about half the time it takes
+ * without pruning, and about two and a half times hacked A4E. Hacked A5E+ is
+ * unchanged, except that it prunes too.
  *
  * @author Keith Corlett 2020-12-10 created
  */
@@ -395,12 +422,30 @@ implements diuf.sudoku.solver.hinters.IPrepare
 	// which have already been checked in there current state, which is faster,
 	// but still not fast enough... the individual A*E classes are faster.
 	private final NonHinters nonHinters;
+	// the number of bits to left-shift the NonHinters hashCode per cell
+	private final int nonHintersShift;
 	// is this the first run of this instance of AE through this puzzle?
 	private boolean firstPass = true;
 
+	// the largest degree that is "correct": aligned around ONE excluder-cell
+	private static final int MAX_CORRECT_DEGREE = 4;
+
 	// the minimum number of excluder-cells required to align a set around
 	private final int minExcls;
 
+	/**
+	 * Are the aligned sets searched in parallel, in the common ForkJoinPool?
+	 * {@link Config#isParallelAligned} defaults to false, coz
+	 * LogicalSolverTester -threads and the LogicalSolverPool are already
+	 * parallel. Use it for the big A*Es on a many-core machine.
+	 */
+	private final boolean isParallel = CFG.getBoolean(Config.isParallelAligned, false);
+
+	// the NonHinters of the parallel search, by indice of the first-cell of
+	// the aligned set, so that each SearchTask has its own. Created when
+	// first needed, coz there are 81 of them.
+	private NonHinters[] nonHintersByCell;
+
 	/**
 	 * The constructor. I read my degree (number of cells in an aligned set)
 	 * from the given Tech, which MUST be a Tech.Aligned*.
@@ -410,15 +455,19 @@ implements diuf.sudoku.solver.hinters.IPrepare
 	public AlignedExclusion(final Tech tech) {
 		super(tech);
 		assert tech.isAligned;
-		// 2 for hacked, 1 for correct, except in A2E
-		minExcls = 2;
+		// 1 for correct, 2 for hacked. Correct is fast enough upto A4E, now
+		// that a combo covering an excluder prunes every combo containing it.
+		minExcls = degree > MAX_CORRECT_DEGREE ? 2 : 1;
 		// NonHinters size matters. It doesnt grow like a HashMap, it does its
 		// best with what-ever its given. When its overfull its really slow,
 		// but underfull (too large) also slows EVERYthing down.
 		// Shoot for fastest OVERALL, not just the fastest for this hinter.
 		// Using 2+ Aligned(5+)Exclusions at one time uses so much RAM the
 		// whole app bogs-down! So A*E is best not used at all.
-		nonHinters = new NonHinters(MAP_SIZE[degree], 4);
+		// Correct shifts 7 bits, coz an indice is 7 bits, so the hashCode is
+		// exact, else the many more sets collide, wrongly skipping hints.
+		nonHintersShift = minExcls==1 ? 7 : 4;
+		nonHinters = new NonHinters(MAP_SIZE[degree], nonHintersShift);
 	}
 
 	/**
@@ -431,6 +480,9 @@ implements diuf.sudoku.solver.hinters.IPrepare
 	@Override
 	public void prepare(final Grid grid, final LogicalSolver logicalSolver) {
 		nonHinters.clear();
+		if ( nonHintersByCell != null )
+			for ( NonHinters nh : nonHintersByCell )
+				nh.clear();
 		clearValidator();
 		// the next getHints will be the firstPass through this puzzle,
 		// to speed-up NonHinters.skip.
@@ -482,6 +534,58 @@ implements diuf.sudoku.solver.hinters.IPrepare
 	 */
 	@Override
 	public boolean findHints() {
+		// candidates is an Idx of empty cells with sufficient excluder cells.
+		// An excluder cell is a cell with 2..$degree maybes, so that ez maybes
+		// can be "covered" by a set of $degree cells. "Covered" means that all
+		// the potential values of common excluder cell are taken by candidates
+		// so that this "combo" (distinct potential values of $degree cells) is
+		// not allowed. Then having examined all "combos", if no combo allows a
+		// candidates potential value then that value has been "excluded", and
+		// so is eliminated by the hint.
+		final Idx candidates = new Idx();
+		// the set of excluder-cells for each candidate cell.
+		// My array index is the indice of the candidate cell.
+		final Idx[] excluders = new IdxI[GRID_SIZE];
+		try {
+			// find cells that are candidates for aligned exclusion, and get
+			// the possible excluder-cells of each candidate. A candidate is
+			// an unset cell with sufficient excluders. My degree is number
+			// of cells in each aligned set. An excluder cell is one having
+			// 2..degree maybes, so that ALL of those maybes can be "covered"
+			// by an aligned set of degree cells.
+			final int numCandidates = populate(candidates, excluders);
+			if ( numCandidates < degree )
+				return false; // rare but required (else CELL_LOOP endless)
+			// indices of candidate cells to be read repeatedly
+			final int[] indices = candidates.toArrayNew();
+			if ( isParallel )
+				return searchInParallel(indices, excluders);
+			return search(indices, excluders, 0, numCandidates, nonHinters, accu);
+		} finally {
+			this.firstPass = false; // no longer firstPass through this puzzle
+		}
+	}
+
+	/**
+	 * Search the aligned sets whose first cell is indices[from..to), adding
+	 * any hints to accu. The sets are examined in the same order as the whole
+	 * search would, so the hints are too.
+	 * <p>
+	 * Extracted from findHints for SearchTask. I read only the
+	 * grid and my parameters, so that searches of distinct ranges may run in
+	 * parallel, so long as each has its own nonHinters and accu.
+	 *
+	 * @param indices of the candidate cells
+	 * @param excluders of each candidate cell, by indice
+	 * @param from the index in indices of the first first-cell
+	 * @param to the index in indices of the last first-cell, exclusive
+	 * @param nonHinters known non-hinting aligned sets
+	 * @param accu to add hints to
+	 * @return any hint/s found?
+	 */
+	private boolean search(final int[] indices, final Idx[] excluders
+			, final int from, final int to, final NonHinters nonHinters
+			, final IAccumulator accu) {
 		// ------------------------------------------
 		// | COMBINATORIAL * COMBINATORIAL == SLOW! |
 		// ------------------------------------------
@@ -505,6 +609,7 @@ implements diuf.sudoku.solver.hinters.IPrepare
 			   // hijacked as slaveCand: possible values of slave cell
 		, indice // the indice of the current cell (ie index in grid.cells)
 		, i, count // index
+		, any // values in this part of the combo tree not yet allowed
 		;
 		// workLevel: all potential values of all cells below workLevel have
 		// already been allowed, so do NOT waste time re-examining them. When
@@ -515,23 +620,8 @@ implements diuf.sudoku.solver.hinters.IPrepare
 		// all values have been allowed, ergo theres no hint here, again.
 		int wL, wN; // wN is wL+1
 		boolean isAllowed; // keep trying to process this combo
-		// candidates is an Idx of empty cells with sufficient excluder cells.
-		// An excluder cell is a cell with 2..$degree maybes, so that ez maybes
-		// can be "covered" by a set of $degree cells. "Covered" means that all
-		// the potential values of common excluder cell are taken by candidates
-		// so that this "combo" (distinct potential values of $degree cells) is
-		// not allowed. Then having examined all "combos", if no combo allows a
-		// candidates potential value then that value has been "excluded", and
-		// so is eliminated by the hint.
-		final Idx candidates = new Idx();
-		// stack references to heap fields (1.8 seconds faster top1465)
-		// the set of excluder-cells for each candidate cell.
-		// My array index is the indice of the candidate cell.
-		final Idx[] excluders = new IdxI[GRID_SIZE];
-		// EXCLUDERS_MAYBES: excluder cells maybes; there is ONE static array
-		// shared via Idx#cellMaybes by all instances of AlignedExclusion which
-		// cannot execute concurrently. I belong in Idx, but I exist only while
-		// A*E is in use.
+		// excludersMaybes: the maybes of the excluder cells of the current
+		// aligned set, which clean reduces and sorts. Local to each call.
 		final int[] excludersMaybes = new int[20];
 		// an array of $degree cells: sets of aligned cells are built-up from
 		// top[0] to bottom[degreeMinus1]. Da cells at each level are aligned
@@ -568,262 +658,384 @@ implements diuf.sudoku.solver.hinters.IPrepare
 		// a bitset of the values which have been allowed in each candidate
 		// cell in the aligned set.
 		final int[] allowed = new int[degree];
-		// see the NonHinters class for verbose commentary.
-		final NonHinters nonHinters = this.nonHinters;
+		// covers is a bitset of combos: a 512 bit set of the 9 bit sets of
+		// values that contain all maybes of any excluder, which are excluded,
+		// so a combo is checked with ONE lookup, instead of a loop through
+		// the excluders; and a partial combo that covers prunes all combos
+		// that contain it, which is most of them.
+		final long[] covers = new long[NUM_MAYBES>>6];
+		// align around one excluder (correct), or two (hacked)?
+		final boolean isCorrect = minExcls == 1;
 		// presume that no hints will be found
 		// 15,701 A7e top1465 nonHinters.count=1,770,961
 		boolean result = false;
 
-		try {
-			// find cells that are candidates for aligned exclusion, and get
-			// the possible excluder-cells of each candidate. A candidate is
-			// an unset cell with sufficient excluders. My degree is number
-			// of cells in each aligned set. An excluder cell is one having
-			// 2..degree maybes, so that ALL of those maybes can be "covered"
-			// by an aligned set of degree cells.
-			final int lastCellStackIndex = populate(candidates, excluders) - 1;
-			if ( lastCellStackIndex < degreeMinus1 )
-				return result; // rare but required (else CELL_LOOP endless)
-			// indices of candidate cells to be read repeatedly
-			final int[] indices = candidates.toArrayNew();
-			// the first level of the cellStack is 0 (no stopper level here)
-			cL = 0;
-			// tricky: this levels index = the first cell at this level.
-			m = 0;
-			do
-				cellStack[m].index = m;
-			while (++m  <degree);
-			// foreach distinct possible combination of degree candidate cells
-			CELL_LOOP: for(;;) {
-				// break CELL_NONLOOP instead of continue;ing CELL_LOOP, coz
-				// break is faster than continue. It matters here. This loop
-				// runs 3,704,003,188 times in HACKED A7E in a top1465 batch.
-				// ?,???,??? A7E top1465 is numberOfTimes this block executes.
-				// EVERYthing must be as efficient as possible, even more so.
-				CELL_NONLOOP: for(;;) {
-					// while this level is exhausted, fallback a level
-					while ( (cC=cellStack[cL]).index > lastCellStackIndex ) {
-						if(cL == 0) return result; // all examined -> done
-						// set this levels index to cell after the previous
-						// levels current cell (a forwards-only search); and
-						// move up one level in the cellStack.
-						cC.index = cellStack[--cL].index + 1;
-						// check interrupt on ascent (ie as rarely as possible)
-						hinterrupt();
-					}
-					// get current indice, incrementing for next time,
-					indice = cC.indice = indices[cC.index++];
-					// my excluders
-					mine = excluders[indice];
-					// set this cell up in the cellStack
-					// nb: vsMaybes[cL] dont change; vsCands[cL] change often
-					cC.maybes = vsMaybes[cL] = vsCands[cL] = maybes[indice];
-					// if this is the first cell in the aligned set then
-					if ( cL == 0 ) {
-						// cC.excluders = nice-sized-buddies of currentCell
-						cC.excluders.set(mine);
-						++cL; // move down the cellStack
-					// else does this cell line-up? Current cell is the next
-					// cell in this AlignedSet only if enough (2) of his nice-
-					// sized-buddies coincide with cells already in the set.
-					} else if ( cC.excluders.setAndMany(
-							cellStack[cL-1].excluders, mine) ) {
-						// 288,389,540 A7E top1465
-						// if the AlignedSet is incomplete
-						if ( cL < degreeMinus1 ) {
-							// cS[cL].index is already incremented to index of
-							// the next candidate cell, so next level starts at
-							// the next cell (a forwards-only search); then we
-							// move down to the next level in the cellStack.
-							cellStack[cL+1].index = cellStack[cL++].index;
-						} else {
-							// this AlignedSet is complete (has degree cells).
-							assert cL == degreeMinus1;
-							// set excludersMaybes to the excluder cells maybes
-							count = 0;
-							for ( q=cC.excluders.indices(); (i=q.poll())>QEMPTY; )
-								excludersMaybes[count++] = maybes[i];
-							// clean deletes excludersMaybes having a maybe not
-							// in aligned set; sort excludersMaybes by size ASC
-							// then removes superset/duplicate excluders->speed
-							if ( (n=clean(cellStack, excludersMaybes, count)) < minExcls )
-								break; // to continue the CELL_LOOP;
-							// 21,457,138 A7E top1465
-							// skip AlignedSet if already known to not hint in
-							// current state; reexamine if maybes in AlignedSet
-							// or maybes of excluder cells have changed since
-							// there last visit to the proctologist.
-							// Avert ~99.3% reexams so faster despite Hash get
-							// NB: skip now includes excluders in totalMaybes.
-							// NB: skip is not perfect. There are collisions,
-							// which WILL wrongly skip sets, which might hint,
-							// but run it ONCE without me to see why I exist.
-							if ( nonHinters.skip(cells, cellStack, degree
-									, n, firstPass, excludersMaybes) )
-								break; // to continue the CELL_LOOP;
-							// 7,639,581 A7E top1465
-							// reset first valsStack entry to its first value.
-							// valuesLevel=0 the first (no stopper level).
-							// clear allowedValues for the new AlignedSet.
-							vsIndexes[0] = vL = m = 0;
+		// the last index in indices
+		final int lastCellStackIndex = indices.length - 1;
+		// the first level of the cellStack is 0 (no stopper level here)
+		cL = 0;
+		// tricky: this levels index = the first cell at this level.
+		m = 0;
+		do
+			cellStack[m].index = from + m;
+		while (++m < degree);
+		CELL_LOOP: for(;;) {
+			// break CELL_NONLOOP instead of continue;ing CELL_LOOP, coz
+			// break is faster than continue. It matters here. This loop
+			// runs 3,704,003,188 times in HACKED A7E in a top1465 batch.
+			// ?,???,??? A7E top1465 is numberOfTimes this block executes.
+			// EVERYthing must be as efficient as possible, even more so.
+			CELL_NONLOOP: for(;;) {
+				// while this level is exhausted, fallback a level
+				while ( (cC=cellStack[cL]).index > lastCellStackIndex ) {
+					if(cL == 0) return result; // all examined -> done
+					// set this levels index to cell after the previous
+					// levels current cell (a forwards-only search); and
+					// move up one level in the cellStack.
+					cC.index = cellStack[--cL].index + 1;
+					// check interrupt on ascent (ie as rarely as possible)
+					hinterrupt();
+				}
+				// get current indice, incrementing for next time,
+				indice = cC.indice = indices[cC.index++];
+				// my excluders
+				mine = excluders[indice];
+				// set this cell up in the cellStack
+				// nb: vsMaybes[cL] dont change; vsCands[cL] change often
+				cC.maybes = vsMaybes[cL] = vsCands[cL] = maybes[indice];
+				// if this is the first cell in the aligned set then
+				if ( cL == 0 ) {
+					// a first-cell beyond my range -> done
+					if ( cC.index > to )
+						return result;
+					// cC.excluders = nice-sized-buddies of currentCell
+					cC.excluders.set(mine);
+					++cL; // move down the cellStack
+				// else does this cell line-up? Current cell is the next
+				// cell in this AlignedSet only if enough (1 correct, 2 hacked)
+				// of his nice-sized-buddies coincide with cells already in the
+				// set.
+				} else if ( isCorrect
+						? cC.excluders.setAndAny(cellStack[cL-1].excluders, mine)
+						: cC.excluders.setAndMany(cellStack[cL-1].excluders, mine) ) {
+					// 288,389,540 A7E top1465
+					// if the AlignedSet is incomplete
+					if ( cL < degreeMinus1 ) {
+						// cS[cL].index is already incremented to index of
+						// the next candidate cell, so next level starts at
+						// the next cell (a forwards-only search); then we
+						// move down to the next level in the cellStack.
+						cellStack[cL+1].index = cellStack[cL++].index;
+					} else {
+						// this AlignedSet is complete (has degree cells).
+						assert cL == degreeMinus1;
+						// set excludersMaybes to the excluder cells maybes
+						count = 0;
+						for ( q=cC.excluders.indices(); (i=q.poll())>QEMPTY; )
+							excludersMaybes[count++] = maybes[i];
+						// clean deletes excludersMaybes having a maybe not
+						// in aligned set; sort excludersMaybes by size ASC
+						// then removes superset/duplicate excluders->speed
+						if ( (n=clean(cellStack, excludersMaybes, count)) < minExcls )
+							break; // to continue the CELL_LOOP;
+						// 21,457,138 A7E top1465
+						// skip AlignedSet if already known to not hint in
+						// current state; reexamine if maybes in AlignedSet
+						// or maybes of excluder cells have changed since
+						// there last visit to the proctologist.
+						// Avert ~99.3% reexams so faster despite Hash get
+						// NB: skip now includes excluders in totalMaybes.
+						// NB: skip is not perfect. There are collisions,
+						// which WILL wrongly skip sets, which might hint,
+						// but run it ONCE without me to see why I exist.
+						if ( nonHinters.skip(cells, cellStack, degree
+								, n, firstPass, excludersMaybes) )
+							break; // to continue the CELL_LOOP;
+						// 7,639,581 A7E top1465
+						// populate covers with each superset of each excluder
+						// within the values of this aligned set, which are the
+						// only combos there are. clean removed the excluders
+						// with other values. cand is hijacked as all values.
+						m = 0;
+						do
+							covers[m] = 0L;
+						while (++m < covers.length);
+						cand = 0;
+						m = 0;
+						do
+							cand |= vsMaybes[m];
+						while (++m < degree);
+						m = 0;
+						do {
+							i = excludersMaybes[m];
+							r = cand & ~i; // the other values
+							s = 0; // foreach subset of the other values
 							do
-								allowed[m] = 0;
-							while (++m < degree);
-							// init NON-TRANSITIVE vsSees rather than interpret
-							// cS[?].indice BILLIONS of times in DOG_____ER.
-							// This makes quite a big difference to my speed.
-							m = 0;
-							do { //master
-								sees = SEES[cellStack[m].indice];
-								s = m + 1;
-								do //slave
-									vsSees[s][m] = sees[cellStack[s].indice];
-								while (++s < degree);
-							} while (++m < degreeMinus1);
-							// workLevel starts at the bottom (maximum) level.
-							// workLevel is the valuesStack level to work on.
-							// All values below workLevel are allowed, so that
-							// each combo we test should (not allways, sadly)
-							// contain a value that is not already allowed.
-							wL = degreeMinus1;
-							wN = degree;
-							// populate the allowed array.
-							// foreach combo of maybes of cells in AlignedSet.
-							// nb: I call it nasty names because it is slow!
-							// so slow it warrants graphotardenometry ==
-							DOG_____ING_LOOP: for(;;) {
-								// 10,683,043,439 ==========
-								while ( vsIndexes[vL] > VLAST[vsCands[vL]] )
-									if ( --vL < 0 )
-										break DOG_____ING_LOOP;
-								cand = vsCand[vL] = VSHIFTED[vsCands[vL]][vsIndexes[vL]++];
-								if ( vL == 0 ) {
-									vsCombo[vL] = cand;
-									vsCands[vL] = vsMaybes[vL];
-									s = 1;
-									do //slaves
-										// 157,283,664 A7E top1465
-										if ( vsSees[s][vL] )
-											vsCands[s] = vsMaybes[s] & ~cand;
-										else
-											vsCands[s] = vsMaybes[s];
-									while (++s < degree);
-									vsIndexes[++vL] = 0;
-								} else {
-									// 10,656,829,315 ==========
-									vsCombo[vL] = vsCombo[vL-1] | cand;
-									if ( vL < degreeMinus1 ) {
-										// 1# hijack cand as slaveCand: useable
-										// maybes of slave cell; because it is
-										// faster to mutate the array minimal
-										// times; coz every array reference is
-										// an array-lookup.
-										// 2# s is index of the current slave.
-										// post-test s coz it NEVER starts as
-										// degree, because vL < degreeMinus1,
-										// ergo there is always 1+ slave level,
-										// hence we need not check first slave
-										// is beyond the last slave.
-										// 3# r is always s-1 but repeated s-1
-										// is expensive so we ++r instead.
-										// Simply: r is pre-incremented, s is
-										// post-incremented. s controls loop.
-										// r is along for the ride.
-										// SUIMMARY# all this bloody mess does
-										// is save some time! Every bit matters
-										// coz it executes many many times.
-										r = vL;
-										s = vL + 1;
-										do { //slave
-											// post-test m: coz s is never < 1
-											sees = vsSees[s];
-											cand = vsMaybes[s];
-											++r;
-											m = 0; //master
-											do // 37,795,259,298 ==========,==========,==========,=======
-												if ( sees[m] )
-													cand &= ~vsCand[m];
-											while (++m < r);
-											vsCands[s] = cand;
-										} while (++s < degree);
-										vsIndexes[++vL] = 0;
-									} else {
-										// 6,258,754,943 ======
-										isAllowed = true;
-										s = vsCombo[degreeMinus1];
+								covers[(i|s)>>6] |= 1L<<(i|s);
+							while ( (s=(s-r)&r) != 0 );
+						} while (++m < n);
+						// reset first valsStack entry to its first value.
+						// valuesLevel=0 the first (no stopper level).
+						// clear allowedValues for the new AlignedSet.
+						vsIndexes[0] = vL = m = 0;
+						do
+							allowed[m] = 0;
+						while (++m < degree);
+						// init NON-TRANSITIVE vsSees rather than interpret
+						// cS[?].indice BILLIONS of times in DOG_____ER.
+						// This makes quite a big difference to my speed.
+						m = 0;
+						do { //master
+							sees = SEES[cellStack[m].indice];
+							s = m + 1;
+							do //slave
+								vsSees[s][m] = sees[cellStack[s].indice];
+							while (++s < degree);
+						} while (++m < degreeMinus1);
+						// workLevel starts at the bottom (maximum) level.
+						// workLevel is the valuesStack level to work on.
+						// All values below workLevel are allowed, so that
+						// each combo we test should (not allways, sadly)
+						// contain a value that is not already allowed.
+						wL = degreeMinus1;
+						wN = degree;
+						// populate the allowed array.
+						// foreach combo of maybes of cells in AlignedSet.
+						// nb: I call it nasty names because it is slow!
+						// so slow it warrants graphotardenometry ==
+						DOG_____ING_LOOP: for(;;) {
+							// 10,683,043,439 ==========
+							while ( vsIndexes[vL] > VLAST[vsCands[vL]] )
+								if ( --vL < 0 )
+									break DOG_____ING_LOOP;
+							cand = vsCand[vL] = VSHIFTED[vsCands[vL]][vsIndexes[vL]++];
+							if ( vL == 0 ) {
+								vsCombo[vL] = cand;
+								vsCands[vL] = vsMaybes[vL];
+								any = cand & ~allowed[0];
+								s = 1;
+								do { //slaves
+									// 157,283,664 A7E top1465
+									if ( vsSees[s][vL] )
+										vsCands[s] = vsMaybes[s] & ~cand;
+									else
+										vsCands[s] = vsMaybes[s];
+									any |= vsCands[s] & ~allowed[s];
+								} while (++s < degree);
+								// skip unless a combo can allow a new value
+								if ( any == 0 )
+									continue;
+								vsIndexes[++vL] = 0;
+							} else {
+								// 10,656,829,315 ==========
+								// if this (partial) combo covers an excluder
+								// then so do all combos containing it, so skip
+								// them all, by moving on to my next value.
+								if ( (covers[(s=vsCombo[vL]=vsCombo[vL-1]|cand)>>6] & 1L<<s) != 0L )
+									continue;
+								if ( vL < degreeMinus1 ) {
+									// 1# hijack cand as slaveCand: useable
+									// maybes of slave cell; because it is
+									// faster to mutate the array minimal
+									// times; coz every array reference is
+									// an array-lookup.
+									// 2# s is index of the current slave.
+									// post-test s coz it NEVER starts as
+									// degree, because vL < degreeMinus1,
+									// ergo there is always 1+ slave level,
+									// hence we need not check first slave
+									// is beyond the last slave.
+									// 3# r is vL+1: the masters are only
+									// the levels with a current value. The
+									// slaves between vL and s have stale
+									// values, so they are not masters, so
+									// an empty slave is really empty. Each
+									// slave is recomputed as we move right.
+									// SUIMMARY# all this bloody mess does
+									// is save some time! Every bit matters
+									// coz it executes many many times.
+									r = s = vL + 1;
+									any = 0;
+									do { //slave
+										// post-test m: coz s is never < 1
+										sees = vsSees[s];
+										cand = vsMaybes[s];
+										m = 0; //master
+										do // 37,795,259,298 ==========,==========,==========,=======
+											if ( sees[m] )
+												cand &= ~vsCand[m];
+										while (++m < r);
+										// if a slave has no values then
+										// there are no combos to check.
+										if ( cand == 0 )
+											continue DOG_____ING_LOOP;
+										vsCands[s] = cand;
+										any |= cand & ~allowed[s];
+									} while (++s < degree);
+									// if no value of this partial combo, nor
+									// any value to the right of it, is not yet
+									// allowed then no combo containing it can
+									// allow anything new, so skip them all.
+									if ( any == 0 ) {
 										m = 0;
 										do
-											if ( (excludersMaybes[m] & ~s) == 0 ) {
-												isAllowed = false;
-												break;
-											}
-										while (++m < n);
-										if ( isAllowed ) {
-											m = 0;
-											do
-												allowed[m] |= vsCand[m];
-											while (++m < wN);
-											while ( allowed[wL] == vsMaybes[wL] ) {
-												if ( wL == 0 ) {
-													nonHinters.put();
-													break CELL_NONLOOP;
-												}
-												--wN;
-												vL = --wL;
-											}
+											any |= vsCand[m] & ~allowed[m];
+										while (++m < r);
+										if ( any == 0 )
+											continue;
+									}
+									vsIndexes[++vL] = 0;
+								} else {
+									// 6,258,754,943 ======
+									// this combo is allowed, coz it does
+									// not cover any excluder (see above).
+									m = 0;
+									do
+										allowed[m] |= vsCand[m];
+									while (++m < wN);
+									while ( allowed[wL] == vsMaybes[wL] ) {
+										if ( wL == 0 ) {
+											nonHinters.put();
+											break CELL_NONLOOP;
 										}
+										--wN;
+										vL = --wL;
 									}
 								}
 							}
-							// if any of the maybes of the cells in the Aligned
-							// Set have not been allowed by atleast one combo,
-							// then they may be eliminated from that cell.
-							// NB: If all values are allowed you cant get here,
-							// coz we would have skipped this AlignedSet, hence
-							// we double-check to guarantee quality, at a tiny
-							// performance impost, because this happens only
-							// when hinting, ie VERY VERY rarely.
-							isAllowed = false;
-							for ( m=0; m<degree; ++m )
-								isAllowed |= allowed[m] != cellStack[m].maybes;
-							if ( isAllowed ) {
-								// FOUND AlignedExclusion!
-								// reds = potential values not in allowed
-								final Pots reds = createRedPots(cellStack, allowed);
-								// reds never empty. Never say never.
-								if ( reds != null ) {
-									// FOUND AlignedExclusion with eliminations!
-									// new cell array for each hint (few).
-									final Cell[] cellsA = new Cell[degree];
-									for ( m=0; m<degree; ++m )
-										cellsA[m] = cells[cellStack[m].indice];
-									// new excluders array too
-									final Cell[] excluderCells
-										= cC.excluders.cellsNew(cells);
-									// build ExcludedCombosMap for the hint
-									final ExcludedCombosMap map = newMap(
-											excluderCells, cellsA, reds);
-									// create the hint
-									final AHint hint = new AlignedExclusionHint(
-									grid, this, reds, cellsA, excluderCells, map);
-									// and add the bastard to the accumulator
-									result = true; // in case add returns false
-									if ( accu.add(hint) )
-										return result;
-								}
-							} else { // NEVER! But safety first!
-								// record da fact that this aligned set did not
-								// produce a hint, so that we skip-it next time
-								// we see it, presuming no maybes have changed.
-								nonHinters.put();
+						}
+						// if any of the maybes of the cells in the Aligned
+						// Set have not been allowed by atleast one combo,
+						// then they may be eliminated from that cell.
+						// NB: If all values are allowed you cant get here,
+						// coz we would have skipped this AlignedSet, hence
+						// we double-check to guarantee quality, at a tiny
+						// performance impost, because this happens only
+						// when hinting, ie VERY VERY rarely.
+						isAllowed = false;
+						for ( m=0; m<degree; ++m )
+							isAllowed |= allowed[m] != cellStack[m].maybes;
+						if ( isAllowed ) {
+							// FOUND AlignedExclusion!
+							// reds = potential values not in allowed
+							final Pots reds = createRedPots(cellStack, allowed);
+							// reds never empty. Never say never.
+							if ( reds != null ) {
+								// FOUND AlignedExclusion with eliminations!
+								// new cell array for each hint (few).
+								final Cell[] cellsA = new Cell[degree];
+								for ( m=0; m<degree; ++m )
+									cellsA[m] = cells[cellStack[m].indice];
+								// new excluders array too
+								final Cell[] excluderCells
+									= cC.excluders.cellsNew(cells);
+								// build ExcludedCombosMap for the hint
+								final ExcludedCombosMap map = newMap(
+										excluderCells, cellsA, reds);
+								// create the hint
+								final AHint hint = new AlignedExclusionHint(
+								grid, this, reds, cellsA, excluderCells, map);
+								// and add the bastard to the accumulator
+								result = true; // in case add returns false
+								if ( accu.add(hint) )
+									return result;
 							}
+						} else { // NEVER! But safety first!
+							// record da fact that this aligned set did not
+							// produce a hint, so that we skip-it next time
+							// we see it, presuming no maybes have changed.
+							nonHinters.put();
 						}
 					}
-					break; // NON_LOOP
 				}
+				break; // NON_LOOP
 			}
-		} finally {
-			this.firstPass = false; // no longer firstPass through this puzzle
+		}
+	}
+
+	/**
+	 * Search the aligned sets in the common ForkJoinPool, in a SearchTask
+	 * per first-cell, then add there hints to accu in first-cell order, which
+	 * is the order of the serial search.
+	 * <p>
+	 * If accu isSingle then each task stops at its first hint, and any task
+	 * whose first-cell is after one that has already hinted does not start;
+	 * but all tasks before it run to completion, so the first hint is the
+	 * same hint that the serial search finds.
+	 *
+	 * @param indices of the candidate cells
+	 * @param excluders of each candidate cell, by indice
+	 * @return any hint/s found?
+	 */
+	private boolean searchInParallel(final int[] indices, final Idx[] excluders) {
+		if ( nonHintersByCell == null ) {
+			final int capacity = Math.max(MAP_SIZE[degree]>>4, 256);
+			nonHintersByCell = new NonHinters[GRID_SIZE];
+			for ( int i=0; i<GRID_SIZE; ++i )
+				nonHintersByCell[i] = new NonHinters(capacity, nonHintersShift);
+		}
+		// a first-cell after the last possible one never completes a set
+		final int numFirsts = indices.length - degreeMinus1;
+		final LinkedList<AHint> hints = ForkJoinPool.commonPool().invoke(
+				new SearchTask(indices, excluders, 0, numFirsts
+				, accu.isSingle() ? new AtomicInteger(Integer.MAX_VALUE) : null));
+		boolean result = false;
+		for ( AHint hint : hints ) {
+			result = true;
+			if ( accu.add(hint) )
+				break;
+		}
+		return result;
+	}
+
+	/**
+	 * SearchTask searches the aligned sets of a range of first-cells in the
+	 * ForkJoinPool. I split myself in half until there is one first-cell,
+	 * which is searched by the worker with its own accumulator and the
+	 * NonHinters of that first-cell. The hints are concatenated in order on
+	 * the way back up.
+	 */
+	private final class SearchTask extends RecursiveTask<LinkedList<AHint>> {
+		private static final long serialVersionUID = 23112501L;
+		private final int[] indices;
+		private final Idx[] excluders;
+		private final int from, to;
+		// the least first-cell that has hinted, else null if !accu.isSingle
+		private final AtomicInteger hinted;
+		SearchTask(final int[] indices, final Idx[] excluders, final int from
+				, final int to, final AtomicInteger hinted) {
+			this.indices = indices;
+			this.excluders = excluders;
+			this.from = from;
+			this.to = to;
+			this.hinted = hinted;
+		}
+		@Override
+		protected LinkedList<AHint> compute() {
+			if ( to - from == 1 ) {
+				final LinkedList<AHint> result = new LinkedList<>();
+				if ( hinted!=null && hinted.get()<from )
+					return result; // an earlier first-cell has hinted
+				final boolean isSingle = hinted != null;
+				final IAccumulator myAccu = new HintsAccumulator(result) {
+					@Override
+					public boolean isSingle() {
+						return isSingle;
+					}
+				};
+				if ( search(indices, excluders, from, to
+						, nonHintersByCell[indices[from]], myAccu)
+				  && isSingle )
+					hinted.accumulateAndGet(from, Math::min);
+				return result;
+			}
+			final int mid = (from + to) >>> 1;
+			final SearchTask left = new SearchTask(indices, excluders, from, mid, hinted);
+			left.fork();
+			final LinkedList<AHint> right = new SearchTask(indices, excluders, mid, to, hinted).compute();
+			final LinkedList<AHint> result = left.join();
+			result.addAll(right);
+			return result;
 		}
 	}
 
@@ -847,13 +1059,12 @@ implements diuf.sudoku.solver.hinters.IPrepare
 	 * (excluders) of size 2..$degree (inclusive).
 	 * <p>
 	 * Note that "atleast 2 siblings" is "hacked", and <br>
-	 * for A3E up "atleast 1 sibling" is "correct".
+	 * "atleast 1 sibling" is "correct", which is used upto A4E.
 	 * <p>
 	 * Hacked finds about a third of the hints in about a tenth of the time.
 	 * Hacked takes a hundred times longer than chaining, hence its SE's only
 	 * option, but this method exists to facilitate the alternative. If you
-	 * want "correct" then the code change is ludicrously simple: just select
-	 * Ma and press A.
+	 * want "correct" in bigger A*Es then raise MAX_CORRECT_DEGREE, and wait.
 	 *
 	 * @param candidates
 	 * @param excluders
@@ -865,7 +1076,9 @@ implements diuf.sudoku.solver.hinters.IPrepare
 		final Idx sized = sized(empties, degreePlus1);
 		final Idx sizedBuds = new Idx();
 		for ( final IntQueue q=empties.indices(); (i=q.poll())>QEMPTY; ) {
-			if ( sizedBuds.setAndMany(BUDDIES[i], sized) ) {
+			if ( minExcls == 1
+					? sizedBuds.setAndAny(BUDDIES[i], sized)
+					: sizedBuds.setAndMany(BUDDIES[i], sized) ) {
 				candidates.add(i);
 				excluders[i] = new IdxI(sizedBuds);
 			}
@@ -986,7 +1199,7 @@ implements diuf.sudoku.solver.hinters.IPrepare
 	}
 
 	/**
-	 * Clean removes "defective" excluders from the EXCLUDERS_MAYBES array,
+	 * Clean removes "defective" excluders from the excludersMaybes array,
 	 * returning the possibly reduced numExcls.
 	 * <pre>
 	 * The rules used to "defect" an excluder are:
@@ -1024,7 +1237,7 @@ implements diuf.sudoku.solver.hinters.IPrepare
 				--i; // --i then ++i = i; where we moved the data down to.
 			}
 		}
-		// 2. bubbleSort $numExcls EXCLUDERS_MAYBES by size ASCENDING
+		// 2. bubbleSort $numExcls excludersMaybes by size ASCENDING
 		if ( numExcls > 1 ) {
 			for ( i=numExcls; i>1; --i ) { // the right cell EXCLUSIVE
 				any = false;
@@ -8,9 +8,11 @@ package diuf.sudoku.solver.hinters.als;
 
 import static diuf.sudoku.Config.CFG;
 import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.GRID_SIZE;
 import diuf.sudoku.Run;
 import diuf.sudoku.Tech;
 import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.SolverContext;
 import diuf.sudoku.solver.hinters.AHinter;
 import diuf.sudoku.utils.Debug;
 
@@ -69,6 +71,17 @@ import diuf.sudoku.utils.Debug;
  * ALSs are fetched once, and used in 5 hinters. Pretty bloody clever.
  * All Retarded Colostomy Calamities are another (slow) story. Sigh.
  *
+ * The cache is no longer static. It is now an AlsCache in the
+ * SolverContext of each LogicalSolver, which is shared by all of the ALS
+ * hinters in that LogicalSolver, exactly as before; but two LogicalSolvers
+ * no longer share ALSS/RCCS, so the batch can run puzzles in parallel.
+ *
+ * When maybes have only been removed since the
+ * previous alss, AlsFinder searches only the regions that changed, and copies
+ * the other alss. Then the forwardOnly RccFinder.patch copies the rcc of each pair
+ * of reused alss from the previous forwardOnly rccs, and calculates only the
+ * pairs with a new als. Both produce the same result as the full search.
+ *
  * BEFORE (without caching 2021-05-30.14-11-32)
  * 16,381,530,900  9978 1,641,764  3949   4,148,273 ALS-XZ
  * 22,568,789,600  7231 3,121,115  3330   6,777,414 ALS-Wing
@@ -200,44 +213,6 @@ abstract class AAlsHinter extends AHinter {
 	// DeathBlossom uses this to mark unused params; for self-doco code.
 	protected static final boolean NOTUSED = false;
 
-	// ALSS cache is static to share among all my subclasses,
-	// especially AlsXz and AlsWing, which use the same ALSS and RCCS.
-	protected static final Als[] ALSS = new Als[MAX_ALSS];
-	protected static int numAlss;
-	// these control the alss-cache which effects the rccs-cache
-	private static int alssHn; // cached-alss grid.hintNumber
-	private static long alssPid; // cached-alss grid.puzzleID
-
-	// RCCS cache is static to share among all my subclasses,
-	// especially AlsXz and AlsWing, which use the same ALSS and RCCS.
-	protected static final Rcc[] RCCS = new Rcc[MAX_RCCS];
-	protected static int numRccs;
-	private static boolean rccsDirty, rccsFO;
-
-	// the RccFinders are static to share between instances
-	private static RccFinder all; // singleton
-	protected static final RccFinder getRccFinderAll() {
-		if ( all == null )
-			all = new RccFinderAll();
-		return all;
-	}
-
-	// the RccFinders are static to share between instances
-	private static RccFinder fast; // singleton
-	protected static final RccFinder getRccFinderAllFast() {
-		if ( fast == null )
-			fast = new RccFinderAllFast();
-		return fast;
-	}
-
-	// the RccFinders are static to share between instances
-	private static RccFinder recycle; // singleton
-	protected static final RccFinder getRccFinderAllRecycle() {
-		if ( recycle == null )
-			recycle = new RccFinderAllRecycle();
-		return recycle;
-	}
-
 	/**
 	 * Returns an implementation of RccFinder suitable for the given Tech.
 	 * <p>
@@ -256,44 +231,63 @@ abstract class AAlsHinter extends AHinter {
 	 * only us, such as we are. Sigh.
 	 * <pre>
 	 * BigWings, DeathBlossom : null
-	 * AlsXz, AlsWing         : RccFinderForwardOnly
+	 * AlsXz                  : RccFinderBitboard (a faster ForwardOnly)
+	 * AlsWing                : RccFinderForwardOnly
 	 * AlsChain               : RccFinderAll
 	 * </pre>
 	 *
+	 * The shared RccFinders now live in the AlsCache, which is
+	 * per-LogicalSolver, rather than in static fields.
+	 *
 	 * @param tech the Sudoku solving technique you need an RccFinder for
+	 * @param cache the AlsCache that holds the shared RccFinders
 	 * @return a new RccFinder suitable for the given tech
 	 */
-	static final RccFinder getRccFinder(final Tech tech) {
+	static final RccFinder getRccFinder(final Tech tech, final AlsCache cache) {
 		switch ( tech ) {
 			case BigWings:
 			case DeathBlossom:
 				return null;
 			case ALS_XZ:
-				return new RccFinderForwardOnly();
-			// nb: AlsWing and AlsChain share an RccFinder, hence we need a
-			// static variable to hold the singleton instance, with a static
-			// getter method that creates/returns-existing singleton.
+				return new RccFinderBitboard(); // faster RccFinderForwardOnly
+			// nb: AlsWing and AlsChain share an RccFinder, hence the cache
+			// holds the instance, with a getter that creates/returns it.
 			case ALS_Wing:
 			case ALS_Chain:
 //nieve implementation has been retained for edification. Understand it before
 //you look at RccFinderAllFast. Recycle is a total head____. Good luck.
-//				return getRccFinderAll(); // nieve
+//				return cache.getRccFinderAll(); // nieve
 				// Recycle only if there will be existing rccs to recycle
 				if ( CFG.getBoolean(Tech.ALS_XZ.name()) )
-					return getRccFinderAllRecycle(); // ~16secs faster than nieve
+					return cache.getRccFinderAllRecycle(); // ~16secs faster than nieve
 				else
-					return getRccFinderAllFast(); // ~10secs faster than nieve
+					return cache.getRccFinderAllFast(); // ~10secs faster than nieve
 			default: throw new IllegalArgumentException("Unknown tech: "+tech);
 		}
 	}
 
 	// ----------------------------- instanceland -----------------------------
 
+	// ALSS and RCCS were static, to share among all of my
+	// subclasses, especially AlsXz and AlsWing, which use the same ALSS and
+	// RCCS. Now they are shared via the AlsCache in the LogicalSolvers
+	// SolverContext, so that two LogicalSolvers can run at once. I retain the
+	// SHOUTY names, to not disturb my subclasses. cache is null until
+	// setContext, except that cache() creates my own if there is no context,
+	// so that test-cases (no LogicalSolver) work as before.
+	private AlsCache cache;
+	protected Als[] ALSS;
+	protected int numAlss;
+	protected Rcc[] RCCS;
+	protected int numRccs;
+
 	// getRccs
 	/** rccFinder finds the Restricted Common Candidates between ALSs */
-	protected final RccFinder rccFinder;
+	protected RccFinder rccFinder;
+	/** rccFinder, if it is patchable, else null */
+	private RccFinderPatchable rccPatcher;
 	/** should getRccs do a fast forwardOnly search, or a full search? */
-	protected final boolean forwardOnly;
+	protected boolean forwardOnly;
 
 	/** my alsFinder finds the ALSs (Almost Locked Sets). */
 	private final AlsFinder alsFinder;
@@ -304,11 +298,11 @@ abstract class AAlsHinter extends AHinter {
 	 * down to my subclasses "custom" findHints method.
 	 * <pre>
 	 * Tech          RccFinder
-	 * BigWings      null
-	 * DeathBlossom  null
-	 * ALS_XZ        RccFinderForwardOnly
-	 * ALS_Wing      RccFinderForwardOnly
-	 * ALS_Chain     RccFinderAll
+	 * BigWings      null
+	 * DeathBlossom  null
+	 * ALS_XZ        RccFinderBitboard
+	 * ALS_Wing      RccFinderForwardOnly
+	 * ALS_Chain     RccFinderAll
 	 * </pre>
 	 *
 	 * @param tech the Tech(nique) we implement: BigWings, DeathBlossom, AlsXz,
@@ -318,11 +312,35 @@ abstract class AAlsHinter extends AHinter {
 		super(tech);
 		assert tech.isAlsic();
 		this.alsFinder = new AlsFinder();
-		// getRccs
-		this.rccFinder = getRccFinder(tech);
+	}
+
+	/**
+	 * Use the AlsCache that is shared by all AAlsHinters in this context.
+	 *
+	 * @param context of the LogicalSolver that I am in
+	 */
+	@Override
+	public void setContext(final SolverContext context) {
+		setCache(context.getAlsCache());
+	}
+
+	private void setCache(final AlsCache cache) {
+		this.cache = cache;
+		this.ALSS = cache.alss;
+		this.RCCS = cache.rccs;
+		this.rccFinder = getRccFinder(tech, cache);
+		this.rccPatcher = rccFinder instanceof RccFinderPatchable
+				? (RccFinderPatchable)rccFinder : null;
 		this.forwardOnly = rccFinder!=null ? rccFinder.forwardOnly() : NOTUSED;
 	}
 
+	// my cache, creating my own if I have no context (test-cases)
+	private AlsCache cache() {
+		if ( cache == null )
+			setCache(new AlsCache());
+		return cache;
+	}
+
 	/**
 	 * AAlsHinter actually implements IPrepare, but leaves the declaration
 	 * of {@code implements diuf.sudoku.solver.hinters.IReporter} up to each
@@ -374,12 +392,35 @@ abstract class AAlsHinter extends AHinter {
 	 * and return them.
 	 */
 	private void getAlss() {
-		if ( grid.hintNumber!=alssHn || grid.puzzleId!=alssPid ) {
-			numAlss = alsFinder.getAlss(grid, ALSS, MAX_ALS_SIZE);
-			alssHn = grid.hintNumber;
-			alssPid = grid.puzzleId;
-			rccsDirty = true;
+		final AlsCache c = cache();
+		if ( grid.hintNumber!=c.alssHn || grid.puzzleId!=c.alssPid ) {
+			// incremental requires the same puzzle, untruncated alss, and
+			// maybes only removed since.
+			if ( grid.puzzleId==c.alssPid && c.numAlss<MAX_ALSS
+			  && onlyRemoved(grid.maybes, c.maybes) ) {
+				System.arraycopy(c.alss, 0, c.prevAlss, 0, c.numAlss);
+				c.numAlss = alsFinder.getAlss(grid, c.alss, MAX_ALS_SIZE
+						, c.prevAlss, c.numAlss, c.maybes, c.prevIndexes);
+				c.prevGen = c.alssGen;
+			} else {
+				c.numAlss = alsFinder.getAlss(grid, c.alss, MAX_ALS_SIZE);
+				c.prevGen = -1;
+			}
+			++c.alssGen;
+			System.arraycopy(grid.maybes, 0, c.maybes, 0, GRID_SIZE);
+			c.alssHn = grid.hintNumber;
+			c.alssPid = grid.puzzleId;
+			c.rccsDirty = true;
 		}
+		numAlss = c.numAlss;
+	}
+
+	// are maybes a subset of prevMaybes
+	private static boolean onlyRemoved(final int[] maybes, final int[] prevMaybes) {
+		for ( int i=0; i<GRID_SIZE; ++i )
+			if ( (maybes[i] & ~prevMaybes[i]) > 0 )
+				return false;
+		return true;
 	}
 
 	/**
@@ -403,13 +444,30 @@ abstract class AAlsHinter extends AHinter {
 	 * which AlsChain requires.
 	 */
 	private void getRccs() {
-		if ( rccFinder!=null && (rccsDirty || rccsFO!=forwardOnly) ) {
-			// static: subsequent test-cases fail if oldNumRccs != 0
-			final int oldNumRccs = Run.isTestCase() ? 0 : numRccs;
-			numRccs = rccFinder.find(ALSS, numAlss, RCCS, oldNumRccs);
-			rccsDirty = false;
-			rccsFO = forwardOnly;
+		final AlsCache c = cache;
+		if ( rccFinder!=null && (c.rccsDirty || c.rccsFO!=forwardOnly) ) {
+			// shared: subsequent test-cases fail if oldNumRccs != 0
+			final int oldNumRccs = Run.isTestCase() ? 0 : c.numRccs;
+			if ( forwardOnly && c.foGen == c.alssGen ) {
+				// AlsWing/AlsChain overwrote the forwardOnly rccs
+				System.arraycopy(c.foRccs, 0, c.rccs, 0, c.numFoRccs);
+				c.numRccs = c.numFoRccs;
+			} else if ( rccPatcher!=null && c.foGen == c.prevGen && c.foGen > -1
+					 && c.numFoRccs < MAX_RCCS && c.numAlss > 1 ) {
+				c.numRccs = rccPatcher.patch(c.alss, c.numAlss, c.rccs
+						, c.foRccs, c.numFoRccs, c.prevIndexes);
+			} else {
+				c.numRccs = rccFinder.find(c.alss, c.numAlss, c.rccs, oldNumRccs);
+			}
+			if ( forwardOnly ) {
+				System.arraycopy(c.rccs, 0, c.foRccs, 0, c.numRccs);
+				c.numFoRccs = c.numRccs;
+				c.foGen = c.alssGen;
+			}
+			c.rccsDirty = false;
+			c.rccsFO = forwardOnly;
 		}
+		numRccs = c.numRccs;
 	}
 
 }
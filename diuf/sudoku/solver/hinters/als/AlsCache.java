@@ -0,0 +1,77 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver.hinters.als;
+
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.solver.hinters.als.AAlsHinter.MAX_ALSS;
+import static diuf.sudoku.solver.hinters.als.AAlsHinter.MAX_RCCS;
+
+/**
+ * AlsCache holds the ALSS and RCCS that are shared by all of the AAlsHinters
+ * in one LogicalSolver: BigWings, DeathBlossom, AlsXz, AlsWing and AlsChain,
+ * all of which use the same ALSS, and AlsXz, AlsWing, and AlsChain also use
+ * the same RCCS. It also holds the RccFinders, which are shared by AlsWing
+ * and AlsChain, so the RccFinderAllRecycle can recycle RCCs found by AlsXz.
+ * <p>
+ * The ALSS/RCCS caches were static in AAlsHinter, which was fine while there
+ * was only ever one LogicalSolver. Now each LogicalSolver has a
+ * {@link diuf.sudoku.solver.SolverContext} which holds one AlsCache, so two
+ * LogicalSolvers can solve two puzzles at the same time, on two threads.
+ * <p>
+ * I am just a bag of fields. AAlsHinter does all the work, as before.
+ * <p>
+ * I also hold the previous alss and the last forwardOnly rccs,
+ * so that AAlsHinter can update the alss and rccs incrementally.
+ */
+public final class AlsCache {
+
+	// the ALSS cache is shared among all AAlsHinters in a LogicalSolver
+	final Als[] alss = new Als[MAX_ALSS];
+	int numAlss;
+	// these control the alss-cache which effects the rccs-cache
+	int alssHn; // cached-alss grid.hintNumber
+	long alssPid; // cached-alss grid.puzzleID
+
+	// the RCCS cache is shared among AlsXz, AlsWing, and AlsChain
+	final Rcc[] rccs = new Rcc[MAX_RCCS];
+	int numRccs;
+	boolean rccsDirty, rccsFO;
+
+	// incremental: the grid.maybes that alss were found in
+	final int[] maybes = new int[GRID_SIZE];
+	// the previous alss, and the index therein of each reused als, else -1.
+	// prevIndexes is coincident with alss. prevGen is the generation of
+	// prevAlss, which is -1 when the current alss are not incremental.
+	final Als[] prevAlss = new Als[MAX_ALSS];
+	final int[] prevIndexes = new int[MAX_ALSS];
+	int alssGen, prevGen = -1;
+	// the last forwardOnly rccs, and the generation of alss they are in
+	final Rcc[] foRccs = new Rcc[MAX_RCCS];
+	int numFoRccs, foGen = -1;
+
+	// the RccFinders are shared between AlsWing and AlsChain
+	private RccFinder all, fast, recycle;
+
+	RccFinder getRccFinderAll() {
+		if ( all == null )
+			all = new RccFinderAll();
+		return all;
+	}
+
+	RccFinder getRccFinderAllFast() {
+		if ( fast == null )
+			fast = new RccFinderAllFast();
+		return fast;
+	}
+
+	RccFinder getRccFinderAllRecycle() {
+		if ( recycle == null )
+			recycle = new RccFinderAllRecycle();
+		return recycle;
+	}
+
+}
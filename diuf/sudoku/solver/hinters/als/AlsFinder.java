@@ -3,14 +3,19 @@ package diuf.sudoku.solver.hinters.als;
 import diuf.sudoku.Grid;
 import diuf.sudoku.Grid.ARegion;
 import diuf.sudoku.Grid.Cell;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import static diuf.sudoku.Grid.NUM_REGIONS;
 import static diuf.sudoku.Grid.REGION_SIZE;
+import static diuf.sudoku.Grid.VALUE_CEILING;
 import diuf.sudoku.Idx;
 import diuf.sudoku.IdxI;
+import static diuf.sudoku.Values.VALUESES;
 import static diuf.sudoku.Values.VSIZE;
 import static diuf.sudoku.solver.hinters.als.AAlsHinter.MAX_ALSS;
 import diuf.sudoku.utils.ArraySet;
 import diuf.sudoku.utils.Log;
 import diuf.sudoku.utils.Permuter;
+import java.util.Arrays;
 
 /**
  * AlsFinder is the simplest-possible AlsFinder, using a plain iterative
@@ -33,6 +38,14 @@ import diuf.sudoku.utils.Permuter;
  * loops are repeated in it, maybes are no longer cached, the sized array is
  * now indices (was Cells); exhumed sized method from Grid.ARegion because
  * this was its only use, and clean now takes indices. A few seconds faster.
+ *
+ * The ALSs in a region depend only on the maybes of
+ * its cells, except vBuds, which depend on the maybes of the buddies. So when
+ * maybes have only been removed since the previous alss, I search only the
+ * regions having a changed cell, and copy the previous alss of each other
+ * region, in the same order; recreating each copied ALS whose vBuds lost a
+ * cell, else reusing it as is. The result is the same alss, in the same
+ * order, as a full search. AAlsHinter then patches the RCCs.
  * </pre>
  *
  * @author Keith Corlett 2021-09-14
@@ -73,6 +86,29 @@ final class AlsFinder {
 	 * @return numAlss: the number of alss in the alss array
 	 */
 	int getAlss(final Grid grid, final Als[] alss, final int maxAlsSize) {
+		return getAlss(grid, alss, maxAlsSize, null, 0, null, null);
+	}
+
+	/**
+	 * Get Almost Locked Sets incrementally, returning how many.
+	 * <p>
+	 * Maybes must only have been removed since prevAlss were found in
+	 * prevMaybes (same puzzle), which my caller checks. prevAlss must not be
+	 * alss, and must not have been truncated at MAX_ALSS.
+	 *
+	 * @param grid to search
+	 * @param alss to repopulate
+	 * @param maxAlsSize the maximum size of an almost locked set: 7
+	 * @param prevAlss the previous alss, null for a full search
+	 * @param numPrevAlss the number of prevAlss
+	 * @param prevMaybes the grid.maybes that prevAlss were found in
+	 * @param prevIndexes repopulated with the index in prevAlss of each als
+	 *  that is reused as is, else -1. Coincident with alss.
+	 * @return numAlss: the number of alss in the alss array
+	 */
+	int getAlss(final Grid grid, final Als[] alss, final int maxAlsSize
+			, final Als[] prevAlss, final int numPrevAlss
+			, final int[] prevMaybes, final int[] prevIndexes) {
 		// single stack-frame, for no extra stack-work
 		AlsArraySet set;
 		int i // ubiqituous index
@@ -112,12 +148,68 @@ final class AlsFinder {
 		final Idx[] idxs = grid.idxs;
 		// my return value: the number of ALSs found
 		int numAlss = 0;
+		// incremental: which regions changed, the maybes removed by value, the
+		// previous alss of each degree in each region, and previous indexes
+		final boolean[] dirty;
+		final long[] rmM0;
+		final int[] rmM1;
+		final int[][] starts, ends, prevs;
+		if ( prevAlss != null ) {
+			dirty = new boolean[NUM_REGIONS];
+			rmM0 = new long[VALUE_CEILING];
+			rmM1 = new int[VALUE_CEILING];
+			i = 0;
+			do
+				if ( (cands=prevMaybes[i] & ~m[i]) > 0 ) {
+					for ( int v : VALUESES[cands] )
+						if ( i < Idx.FIFTY_FOUR )
+							rmM0[v] |= 1L<<i;
+						else
+							rmM1[v] |= 1<<(i-Idx.FIFTY_FOUR);
+					for ( ARegion r : grid.cells[i].regions )
+						dirty[r.index] = true;
+				}
+			while (++i < GRID_SIZE);
+			// prevAlss are in order of degree, then region, as per alss.
+			starts = new int[maxD+1][NUM_REGIONS];
+			ends = new int[maxD+1][NUM_REGIONS];
+			for ( i=0; i<numPrevAlss; ++i ) {
+				final Als a = prevAlss[i];
+				if ( ends[d=a.idx.size()][a.regionIndex] == 0 )
+					starts[d][a.regionIndex] = i;
+				ends[d][a.regionIndex] = i + 1;
+			}
+			prevs = new int[maxD+1][MAX_ALSS];
+			for ( d=2; d<=maxD; ++d )
+				Arrays.fill(prevs[d], -1);
+		} else {
+			dirty = null;
+			rmM0 = null;
+			rmM1 = null;
+			starts = ends = prevs = null;
+		}
 		try {
 			// foreach region in the grid (boxs, rows, cols)
 			for ( ARegion region : grid.regions ) {
 				// D is ceiling for num cells in each ALS, capped at REGION_SIZE-1.
 				// A ceiling because all empty cells in a region are a LockedSet.
 				D = Math.min(region.emptyCellCount, maxD);
+				// incremental: copy the previous alss of an unchanged region
+				if ( prevAlss!=null && !dirty[region.index] ) {
+					for ( d=2; d<=D; ++d ) {
+						set = sets[d];
+						for ( int j=starts[d][region.index],J=ends[d][region.index]; j<J; ++j ) {
+							final Als a = prevAlss[j];
+							if ( isStale(a, rmM0, rmM1) )
+								set.justAdd(new Als(idxs, a.idx, a.maybes, a.regionIndex));
+							else {
+								prevs[d][set.size] = j;
+								set.justAdd(a);
+							}
+						}
+					}
+					continue;
+				}
 				// foreach degree: the number of cells in each ALS
 				// c = floor for number of sized cells (d - 1)
 				// d = the current degree
@@ -195,6 +287,8 @@ final class AlsFinder {
 			for ( d=2; d<=maxD; ++d ) {
 				final Object[] a = (set=sets[d]).array;
 				for ( i=0,n=set.size; i<n; ++i ) {
+					if ( prevs != null )
+						prevIndexes[numAlss] = prevs[d][i];
 					alss[numAlss++] = (Als)a[i];
 					a[i] = null;
 				}
@@ -208,6 +302,15 @@ final class AlsFinder {
 		return numAlss;
 	}
 
+	// has any cell in vBuds of this ALS lost that value, in which case its
+	// vBuds (hence vAll, buds, and buddedMaybes) are stale
+	private static boolean isStale(final Als a, final long[] rmM0, final int[] rmM1) {
+		for ( int v : VALUESES[a.maybes] )
+			if ( ((a.vBuds[v].m0 & rmM0[v]) | (a.vBuds[v].m1 & rmM1[v])) > 0L )
+				return true;
+		return false;
+	}
+
 	// clear all sets
 	private void cleanUp(final AlsArraySet[] sets, final int maxD) {
 		int j, J;
@@ -14,7 +14,6 @@ import static diuf.sudoku.Values.VALUESES;
 import static diuf.sudoku.Values.VSHFT;
 import static diuf.sudoku.Values.VSIZE;
 import static diuf.sudoku.solver.hinters.IHinter.DUMMY;
-import static diuf.sudoku.solver.hinters.als.AAlsHinter.ALSS;
 
 /**
  * AlsWing implements the {@link Tech.ALS_Wing} Sudoku solving technique.
@@ -14,6 +14,8 @@ package diuf.sudoku.solver.hinters.als;
  * RccFinder is now an interface defining find, getStarts, and getEnds.
  * Classes implementing RccFinder:
  * 1. RccFinderForwardOnly A-&gt;B for AlsXz and AlsWing.
+ *    RccFinderBitboard is a faster RccFinderForwardOnly, which packs the
+ *    ALSs into flat long arrays. It is what AlsXz now uses.
  * 2. RccFinderAll A-&gt;B and B-&gt;A for AlsChain:
  *    * ONLY AlsChain uses getStarts and getEnds, hence are only implemented
  *      in RccFinderAll (all three variants, sigh).
@@ -26,6 +28,8 @@ package diuf.sudoku.solver.hinters.als;
  *      c. RccFinderAllRecycle parses RccFinderForwardOnly results into All.
  *         * Relies on RccFinderForwardOnly results from AlsXz or AlsWing.
  *         * About 12 seconds faster over top1465.
+ * RccFinderPatchable is an RccFinder that can also patch the rccs of the
+ * previous alss, which only the forwardOnly RccFinders can do.
  * There is a getRccFinder factory method in {@link AAlsHinter}:
  * 1. AAlsHinters constructor calls getRccFinder to get the RccFinder that is
  *    suitable for this Tech, which boils down to forwardOnly:
@@ -0,0 +1,173 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver.hinters.als;
+
+import static diuf.sudoku.Grid.VALUE_CEILING;
+import static diuf.sudoku.Values.VALUESES;
+import static diuf.sudoku.Values.VSHFT;
+import static diuf.sudoku.solver.hinters.als.AAlsHinter.MAX_ALSS;
+import static diuf.sudoku.solver.hinters.als.AAlsHinter.MAX_RCCS;
+import diuf.sudoku.utils.Log;
+
+/**
+ * RccFinderBitboard does a forwards-only search of ALSs for RCCs, producing
+ * exactly the same rccs as {@link RccFinderForwardOnly}, but word-parallel:
+ * it packs the bitboards of all the ALSs into contiguous long arrays, by
+ * value, then finds the RCCs of each ALS with all subsequent ALSs in one
+ * branch-free pass over those arrays per value of the ALS.
+ * <p>
+ * v is an RCC of ALSs a and b if there are no v's in there overlap, and all
+ * v's in both see each other. Because the v's of an ALS are all in its vAll
+ * (its v's plus the cells that see all of them), that boils down to:
+ * <pre>
+ * (vs[b] &amp; (~vAll[a] | cells[a])) | (vs[a] &amp; (~vAll[b] | cells[b])) == 0
+ * </pre>
+ * So for each ALS i and value v, at (v*MAX_ALSS+i)*4, I store vs (the cells
+ * in the ALS that maybe v) and k = ~vAll | cells; each as m0 and m1 in a long;
+ * so the inner loop reads four consecutive longs per ALS.
+ * If the ALS does not maybe v then vs is 0 and k is all ones, so the pair
+ * fails without a branch. x==0 becomes a bit as (x-1)&gt;&gt;&gt;63, coz x is
+ * never negative.
+ * <p>
+ * SE is Java 8, so there is no jdk.incubator.vector here. The
+ * inner loop is a straight run over contiguous arrays, which is as good as I
+ * can make it for the JIT; a Vector API version would load from the same
+ * arrays. Try it if you run on JDK 17+ and you care.
+ */
+final class RccFinderBitboard implements RccFinderPatchable {
+
+	// packed bitboards: vsM0, vsM1, kM0, kM1 at (v*MAX_ALSS+i)*4
+	private final long[] bits = new long[VALUE_CEILING*MAX_ALSS*4];
+	// maybes of each ALS, by i
+	private final int[] alsMaybes = new int[MAX_ALSS];
+	// the cands of ALS i with each subsequent ALS, by j
+	private final int[] row = new int[MAX_ALSS];
+
+	// pack the bitboards of the first n alss into my arrays
+	private void pack(final Als[] alss, final int n) {
+		Als a;
+		int x;
+		for ( int i=0; i<n; ++i ) {
+			a = alss[i];
+			alsMaybes[i] = a.maybes;
+			for ( int v=1; v<VALUE_CEILING; ++v ) {
+				x = (v*MAX_ALSS + i) << 2;
+				if ( (a.maybes & VSHFT[v]) > 0 ) {
+					bits[x] = a.vs[v].m0;
+					bits[x+1] = a.vs[v].m1;
+					bits[x+2] = ~a.vAll[v].m0 | a.m0;
+					bits[x+3] = ~(long)a.vAll[v].m1 | a.m1;
+				} else {
+					bits[x] = bits[x+1] = 0L;
+					bits[x+2] = bits[x+3] = -1L;
+				}
+			}
+		}
+	}
+
+	// the restricted common candidates of the packed ALSs i and j
+	private int cands(final int i, final int j) {
+		long x;
+		int xi, xj, cands = 0;
+		for ( int v : VALUESES[alsMaybes[i] & alsMaybes[j]] ) {
+			xi = (v*MAX_ALSS + i) << 2;
+			xj = (v*MAX_ALSS + j) << 2;
+			x = (bits[xj] & bits[xi+2]) | (bits[xj+1] & bits[xi+3])
+			  | (bits[xi] & bits[xj+2]) | (bits[xi+1] & bits[xj+3]);
+			if ( x == 0L )
+				cands |= VSHFT[v];
+		}
+		return cands;
+	}
+
+	@Override
+	public int find(final Als[] alss, final int numAlss, final Rcc[] rccs, final int oldNumRccs) {
+		long a0, a1, k0, k1, x;
+		int i, j, b, sh, numRccs = 0;
+		final long[] bits = this.bits;
+		final int[] row = this.row;
+		pack(alss, numAlss);
+		for ( i=0; i<numAlss-1; ++i ) {
+			for ( j=i+1; j<numAlss; ++j )
+				row[j] = 0;
+			// one branch-free pass over all subsequent ALSs per value of i
+			for ( int v : VALUESES[alsMaybes[i]] ) {
+				b = (v*MAX_ALSS + i) << 2;
+				a0 = bits[b];
+				a1 = bits[b+1];
+				k0 = bits[b+2];
+				k1 = bits[b+3];
+				sh = v - 1;
+				for ( j=i+1; j<numAlss; ++j ) {
+					b += 4;
+					x = (bits[b] & k0) | (bits[b+1] & k1)
+					  | (a0 & bits[b+2]) | (a1 & bits[b+3]);
+					row[j] |= (int)((x-1L) >>> 63) << sh;
+				}
+			}
+			for ( j=i+1; j<numAlss; ++j ) {
+				if ( row[j] > 0 ) {
+					rccs[numRccs] = new Rcc(i, j, row[j]);
+					if ( ++numRccs == MAX_RCCS ) {
+						Log.teeln("WARN: " + Log.me() + ": MAX_RCCS exceeded!");
+						return numRccs; // no crash!
+					}
+				}
+			}
+		}
+		return numRccs;
+	}
+
+	/**
+	 * Patch the previous forwardOnly rccs to match incremental alss, as per
+	 * {@link RccFinderForwardOnly#patch}, but with my packed bitboards.
+	 */
+	@Override
+	public int patch(final Als[] alss, final int numAlss, final Rcc[] rccs
+			, final Rcc[] prevRccs, final int numPrevRccs, final int[] prevIndexes) {
+		Rcc prev;
+		int i, j, pi, pj, cands, p = 0, numRccs = 0;
+		pack(alss, numAlss);
+		for ( i=0; i<numAlss-1; ++i ) {
+			// skip the previous rccs of sources before pi
+			if ( (pi=prevIndexes[i]) > -1 )
+				while ( p<numPrevRccs && prevRccs[p].source<pi )
+					++p;
+			for ( j=i+1; j<numAlss; ++j ) {
+				prev = null;
+				if ( pi>-1 && (pj=prevIndexes[j])>-1 ) {
+					// both reused, so the previous rcc, if any
+					while ( p<numPrevRccs && prevRccs[p].source==pi
+					     && prevRccs[p].related<pj )
+						++p;
+					if ( p<numPrevRccs && prevRccs[p].source==pi
+					  && prevRccs[p].related==pj )
+						cands = (prev=prevRccs[p]).cands;
+					else
+						cands = 0;
+				} else {
+					cands = cands(i, j);
+				}
+				if ( cands > 0 ) {
+					rccs[numRccs] = prev!=null && prev.source==i && prev.related==j
+							? prev : new Rcc(i, j, cands);
+					if ( ++numRccs == MAX_RCCS ) {
+						Log.teeln("WARN: " + Log.me() + ": MAX_RCCS exceeded!");
+						return numRccs; // no crash!
+					}
+				}
+			}
+		}
+		return numRccs;
+	}
+
+	@Override
+	public boolean forwardOnly() {
+		return true;
+	}
+
+}
@@ -55,7 +55,7 @@ import diuf.sudoku.utils.Log;
  *
  * @author Keith Corlett 2021-07-29
  */
-public final class RccFinderForwardOnly implements RccFinder
+public final class RccFinderForwardOnly implements RccFinderPatchable
 //		, diuf.sudoku.solver.hinters.IReporter
 {
 //	public static void report() {
@@ -149,6 +149,85 @@ public final class RccFinderForwardOnly implements RccFinder
 		return numRccs;
 	}
 
+	/**
+	 * Patch the previous forwardOnly rccs to match the current alss, which
+	 * are incremental: the rcc of each pair of reused alss is copied from
+	 * prevRccs, and only pairs with a new als are calculated. The result is
+	 * the same as {@link #find}, in the same order.
+	 * <p>
+	 * Reused alss are in the same order as in the previous alss, so as j
+	 * increases so does its previous index, hence one pass through the rccs
+	 * of each previous source finds them all.
+	 *
+	 * @param alss the current alss
+	 * @param numAlss the number of alss, atleast 2
+	 * @param rccs to repopulate
+	 * @param prevRccs the forwardOnly rccs of the previous alss, untruncated
+	 * @param numPrevRccs the number of prevRccs
+	 * @param prevIndexes the index in the previous alss of each reused als,
+	 *  else -1, coincident with alss
+	 * @return numRccs
+	 */
+	@Override
+	public int patch(final Als[] alss, final int numAlss, final Rcc[] rccs
+			, final Rcc[] prevRccs, final int numPrevRccs, final int[] prevIndexes) {
+		Rcc prev;
+		int i, j, pi, pj, cands, p = 0, numRccs = 0;
+		for ( i=0; i<numAlss-1; ++i ) {
+			final Als a = alss[i];
+			// skip the previous rccs of sources before pi
+			if ( (pi=prevIndexes[i]) > -1 )
+				while ( p<numPrevRccs && prevRccs[p].source<pi )
+					++p;
+			for ( j=i+1; j<numAlss; ++j ) {
+				prev = null;
+				if ( pi>-1 && (pj=prevIndexes[j])>-1 ) {
+					// both reused, so the previous rcc, if any
+					while ( p<numPrevRccs && prevRccs[p].source==pi
+					     && prevRccs[p].related<pj )
+						++p;
+					if ( p<numPrevRccs && prevRccs[p].source==pi
+					  && prevRccs[p].related==pj )
+						cands = (prev=prevRccs[p]).cands;
+					else
+						cands = 0;
+				} else {
+					cands = cands(a, alss[j]);
+				}
+				if ( cands > 0 ) {
+					rccs[numRccs] = prev!=null && prev.source==i && prev.related==j
+							? prev : new Rcc(i, j, cands);
+					if ( ++numRccs == MAX_RCCS ) {
+						Log.teeln("WARN: " + Log.me() + ": MAX_RCCS exceeded!");
+						return numRccs; // no crash!
+					}
+				}
+			}
+		}
+		return numRccs;
+	}
+
+	// the restricted common candidates of ALSs a and b, as per find
+	private static int cands(final Als a, final Als b) {
+		int cands = 0;
+		final int vs = a.maybes & b.maybes;
+		if ( vs > 0 ) {
+			// the overlap, if any
+			final long oM0 = a.m0 & b.m0;
+			final int oM1 = a.m1 & b.m1;
+			for ( int v : VALUESES[vs] ) {
+				final long eM0 = a.vs[v].m0 | b.vs[v].m0;
+				final int eM1 = a.vs[v].m1 | b.vs[v].m1;
+				// no vs in the overlap, and all vs in both see each other
+				if ( ((eM0&oM0)|(eM1&oM1)) < 1L
+				  && (a.vAll[v].m0 & b.vAll[v].m0 & eM0) == eM0
+				  && (a.vAll[v].m1 & b.vAll[v].m1 & eM1) == eM1 )
+					cands |= VSHFT[v];
+			}
+		}
+		return cands;
+	}
+
 	@Override
 	public boolean forwardOnly() {
 		return true;
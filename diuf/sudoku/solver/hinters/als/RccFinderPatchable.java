@@ -0,0 +1,35 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver.hinters.als;
+
+/**
+ * A RccFinderPatchable is a forwardOnly RccFinder that can also patch the
+ * rccs of the previous alss to match the current alss, which AlsFinder found
+ * incrementally, instead of finding them all again.
+ * <p>
+ * Only the forwardOnly RccFinders are patchable: RccFinderForwardOnly and
+ * RccFinderBitboard. AAlsHinter calls patch only through this type.
+ */
+interface RccFinderPatchable extends RccFinder {
+
+	/**
+	 * Patch the forwardOnly rccs of the previous alss to match the current
+	 * alss, which AlsFinder found incrementally, returning how many.
+	 *
+	 * @param alss the current Almost Locked Sets
+	 * @param numAlss number of alss, atleast 2
+	 * @param rccs to repopulate
+	 * @param prevRccs the forwardOnly rccs of the previous alss, untruncated
+	 * @param numPrevRccs the number of prevRccs
+	 * @param prevIndexes the index in the previous alss of each reused als,
+	 *  else -1, coincident with alss
+	 * @return number of rccs
+	 */
+	public int patch(final Als[] alss, final int numAlss, final Rcc[] rccs
+			, final Rcc[] prevRccs, final int numPrevRccs, final int[] prevIndexes);
+
+}
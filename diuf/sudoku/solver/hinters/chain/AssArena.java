@@ -0,0 +1,223 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.solver.hinters.chain;
+
+import diuf.sudoku.Ass;
+import diuf.sudoku.Ass.Cause;
+import static diuf.sudoku.Ass.ON_BIT;
+import static diuf.sudoku.Ass.ASHFT;
+import static diuf.sudoku.Idx.MASKED;
+import static diuf.sudoku.solver.hinters.chain.AChainerBase.ONETIME;
+import static diuf.sudoku.solver.hinters.chain.AChainerBase.ONEVALUE;
+import static diuf.sudoku.solver.hinters.chain.AChainerBase.ONLYPOS;
+import static diuf.sudoku.solver.hinters.chain.AChainerBase.ONLYVALUE;
+import static diuf.sudoku.solver.hinters.chain.AssAnc.ANCMASKOF;
+import static diuf.sudoku.solver.hinters.chain.AssAnc.ANCVBASE;
+import java.util.Arrays;
+
+/**
+ * AssArena is an arena of int-encoded Ass(umption)s, for a chainer that
+ * creates millions of assumptions, of which a handful end-up in hints.
+ * <p>
+ * Each assumption is an int id: an index into my parallel primitive arrays:
+ * <pre>
+ * code[id]   the Ass.hashCode: ON_BIT ^ ASHFT[value] ^ indice
+ * parent[id] the id of my parent (the Ass that caused me), else NONE
+ * cause[id]  the Cause.ordinal of this assumption, else -1 for initial
+ * anc[id*ANC_SIZE..] my ancestors, as per {@link AssAnc#ancestors}
+ * </pre>
+ * The arena is reset (size=0) at the start of each search, and the arrays
+ * grow (rarely) as required, and are retained; so a search creates NO
+ * garbage, where it was three objects (Ass, its parents MyLinkedList and its
+ * node) plus an ancestors array per assumption.
+ * <p>
+ * The explanation of each assumption is derived from its cause and isOn, as
+ * per the interned Strings in AChainerBase, so its not stored.
+ * <p>
+ * Real Asses are materialised only when a hint is built: {@link #ass(int)}
+ * creates the chain of Ass from the initial assumption down to id, which is
+ * the same chain of Asses (indice, value, isOn, parent, cause, explanation)
+ * that the chainer previously created during its search.
+ * <p>
+ * AssArena is NOT thread-safe. Each chainer has its own arena.
+ */
+public final class AssArena {
+
+	/** The parent of the initial assumption. */
+	public static final int NONE = -1;
+
+	/** The number of ancestors ints per assumption, as per AssAnc. */
+	public static final int ANC_SIZE = 27;
+
+	// the indice is 7 bits, and the value is 4 bits (ASHFT[1] is 0).
+	private static final int INDICE_MASK = (1<<7) - 1;
+	private static final int VALUE_MASK = (1<<4) - 1;
+
+	private static final Cause[] CAUSES = Cause.values();
+
+	/**
+	 * @param code an Ass.hashCode
+	 * @return the indice of the cell
+	 */
+	public static int indiceOf(final int code) {
+		return code & INDICE_MASK;
+	}
+
+	/**
+	 * @param code an Ass.hashCode
+	 * @return the value (1..9)
+	 */
+	public static int valueOf(final int code) {
+		return (code>>7 & VALUE_MASK) + 1;
+	}
+
+	/**
+	 * @param code an Ass.hashCode
+	 * @return is this an On
+	 */
+	public static boolean isOnOf(final int code) {
+		return (code & ON_BIT) != 0;
+	}
+
+	// the explanation that the chainer gives an assumption with this cause.
+	private static String explanation(final Cause cause, final boolean isOn) {
+		if ( cause == Cause.NakedSingle )
+			return isOn ? ONLYVALUE : ONEVALUE;
+		return isOn ? ONLYPOS[cause.rti] : ONETIME[cause.rti];
+	}
+
+	/** Ass.hashCode of each assumption. */
+	public int[] code;
+	/** Id of the parent of each assumption, else NONE. */
+	public int[] parent;
+	/** Cause.ordinal of each assumption, else -1. */
+	public byte[] cause;
+	/** ANC_SIZE ancestors ints per assumption. */
+	public int[] anc;
+	/** The number of assumptions in this arena. */
+	public int size;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity the initial number of assumptions. I grow on demand.
+	 */
+	public AssArena(final int capacity) {
+		code = new int[capacity];
+		parent = new int[capacity];
+		cause = new byte[capacity];
+		anc = new int[capacity * ANC_SIZE];
+	}
+
+	/**
+	 * Reset this arena, for the next search. Existing ids are invalid.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	// grow my arrays, which is rare, so not hammered
+	private void grow() {
+		final int n = code.length << 1;
+		code = Arrays.copyOf(code, n);
+		parent = Arrays.copyOf(parent, n);
+		cause = Arrays.copyOf(cause, n);
+		anc = Arrays.copyOf(anc, n * ANC_SIZE);
+	}
+
+	/**
+	 * Add an initial assumption, which has no parent and no ancestors.
+	 *
+	 * @param indice of the cell
+	 * @param value the value
+	 * @param isOn true for an On, false for an Off
+	 * @return the id of the new assumption
+	 */
+	public int add(final int indice, final int value, final boolean isOn) {
+		if ( size == code.length )
+			grow();
+		final int id = size++;
+		code[id] = isOn ? ON_BIT ^ ASHFT[value] ^ indice : ASHFT[value] ^ indice;
+		parent[id] = NONE;
+		cause[id] = -1;
+		Arrays.fill(anc, id*ANC_SIZE, (id+1)*ANC_SIZE, 0);
+		return id;
+	}
+
+	/**
+	 * Add an assumption that is caused by parent, whose ancestors are my
+	 * parents ancestors plus my parent.
+	 *
+	 * @param indice of the cell
+	 * @param value the value
+	 * @param isOn true for an On, false for an Off
+	 * @param p the id of my parent
+	 * @param c the Cause of this assumption
+	 * @return the id of the new assumption
+	 */
+	public int add(final int indice, final int value, final boolean isOn
+			, final int p, final Cause c) {
+		if ( size == code.length )
+			grow();
+		final int id = size++;
+		code[id] = isOn ? ON_BIT ^ ASHFT[value] ^ indice : ASHFT[value] ^ indice;
+		parent[id] = p;
+		cause[id] = (byte)c.ordinal();
+		final int base = id * ANC_SIZE;
+		System.arraycopy(anc, p*ANC_SIZE, anc, base, ANC_SIZE);
+		final int pi = indiceOf(code[p]);
+		anc[base+ANCVBASE[valueOf(code[p])]+ANCMASKOF[pi]] |= MASKED[pi];
+		return id;
+	}
+
+	/**
+	 * Does assumption id have an ancestor of {indice, value}, either On or
+	 * Off (ancestors ignores isOn by design).
+	 *
+	 * @param id the assumption
+	 * @param indice of the cell
+	 * @param value the value
+	 * @return does {indice, value} cause id
+	 */
+	public boolean hasAncestor(final int id, final int indice, final int value) {
+		return (anc[id*ANC_SIZE+ANCVBASE[value]+ANCMASKOF[indice]] & MASKED[indice]) > 0;
+	}
+
+	/**
+	 * Materialise assumption id as a real Ass, with its whole chain of
+	 * parents back to the initial assumption.
+	 *
+	 * @param id the assumption
+	 * @return a new Ass
+	 */
+	public Ass ass(final int id) {
+		final int p = parent[id];
+		final int c = code[id];
+		if ( p == NONE )
+			return new Ass(indiceOf(c), valueOf(c), isOnOf(c));
+		final Cause cs = CAUSES[cause[id]];
+		return new Ass(indiceOf(c), valueOf(c), isOnOf(c), ass(p), cs
+				, explanation(cs, isOnOf(c)));
+	}
+
+	/**
+	 * Materialise a new Ass that is caused by assumption p, without adding it
+	 * to this arena. The chainer uses this for the target of a hint.
+	 *
+	 * @param indice of the cell
+	 * @param value the value
+	 * @param isOn true for an On, false for an Off
+	 * @param p the id of the parent
+	 * @param c the Cause
+	 * @return a new Ass, with its whole chain of parents
+	 */
+	public Ass ass(final int indice, final int value, final boolean isOn
+			, final int p, final Cause c) {
+		return new Ass(indice, value, isOn, ass(p), c, explanation(c, isOn));
+	}
+
+}
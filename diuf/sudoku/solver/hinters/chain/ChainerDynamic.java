@@ -132,11 +132,11 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 
 	private static final int ON_SIZE = 64; // a power of 2
 	private static final int ON_MASK = ON_SIZE - 1;
-	private static final Ass[] ONQ = new Ass[ON_SIZE];
+	private final Ass[] onQ = new Ass[ON_SIZE];
 
 	private static final int OFF_SIZE = 256; // a power of 2
 	private static final int OFF_MASK = OFF_SIZE - 1;
-	private static final Ass[] OFFQ = new Ass[OFF_SIZE];
+	private final Ass[] offQ = new Ass[OFF_SIZE];
 
 	/**
 	 * An array of the Four Quick Foxes (and imbedded chainers),
@@ -762,6 +762,8 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 * copyTo an existing grid (this is still expensive, just less so). If I
 	 * could have anything it would be a faster Grid backup/restore in binary,
 	 * like clone, but I am stupid, so copyFrom is as good as I can make it.
+	 * The grid is reverted with {@link Grid#rollback}, which
+	 * undoes only the erasures, instead of a second copyFrom.
 	 * <p>
 	 * doChains is called twice by {@link #doBinaryChains }
 	 * and once by {@link #doRegionsChains },
@@ -803,7 +805,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 * * initialGrid is a copy of grid at start of findHints; sans-erasures.
 	 * * Both of the given ons and offs IAssSets ARE Funky, which means add is
 	 *   addOnly: does NOT update pre-existing asses, it just returns false.
-	 * * Dequeu<Ass> ONQ, OFFQ // two EMPTY Ass queues // now endless arrays
+	 * * Dequeu<Ass> onQ, offQ // two EMPTY Ass queues // now endless arrays
 	 *
 	 * POST:
 	 * the given ons and offs IAssSet are populated (appended) with
@@ -825,7 +827,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 *          if (on=ons.get(off.cell, off.value)) != null then
 	 *             return new Ass[]{on, off} // Contradiction
 	 *          elif offs.add(off) then // add is Funky!
-	 *             OFFQ.add(off)
+	 *             offQ.add(off)
 	 *          endif
 	 *       next
 	 *       // (2) X-Link other places in cells regions are Off
@@ -835,7 +837,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 *             if (on=ons.get(off.cell, off.value)) != null then
 	 *                return new Ass[]{on, off}; // Contradiction
 	 *             elif offs.add(off) then // add is Funky!
-	 *                OFFQ.add(off)
+	 *                offQ.add(off)
 	 *             endif
 	 *          next
 	 *       next
@@ -851,7 +853,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 *             on = new Ass(a.cell, otherValue, ON, a)
 	 *             addHiddenParentsCell(on);
 	 *             if ons.add(on) then // add is Funky!
-	 *                ONQ.add(on)
+	 *                onQ.add(on)
 	 *             endif
 	 *          endif
 	 *       endif
@@ -867,7 +869,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 *                on = new Ass(otherPlace, a.value, ON, a)
 	 *                addHiddenParentsRegion(on);
 	 *                if ons.add(on) then // add is Funky!
-	 *                   ONQ.add(on)
+	 *                   onQ.add(on)
 	 *                endif
 	 *             endif
 	 *          endif
@@ -877,12 +879,12 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 *    if isFoxy then // ChainerPlus or Nested*: fourQuickFoxes++
 	 *       if effects=getHinterEffects(offs) != null then
 	 *          foreach effect in effects do
-	 *             OFFQ.add(effect)
+	 *             offQ.add(effect)
 	 *          next
 	 *       endif
 	 *    endif
-	 *    if (a=ONQ.poll()) == null then
-	 *       a = OFFQ.poll()
+	 *    if (a=onQ.poll()) == null then
+	 *       a = offQ.poll()
 	 *    endif
 	 * } while (a != null);
 	 *
@@ -927,7 +929,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 	 *    returns the given Ass to add to the appropriate Queue, for speed.
 	 * 4. The two addHiddenParents methods have been inlined, for speed, but
 	 *    they are ____all faster, and the code is a mess.
-	 * 5. ONQ and OFFQ are now arrays (not Deques) all inline, for speed.
+	 * 5. onQ and offQ are now arrays (not Deques) all inline, for speed.
 	 * }</pre>
 	 *
 	 * @param a the initialAssumption, either an On or an Off.
@@ -957,7 +959,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 		  , other // two uses: otherValue or otherIndex
 		  , places // region.places[value], hijacked as erased places
 		;
-		int onR=0, onW=0, offR=0, offW=0; // ONQ/OFFQ read/write index
+		int onR=0, onW=0, offR=0, offW=0; // onQ/offQ read/write index
 		boolean earlyExit = true; // presume we wont make it to end of method
 		final Deque<Ass> foxEffects;
 		if ( isFoxy )
@@ -980,8 +982,10 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 			ons.add(a);
 		else
 			offs.add(a);
-		// snap-shot the grid, to find parents (isFoxy), and reversion.
+		// snap-shot the grid, to find parents (isFoxy), and mark it for
+		// reversion, which rolls-back only the erased maybes.
 		initGrid.copyFrom(grid);
+		final int mark = grid.mark();
 		try {
 			for(;;) {
 				value = a.value;
@@ -997,7 +1001,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 							};
 						// avert tangle: process each Off ONCE
 						else if ( offNodes[indice][other] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, other, OFF, a, NakedSingle, ONEVALUE));
+							offQ[offW] = offs.justAdd(new Ass(indice, other, OFF, a, NakedSingle, ONEVALUE));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -1014,7 +1018,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 							};
 						// avert tangle: process each Off ONCE
 						else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -1028,7 +1032,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 							};
 						// avert tangle: process each Off ONCE
 						else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -1042,7 +1046,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 							};
 						// avert tangle: process each Off ONCE
 						else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -1068,7 +1072,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 									e.addParent(offNodes[indice][array[i]].ass);
 									if(++i > m) break;
 								}
-							ONQ[onW] = ons.justAdd(e);
+							onQ[onW] = ons.justAdd(e);
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -1096,7 +1100,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 									e.addParent(offNodes[indices[array[i]]][value].ass);
 									if(++i > m) break;
 								}
-							ONQ[onW] = ons.justAdd(e);
+							onQ[onW] = ons.justAdd(e);
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -1121,7 +1125,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 									e.addParent(offNodes[indices[array[i]]][value].ass);
 									if(++i > m) break;
 								}
-							ONQ[onW] = ons.justAdd(e);
+							onQ[onW] = ons.justAdd(e);
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -1146,7 +1150,7 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 									e.addParent(offNodes[indices[array[i]]][value].ass);
 									if(++i > m) break;
 								}
-							ONQ[onW] = ons.justAdd(e);
+							onQ[onW] = ons.justAdd(e);
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -1161,16 +1165,16 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 					// add these "Foxy" next links, then continue as normal
 					while ( (e=foxEffects.poll()) != null )
 						if ( offs.add(e) ) {
-							OFFQ[offW] = e;
+							offQ[offW] = e;
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
 				// WARN: Must process all Ons before any Off
-				if ( (a=ONQ[onR]) != null ) {
-					ONQ[onR] = null;
+				if ( (a=onQ[onR]) != null ) {
+					onQ[onR] = null;
 					onR = (onR + 1) & ON_MASK;
-				} else if ( (a=OFFQ[offR]) != null ) {
-					OFFQ[offR] = null;
+				} else if ( (a=offQ[offR]) != null ) {
+					offQ[offR] = null;
 					offR = (offR + 1) & OFF_MASK;
 				} else
 					break;
@@ -1183,17 +1187,18 @@ public final class ChainerDynamic extends AChainerBase implements ICleanUp, IFox
 			}
 		} finally {
 			// revert grid to how it was upon arrival here
-			grid.copyFrom(initGrid);
+			grid.rollback(mark);
+			grid.release(mark);
 			// clear on earlyExit, the set Q elements only.
 			if ( earlyExit ) {
 				if ( onR < onW )
-					fill(ONQ, onR, onW+1, null);
+					fill(onQ, onR, onW+1, null);
 				else if ( onR > onW )
-					fill(ONQ, onW, onR+1, null);
+					fill(onQ, onW, onR+1, null);
 				if ( offR < offW )
-					fill(OFFQ, offR, offW+1, null);
+					fill(offQ, offR, offW+1, null);
 				else if ( offR > offW )
-					fill(OFFQ, offW, offR+1, null);
+					fill(offQ, offW, offR+1, null);
 			}
 		}
 		return null;
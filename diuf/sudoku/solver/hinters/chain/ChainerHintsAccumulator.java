@@ -17,6 +17,8 @@ import diuf.sudoku.solver.UnsolvableException;
 import diuf.sudoku.solver.accu.IAccumulator;
 import diuf.sudoku.solver.hinters.IFoxyHint;
 import diuf.sudoku.utils.IAssSet;
+import diuf.sudoku.utils.IntQueue;
+import static diuf.sudoku.utils.IntQueue.QEMPTY;
 import diuf.sudoku.utils.MyLinkedList;
 import java.util.List;
 import java.util.Collection;
@@ -123,13 +125,14 @@ public final class ChainerHintsAccumulator implements IAccumulator {
 		final AChainingHint nestedChain = hint instanceof AChainingHint
 				? (AChainingHint)hint
 				: null;
-		for ( java.util.Map.Entry<Integer,Integer> e : reds.entrySet() )
+		int indice;
+		for ( final IntQueue q=reds.indices(); (indice=q.poll())>QEMPTY; )
 			// AFAIK all foxy hinters eliminate one value but I handle multiple
 			// values anyway, in case thats not true, now or in the future.
-			for ( int v : VALUESES[e.getValue()] )
+			for ( int v : VALUESES[reds.getCands(indice)] )
 				result |= results.add(
 					new Ass(
-						  e.getKey()		// cell
+						  indice			// cell
 						, v					// value
 						, OFF				// this is an Off
 						, rents				// from getParents
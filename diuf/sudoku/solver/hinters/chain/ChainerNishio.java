@@ -46,11 +46,11 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 
 	private static final int ON_SIZE = 128; // a power of 2
 	private static final int ON_MASK = ON_SIZE - 1;
-	private static final Ass[] ONQ = new Ass[ON_SIZE];
+	private final Ass[] onQ = new Ass[ON_SIZE];
 
 	private static final int OFF_SIZE = 256; // a power of 2
 	private static final int OFF_MASK = OFF_SIZE - 1;
-	private static final Ass[] OFFQ = new Ass[OFF_SIZE];
+	private final Ass[] offQ = new Ass[OFF_SIZE];
 
 	/**
 	 * The initial (unmodified) grid used to find parent (causal) Assumptions.
@@ -160,7 +160,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 		  , indice // ass.indice, hijacked as sibling indice
 		  , rPlaces // bitset of indexes in region.cells
 		;
-		int onR=0,onW=0, offR=0,offW=0; // ONQ/OFFQ read/write index
+		int onR=0,onW=0, offR=0,offW=0; // onQ/offQ read/write index
 		boolean earlyExit = true;
 		initGrid.copyFrom(grid);
 		ons.clear(); onNodes = ons.nodes;
@@ -170,6 +170,8 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 			ons.add(a);
 		else
 			offs.add(a);
+		// mark the grid, to rollback only the erased maybes
+		final int mark = grid.mark();
 		try {
 			do {
 				value = a.value;
@@ -187,7 +189,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 							};
 						// avert tangle: process each On ONCE
 						} else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -202,7 +204,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 							};
 						// avert tangle: process each On ONCE
 						} else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -217,7 +219,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 							};
 						// avert tangle: process each On ONCE
 						} else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -235,7 +237,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 							};
 						// avert tangle: process each On ONCE
 						} else if ( onNodes[indice][value] == null ) {
-							ONQ[onW] = ons.justAdd(on(indice, value, a, BOX, rPlaces, rIndices));
+							onQ[onW] = ons.justAdd(on(indice, value, a, BOX, rPlaces, rIndices));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -251,7 +253,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 							};
 						// avert tangle: process each On ONCE
 						} else if ( onNodes[indice][value] == null ) {
-							ONQ[onW] = ons.justAdd(on(indice, value, a, ROW, rPlaces, rIndices));
+							onQ[onW] = ons.justAdd(on(indice, value, a, ROW, rPlaces, rIndices));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -267,7 +269,7 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 							};
 						// avert tangle: process each On ONCE
 						} else if ( onNodes[indice][value] == null ) {
-							ONQ[onW] = ons.justAdd(on(indice, value, a, COL, rPlaces, rIndices));
+							onQ[onW] = ons.justAdd(on(indice, value, a, COL, rPlaces, rIndices));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -275,26 +277,27 @@ public final class ChainerNishio extends AChainerBase implements ICleanUp {
 					cell.removeMaybes(VSHFT[value]);
 				}
 				// process all Ons before any Off for when isDynamic
-				if ( (a=ONQ[onR]) != null ) {
-					ONQ[onR] = null;
+				if ( (a=onQ[onR]) != null ) {
+					onQ[onR] = null;
 					onR = (onR + 1) & ON_MASK;
-				} else if ( (a=OFFQ[offR]) != null ) {
-					OFFQ[offR] = null;
+				} else if ( (a=offQ[offR]) != null ) {
+					offQ[offR] = null;
 					offR = (offR + 1) & OFF_MASK;
 				}
 			} while ( a != null );
 			earlyExit = false;
 		} finally {
-			grid.copyFrom(initGrid);
+			grid.rollback(mark);
+			grid.release(mark);
 			if ( earlyExit ) {
 				if ( onR < onW )
-					fill(ONQ, onR, onW+1, null);
+					fill(onQ, onR, onW+1, null);
 				else if ( onR > onW )
-					fill(ONQ, onW, onR+1, null);
+					fill(onQ, onW, onR+1, null);
 				if ( offR < offW )
-					fill(OFFQ, offR, offW+1, null);
+					fill(offQ, offR, offW+1, null);
 				else if ( offR > offW )
-					fill(OFFQ, offW, offR+1, null);
+					fill(offQ, offW, offR+1, null);
 			}
 		}
 		return null;
@@ -65,11 +65,11 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 
 	private static final int ON_SIZE = 128; // a power of 2
 	private static final int ON_MASK = ON_SIZE - 1;
-	private static final Ass[] ONQ = new Ass[ON_SIZE];
+	private final Ass[] onQ = new Ass[ON_SIZE];
 
 	private static final int OFF_SIZE = 256; // a power of 2
 	private static final int OFF_MASK = OFF_SIZE - 1;
-	private static final Ass[] OFFQ = new Ass[OFF_SIZE];
+	private final Ass[] offQ = new Ass[OFF_SIZE];
 
 	// We create all the following collections ONCE in my first execution.
 	// They would be final except most Nested* hinters are never executed,
@@ -261,7 +261,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 		  , other // two uses: otherValue or otherIndice
 		;
 		boolean earlyExit = true; // set true at end-of-method, else cleanUp
-		int onR=0, onW=0, offR=0, offW=0; // ONQ/OFFQ read/write index
+		int onR=0, onW=0, offR=0, offW=0; // onQ/offQ read/write index
 		final Node[][] onNodes = ons.nodes;
 		final Node[][] offNodes = offs.nodes;
 		assert ons.isEmpty();
@@ -285,7 +285,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 							  , new Ass(indice, other, OFF, a, NakedSingle, ONEVALUE)
 							};
 						} else if ( offNodes[indice][other] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, other, OFF, a, NakedSingle, ONEVALUE));
+							offQ[offW] = offs.justAdd(new Ass(indice, other, OFF, a, NakedSingle, ONEVALUE));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -301,7 +301,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 							  , new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX])
 							};
 						} else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -315,7 +315,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 							  , new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW])
 							};
 						} else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -329,7 +329,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 							  , new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL])
 							};
 						} else if ( offNodes[indice][value] == null ) {
-							OFFQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
+							offQ[offW] = offs.justAdd(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
 							offW = (offW + 1) & OFF_MASK;
 							assert offW != offR;
 						}
@@ -345,7 +345,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 								, offNodes[indice][other].ass
 							};
 						} else if ( onNodes[indice][other] == null ) {
-							ONQ[onW] = ons.justAdd(new Ass(indice, other, ON, a, NakedSingle, ONLYVALUE));
+							onQ[onW] = ons.justAdd(new Ass(indice, other, ON, a, NakedSingle, ONLYVALUE));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -360,7 +360,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 								, offNodes[indice][value].ass
 							};
 						} else if ( onNodes[indice][value] == null ) {
-							ONQ[onW] = ons.justAdd(new Ass(indice, value, ON, a, CAUSE[BOX], ONLYPOS[BOX]));
+							onQ[onW] = ons.justAdd(new Ass(indice, value, ON, a, CAUSE[BOX], ONLYPOS[BOX]));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -374,7 +374,7 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 								, offNodes[indice][value].ass
 							};
 						} else if ( onNodes[indice][value] == null ) {
-							ONQ[onW] = ons.justAdd(new Ass(indice, value, ON, a, CAUSE[ROW], ONLYPOS[ROW]));
+							onQ[onW] = ons.justAdd(new Ass(indice, value, ON, a, CAUSE[ROW], ONLYPOS[ROW]));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
@@ -388,18 +388,18 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 								, offNodes[indice][value].ass
 							};
 						} else if ( onNodes[indice][value] == null ) {
-							ONQ[onW] = ons.justAdd(new Ass(indice, value, ON, a, CAUSE[COL], ONLYPOS[COL]));
+							onQ[onW] = ons.justAdd(new Ass(indice, value, ON, a, CAUSE[COL], ONLYPOS[COL]));
 							onW = (onW + 1) & ON_MASK;
 							assert onW != onR;
 						}
 					}
 				}
 				// process all Ons before any Off
-				if ( (a=ONQ[onR]) != null ) {
-					ONQ[onR] = null;
+				if ( (a=onQ[onR]) != null ) {
+					onQ[onR] = null;
 					onR = (onR + 1) & ON_MASK;
-				} else if ( (a=OFFQ[offR]) != null ) {
-					OFFQ[offR] = null;
+				} else if ( (a=offQ[offR]) != null ) {
+					offQ[offR] = null;
 					offR = (offR + 1) & OFF_MASK;
 				}
 			} while ( a != null );
@@ -408,13 +408,13 @@ public final class ChainerStatic extends AChainerBase implements ICleanUp, IFoxy
 			// cleanUp upon Contradiction, or Exception
 			if ( earlyExit ) {
 				if ( onR < onW )
-					Arrays.fill(ONQ, onR, onW+1, null);
+					Arrays.fill(onQ, onR, onW+1, null);
 				else if ( onR > onW )
-					Arrays.fill(ONQ, onW, onR+1, null);
+					Arrays.fill(onQ, onW, onR+1, null);
 				if ( offR < offW )
-					Arrays.fill(OFFQ, offR, offW+1, null);
+					Arrays.fill(offQ, offR, offW+1, null);
 				else if ( offR > offW )
-					Arrays.fill(OFFQ, offW, offR+1, null);
+					Arrays.fill(offQ, offW, offR+1, null);
 			}
 		}
 		return null;
@@ -18,6 +18,7 @@ import diuf.sudoku.Tech;
 import static diuf.sudoku.Values.VALUESES;
 import static diuf.sudoku.Values.VFIRST;
 import static diuf.sudoku.Values.VSHFT;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
 import static diuf.sudoku.Ass.ASHFT;
@@ -27,11 +28,11 @@ import static diuf.sudoku.Grid.GRID_SIZE;
 import static diuf.sudoku.Grid.NUM_REGIONS;
 import static diuf.sudoku.Grid.ROW;
 import static diuf.sudoku.Grid.VALUE_CEILING;
-import static diuf.sudoku.Idx.MASKED;
 import static diuf.sudoku.Indexes.IFIRST;
 import diuf.sudoku.solver.hinters.IFoxyHinter;
-import static diuf.sudoku.solver.hinters.chain.AssAnc.ANCMASKOF;
-import static diuf.sudoku.solver.hinters.chain.AssAnc.ANCVBASE;
+import static diuf.sudoku.solver.hinters.chain.AssArena.indiceOf;
+import static diuf.sudoku.solver.hinters.chain.AssArena.isOnOf;
+import static diuf.sudoku.solver.hinters.chain.AssArena.valueOf;
 
 /**
  * ChainerUnary implements da {@link Tech#UnaryChain} Sudoku solving technique.
@@ -99,12 +100,8 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	private static final int Q_SIZE = 128; // must be a power of 2
 	private static final int Q_MASK = Q_SIZE - 1;
 
-	// clear an ons or offs array
-	private static void clear(final AssAnc[][] array) {
-		for ( int v,i=0; i<GRID_SIZE; ++i )
-			for ( v=1; v<VALUE_CEILING; ++v )
-				array[i][v] = null;
-	}
+	// The initial capacity of the arena, which grows on demand.
+	private static final int ARENA_SIZE = 1024;
 
 	// Creating Collections slow, so do ONCE in initialise on first findChains,
 	// coz I'm imbedded in many Nested* chainers which are then NOT called.
@@ -115,15 +112,18 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	// boss angry. My risk appetite is larger because I'm just ____ing around
 	// with s__t, for fun. If the whole app ____ing bombs its really no skin
 	// off anyones nose. They're only Sudoku puzzles. A nice test-bed.
-	private AssAnc[] Q;
+	// Q is a queue of ids in the arena.
+	private int[] Q;
+
+	// The assumptions of the current search, reset per search.
+	private AssArena arena;
 
-	// The ons (and offs) are filed by [indice][value] in a "plain" array.
-	// These arrays where LinkedMatrixAssSets, but ChainerUnary doesn't use the
-	// extra features provided by a class, and its faster to do it all natively
-	// mainly because a native operation comes without the cost of invoking ANY
-	// method, especially add, because add happens so often.
+	// The Ons seen in this search: onSeen[indice*VALUE_CEILING+value]==stamp.
+	// These were AssAnc[][] arrays, cleared after each search; now a stamp
+	// per search means theres nothing to clear. Nothing is faster.
 	// NOTE WELL: ChainerUnary's speed comes mostly from reduced stackwork.
-	private AssAnc[][] ons, offs;
+	private int[] onSeen;
+	private int stamp;
 
 	/**
 	 * ons and offs eliminated by the cycle.
@@ -165,9 +165,9 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	public void initialise() {
 		if ( isInitialised )
 			return;
-		Q = new AssAnc[Q_SIZE];
-		ons = new AssAnc[GRID_SIZE][VALUE_CEILING];
-		offs = new AssAnc[GRID_SIZE][VALUE_CEILING];
+		Q = new int[Q_SIZE];
+		arena = new AssArena(ARENA_SIZE);
+		onSeen = new int[GRID_SIZE*VALUE_CEILING];
 		cycleOns = new LinkedMatrixAssSet();
 		cycleOffs = new LinkedMatrixAssSet();
 		isInitialised = true;
@@ -177,8 +177,8 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	public void deinitialise() {
 		if ( !isInitialised )
 			return;
-		Q = null;
-		ons = offs = null;
+		Q = onSeen = null;
+		arena = null;
 		cycleOns = cycleOffs = null;
 		isInitialised = false;
 	}
@@ -197,7 +197,6 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	@Override
 	protected void findChainHints() {
 		try {
-			AssAnc anOn; // an Ass with ancestors: Fully Liberal!
 			int values[], n, i, v;
 			if ( !isInitialised )
 				initialise();
@@ -209,10 +208,9 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 					i = 0;
 					do {
 						v = values[i];
-						anOn = new AssAnc(indice, v, ON);
-						doCycle(anOn);
-						doUnary(anOn);
-						doUnary(new AssAnc(indice, v, OFF));
+						doCycle(indice, v);
+						doUnary(indice, v, ON);
+						doUnary(indice, v, OFF);
 					} while (++i < n);
 					hinterrupt();
 				}
@@ -223,6 +221,15 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 		}
 	}
 
+	// start a new search: a new stamp, so no Ons are seen.
+	private int newStamp() {
+		if ( ++stamp == 0 ) { // wrapped around, so forget all
+			Arrays.fill(onSeen, 0);
+			stamp = 1;
+		}
+		return stamp;
+	}
+
 	/**
 	 * Find Bidirectional Cycles in the Grid starting from anOn.
 	 * <p>
@@ -236,8 +243,8 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	 * Mind why this is a BFS and works. I learned that cycles are only found
 	 * by DFS. Maybe we are missing loops? ~NJ.
 	 * <p>
-	 * The ons and offs sets are cleared in my finally block. Every doCycle and
-	 * doUnary MUST start with empty ons and offs, and post-cleanUp is neater.
+	 * Every doCycle and doUnary starts with an empty arena, and a new stamp,
+	 * so the Ons seen in the previous search are forgotten without clearing.
 	 * <p>
 	 * <pre>
 	 * FASTARDISATIONS:
@@ -250,14 +257,14 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	 * arrays are empty in the Nested* hinters only (post-testing is faster for
 	 * non-empty arrays).
 	 *
-	 * I inlined the "hasAncestor" query on {@link AssAnc#ancestors} using a
-	 * fast-O(1) bitwise operation. This comes at the expense of creating and
-	 * populating the ancestors array in AssAnc's constructor, but atleast
-	 * array.clone is faster than new array. We hasAncestor slightly more often
-	 * than we new AssAnc, so it works-out just marginally faster. Sigh.
+	 * The "hasAncestor" query is a fast-O(1) bitwise operation on the arenas
+	 * ancestors array, which AssArena.add populates from the parents, with an
+	 * arraycopy, so there's no garbage.
 	 *
-	 * Construction of a new AssAnc is delayed until I know that its required,
-	 * thus eliminating construction of garbage objects, to reduce GC.
+	 * Assumptions are int ids in an {@link AssArena}, which is
+	 * reset per search, instead of an AssAnc (Ass, parents list, list node,
+	 * and ancestors array) per assumption. Real Asses are materialised only
+	 * when we build a hint, which is rare.
 	 *
 	 * Cycle detection is optimised by pre-calculating the Off hashCode just to
 	 * save ^ON_BIT on every test. This is REALLY confusing til you understand
@@ -271,7 +278,7 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	 * fast as possible, though I recognise that I could be totes-wrong. I lack
 	 * the brains to tackle a mathematical proof.
 	 *
-	 * The Q (the AssAnc[] queue) is an endless-array, ie just an array with
+	 * The Q (the int[] queue of arena ids) is an endless-array, ie just an array with
 	 * indexes that wrap-around (go back-to 0) when they reach end-of-queue.
 	 * This is faster than a Queue (or Deqeue) mostly because its all native,
 	 * hence involves no method calls.
@@ -302,148 +309,155 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	 * Finding REAL performance is hard in Java! Just my humble opinion.
 	 * </pre>
 	 *
-	 * @param a the initial On assumption. Note that working assumptions in
-	 *  ChainerUnary are AssAnc, with the ancestors field, but the hints dont
-	 *  use the ancestors field, hence there reference-type is plain Ass, and
-	 *  the hint-methods create plain Asses.
+	 * @param initIndice the indice of the initial On assumption
+	 * @param initValue the value of the initial On assumption. Note that the
+	 *  working assumptions in ChainerUnary are ids in the arena, and hints
+	 *  get real Asses from {@link AssArena#ass}.
 	 * @return any hint/s found
 	 */
-	public boolean doCycle(AssAnc a) {
-		assert a.isOn; // cycles initial assumption is an On
-		Cell cell; // grid.cells[ass.indice]
-		ARegion cRegion; // one of the ass.cell.regions
-		int ancestors[] // ass.ancestors
-		  , indices[] // region.indices
+	public boolean doCycle(final int initIndice, final int initValue) {
+		Cell cell; // grid.cells[indice]
+		ARegion cRegion; // one of the cell.regions
+		int indices[] // region.indices
 		  , cPlaceIn[] // cell.placeIn
 		  , array[], n, i // array, size, index (ONE stackframe)
-		  , value // ass.value
-		  , indice // ass.cell.indice, hijacked as sibling-cells-indice
+		  , code // arena.code[a]
+		  , value // a.value
+		  , indice // a.indice, hijacked as sibling-cells-indice
 		  , other // two uses: otherValue and otherIndice
+		  , x // onSeen index
 		;
 		boolean result = false;
 		int qr=0, qw=0; // Q read/write index
+		final AssArena arena = this.arena;
+		final int[] onSeen = this.onSeen;
+		final int stamp = newStamp();
+		arena.clear();
+		// the current assumption: an id in the arena
+		int a = arena.add(initIndice, initValue, ON);
 		// anOn.hashCode (identity of initialOn) to avert tangles quickly.
 		// nb: Use the Offs hashCode to save ^ON_BIT on every test, for speed.
-		final int initHC = a.hashCode ^ ON_BIT;
-		try {
-			ons[a.indice][a.value] = a;
-			do {
-				value = a.value;
-				cell = cells[indice=a.indice];
-				if ( a.isOn ) {
-					// (1) Y-Link: other maybes of this cell get Offed.
-					ancestors = a.ancestors;
-					for ( array=VALUESES[cell.maybes & ~VSHFT[value]], n=array.length, i=0; i<n; ++i )
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[other=array[i]]+ANCMASKOF[indice]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][other] = new AssAnc(indice, other, OFF, a, NakedSingle, ONEVALUE);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
-					// (2) X-Link: other places for value get Offed.
-					cPlaceIn = cell.placeIn;
-					indices = (cRegion=cell.box).indices;
-					for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[BOX]], n=array.length, i=0; i<n; ++i )
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[value]+ANCMASKOF[indice=indices[array[i]]]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][value] = new AssAnc(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
-					indices = (cRegion=cell.row).indices;
-					for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[ROW]], n=array.length, i=0; i<n; ++i )
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[value]+ANCMASKOF[indice=indices[array[i]]]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][value] = new AssAnc(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
-					indices = (cRegion=cell.col).indices;
-					for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[COL]], n=array.length, i=0; i<n; ++i )
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[value]+ANCMASKOF[indice=indices[array[i]]]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][value] = new AssAnc(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
-				} else {
-					// (1) Y-Link: if cell has two maybes then other value is On.
-					if ( cell.size == 2 ) {
-						// detect cycle: initialOn causes itself
-						if ( (ASHFT[other=VFIRST[cell.maybes & ~VSHFT[value]]]^indice) == initHC ) {
-							AChainingHint hint = cycleHint(new Ass(indice, other, ON, a, NakedSingle, ONLYVALUE));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][other] == null ) {
-							Q[qw] = ons[indice][other] = new AssAnc(indice, other, ON, a, NakedSingle, ONLYVALUE);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
+		final int initHC = arena.code[a] ^ ON_BIT;
+		onSeen[initIndice*VALUE_CEILING+initValue] = stamp;
+		do {
+			value = valueOf(code=arena.code[a]);
+			cell = cells[indice=indiceOf(code)];
+			if ( isOnOf(code) ) {
+				// (1) Y-Link: other maybes of this cell get Offed.
+				for ( array=VALUESES[cell.maybes & ~VSHFT[value]], n=array.length, i=0; i<n; ++i )
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice, other=array[i]) ) {
+						Q[qw] = arena.add(indice, other, OFF, a, NakedSingle);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
 					}
-					// (2) X-Link: if region has two places then other place is On.
-					// foreach region in cell.regions: box, row, col
-					if ( (cRegion=cell.box).numPlaces[value] == 2 ) {
-						indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[BOX]]];
-						// detect cycle: initialOn causes itself
-						if ( (indice^ASHFT[value]) == initHC ) {
-							AChainingHint hint = cycleHint(new Ass(indice, value, ON, a, CAUSE[BOX], ONLYPOS[BOX]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][value] == null ) {
-							Q[qw] = ons[indice][value] = new AssAnc(indice, value, ON, a, CAUSE[BOX], ONLYPOS[BOX]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
+				// (2) X-Link: other places for value get Offed.
+				cPlaceIn = cell.placeIn;
+				indices = (cRegion=cell.box).indices;
+				for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[BOX]], n=array.length, i=0; i<n; ++i )
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice=indices[array[i]], value) ) {
+						Q[qw] = arena.add(indice, value, OFF, a, CAUSE[BOX]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
 					}
-					if ( (cRegion=cell.row).numPlaces[value] == 2 ) {
-						indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[ROW]]];
-						// detect cycle: initialOn causes itself
-						if ( (indice^ASHFT[value]) == initHC ) {
-							AChainingHint hint = cycleHint(new Ass(indice, value, ON, a, CAUSE[ROW], ONLYPOS[ROW]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
+				indices = (cRegion=cell.row).indices;
+				for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[ROW]], n=array.length, i=0; i<n; ++i )
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice=indices[array[i]], value) ) {
+						Q[qw] = arena.add(indice, value, OFF, a, CAUSE[ROW]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				indices = (cRegion=cell.col).indices;
+				for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[COL]], n=array.length, i=0; i<n; ++i )
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice=indices[array[i]], value) ) {
+						Q[qw] = arena.add(indice, value, OFF, a, CAUSE[COL]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+			} else {
+				// (1) Y-Link: if cell has two maybes then other value is On.
+				if ( cell.size == 2 ) {
+					// detect cycle: initialOn causes itself
+					if ( (ASHFT[other=VFIRST[cell.maybes & ~VSHFT[value]]]^indice) == initHC ) {
+						AChainingHint hint = cycleHint(arena.ass(indice, other, ON, a, NakedSingle));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][value] == null ) {
-							Q[qw] = ons[indice][value] = new AssAnc(indice, value, ON, a, CAUSE[ROW], ONLYPOS[ROW]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+					}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+other] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, other, ON, a, NakedSingle);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				// (2) X-Link: if region has two places then other place is On.
+				// foreach region in cell.regions: box, row, col
+				if ( (cRegion=cell.box).numPlaces[value] == 2 ) {
+					indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[BOX]]];
+					// detect cycle: initialOn causes itself
+					if ( (indice^ASHFT[value]) == initHC ) {
+						AChainingHint hint = cycleHint(arena.ass(indice, value, ON, a, CAUSE[BOX]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
-					if ( (cRegion=cell.col).numPlaces[value] == 2 ) {
-						indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[COL]]];
-						// detect cycle: initialOn causes itself
-						if ( (indice^ASHFT[value]) == initHC ) {
-							AChainingHint hint = cycleHint(new Ass(indice, value, ON, a, CAUSE[COL], ONLYPOS[COL]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+value] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, value, ON, a, CAUSE[BOX]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				if ( (cRegion=cell.row).numPlaces[value] == 2 ) {
+					indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[ROW]]];
+					// detect cycle: initialOn causes itself
+					if ( (indice^ASHFT[value]) == initHC ) {
+						AChainingHint hint = cycleHint(arena.ass(indice, value, ON, a, CAUSE[ROW]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][value] == null ) {
-							Q[qw] = ons[indice][value] = new AssAnc(indice, value, ON, a, CAUSE[COL], ONLYPOS[COL]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+					}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+value] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, value, ON, a, CAUSE[ROW]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				if ( (cRegion=cell.col).numPlaces[value] == 2 ) {
+					indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[COL]]];
+					// detect cycle: initialOn causes itself
+					if ( (indice^ASHFT[value]) == initHC ) {
+						AChainingHint hint = cycleHint(arena.ass(indice, value, ON, a, CAUSE[COL]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+value] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, value, ON, a, CAUSE[COL]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
 				}
-				a=Q[qr]; Q[qr]=null; qr=(qr+1)&Q_MASK;
-			} while (a != null);
-		} finally {
-			clear(ons);
-			clear(offs);
-		}
+			}
+			if ( qr == qw )
+				break;
+			a = Q[qr];
+			qr = (qr+1) & Q_MASK;
+		} while ( true );
 		return result;
 	}
 
@@ -453,195 +467,200 @@ public final class ChainerUnary extends AChainerBase implements IFoxyHinter {
 	 * I find unary (single value) contradiction forcing chain hints. There is
 	 * no binary reduction in unary chains.
 	 * <p>
-	 * The ons and offs sets are cleared in my finally block. Every doCycle and
-	 * doUnary MUST start with empty ons and offs, and its neater to clean-up
-	 * after processing.
+	 * Every doCycle and doUnary starts with an empty arena, and a new stamp,
+	 * so the Ons seen in the previous search are forgotten without clearing.
 	 *
-	 * @param a an "On" or an "Off" assumption to follow. Note that working
-	 *  assumptions in ChainerUnary are AssAnc, with the ancestors field, but
-	 *  the hints require Ass only (no ancestors)
+	 * @param initIndice the indice of the initial assumption
+	 * @param initValue the value of the initial assumption
+	 * @param initIsOn is the initial assumption an "On" or an "Off"
 	 * @return any hint/s found
 	 */
-	public boolean doUnary(AssAnc a) {
+	public boolean doUnary(final int initIndice, final int initValue, final boolean initIsOn) {
 		boolean result = false;
-		ARegion cRegion; // one of the ass.cell.regions
-		Cell cell; // cells[ass.indice]
+		ARegion cRegion; // one of the cell.regions
+		Cell cell; // cells[indice]
 		int indices[] // region.indices
 		  , cPlaceIn[] // cell.placeIn
-		  , ancestors[] // ass.ancestors
 		  , array[], n, i // array, size, index (ONE stackframe)
-		  , value // ass.value
+		  , code // arena.code[a]
+		  , value // a.value
 		  , other // two uses: otherValue or otherIndice
-		  , indice // indice of ass.cell, hijacked as sibling indice
+		  , indice // a.indice, hijacked as sibling indice
+		  , x // onSeen index
 		;
 		int qr=0, qw=0; // Q read/write index
+		final AssArena arena = this.arena;
+		final int[] onSeen = this.onSeen;
+		final int stamp = newStamp();
+		arena.clear();
+		// the current assumption: an id in the arena
+		int a = arena.add(initIndice, initValue, initIsOn);
 		// hashCode of contradiction of anAss, for fast testing
-		final int contraHC = a.hashCode ^ ON_BIT;
-		try {
-			if ( a.isOn )
-				ons[a.indice][a.value] = a;
-			else
-				offs[a.indice][a.value] = a;
-			do {
-				value = a.value;
-				cell = cells[indice=a.indice];
-				if ( a.isOn ) {
-					ancestors = a.ancestors;
-					// (1) Y-Link: all other maybes of this cell are Off
-					for ( array=VALUESES[cell.maybes & ~VSHFT[value]],n=array.length,i=0; i<n; ++i ) {
-						// detect contradiction
-						if ( (ASHFT[other=array[i]]^indice) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, other, OFF, a, NakedSingle, ONEVALUE));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[other]+ANCMASKOF[indice]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][other] = new AssAnc(indice, other, OFF, a, NakedSingle, ONEVALUE);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+		final int contraHC = arena.code[a] ^ ON_BIT;
+		if ( initIsOn )
+			onSeen[initIndice*VALUE_CEILING+initValue] = stamp;
+		do {
+			value = valueOf(code=arena.code[a]);
+			cell = cells[indice=indiceOf(code)];
+			if ( isOnOf(code) ) {
+				// (1) Y-Link: all other maybes of this cell are Off
+				for ( array=VALUESES[cell.maybes & ~VSHFT[value]],n=array.length,i=0; i<n; ++i ) {
+					// detect contradiction
+					if ( (ASHFT[other=array[i]]^indice) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, other, OFF, a, NakedSingle));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
-					// (2) X-Link: all other places for value in this cells
-					//             three regions are Off
-					cPlaceIn = cell.placeIn;
-					indices = (cRegion=cell.box).indices;
-					for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[BOX]],n=array.length,i=0; i<n; ++i ) {
-						// detect contradiction
-						if ( (ASHFT[value]^(indice=indices[array[i]])) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[value]+ANCMASKOF[indice]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][value] = new AssAnc(indice, value, OFF, a, CAUSE[BOX], ONETIME[BOX]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice, other) ) {
+						Q[qw] = arena.add(indice, other, OFF, a, NakedSingle);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
 					}
-					indices = (cRegion=cell.row).indices;
-					for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[ROW]],n=array.length,i=0; i<n; ++i ) {
-						// detect contradiction
-						if ( (ASHFT[value]^(indice=indices[array[i]])) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[value]+ANCMASKOF[indice]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][value] = new AssAnc(indice, value, OFF, a, CAUSE[ROW], ONETIME[ROW]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+				}
+				// (2) X-Link: all other places for value in this cells
+				//             three regions are Off
+				cPlaceIn = cell.placeIn;
+				indices = (cRegion=cell.box).indices;
+				for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[BOX]],n=array.length,i=0; i<n; ++i ) {
+					// detect contradiction
+					if ( (ASHFT[value]^(indice=indices[array[i]])) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, value, OFF, a, CAUSE[BOX]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
-					indices = (cRegion=cell.col).indices;
-					for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[COL]],n=array.length,i=0; i<n; ++i ) {
-						// detect contradiction
-						if ( (ASHFT[value]^(indice=indices[array[i]])) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: ignore effect if it caused ass
-						if ( (ancestors[ANCVBASE[value]+ANCMASKOF[indice]] & MASKED[indice]) < 1 ) {
-							Q[qw] = offs[indice][value] = new AssAnc(indice, value, OFF, a, CAUSE[COL], ONETIME[COL]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
-						}
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice, value) ) {
+						Q[qw] = arena.add(indice, value, OFF, a, CAUSE[BOX]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
 					}
-				} else {
-					// (1) Y-Link: if cell has two maybes then the other value
-					//     is On
-					if ( cell.size == 2 ) {
-						// the other maybe
-						other = VFIRST[cell.maybes & ~VSHFT[value]];
-						// detect contradiction
-						if ( (ASHFT[other]^indice^ON_BIT) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, other, ON, a, NakedSingle, ONLYVALUE));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][other] == null ) {
-							Q[qw] = ons[indice][other] = new AssAnc(indice, other, ON, a, NakedSingle, ONLYVALUE);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+				}
+				indices = (cRegion=cell.row).indices;
+				for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[ROW]],n=array.length,i=0; i<n; ++i ) {
+					// detect contradiction
+					if ( (ASHFT[value]^(indice=indices[array[i]])) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, value, OFF, a, CAUSE[ROW]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
-					// (2) X-Link: if any of this cells three regions has two
-					//     places for this value then the other place is On
-					if ( (cRegion=cell.box).numPlaces[value] == 2 ) {
-						// the other place for value in region
-						indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[BOX]]];
-						// detect contradiction
-						if ( (indice^ASHFT[value]^ON_BIT) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, value, ON, a, CAUSE[BOX], ONLYPOS[BOX]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
-						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][value] == null ) {
-							Q[qw] = ons[indice][value] = new AssAnc(indice, value, ON, a, CAUSE[BOX], ONLYPOS[BOX]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice, value) ) {
+						Q[qw] = arena.add(indice, value, OFF, a, CAUSE[ROW]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				indices = (cRegion=cell.col).indices;
+				for ( array=INDEXES[cRegion.places[value] & ~cPlaceIn[COL]],n=array.length,i=0; i<n; ++i ) {
+					// detect contradiction
+					if ( (ASHFT[value]^(indice=indices[array[i]])) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, value, OFF, a, CAUSE[COL]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
-					if ( (cRegion=cell.row).numPlaces[value] == 2 ) {
-						// the other place for value in region
-						indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[ROW]]];
-						// detect contradiction
-						if ( (indice^ASHFT[value]^ON_BIT) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, value, ON, a, CAUSE[ROW], ONLYPOS[ROW]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
+					// avert tangle: ignore effect if it caused ass
+					if ( !arena.hasAncestor(a, indice, value) ) {
+						Q[qw] = arena.add(indice, value, OFF, a, CAUSE[COL]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+			} else {
+				// (1) Y-Link: if cell has two maybes then the other value
+				//     is On
+				if ( cell.size == 2 ) {
+					// the other maybe
+					other = VFIRST[cell.maybes & ~VSHFT[value]];
+					// detect contradiction
+					if ( (ASHFT[other]^indice^ON_BIT) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, other, ON, a, NakedSingle));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][value] == null ) {
-							Q[qw] = ons[indice][value] = new AssAnc(indice, value, ON, a, CAUSE[ROW], ONLYPOS[ROW]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+					}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+other] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, other, ON, a, NakedSingle);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				// (2) X-Link: if any of this cells three regions has two
+				//     places for this value then the other place is On
+				if ( (cRegion=cell.box).numPlaces[value] == 2 ) {
+					// the other place for value in region
+					indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[BOX]]];
+					// detect contradiction
+					if ( (indice^ASHFT[value]^ON_BIT) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, value, ON, a, CAUSE[BOX]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
-					if ( (cRegion=cell.col).numPlaces[value] == 2 ) {
-						// the other place for value in region
-						indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[COL]]];
-						// detect contradiction
-						if ( (indice^ASHFT[value]^ON_BIT) == contraHC ) {
-							AChainingHint hint = unaryHint(new Ass(indice, value, ON, a, CAUSE[COL], ONLYPOS[COL]));
-							if ( hint != null ) {
-								hints.add(hint);
-								result = true;
-							}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+value] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, value, ON, a, CAUSE[BOX]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				if ( (cRegion=cell.row).numPlaces[value] == 2 ) {
+					// the other place for value in region
+					indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[ROW]]];
+					// detect contradiction
+					if ( (indice^ASHFT[value]^ON_BIT) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, value, ON, a, CAUSE[ROW]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
-						// avert tangle: process each On ONCE
-						if ( ons[indice][value] == null ) {
-							Q[qw] = ons[indice][value] = new AssAnc(indice, value, ON, a, CAUSE[COL], ONLYPOS[COL]);
-							qw = (qw+1) & Q_MASK;
-							assert qw != qr;
+					}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+value] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, value, ON, a, CAUSE[ROW]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
+				}
+				if ( (cRegion=cell.col).numPlaces[value] == 2 ) {
+					// the other place for value in region
+					indice = cRegion.indices[IFIRST[cRegion.places[value] & ~cell.placeIn[COL]]];
+					// detect contradiction
+					if ( (indice^ASHFT[value]^ON_BIT) == contraHC ) {
+						AChainingHint hint = unaryHint(arena.ass(indice, value, ON, a, CAUSE[COL]));
+						if ( hint != null ) {
+							hints.add(hint);
+							result = true;
 						}
 					}
+					// avert tangle: process each On ONCE
+					if ( onSeen[x=indice*VALUE_CEILING+value] != stamp ) {
+						onSeen[x] = stamp;
+						Q[qw] = arena.add(indice, value, ON, a, CAUSE[COL]);
+						qw = (qw+1) & Q_MASK;
+						assert qw != qr;
+					}
 				}
-				a=Q[qr]; Q[qr]=null; qr=(qr+1)&Q_MASK;
-			} while (a != null);
-		} finally {
-			clear(ons);
-			clear(offs);
-		}
+			}
+			if ( qr == qw )
+				break;
+			a = Q[qr];
+			qr = (qr+1) & Q_MASK;
+		} while ( true );
 		return result;
 	}
 
@@ -13,8 +13,9 @@ import diuf.sudoku.Run;
 import diuf.sudoku.Tech;
 import static diuf.sudoku.Values.VSHFT;
 import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.SolverContext;
 import diuf.sudoku.solver.hinters.table.ATableChainer.Eff;
-import static diuf.sudoku.solver.hinters.table.ATableChainer.TABLES;
+import diuf.sudoku.solver.hinters.table.ATableChainer.Tables;
 import diuf.sudoku.utils.IAssSet;
 import static java.util.Arrays.fill;
 
@@ -39,8 +40,13 @@ public abstract class AKrakenFisherman extends AComplexFisherman
 	 */
 	protected static final boolean NO_CHANGED_VALUES_HACK = false;
 
-	// searchKrakens TABLES.ons[cand]
-	protected static Eff[] ktOns;
+	// the Tables shared by all table chainers and kraken fishermen in this
+	// LogicalSolver, via setContext. Null til then, except that tables()
+	// creates my own Tables if there is no context (test-cases).
+	protected Tables tables;
+
+	// searchKrakens tables.ons[cand]
+	protected Eff[] ktOns;
 
 	// exploded grid.idxs
 	// nb: retained between calls, in order to calculate changedCands
@@ -57,10 +63,27 @@ public abstract class AKrakenFisherman extends AComplexFisherman
 		super(tech, true);
 	}
 
+	/**
+	 * Use the Tables that are shared by all table chainers in this context.
+	 *
+	 * @param context of the LogicalSolver that I am in
+	 */
+	@Override
+	public void setContext(final SolverContext context) {
+		this.tables = context.getTables();
+	}
+
+	// my tables, creating my own if I have no context (test-cases)
+	protected final Tables tables() {
+		if ( tables == null )
+			tables = new Tables();
+		return tables;
+	}
+
 	public void initialiseTables() {
 		// initialise exits-early if its already done for this grid.
 		// nb: ALWAYS initialise in Generator, coz grid changes madly
-		TABLES.initialise(grid, Run.isGenerator(), true);
+		tables().initialise(grid, Run.isGenerator(), true);
 		// explode grid.idxs into parallel arrays, coz array look-up is
 		// faster than deref, and idxs are hammered downstairs.
 		// HACK: search only candidates that have changed since the last
@@ -87,7 +110,7 @@ public abstract class AKrakenFisherman extends AComplexFisherman
 	public void prepare(final Grid grid, final LogicalSolver logicalSolver) {
 		// initialise for each puzzle: problem with Swordfish and Jellyfish
 		// not re-initialising the kt2Cache.
-		TABLES.invalidate();
+		tables().invalidate();
 	}
 
 	/**
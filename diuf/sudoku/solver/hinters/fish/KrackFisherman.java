@@ -43,12 +43,10 @@ import diuf.sudoku.Run;
 import static diuf.sudoku.Values.VALUESES;
 import static diuf.sudoku.Values.VSHFT;
 import diuf.sudoku.solver.AHint;
-import static diuf.sudoku.solver.hinters.table.ATableChainer.TABLES;
 import diuf.sudoku.utils.Debug;
 import java.util.LinkedList;
 import java.util.List;
 import diuf.sudoku.utils.IntQueue;
-import static diuf.sudoku.solver.hinters.table.ATableChainer.getEffects;
 
 /**
  * KrackFisherman implements the {@link Tech#KrakenJellyfish} Sudoku solving
@@ -161,7 +159,7 @@ public class KrackFisherman extends AKrakenFisherman
 	protected boolean findKrakenFishHints() {
 		boolean result = false;
 		for ( int v : VALUESES[changedCands] ) {
-			ktOns = TABLES.ons[v];
+			ktOns = tables.ons[v];
 			numBases = numAllCovers = 0;
 			addRegions(rows, cols, v); // ROWS
 			addRegions(cols, rows, v); // COLS
@@ -395,7 +393,7 @@ public class KrackFisherman extends AKrakenFisherman
 										// commonly none, ergo no hint.
 										jj = 0;
 										do
-											// nb: ktOns is TABLES.ons[value]
+											// nb: ktOns is tables.ons[value]
 											if ( ( (vcM0 &= (elims=ktOns[examinesA[jj]].elims[e])[0])
 												 | (vcM1 &= elims[1]) ) < 1L )
 												break NON_LOOP;
@@ -415,7 +413,7 @@ public class KrackFisherman extends AKrakenFisherman
 											for ( int victim : victims.set(vcM0,vcM1) )
 												for ( int examine : examinesA )
 													// the $victim-$v effect of $examine+$candidate
-													chains.add(getEffects(grid, examine, v).getAss(victim, e));
+													chains.add(tables.getEffects(grid, examine, v).getAss(victim, e));
 											// KT2s fins are just fins (no hijack for examines)
 											final ComplexFishHint cause = hint(
 											  v, usedBases, usedCovers, coverLevel
@@ -48,9 +48,7 @@ import diuf.sudoku.utils.Debug;
 import java.util.LinkedList;
 import java.util.List;
 import static diuf.sudoku.solver.hinters.fish.FishType.*;
-import static diuf.sudoku.solver.hinters.table.ATableChainer.TABLES;
 import diuf.sudoku.utils.IntQueue;
-import static diuf.sudoku.solver.hinters.table.ATableChainer.getEffects;
 
 /**
  * KrakenFisherman implements the {@link Tech#KrakenSwampfish},
@@ -223,7 +221,7 @@ public class KrakenFisherman extends AKrakenFisherman
 		try {
 			// find new hints
 			for ( int v : VALUESES[changedCands] ) {
-				ktOns = TABLES.ons[v];
+				ktOns = tables.ons[v];
 				if ( oneHintOnly ) { // search rows, else cols
 					if ( (select(BY_ROWS, v) && search(v))
 					  || (select(BY_COLS, v) && search(v)) ) {
@@ -504,7 +502,7 @@ public class KrakenFisherman extends AKrakenFisherman
 												jj = 0;
 												NON_LOOP: for(;;) {
 												do {
-													// nb: ktOns = TABLES.ons[candidate]
+													// nb: ktOns = tables.ons[candidate]
 													if ( ( (zzM0 &= (elims=ktOns[examinesA[jj]].elims[v])[0])
 														 | (zzM1 &= elims[1]) ) < 1 )
 														break NON_LOOP;
@@ -543,7 +541,7 @@ public class KrakenFisherman extends AKrakenFisherman
 													for ( int examine : fins ) { // iterator fast enough
 														// add the $victim-$candidate with parent links to
 														// (ie is a consequence of) $examine+$candidate
-														chains.add(getEffects(grid, examine, v).getAss(victim, v));
+														chains.add(tables.getEffects(grid, examine, v).getAss(victim, v));
 													}
 													// the kraken hint "wraps" the cause hint
 													victims.setIndice(victim);
@@ -600,7 +598,7 @@ public class KrakenFisherman extends AKrakenFisherman
 											jj = 0;
 											NON_LOOP: for(;;) {
 											do
-												// nb: ktOns is TABLES.ons[value]
+												// nb: ktOns is tables.ons[value]
 												if ( ( (vcM0 &= (elims=ktOns[examinesA[jj]].elims[e])[0])
 													 | (vcM1 &= elims[1]) ) < 1L )
 													break NON_LOOP;
@@ -619,7 +617,7 @@ public class KrakenFisherman extends AKrakenFisherman
 												for ( int victim : victims.set(vcM0,vcM1) )
 													for ( int examine : examinesA )
 														// the $victim-$v effect of $examine+$candidate
-														chains.add(getEffects(grid, examine, e).getAss(victim, e));
+														chains.add(tables.getEffects(grid, examine, e).getAss(victim, e));
 												// there are no sharks in KT2
 												sharks.clear();
 												final ComplexFishHint cause = hint(
@@ -17,6 +17,8 @@ import diuf.sudoku.solver.accu.SummaryHint;
 import diuf.sudoku.solver.accu.HintsApplicumulator;
 import diuf.sudoku.solver.accu.IAccumulator;
 import static diuf.sudoku.solver.hinters.Slots.*;
+import diuf.sudoku.utils.IntQueue;
+import static diuf.sudoku.utils.IntQueue.QEMPTY;
 
 /**
  * LockingSpeedMode is unusual in that it extends the Locking hinter to apply
@@ -210,11 +212,11 @@ public final class LockingSpeedMode extends Locking {
 	 */
 	@Override
 	protected void eliminationsFound(final Cell[] gridCells, final Pots reds) {
-		int cands;
+		int indice, cands;
 		Integer existing;
-		for ( java.util.Map.Entry<Integer, Integer> e : reds.entrySet() ) {
-			cands = e.getValue();
-			for ( final ARegion region : gridCells[e.getKey()].regions ) // cell.regions
+		for ( final IntQueue q=reds.indices(); (indice=q.poll())>QEMPTY; ) {
+			cands = reds.getCands(indice);
+			for ( final ARegion region : gridCells[indice].regions ) // cell.regions
 				// nb: DirtyRegions.get is MUCH faster than HashMaps.
 				if ( (existing=dirtyRegions.get(region)) != null ) {
 					// nb: no point updating unless there are new cands.
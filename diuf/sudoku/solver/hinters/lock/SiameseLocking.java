@@ -51,9 +51,9 @@ import diuf.sudoku.utils.IntQueue;
 public final class SiameseLocking extends Locking {
 
 	// wanking storage for idxOf (more on that later)
-	private static final Idx IDX = new Idx();
+	private final Idx IDX = new Idx();
 
-	private static final Idx BUDS = new Idx(); // full
+	private final Idx BUDS = new Idx(); // full
 
 	// I need help finding any extra eliminations
 	private final HiddenPair hiddenPair;
@@ -27,30 +27,40 @@ import static diuf.sudoku.Values.VFIRST;
 import static diuf.sudoku.Values.VSHFT;
 import diuf.sudoku.solver.AHint;
 import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.SolverContext;
 import diuf.sudoku.solver.accu.CachingHintsAccumulator;
 import diuf.sudoku.solver.accu.CachingHintsAccumulator.Mint;
 import diuf.sudoku.solver.hinters.AHinter;
+import diuf.sudoku.solver.hinters.IHinter;
 import static diuf.sudoku.solver.hinters.FunkyAssSetFactory.newFunkyAssSet;
 import diuf.sudoku.utils.IAssSet;
 import diuf.sudoku.utils.IntHashSet;
 import diuf.sudoku.utils.Log;
 import diuf.sudoku.utils.MyLinkedFifoQueue;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
- * Abstract (Kraken) Table Chainer, exposes the TABLES to public, and exposes
+ * Abstract (Kraken) Table Chainer, exposes the tables to public, and exposes
  * fields to my subclasses.
  * <p>
  * The {@link TableReduction} class extends me.
  * <p>
  * The {@link diuf.sudoku.solver.hinters.fish.KrakenFisherman}
  * and {@link diuf.sudoku.solver.hinters.fish.KrackFisherman}
- * classes also use my {@link #TABLES}, but not my fields.
+ * classes also use the {@link Tables}, but not my fields.
  * They have there own fields, rather confusingly, of the same name.
+ * <p>
+ * TABLES was public static, shared by everybody. Now each
+ * LogicalSolver has its own Tables in its SolverContext, which is shared by
+ * its table chainers and kraken fishermen, so two LogicalSolvers can run at
+ * the same time. The effects caches moved into Tables, for the same reason.
  *
  * @author Keith Corlett 2023-10-30
  */
@@ -70,14 +80,16 @@ public abstract class ATableChainer extends AHinter
 	 */
 	public static final boolean NO_CHANGED_VALUES_HACK = false;
 
-	// TABLES contains the consequences of initialOn: $examine+$candidate.
+	// tables contains the consequences of initialOn: $examine+$candidate.
 	// His .elims field contains all OFFs caused by: $examine+$candidate.
-	// elims = TABLES.ons[candidate][indice].elims[valueEliminated];
-	//         the TABLES.ons indexes identify the initialOn; and elims are an
+	// elims = tables.ons[candidate][indice].elims[valueEliminated];
+	//         the tables.ons indexes identify the initialOn; and elims are an
 	//         Idx exploded into a long[2] for speed by valueEliminated.
-	// NOTE: public static means shared amongst all comers, including subclass
-	// StaticReduction, fish.KrackenFisherman and fish.KrackFisherman.
-	public static final Tables TABLES = Tables.getInstance();
+	// NOTE: tables is shared amongst all comers in this LogicalSolver (via
+	// setContext), including fish.KrakenFisherman and fish.KrackFisherman.
+	// It is null until setContext, except that tables() creates my own Tables
+	// if there is no context, for the test-cases.
+	protected Tables tables;
 
 	/**
 	 * true means hints are cached, false for straight-through. Most test-cases
@@ -99,11 +111,6 @@ public abstract class ATableChainer extends AHinter
 	 */
 	protected final CachingHintsAccumulator hints = new CachingHintsAccumulator();
 
-	/**
-	 * A cache of Eff's, by [indice][value].
-	 */
-	protected static Set<Eff>[][] effsCache;
-
 	/**
 	 * Constructor.
 	 *
@@ -115,6 +122,32 @@ public abstract class ATableChainer extends AHinter
 		this.useCache = useCache && CFG.getBoolean(Config.isCachingHints, T);
 	}
 
+	/**
+	 * Use the Tables that are shared by all table chainers in this context.
+	 *
+	 * @param context of the LogicalSolver that I am in
+	 */
+	@Override
+	public void setContext(final SolverContext context) {
+		this.tables = context.getTables();
+	}
+
+	/**
+	 * Get the Tables that I search.
+	 *
+	 * @return my tables
+	 */
+	public Tables getTables() {
+		return tables();
+	}
+
+	// my tables, creating my own if I have no context (test-cases)
+	protected final Tables tables() {
+		if ( tables == null )
+			tables = new Tables();
+		return tables;
+	}
+
 	/**
 	 * Prepare to solve the puzzle in grid with this lesbianSlaver.
 	 * <p>
@@ -126,7 +159,7 @@ public abstract class ATableChainer extends AHinter
 	@Override
 	public void prepare(final Grid grid, final LogicalSolver logicalSolver) {
 		// reinitialise for each puzzle
-		TABLES.invalidate();
+		tables().invalidate();
 	}
 
 	/**
@@ -135,8 +168,8 @@ public abstract class ATableChainer extends AHinter
 	@Override
 	public void cleanUp() {
 		hints.reset();
-		effsCache = null;
-		effectsCache = null;
+		if ( tables != null )
+			tables.clearEffects();
 	}
 
 	/**
@@ -175,7 +208,7 @@ public abstract class ATableChainer extends AHinter
 
 	/**
 	 * Each of my subclasses implements findTableHints to find its specific
-	 * type of hints in the TABLES. He adds hints to the hints cache, not to
+	 * type of hints in the tables. He adds hints to the hints cache, not to
 	 * the normal accu. The hints cache throws Mint when full (CFG defined).
 	 * I handle the wafer thin Mint, using magic.
 	 *
@@ -204,7 +237,7 @@ public abstract class ATableChainer extends AHinter
 	}
 
 	/**
-	 * I manage the cache. findTableHints finds hints in the TABLES.
+	 * I manage the cache. findTableHints finds hints in the tables.
 	 *
 	 * @return any hints found.
 	 */
@@ -215,7 +248,7 @@ public abstract class ATableChainer extends AHinter
 				if ( hints.check(grid, accu) ) // 11.13% hit rate
 					return true;
 				hints.clear();
-				TABLES.initialise(grid, Run.isGenerator(), true);
+				tables().initialise(grid, Run.isGenerator(), true);
 				if ( gastroPatronum() ) {
 					accu.add(hints.poll());
 					return true;
@@ -227,7 +260,7 @@ public abstract class ATableChainer extends AHinter
 				useCache = false;
 			}
 		}
-		TABLES.initialise(grid, Run.isGenerator(), true);
+		tables().initialise(grid, Run.isGenerator(), true);
 		if ( gastroPatronum() ) {
 			accu.addAll(hints.getList());
 			hints.clear();
@@ -294,21 +327,22 @@ public abstract class ATableChainer extends AHinter
 	}
 
 	/**
-	 * Returns a set of the effects of assuming that $indice+$v, cached!
+	 * Returns a set of the effects of assuming that $indice+$v, cached in
+	 * the Tables of $hinter, if it has any; else uncached (chainers).
+	 * <p>
+	 * The hints use me to get there effects, from the hinter that found them.
 	 *
+	 * @param hinter that produced the hint
 	 * @param grid
 	 * @param indice
 	 * @param value
 	 * @return
 	 */
-	public static IAssSet getEffects(final Grid grid, final int indice, final int value) {
-		if ( effectsCache == null )
-			effectsCache = new IAssSet[GRID_SIZE][VALUE_CEILING];
-		if ( effectsCache[indice][value] == null )
-			effectsCache[indice][value] = getEffectsImpl(grid, indice, value);
-		return effectsCache[indice][value];
+	static IAssSet getEffects(final IHinter hinter, final Grid grid, final int indice, final int value) {
+		if ( hinter instanceof ATableChainer )
+			return ((ATableChainer)hinter).getTables().getEffects(grid, indice, value);
+		return getEffectsImpl(grid, indice, value);
 	}
-	private static IAssSet[][] effectsCache;
 
 	// ========================== EFFS ==========================
 
@@ -326,39 +360,6 @@ public abstract class ATableChainer extends AHinter
 		}
 	}
 
-	/**
-	 * Find all of the consequences of setting indice to value, recursively.
-	 *
-	 * @param indice identifying the cell to set
-	 * @param value the presumed value of cell
-	 * @return the consequences
-	 */
-	private static Set<Eff> effsOf(final int indice, final int value) {
-		final Eff on = TABLES.ons[value][indice];
-		if ( on==null || !on.hasKids )
-			return null;
-		final Set<Eff> result = new FunkyTreeSet<>();
-		result.add(on);
-		effsRecurse(result, on);
-		return result;
-	}
-
-	/**
-	 * I cache the effects of each cell-value, fetching each ONCE.
-	 *
-	 * @param indice to get effects of
-	 * @param value to get effects of
-	 * @return the effects of setting indice to value
-	 */
-	@SuppressWarnings({"rawtypes", "unchecked"})
-	public static Set<Eff> effsCached(final int indice, final int value) {
-		if ( effsCache == null )
-			effsCache = new Set[GRID_SIZE][VALUE_CEILING];
-		if ( effsCache[indice][value] == null )
-			effsCache[indice][value] = effsOf(indice, value);
-		return effsCache[indice][value];
-	}
-
 	/**
 	 * Funky: a {@code TreeSet<T>} whose add is addOnly, ie add just adds,
 	 * ie add does NOT update existing items, instead it just returns false.
@@ -431,25 +432,14 @@ public abstract class ATableChainer extends AHinter
 		private static final int Q_SIZE = 1<<7; // must be a power of 2
 		private static final int Q_MASK = Q_SIZE - 1; // for this trick to work
 
-		/** a little more self-documenting. */
-		private static final Eff NO_PARENT = null;
+		// the number of value*GRID_SIZE+indice: the end of the initOns.
+		private static final int NUM_CANDS = VALUE_CEILING * GRID_SIZE;
 
-		// theInstance is umm, the ummm, instance.
-		private static Tables theInstance;
+		// the most initOns that an ElimsTask does itself, rather than split.
+		private static final int ELIMS_CHUNK = 32;
 
-		/**
-		 * Everybody uses {@link ATableChainer#TABLES} so even this factory
-		 * method runs once only; but running it twice is no problem, you just
-		 * have to make it accessible. The factory method is currently private,
-		 * as is my constructor. Just use the public TABLES!
-		 *
-		 * @return theInstance
-		 */
-		private static Tables getInstance() {
-			if ( theInstance == null )
-				theInstance = new Tables();
-			return theInstance;
-		}
+		/** a little more self-documenting. */
+		private static final Eff NO_PARENT = null;
 
 		/**
 		 * The grid.numSet for which tables are initialised.
@@ -494,9 +484,96 @@ public abstract class ATableChainer extends AHinter
 		};
 
 		/**
-		 * The Constructor is private.
+		 * A cache of Eff's, by [indice][value].
+		 */
+		private Set<Eff>[][] effsCache;
+
+		// for the incremental update: the previous ons and offs, the
+		// maybes they were built from, and dirty: the cell-values whose On or
+		// Off has different kids to the previous tables, by [value][mask].
+		private final Eff[][] oldOns = new Eff[VALUE_CEILING][GRID_SIZE];
+		private final Eff[][] oldOffs = new Eff[VALUE_CEILING][GRID_SIZE];
+		private final int[] oldMaybes = new int[GRID_SIZE];
+		private final long[][] dirty = new long[VALUE_CEILING][2];
+		// are the elims of the previous tables valid (ie calculated)
+		private boolean hasElims;
+
+		/**
+		 * Does calculateElims follow the forcing chains of the initOns in
+		 * parallel, in the common ForkJoinPool? {@link Config#isParallelTables}
+		 * defaults to false, coz LogicalSolverTester -threads and the
+		 * LogicalSolverPool are already parallel. Use it when ONE puzzle is
+		 * slow to solve, in the GUI say.
+		 */
+		private final boolean isParallel = CFG.getBoolean(Config.isParallelTables, F);
+
+		/**
+		 * A cache of getEffects, by [indice][value].
+		 */
+		private IAssSet[][] effectsCache;
+
+		/**
+		 * The Constructor. There is one Tables per LogicalSolver, in its
+		 * {@link diuf.sudoku.solver.SolverContext}, which you should use.
+		 */
+		public Tables() {
+		}
+
+		/**
+		 * Clear the effects caches, which are stale after the grid changes.
+		 */
+		public void clearEffects() {
+			effsCache = null;
+			effectsCache = null;
+		}
+
+		/**
+		 * Returns a set of the effects of assuming that $indice+$v, cached!
+		 *
+		 * @param grid
+		 * @param indice
+		 * @param value
+		 * @return
+		 */
+		public IAssSet getEffects(final Grid grid, final int indice, final int value) {
+			if ( effectsCache == null )
+				effectsCache = new IAssSet[GRID_SIZE][VALUE_CEILING];
+			if ( effectsCache[indice][value] == null )
+				effectsCache[indice][value] = getEffectsImpl(grid, indice, value);
+			return effectsCache[indice][value];
+		}
+
+		/**
+		 * Find all of the consequences of setting indice to value, recursively.
+		 *
+		 * @param indice identifying the cell to set
+		 * @param value the presumed value of cell
+		 * @return the consequences
 		 */
-		private Tables() {
+		private Set<Eff> effsOf(final int indice, final int value) {
+			final Eff on = ons[value][indice];
+			if ( on==null || !on.hasKids )
+				return null;
+			final Set<Eff> result = new FunkyTreeSet<>();
+			result.add(on);
+			effsRecurse(result, on);
+			return result;
+		}
+
+		/**
+		 * I cache the effects of each cell-value, fetching each ONCE.
+		 *
+		 * @param indice to get effects of
+		 * @param value to get effects of
+		 * @return the effects of setting indice to value
+		 */
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		public Set<Eff> effsCached(final int indice, final int value) {
+			if ( effsCache == null )
+				effsCache = new Set[GRID_SIZE][VALUE_CEILING];
+			if ( effsCache[indice][value] == null )
+				effsCache[indice][value] = effsOf(indice, value);
+			return effsCache[indice][value];
 		}
 
 		/**
@@ -507,6 +584,7 @@ public abstract class ATableChainer extends AHinter
 		public void invalidate() {
 			numSet = -1;
 			puzzleId = -1;
+			hasElims = false;
 		}
 
 		/**
@@ -529,6 +607,17 @@ public abstract class ATableChainer extends AHinter
 		 * sucks coz I'm a bit slow and the resulting dependency-net is a lot
 		 * like the previous one. I can't work out HOW to "prune" a net, so I
 		 * rebuild it from scratch every time.
+		 * <p>
+		 * But I CAN work out which bits of the net changed.
+		 * Rebuilding the net is cheap. Following it (calculateElims) from
+		 * every initialOn is the expensive part. So in the same puzzle, where
+		 * maybes have only been removed since last time, I compare each new
+		 * Eff's kids with the old one's, and mark the changed cell-values as
+		 * dirty. An initialOn whose old implication set (elims and sets) does
+		 * not touch any dirty cell-value follows exactly the same kids in the
+		 * same order as last time, so it keeps its old elims, sets, and
+		 * contradictions; and only the rest are recalculated. The result is
+		 * identical to a full rebuild, just less work.
 		 * <pre>
 		 * Pseudocode for XY-chaining:
 		 * if p.isOn // the previous assumption is an ON
@@ -567,16 +656,100 @@ public abstract class ATableChainer extends AHinter
 			  || puzzleId != grid.puzzleId
 			  || force
 			) {
+				// incremental: update only the changed bits of the old tables,
+				// which is only possible in the same puzzle, when maybes have
+				// only been removed, and the old tables have elims.
+				final boolean incremental = withElims && hasElims && !force
+						&& puzzleId == grid.puzzleId
+						&& onlyRemoved(grid.maybes);
 				// calculate the direct consequences of each possible initialOn
 				// and wire them all together into a "forcing net".
-				result = initialise(grid);
+				result = initialise(grid, incremental);
 				// if that worked, and my caller also wants the elims
 				if ( result && withElims )
-					calculateElims(); // populates elims and sets of initOns
+					calculateElims(incremental); // populates elims and sets of initOns
+				hasElims = result && withElims;
 			}
 			return result;
 		}
 
+		/**
+		 * Have maybes only been removed since the tables were initialised?
+		 * When a maybe is added (undo in the GUI) its Eff might be left-over
+		 * from an older net, which I can not compare, so rebuild.
+		 *
+		 * @param maybes grid.maybes
+		 * @return are maybes a subset of oldMaybes
+		 */
+		private boolean onlyRemoved(final int[] maybes) {
+			int i = 0;
+			do
+				if ( (maybes[i] & ~oldMaybes[i]) > 0 )
+					return false;
+			while (++i < GRID_SIZE);
+			return true;
+		}
+
+		/**
+		 * Does the new Eff have the same kids, in the same order, as the old
+		 * one? Kids are compared by hashCode, which identifies indice, value,
+		 * and isOn; because every Eff is a new instance each time.
+		 *
+		 * @param a the new Eff
+		 * @param b the old Eff, nullable
+		 * @return same kids
+		 */
+		private static boolean sameKids(final Eff a, final Eff b) {
+			if ( b==null || a.numKids!=b.numKids )
+				return false;
+			for ( int k=0,K=a.numKids; k<K; ++k )
+				if ( a.kids[k].hashCode != b.kids[k].hashCode )
+					return false;
+			return true;
+		}
+
+		/**
+		 * Set dirty to the cell-values whose On or Off has different kids to
+		 * the old tables, plus those that have been removed since.
+		 *
+		 * @param maybes grid.maybes
+		 */
+		private void calculateDirty(final int[] maybes) {
+			int i, v, gone;
+			for ( v=1; v<VALUE_CEILING; ++v )
+				dirty[v][0] = dirty[v][1] = 0L;
+			i = 0;
+			do {
+				if ( maybes[i] > 0 )
+					for ( int x : VALUESES[maybes[i]] )
+						if ( !sameKids(ons[x][i], oldOns[x][i])
+						  || !sameKids(offs[x][i], oldOffs[x][i]) )
+							dirty[x][MASKOF[i]] |= MASKED81[i];
+				if ( (gone=oldMaybes[i] & ~maybes[i]) > 0 )
+					for ( int x : VALUESES[gone] )
+						dirty[x][MASKOF[i]] |= MASKED81[i];
+			} while (++i < GRID_SIZE);
+		}
+
+		/**
+		 * Is the old implication set of this initialOn clean, ie does it NOT
+		 * touch any dirty cell-value?
+		 *
+		 * @param old the old initialOn, nullable
+		 * @return can the elims of old be reused
+		 */
+		private boolean isClean(final Eff old) {
+			if ( old==null || old.elims==null )
+				return false;
+			final long[][] elims = old.elims;
+			final long[][] sets = old.sets;
+			for ( int v=1; v<VALUE_CEILING; ++v )
+				if ( ((elims[v][0]|sets[v][0]) & dirty[v][0]) > 0L
+				  || ((elims[v][1]|sets[v][1]) & dirty[v][1]) > 0L )
+					return false;
+			return true;
+		}
+
 		/**
 		 * init records the direct effects (kids) of assuming that each
 		 * possible cell-value is both:<pre>
@@ -587,9 +760,11 @@ public abstract class ATableChainer extends AHinter
 		 * which is confusing as ____, but still works. You fix it!
 		 *
 		 * @param grid
+		 * @param incremental true means remember the old Effs, and calculate
+		 *  which have changed
 		 * @return
 		 */
-		private boolean initialise(final Grid grid) {
+		private boolean initialise(final Grid grid, final boolean incremental) {
 			Eff sibling; // He did it!
 			Cell cell;
 			int i // indice of current cell (not your usual index)
@@ -600,6 +775,12 @@ public abstract class ATableChainer extends AHinter
 			final int[] maybes = grid.maybes;
 			final int[] values = grid.getValues();
 			final Cell[] cells = grid.cells;
+			// 0. remember the old Effs, to compare with the new ones.
+			if ( incremental )
+				for ( int v=1; v<VALUE_CEILING; ++v ) {
+					System.arraycopy(ons[v], 0, oldOns[v], 0, GRID_SIZE);
+					System.arraycopy(offs[v], 0, oldOffs[v], 0, GRID_SIZE);
+				}
 			// 1. construct all possible ON and OFF assumptions.
 			i = 0;
 			do
@@ -643,10 +824,13 @@ public abstract class ATableChainer extends AHinter
 					}
 				}
 			} while (++i < GRID_SIZE);
+			// 3. which Effs have changed since the old tables
+			if ( incremental )
+				calculateDirty(maybes);
+			System.arraycopy(maybes, 0, oldMaybes, 0, GRID_SIZE);
 			numSet = grid.numSet;
 			puzzleId = grid.puzzleId;
-			effsCache = null;
-			effectsCache = null;
+			clearEffects();
 			return true;
 		}
 
@@ -688,8 +872,58 @@ public abstract class ATableChainer extends AHinter
 		 * 3: 2,925*2,925   =   8,555,625
 		 * 4: 17,550*17,550 = 308,002,500
 		 * </pre>
+		 * An incremental update reuses the elims, sets and contradictions
+		 * of each clean initialOn: an Eff left-over from a removed maybe (which
+		 * is immutable, so it produces the same elims anyway) or a new Eff
+		 * whose old implication set does not touch a dirty cell-value.
+		 *
+		 * @param incremental true means reuse the old elims where possible
+		 */
+		private void calculateElims(final boolean incremental) {
+			// get the contradictions collection from the Tables instance.
+			// Note that cons is actually a Set so adding twice is no problem.
+			final Collection<Contradiction> cons = contradictions;
+			// the old contradictions, to keep those of clean initOns
+			final Contradiction[] oldCons = incremental && !cons.isEmpty()
+					? cons.toArray(new Contradiction[cons.size()]) : null;
+			// any existing contradictions are now "stale"
+			cons.clear();
+			// populate elims arrays by following static XY Forcing Chains
+			// through the kids array of each Eff.
+			if ( isParallel )
+				cons.addAll(ForkJoinPool.commonPool().invoke(
+						new ElimsTask(GRID_SIZE, NUM_CANDS, incremental)));
+			else
+				calculateElims(GRID_SIZE, NUM_CANDS, incremental, cons);
+			// keep the old contradictions of each reused initOn, which share
+			// the old elims array, for the new initOn
+			if ( oldCons != null ) {
+				Eff initOn;
+				for ( Contradiction c : oldCons )
+					if ( (initOn=ons[c.initOn.value][c.initOn.indice]) != null
+					  && initOn.elims == c.initOn.elims )
+						cons.add(initOn==c.initOn ? c
+								: new Contradiction(initOn, c.indice, c.value));
+			}
+		}
+
+		/**
+		 * Calculate the elims of the initOns from value*GRID_SIZE+indice
+		 * (inclusive) to (exclusive), in that order, which is value then
+		 * indice, as per the tables.
+		 * <p>
+		 * Extracted from calculateElims for ElimsTask. Each
+		 * forcing pass reads the net and writes only its own initOn, so the
+		 * passes run in parallel, so long as each worker has its own Q and its
+		 * own collection of contradictions.
+		 *
+		 * @param from the first value*GRID_SIZE+indice
+		 * @param to the last value*GRID_SIZE+indice, exclusive
+		 * @param incremental true means reuse the old elims where possible
+		 * @param cons to add contradictions to
 		 */
-		private void calculateElims() {
+		private void calculateElims(final int from, final int to
+				, final boolean incremental, final Collection<Contradiction> cons) {
 			Eff initOn, ass, kids[]; // the initial On, an ass, his kids
 			int value // value
 			  , indice // indice
@@ -699,77 +933,114 @@ public abstract class ATableChainer extends AHinter
 			;
 			final Eff[] Q = new Eff[Q_SIZE]; // Englishness!
 			long[][] elims, sets; // shorthands
-			// get the contradictions collection from the Tables instance.
-			// Note that cons is actually a Set so adding twice is no problem.
-			final Collection<Contradiction> cons = TABLES.contradictions;
-			// any existing contradictions are now "stale"
-			cons.clear();
-			// populate elims arrays by following static XY Forcing Chains
-			// through the kids array of each Eff.
-			value = 1;
-			do {
-				indice = 0;
-				do {
-					// initOn: the initial ON assumption
-					if ( (initOn=ass=ons[value][indice]) != null ) {
-						// create the initOn.elims/sets, which I populate
-						elims = initOn.elims = new long[VALUE_CEILING][2];
-						sets = initOn.sets = new long[VALUE_CEILING][2];
-						// examine each cell-value ONCE. isOn is irrelevant!
-						final boolean[][] seen = new boolean[VALUE_CEILING][GRID_SIZE];
-						// reset queues read and write indexes
-						qr = qw = 0;
-						// follow XY Forcing Chains from initOn, adding elims,
-						// by chasing the kid-links we prepared earlier.
-						do {
-							i = ass.indice;
-							v = ass.value;
-							if ( ass.isOn ) { // ass is an ON
-								sets[v][MASKOF[i]] |= MASKED81[i];
-								if ( !seen[v][i] ) {
-									seen[v][i] = true;
-									if ( ass.hasKids ) {
-										kids = ass.kids;
-										K = ass.numKids;
-										k = 0;
-										do {
-											Q[qw] = kids[k]; // an OFF
-											qw = (qw+1) & Q_MASK;
-											assert qw != qr;
-										} while (++k < K);
-									}
-								} else if ( (elims[v][MASKOF[i]] & MASKED81[i]) > 0L ) {
-									cons.add(new Contradiction(initOn, i, v));
+			Eff old; // the old initOn
+			for ( int x=from; x<to; ++x ) {
+				value = x / GRID_SIZE;
+				indice = x % GRID_SIZE;
+				// initOn: the initial ON assumption
+				if ( (initOn=ass=ons[value][indice]) != null ) {
+					if ( incremental ) {
+						// a left-over Eff keeps its own elims
+						if ( (old=oldOns[value][indice]) == initOn )
+							continue;
+						if ( isClean(old) ) {
+							initOn.elims = old.elims;
+							initOn.sets = old.sets;
+							continue;
+						}
+					}
+					// create the initOn.elims/sets, which I populate
+					elims = initOn.elims = new long[VALUE_CEILING][2];
+					sets = initOn.sets = new long[VALUE_CEILING][2];
+					// examine each cell-value ONCE. isOn is irrelevant!
+					final boolean[][] seen = new boolean[VALUE_CEILING][GRID_SIZE];
+					// reset queues read and write indexes
+					qr = qw = 0;
+					// follow XY Forcing Chains from initOn, adding elims,
+					// by chasing the kid-links we prepared earlier.
+					do {
+						i = ass.indice;
+						v = ass.value;
+						if ( ass.isOn ) { // ass is an ON
+							sets[v][MASKOF[i]] |= MASKED81[i];
+							if ( !seen[v][i] ) {
+								seen[v][i] = true;
+								if ( ass.hasKids ) {
+									kids = ass.kids;
+									K = ass.numKids;
+									k = 0;
+									do {
+										Q[qw] = kids[k]; // an OFF
+										qw = (qw+1) & Q_MASK;
+										assert qw != qr;
+									} while (++k < K);
 								}
-							} else { // ass is an OFF
-								elims[v][MASKOF[i]] |= MASKED81[i];
-								// nb: faster to NOT cache indice & value
-								if ( !seen[v][i] ) {
-									seen[v][i] = true;
-									if ( ass.hasKids ) {
-										//++COUNTS[ass.numKids];
-										// 0        1        2       3      4
-										// 0, 4337262, 1736337, 547660, 84492
-										// 0, 64.6797, 25.8932, 8.1670, 1.259%
-										// don't cache ass.kids and ass.numKids
-										k = 0;
-										do {
-											Q[qw] = ass.kids[k]; // an ON
-											qw = (qw+1) & Q_MASK;
-											assert qw != qr;
-										} while (++k < ass.numKids);
-									}
-								} else if ( (sets[v][MASKOF[i]] & MASKED81[i]) > 0L ) {
-									cons.add(new Contradiction(initOn, i, v));
+							} else if ( (elims[v][MASKOF[i]] & MASKED81[i]) > 0L ) {
+								cons.add(new Contradiction(initOn, i, v));
+							}
+						} else { // ass is an OFF
+							elims[v][MASKOF[i]] |= MASKED81[i];
+							// nb: faster to NOT cache indice & value
+							if ( !seen[v][i] ) {
+								seen[v][i] = true;
+								if ( ass.hasKids ) {
+									//++COUNTS[ass.numKids];
+									// 0        1        2       3      4
+									// 0, 4337262, 1736337, 547660, 84492
+									// 0, 64.6797, 25.8932, 8.1670, 1.259%
+									// don't cache ass.kids and ass.numKids
+									k = 0;
+									do {
+										Q[qw] = ass.kids[k]; // an ON
+										qw = (qw+1) & Q_MASK;
+										assert qw != qr;
+									} while (++k < ass.numKids);
 								}
+							} else if ( (sets[v][MASKOF[i]] & MASKED81[i]) > 0L ) {
+								cons.add(new Contradiction(initOn, i, v));
 							}
-							ass = Q[qr];
-							Q[qr] = null;
-							qr = (qr+1) & Q_MASK;
-						} while ( ass != null );
-					}
-				} while (++indice < GRID_SIZE);
-			} while (++value < VALUE_CEILING);
+						}
+						ass = Q[qr];
+						Q[qr] = null;
+						qr = (qr+1) & Q_MASK;
+					} while ( ass != null );
+				}
+			}
+		}
+
+		/**
+		 * ElimsTask calculates the elims of a range of initOns in the
+		 * ForkJoinPool. I split myself in half until there are ELIMS_CHUNK
+		 * initOns or less, which are done by the worker, with its own Q and
+		 * its own list of contradictions. The lists are merged on the way
+		 * back up, and into the contradictions Set by calculateElims.
+		 * <p>
+		 * Contradictions is a TreeSet, so the order that workers find them
+		 * in is irrelevant: the result is the same as the serial version.
+		 */
+		private final class ElimsTask extends RecursiveTask<ArrayList<Contradiction>> {
+			private static final long serialVersionUID = 23111901L;
+			private final int from, to;
+			private final boolean incremental;
+			ElimsTask(final int from, final int to, final boolean incremental) {
+				this.from = from;
+				this.to = to;
+				this.incremental = incremental;
+			}
+			@Override
+			protected ArrayList<Contradiction> compute() {
+				if ( to - from <= ELIMS_CHUNK ) {
+					final ArrayList<Contradiction> result = new ArrayList<>();
+					calculateElims(from, to, incremental, result);
+					return result;
+				}
+				final int mid = (from + to) >>> 1;
+				final ElimsTask left = new ElimsTask(from, mid, incremental);
+				left.fork();
+				final ArrayList<Contradiction> result = new ElimsTask(mid, to, incremental).compute();
+				result.addAll(left.join());
+				return result;
+			}
 		}
 
 	}
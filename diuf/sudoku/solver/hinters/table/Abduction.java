@@ -19,7 +19,7 @@ import java.util.TreeSet;
 
 /**
  * Implements the {@link Tech#Abduction} Sudoku solving technique. I find
- * "Cell Abduction" and "Region Abduction" hints in the {@link #TABLES}.
+ * "Cell Abduction" and "Region Abduction" hints in the {@link #tables}.
  * <pre>
  * Abduction finds any common consequence/s of every possibility in a complete
  * set, hence one of those possibilites MUST be true, therefore we may safely
@@ -119,9 +119,9 @@ public class Abduction extends ATableChainer
 				NON_LOOP: for(;;) {
 				vn = (values=VALUESES[maybes[i]]).length;
 				vi = 0; // valuesIndex
-				cmn.addAll(effsCached(i, values[vi++]));
+				cmn.addAll(tables.effsCached(i, values[vi++]));
 				do {
-					cmn.retainAll(effsCached(i, values[vi]));
+					cmn.retainAll(tables.effsCached(i, values[vi]));
 					if ( cmn.isEmpty() )
 						break NON_LOOP;
 				} while ( ++vi < vn );
@@ -168,9 +168,9 @@ public class Abduction extends ATableChainer
 						NON_LOOP: for(;;) {
 						pn = (places=INDEXES[rPlaces[v]]).length;
 						pi = 0; // placesIndex
-						cmn.addAll(effsCached(indices[places[pi++]], v));
+						cmn.addAll(tables.effsCached(indices[places[pi++]], v));
 						do {
-							cmn.retainAll(effsCached(indices[places[pi]], v));
+							cmn.retainAll(tables.effsCached(indices[places[pi]], v));
 							if ( cmn.isEmpty()
 							  || (pi==penultimate && cmn.size()==1) )
 								break NON_LOOP;
@@ -164,7 +164,7 @@ public class CellAbductionHint extends AHint {
 		// whereas reds "values" is a bitset of all values
 		final int[] green = greensArray()[viewNum];
 		// get the effects of the initialOn assumption
-		final IAssSet effects = getEffects(grid, green[INDICE], green[VALUES]);
+		final IAssSet effects = getEffects(hinter, grid, green[INDICE], green[VALUES]);
 		// foreach elimination
 		for ( int[] red : redsArray() ) {
 			// foreach value eliminated
@@ -234,7 +234,7 @@ public class CellAbductionHint extends AHint {
 			final int[][] redsArray = redsArray();
 			for ( int[] green : greensArray() ) {
 				// nb: greens[VALUES] is a plain value already
-				final IAssSet effects = getEffects(grid, green[INDICE], green[VALUES]);
+				final IAssSet effects = getEffects(hinter, grid, green[INDICE], green[VALUES]);
 				for ( int[] red : redsArray ) {
 					// nb: reds[VALUES] is a bitset of all values
 					for ( int v : VALUESES[red[VALUES]] ) {
@@ -288,7 +288,7 @@ public class CellAbductionHint extends AHint {
 			}
 			// foreach potential value of the starting cell
 			for ( int v : VALUESES[grid.maybes[indice]] )
-				html.append(Ass.toStringChain(getEffects(grid, indice, v).getAss(red[INDICE], VFIRST[red[VALUES]]), " &lt;- ")).append(NL);
+				html.append(Ass.toStringChain(getEffects(hinter, grid, indice, v).getAss(red[INDICE], VFIRST[red[VALUES]]), " &lt;- ")).append(NL);
 		}
 		return html.toString();
 	}
@@ -156,7 +156,7 @@ public class CellReductionHint extends AHint {
 		if ( targetsA == null )
 			targetsA = new Ass[viewCount][];
 		if ( targetsA[viewNum] == null ) {
-			final IAssSet effects = getEffects(grid, indice, cellsValues[viewNum]);
+			final IAssSet effects = getEffects(hinter, grid, indice, cellsValues[viewNum]);
 			final int[][] redsArray = redsArray();
 			final Ass[] result = new Ass[redsArray.length];
 			int count = 0;
@@ -281,7 +281,7 @@ public class CellReductionHint extends AHint {
 				html.append(CELL_IDS[r[INDICE]]).append(MINUS)
 				.append(VFIRST[r[VALUES]]).append(COLON).append(NL);
 			for ( int v : cellsValues )
-				html.append(Ass.toStringChain(getEffects(grid, indice, v)
+				html.append(Ass.toStringChain(getEffects(hinter, grid, indice, v)
 				.getAss(r[INDICE], VFIRST[r[VALUES]]), " &lt;- "))
 				.append(NL);
 		}
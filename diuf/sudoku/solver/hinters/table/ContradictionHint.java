@@ -161,7 +161,7 @@ public class ContradictionHint extends AHint {
 
 	private Ass target(final int viewNum) {
 		if ( targets == null ) {
-			final IAssSet effects = getEffects(grid, initOn.indice, initOn.value);
+			final IAssSet effects = getEffects(hinter, grid, initOn.indice, initOn.value);
 			targets = new Ass[] {
 				// FYI getAss(hashCode) was reinstated especially for me
 				  effects.getAss(ON_BIT ^ ASHFT[conValue] ^ conIndice)
@@ -258,7 +258,7 @@ public class RegionAbductionHint extends AHint {
 			effectsA = new IAssSet[viewCount];
 		}
 		if ( effectsA[viewNum] == null ) {
-			effectsA[viewNum] = getEffects(grid, indices[viewNum], valueSought);
+			effectsA[viewNum] = getEffects(hinter, grid, indices[viewNum], valueSought);
 		}
 		return effectsA[viewNum];
 	}
@@ -148,7 +148,7 @@ public class RegionReductionHint extends AHint {
 		final int[] places = INDEXES[region.places[valueSought]];
 		for ( int i=0; i<viewCount; ++i ) {
 			result[i] = new Pots[]{new Pots(), new Pots()}; // greens, reds
-			effects = getEffects(grid, indices[places[i]], valueSought);
+			effects = getEffects(hinter, grid, indices[places[i]], valueSought);
 			for ( int indice : victims )
 				for ( a=effects.getAss(indice, valueToEliminate); a!=null; a=a.firstParent )
 					result[i][a.isOn ? 0 : 1].upsert(a.indice, VSHFT[a.value], DUMMY);
@@ -207,7 +207,7 @@ public class RegionReductionHint extends AHint {
 			assert targetsA.length > 0;
 			int count = 0;
 			for ( int[] green : greensArray ) {
-				effects = getEffects(grid, green[INDICE], VFIRST[green[VALUES]]);
+				effects = getEffects(hinter, grid, green[INDICE], VFIRST[green[VALUES]]);
 				for ( int[] red : redsArray ) {
 					for ( int rv : VALUESES[red[VALUES]] ) {
 						targetsA[count] = effects.getAss(red[INDICE], rv);
@@ -268,7 +268,7 @@ public class RegionReductionHint extends AHint {
 			html.append(CELL_IDS[r[INDICE]]).append(MINUS)
 			.append(VFIRST[r[VALUES]]).append(COLON).append(NL);
 			for ( int[] g : greensArray() ) {
-				html.append(Ass.toStringChain(getEffects(grid, g[INDICE]
+				html.append(Ass.toStringChain(getEffects(hinter, grid, g[INDICE]
 				, VFIRST[g[VALUES]]).getAss(r[INDICE], VFIRST[r[VALUES]])
 				, " &lt;- ")).append(NL);
 			}
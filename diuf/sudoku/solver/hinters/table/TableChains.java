@@ -16,7 +16,6 @@ import diuf.sudoku.Tech;
 import static diuf.sudoku.Values.VALUESES;
 import static diuf.sudoku.Values.VSHFT;
 import static diuf.sudoku.solver.hinters.IHinter.DUMMY;
-import static diuf.sudoku.solver.hinters.table.ATableChainer.TABLES;
 import java.util.TreeSet;
 
 /**
@@ -75,9 +74,9 @@ public class TableChains extends ATableChainer {
 
 	private boolean contradictions() {
 		boolean result = false;
-		if ( !TABLES.contradictions.isEmpty() ) {
+		if ( !tables.contradictions.isEmpty() ) {
 			Contradiction c;
-			final TreeSet<Contradiction> contras = TABLES.contradictions;
+			final TreeSet<Contradiction> contras = tables.contradictions;
 			while ( (c=contras.pollFirst()) != null )
 				// if the initial assumption still exists then add a hint
 				// fyi: initOn is my eliminations (it's been proven false)
@@ -107,7 +106,7 @@ public class TableChains extends ATableChainer {
 		// presume that no hints will be found
 		boolean result = false;
 		// all possible initial ON assumptions
-		final Eff[][] ons = TABLES.ons;
+		final Eff[][] ons = tables.ons;
 		// foreach unset cell in the grid
 		int i = 0;
 		do {
@@ -172,7 +171,7 @@ public class TableChains extends ATableChainer {
 		// presume that no hints will be found
 		boolean result = false;
 		// all possible initial ON assumptions
-		final Eff[][] ons = TABLES.ons;
+		final Eff[][] ons = tables.ons;
 		// foreach region in the grid
 		for ( ARegion region : regions ) {
 			places = region.places;
@@ -0,0 +1,324 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.test;
+
+import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import diuf.sudoku.Run;
+import diuf.sudoku.Tech;
+import static diuf.sudoku.test.TestHelp.*;
+import diuf.sudoku.io.StdErr;
+import diuf.sudoku.solver.AHint;
+import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.LogicalSolverFactory;
+import diuf.sudoku.solver.accu.SingleHintsAccumulator;
+import diuf.sudoku.solver.hinters.IHinter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import static diuf.sudoku.Config.CFG;
+
+/**
+ * HinterBenchmark times each hinter (Tech) on its own, over a fixed corpus
+ * of realistic mid-solve grid states, so that a regression in ONE hinter is
+ * caught in seconds, without running a two minute batch, and without wading
+ * through the batch log to see where the time went.
+ * <p>
+ * There is no JMH here (no build tool, no dependencies, sigh) so I do what
+ * JMH does, only cruder: warm-up passes (so the JIT compiler has done its
+ * thing) then timed passes, and I report the mean nanoseconds per findHints
+ * call, the fastest pass, and the bytes allocated per call, which is read
+ * from the HotSpot ThreadMXBean (zero if your JVM does not support it).
+ * <p>
+ * The corpus is built by solving the puzzles in an .mt (or .mtb) file with
+ * the Config wanted hinters, and snapshotting the grid before each step, so
+ * it is exactly the positions that the batch sees. Each hinter is fed only
+ * the states that it sees in the batch: those in which no hinter before it
+ * hinted (if it is wanted, else it gets them all). Each state is loaded into
+ * its own Grid ONCE (with its maybes), so the timed loop is just findHints.
+ * Each hinter is then fed every state, in order, so consecutive calls are on
+ * different grids (different puzzleIds) hence caches keyed on the grid (the
+ * ALS cache, for instance) are always dirty, as they are in the batch.
+ * <p>
+ * Some hinters depend on a prerequisite hinter, that the batch runs before
+ * them: AlsWing and AlsChain recycle the RCCs found by AlsXz (if ALS_XZ is
+ * wanted in the Config) so AlsXz is run (untimed) before each call. So each
+ * call is timed (and its allocations counted) individually.
+ * <pre>
+ * usage: java -cp SudokuExplainer.jar diuf.sudoku.test.HinterBenchmark
+ *        input.mt [-techs Locking,NakedPair,...] [-puzzles N]
+ *        [-warmups N] [-passes N]
+ * </pre>
+ * The default techs are the usual suspects: Locking, NakedPair, NakedTriple,
+ * NakedQuad, Swampfish, Swordfish, Jellyfish, ALS_Chain, GEM, DynamicChain,
+ * and TableChain. Each is benchmarked in its own LogicalSolver, so they do not
+ * share caches, which is NOT how the batch does it, so the ALS hinters and
+ * TableChains look slower here than they are in the batch. This is a
+ * relative measure: compare it with itself, before and after your change.
+ */
+public final class HinterBenchmark {
+
+	private static final EnumSet<Tech> DEFAULT_TECHS = EnumSet.of(
+		  Tech.Locking
+		, Tech.NakedPair, Tech.NakedTriple, Tech.NakedQuad
+		, Tech.Swampfish, Tech.Swordfish, Tech.Jellyfish
+		, Tech.ALS_Chain
+		, Tech.GEM
+		, Tech.DynamicChain
+		, Tech.TableChain
+	);
+
+	private static final String USAGE = "usage: HinterBenchmark input.mt"
+		+ " [-techs Locking,NakedPair,...] [-puzzles N] [-warmups N] [-passes N]";
+
+	public static void main(final String[] args) {
+		try {
+			Run.setRunType(Run.Type.Batch);
+			System.exit(new HinterBenchmark().run(args));
+		} catch (Exception ex) {
+			StdErr.whinge("WARN: HinterBenchmark failed.", ex);
+			System.exit(1);
+		}
+	}
+
+	private EnumSet<Tech> techs = DEFAULT_TECHS;
+	private int maxPuzzles = 100;
+	private int warmups = 3;
+	private int passes = 5;
+
+	// the totals of the current pass
+	private long nanos, bytes;
+	private int hits;
+
+	/** A captured grid state, and the index of the hinter that solved it. */
+	private static final class State {
+		final String grid;
+		final int hinterIndex;
+		State(final String grid, final int hinterIndex) {
+			this.grid = grid;
+			this.hinterIndex = hinterIndex;
+		}
+	}
+
+	// Tech => index in the capture solvers wantedHinters
+	private final EnumMap<Tech,Integer> order = new EnumMap<>(Tech.class);
+
+	private int run(final String[] args) throws IOException {
+		if ( args.length < 1 ) {
+			System.err.println(USAGE);
+			return 1;
+		}
+		final File inputFile = new File(args[0]);
+		if ( !inputFile.exists() ) {
+			System.err.println("Input file not found: "+inputFile);
+			return 1;
+		}
+		for ( int i=1; i<args.length; i+=2 ) {
+			if ( i+1 == args.length ) {
+				System.err.println(USAGE);
+				return 1;
+			}
+			switch ( args[i] ) {
+				case "-techs": techs = parseTechs(args[i+1]); break;
+				case "-puzzles": maxPuzzles = Integer.parseInt(args[i+1]); break;
+				case "-warmups": warmups = Integer.parseInt(args[i+1]); break;
+				case "-passes": passes = Integer.parseInt(args[i+1]); break;
+				default:
+					System.err.println("Unknown arg: "+args[i]+NL+USAGE);
+					return 1;
+			}
+		}
+		calibrate();
+		final long start = System.nanoTime();
+		final List<State> states = capture(inputFile, maxPuzzles);
+		System.out.format("captured %,d states from %s in %,d ms%n"
+				, states.size(), inputFile, (System.nanoTime()-start)/1000000);
+		System.out.format("%-16s %-28s %9s %7s %14s %14s %12s%n", "tech"
+				, "hinter", "calls", "hits", "ns/call", "best ns/call"
+				, "bytes/call");
+		for ( Tech tech : techs )
+			try {
+				benchmark(tech, states);
+			} catch (Exception ex) {
+				StdErr.whinge("WARN: "+tech+" failed", ex);
+			}
+		return 0;
+	}
+
+	/**
+	 * Capture the state of the grid before each step in the solve of each
+	 * puzzle (upto maxPuzzles) in inputFile, using the Config wanted hinters.
+	 * Each state is grid.toString: the values and the maybes.
+	 */
+	private List<State> capture(final File inputFile, final int maxPuzzles) throws IOException {
+		final List<State> states = new ArrayList<>(maxPuzzles * 64);
+		final LogicalSolver solver = LogicalSolverFactory.get();
+		final SingleHintsAccumulator accu = new SingleHintsAccumulator();
+		for ( int i=0; i<solver.wantedHinters.length; ++i )
+			order.putIfAbsent(solver.wantedHinters[i].getTech(), i);
+		try ( PuzzleReader reader = openPuzzles(inputFile) ) {
+			Line line;
+			int count = 0;
+			while ( count < maxPuzzles && (line=reader.next(inputFile, ++count)) != null ) {
+				if ( line.contents.length() < GRID_SIZE )
+					continue;
+				final Grid grid = line.clues != null ? line.newGrid()
+						: new Grid(line.contents.substring(0, GRID_SIZE));
+				solver.prepare(grid);
+				while ( grid.numSet < GRID_SIZE ) {
+					final String state = grid.toString();
+					accu.clear();
+					if ( !solver.getFirstHint(grid, accu) )
+						break;
+					final AHint hint = accu.poll();
+					if ( hint == null )
+						break;
+					states.add(new State(state, index(hint.hinter.getTech())));
+					if ( hint.applyQuitely(Grid.AUTOSOLVE, grid) < 1 )
+						break;
+					++grid.hintNumber;
+				}
+				solver.cleanUp();
+			}
+		}
+		return states;
+	}
+
+	// the index of tech in the capture solvers wantedHinters, else MAX_VALUE
+	private int index(final Tech tech) {
+		final Integer i = order.get(tech);
+		return i==null ? Integer.MAX_VALUE : i;
+	}
+
+	private void benchmark(final Tech tech, final List<State> states) {
+		final Tech pre = prerequisite(tech);
+		final LogicalSolver solver = LogicalSolverFactory.newWorker(
+				pre==null ? EnumSet.of(tech) : EnumSet.of(tech, pre));
+		try {
+			final IHinter hinter = solver.getWantedHinter(tech);
+			if ( hinter == null ) {
+				System.out.format("%-16s not implemented%n", tech.name());
+				return;
+			}
+			final IHinter prereq = pre==null ? null : solver.getWantedHinter(pre);
+			// load each state ONCE, so the timed loop is just findHints.
+			// Only states solved by this hinter, or a later one, ie states
+			// that this hinter sees in the batch. An unwanted tech sees all.
+			final int myIndex = index(tech);
+			final List<Grid> list = new ArrayList<>(states.size());
+			for ( State state : states )
+				if ( myIndex==Integer.MAX_VALUE || state.hinterIndex>=myIndex ) {
+					final Grid grid = new Grid(state.grid);
+					solver.prepare(grid);
+					list.add(grid);
+				}
+			final Grid[] grids = list.toArray(new Grid[list.size()]);
+			final SingleHintsAccumulator accu = new SingleHintsAccumulator();
+			// warm-up: let the JIT compile findHints
+			for ( int p=0; p<warmups; ++p )
+				pass(hinter, prereq, grids, accu);
+			// timed passes
+			long ttlNanos=0L, bestNanos=Long.MAX_VALUE, ttlBytes=0L;
+			for ( int p=0; p<passes; ++p ) {
+				pass(hinter, prereq, grids, accu);
+				ttlNanos += nanos;
+				ttlBytes += bytes;
+				if ( nanos < bestNanos )
+					bestNanos = nanos;
+			}
+			final long calls = (long)grids.length * passes;
+			System.out.format("%-16s %-28s %,9d %,7d %,14d %,14d %,12d%n"
+				, tech.name(), hinter.getClass().getSimpleName(), grids.length
+				, hits, calls==0 ? 0 : ttlNanos/calls
+				, grids.length==0 ? 0 : bestNanos/grids.length
+				, calls==0 ? 0 : ttlBytes/calls);
+		} finally {
+			try {
+				solver.close();
+			} catch (IOException eaten) {
+				// Do nothing
+			}
+		}
+	}
+
+	// one call to findHints per grid, totalling nanos, bytes, and hits.
+	private void pass(final IHinter hinter, final IHinter prereq
+			, final Grid[] grids, final SingleHintsAccumulator accu) {
+		long b, t;
+		boolean result;
+		nanos = bytes = 0L;
+		hits = 0;
+		for ( Grid grid : grids ) {
+			if ( prereq != null ) {
+				accu.clear();
+				prereq.findHints(grid, accu);
+			}
+			accu.clear();
+			b = allocatedBytes();
+			t = System.nanoTime();
+			result = hinter.findHints(grid, accu);
+			nanos += System.nanoTime() - t;
+			bytes += allocatedBytes() - b - allocOverhead;
+			if ( result )
+				++hits;
+		}
+	}
+
+	// the Tech that the batch runs before tech, that tech depends on, if any.
+	static Tech prerequisite(final Tech tech) {
+		switch ( tech ) {
+			case ALS_Wing:
+			case ALS_Chain:
+				// RccFinderAllRecycle recycles the RCCs found by AlsXz
+				if ( CFG.getBoolean(Tech.ALS_XZ.name()) )
+					return Tech.ALS_XZ;
+				return null;
+			default:
+				return null;
+		}
+	}
+
+	// the bytes allocated by allocatedBytes itself, which we subtract from
+	// each call. It is constant (in practice), so just measure it.
+	private long allocOverhead;
+
+	private void calibrate() {
+		long b, ttl = 0L;
+		for ( int i=0; i<10000; ++i ) // warm-up
+			allocatedBytes();
+		for ( int i=0; i<1000; ++i ) {
+			b = allocatedBytes();
+			ttl += allocatedBytes() - b;
+		}
+		allocOverhead = ttl / 1000;
+	}
+
+	// bytes allocated by this thread, from the HotSpot ThreadMXBean.
+	private static long allocatedBytes() {
+		try {
+			return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean())
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		} catch (Exception | LinkageError eaten) {
+			return 0L; // not a HotSpot JVM
+		}
+	}
+
+	private static EnumSet<Tech> parseTechs(final String csv) {
+		final EnumSet<Tech> result = EnumSet.noneOf(Tech.class);
+		for ( String name : csv.split(" *, *") )
+			if ( !name.isEmpty() )
+				result.add(Tech.valueOf(name));
+		if ( result.isEmpty() )
+			throw new IllegalArgumentException("Empty techs list!");
+		return result;
+	}
+
+}
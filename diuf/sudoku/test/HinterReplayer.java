@@ -0,0 +1,165 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.test;
+
+import diuf.sudoku.Grid;
+import diuf.sudoku.Run;
+import diuf.sudoku.Tech;
+import diuf.sudoku.io.StdErr;
+import diuf.sudoku.solver.LogicalSolver;
+import diuf.sudoku.solver.LogicalSolverFactory;
+import diuf.sudoku.solver.ReplayFile;
+import diuf.sudoku.solver.accu.SingleHintsAccumulator;
+import diuf.sudoku.solver.hinters.IHinter;
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * HinterReplayer feeds the grid states recorded by {@code LogicalSolverTester
+ * -record file.replay} to ONE hinter, in a tight loop, so you can profile a
+ * slow hinter (KrakenFisherman, AlignedExclusion, whatever) on exactly the
+ * positions that it sees in the batch, without paying for the whole solve
+ * around it. Attach your profiler, and away you go.
+ * <p>
+ * The Calls are replayed in order, with the recorded puzzleId and hintNumber
+ * so that hinters which cache by them (the chainers) behave as in the batch.
+ * <p>
+ * The first pass checks that the hinter still produces the same result and
+ * the same eliminations (of its first hint) as when it was recorded, so you
+ * can not speed it up by breaking it, much. Mismatches are reported, and the
+ * exit code is 1 if there are any. Then I time the passes, and report the
+ * mean and best nanoseconds per call.
+ * <pre>
+ * usage: java -cp SudokuExplainer.jar diuf.sudoku.test.HinterReplayer
+ *        file.replay Tech [-warmups N] [-passes N]
+ * </pre>
+ * The hinter is constructed with the current Config, so if you change the
+ * settings of a hinter (KrakenFisherman, say) then expect mismatches.
+ * Prerequisites (AlsXz before AlsWing and AlsChain) are run untimed, as per
+ * {@link HinterBenchmark}.
+ */
+public final class HinterReplayer {
+
+	private static final String USAGE = "usage: HinterReplayer file.replay Tech [-warmups N] [-passes N]";
+
+	// max mismatches to print
+	private static final int MAX_PRINTED = 20;
+
+	public static void main(final String[] args) {
+		try {
+			Run.setRunType(Run.Type.Batch);
+			System.exit(run(args));
+		} catch (Exception ex) {
+			StdErr.whinge("WARN: HinterReplayer failed.", ex);
+			System.exit(1);
+		}
+	}
+
+	private static int run(final String[] args) throws IOException {
+		if ( args.length < 2 ) {
+			System.err.println(USAGE);
+			return 1;
+		}
+		final File file = new File(args[0]);
+		final Tech tech = Tech.valueOf(args[1]);
+		int warmups = 3, passes = 10;
+		for ( int i=2; i<args.length; i+=2 ) {
+			if ( i+1 == args.length ) {
+				System.err.println(USAGE);
+				return 1;
+			}
+			switch ( args[i] ) {
+				case "-warmups": warmups = Integer.parseInt(args[i+1]); break;
+				case "-passes": passes = Integer.parseInt(args[i+1]); break;
+				default:
+					System.err.println("Unknown arg: "+args[i]+TestHelp.NL+USAGE);
+					return 1;
+			}
+		}
+		// read the recorded calls to tech
+		final List<ReplayFile.Call> calls = ReplayFile.load(file, tech.name());
+		if ( calls.isEmpty() ) {
+			System.err.println("No calls to "+tech+" in "+file);
+			return 1;
+		}
+		final Tech pre = HinterBenchmark.prerequisite(tech);
+		final LogicalSolver solver = LogicalSolverFactory.newWorker(
+				pre==null ? EnumSet.of(tech) : EnumSet.of(tech, pre));
+		try {
+			final IHinter hinter = solver.getWantedHinter(tech);
+			if ( hinter == null ) {
+				System.err.println("No hinter for "+tech);
+				return 1;
+			}
+			final IHinter prereq = pre==null ? null : solver.getWantedHinter(pre);
+			final int n = calls.size();
+			final Grid[] grids = new Grid[n];
+			for ( int i=0; i<n; ++i ) {
+				grids[i] = calls.get(i).newGrid();
+				solver.prepare(grids[i]);
+			}
+			final SingleHintsAccumulator accu = new SingleHintsAccumulator();
+			// check: same result and eliminations as recorded
+			int mismatches = 0;
+			boolean result;
+			String diff;
+			for ( int i=0; i<n; ++i ) {
+				if ( prereq != null ) {
+					accu.clear();
+					prereq.findHints(grids[i], accu);
+				}
+				accu.clear();
+				result = hinter.findHints(grids[i], accu);
+				if ( (diff=calls.get(i).diff(result, accu.peek())) != null
+				  && ++mismatches <= MAX_PRINTED )
+					System.out.println("MISMATCH call "+(i+1)+": "+diff+TestHelp.NL+grids[i]);
+			}
+			// time it
+			for ( int p=0; p<warmups; ++p )
+				pass(hinter, prereq, grids, accu);
+			long nanos, ttlNanos=0L, bestNanos=Long.MAX_VALUE;
+			for ( int p=0; p<passes; ++p ) {
+				nanos = pass(hinter, prereq, grids, accu);
+				ttlNanos += nanos;
+				if ( nanos < bestNanos )
+					bestNanos = nanos;
+			}
+			System.out.format("%s: %,d calls, %,d mismatches, %,d ns/call, best %,d ns/call%n"
+					, hinter, n, mismatches, ttlNanos/((long)n*Math.max(passes, 1))
+					, passes==0 ? 0 : bestNanos/n);
+			return mismatches==0 ? 0 : 1;
+		} finally {
+			try {
+				solver.close();
+			} catch (IOException eaten) {
+				// Do nothing
+			}
+		}
+	}
+
+	// one call to findHints per grid. @return nanoseconds in findHints
+	private static long pass(final IHinter hinter, final IHinter prereq
+			, final Grid[] grids, final SingleHintsAccumulator accu) {
+		long t, nanos = 0L;
+		for ( Grid grid : grids ) {
+			if ( prereq != null ) {
+				accu.clear();
+				prereq.findHints(grid, accu);
+			}
+			accu.clear();
+			t = System.nanoTime();
+			hinter.findHints(grid, accu);
+			nanos += System.nanoTime() - t;
+		}
+		return nanos;
+	}
+
+	private HinterReplayer() { } // never used
+
+}
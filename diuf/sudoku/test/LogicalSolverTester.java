@@ -14,6 +14,7 @@ import static diuf.sudoku.Constants.T;
 import static diuf.sudoku.Constants.beep;
 import static diuf.sudoku.test.TestHelp.*;
 import diuf.sudoku.io.IO;
+import diuf.sudoku.io.Mtb;
 import diuf.sudoku.io.StdErr;
 import diuf.sudoku.solver.*;
 import static diuf.sudoku.solver.Print.PUZZLE_SUMMARY_HEADERS;
@@ -23,17 +24,24 @@ import diuf.sudoku.utils.Formatter.FormatString;
 import static diuf.sudoku.utils.Frmt.COMMA;
 import static diuf.sudoku.utils.Frmt.EMPTY_STRING;
 import static diuf.sudoku.utils.Log.*;
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * LogicalSolverTester (aka "the batch") runs {@link LogicalSolver#solve} for
@@ -63,6 +71,25 @@ import java.util.Map.Entry;
  * <li>Drop all Aligned*Exclusion (too slow)
  * <li>Want DynamicPlus (sane) or NestedUnary (expert) to solve all puzzles.
  * </ul>
+ * <p>
+ * {@code -threads N} solves N puzzles concurrently, with one
+ * LogicalSolver per worker thread. Each puzzles log-block (and its stdout) is
+ * buffered by its worker, then written by the main thread in input order, so
+ * the log reads exactly as it does single-threaded, except the times. The
+ * UsageMap of each puzzle is merged into the totals in input order too. The
+ * priming-solves use the first solver only, because JIT is shared anyway.
+ * Note that -threads is ignored when reprocessing specific pids.
+ * <p>
+ * {@code -record file.replay} records each grid state, and
+ * each hinter call with its hint, into a {@link ReplayFile}, which
+ * HinterReplayer then feeds to ONE hinter, to profile it. Single-threaded.
+ * <p>
+ * {@code -cached} takes the rating of each puzzle that has
+ * been rated before (or an isomorph of it) by the same wanted hinters from
+ * the {@link RatingCache}, instead of solving it, and puts the rating of each
+ * puzzle that it does solve. Cached puzzles take 0ns, and have 0 calls and no
+ * solution, so do not time with -cached; use it to re-rate a corpus after a
+ * non-solver change, which costs almost nothing.
  *
  * @author Keith Corlett: based on Juillerat. Mistakes are mine.
  */
@@ -134,12 +161,23 @@ public final class LogicalSolverTester {
 		beep(); beep(); beep();
 	}
 
+	// nb: these counters are updated by the worker threads when -threads N,
+	// so they are only ever accessed synchronized on this.
 	private int numSolved=0, numFailed=0;
 
 	private int solvedCount = 0;
 	private long ttlTook = 0L;
 	private LogicalSolver solver;
 
+	// the number of worker threads: 1 is the "normal" single-threaded batch.
+	private int numThreads = 1;
+
+	// -record file: record each grid state and hinter call for HinterReplayer
+	private File recordFile;
+
+	// -cached: get/put puzzle ratings from/to the RatingCache
+	private boolean isCached;
+
 	// aliases future proofing for backwards compatibility if techs are renamed
 	private static final Map<String,String> ALIASES = new HashMap<>(16, 0.75F);
 	{
@@ -162,8 +200,10 @@ public final class LogicalSolverTester {
 			return carp("Input file not found: "+inputPath);
 		// avert accidentally reading a .log file (has happened)
 		// BEWARE: on *nix we are insisting on a lowercase .mt
-		if ( !MyFile.nameEndsWith(inputPath, ".mt") )
-			return carp("Expected *.mt as input not: "+inputPath);
+		// or .mtb (MagicTour Binary), which is read directly
+		if ( !MyFile.nameEndsWith(inputPath, ".mt")
+		  && !MyFile.nameEndsWith(inputPath, Mtb.EXTENSION) )
+			return carp("Expected *.mt or *.mtb as input not: "+inputPath);
 		//<HACK>
 		// AHinter.hackTop1465: we are processing top1465.d5.mt in HACK mode.
 		// Aligned*Exclusion uses AHinter.hackTop1465 to enable speed hacks.
@@ -178,6 +218,25 @@ public final class LogicalSolverTester {
 			if ( args[0].equals("-ea1465") ) {
 				isAssertOk = true;
 				args = MyStrings.leftShift(args);
+			} else if ( args[0].equals("-threads") ) {
+				if ( args.length < 2 )
+					return carp("-threads requires the number of threads");
+				try {
+					numThreads = Integer.parseInt(args[1]);
+				} catch (NumberFormatException ex) {
+					return carp("-threads is not a number: "+args[1]);
+				}
+				if ( numThreads < 1 )
+					return carp("-threads must be atleast 1: "+numThreads);
+				args = MyStrings.leftShift(MyStrings.leftShift(args));
+			} else if ( args[0].equals("-record") ) {
+				if ( args.length < 2 )
+					return carp("-record requires the name of the replay file");
+				recordFile = new File(args[1]);
+				args = MyStrings.leftShift(MyStrings.leftShift(args));
+			} else if ( args[0].equals("-cached") ) {
+				isCached = true;
+				args = MyStrings.leftShift(args);
 			} else if ( args[0].startsWith("-wantedHinters") ) {
 				// nb: CFG is not saved so we can do whatever we like to it
 				CFG.setWantedTechs(parseWantedHinters(args));
@@ -190,6 +249,9 @@ public final class LogicalSolverTester {
 				break;
 			}
 		}
+		// one recorder records one solver, so recording is single-threaded
+		if ( recordFile!=null && numThreads>1 )
+			return carp("-record is single-threaded only: not -threads "+numThreads);
 		// prevent accidental java -ea batch for consistent timings
 		if ( isTop1465 && Run.ASSERTS_ENABLED && !isAssertOk )
 			throw new IllegalArgumentException("No java -ea for batch (timings); -ea1465 overrides.");
@@ -199,34 +261,27 @@ public final class LogicalSolverTester {
 		// stick $now in the filename so it will not be overwritten.
 		final String ext = "."+now+".log";
 		// Do two search-and-replaces for MAD Windows users with .MT files.
-		final String logFilename = inputPath.replaceFirst("\\.mt$", ext)
-				.replaceFirst("\\.MT$", ext.toUpperCase());
+		final String logFilename = inputPath.replaceFirst("\\.mtb?$", ext)
+				.replaceFirst("\\.MTB?$", ext.toUpperCase());
 		final File logFile = new File(logFilename);
 		// --------------------------- begin real work ------------------------
 		// So lets run this little fire trucker down the list...
-		try ( PrintStream out = new PrintStream(new FileOutputStream(logFile), true) ) {
+		// nb: a null resource is not closed, so recorder is null unless -record
+		try ( PrintStream out = new PrintStream(new FileOutputStream(logFile), true);
+			  ReplayFile.Writer recorder = recordFile==null ? null : new ReplayFile.Writer(recordFile) ) {
 			initialise(out);
 			// nb: LogicalSolver.want (et al) write to Log.out
-			solver = LogicalSolverFactory.get();
-			// now unused but retained anyway, for future use.
-			if ( NO_CACHES )
-				solver.disableInternalCaches();
-			// KRC 2020-08-20 find and fix SiameseLocking bug. Make the batch
-			// behave like the GUI, to find test-cases for SiameseLocking.
-			if ( SIAMESE_LOCKING ) {
-				solver.setSiamese();
-				if ( LOG_MODE >= VERBOSE_5_MODE )
-					teeln("logicalSolver.locking.setSiamese!");
-			}
+			solver = configure(LogicalSolverFactory.get());
 			// =================== RETEST SPECIFIC PUZZLE/S ===================
 			if ( pids!=null && pids.length>0 ) {
 				final UsageMap totalUsages = new UsageMap();
 				final boolean logIt = true;
 				final boolean logTimes = false;
+				solver.setRecorder(recorder);
 				for ( int pid : pids ) { // pids are 1 based
 					System.out.println("processing pid "+pid+" ...");
 					final Line line = readALine(inputFile, pid);
-					solve(line, totalUsages, logIt, logTimes, true);
+					solve(solver, line, totalUsages, logIt, logTimes, true);
 					// print running-total usages (for A*E monitoring)
 					printTotalUsageMap(totalUsages);
 				}
@@ -242,6 +297,8 @@ public final class LogicalSolverTester {
 			// priming-solves: repeatedly solve to not time JIT compilation
 			if ( !primingSolves(inputFile) )
 				return 1;
+			// record after priming, else the first puzzle is recorded 13 times
+			solver.setRecorder(recorder);
 			// preamble
 			printHeaders(now, inputFile, logFile);
 			if ( LOG_MODE >= VERBOSE_2_MODE )
@@ -251,13 +308,14 @@ public final class LogicalSolverTester {
 			final UsageMap ttlUsages = new UsageMap();
 			final boolean isPrinting = LOG_MODE >= VERBOSE_1_MODE;
 			final boolean wantSolution = LOG_MODE <= NORMAL_MODE;
-			try ( BufferedReader reader = new BufferedReader(new FileReader(inputFile)) ) {
+			if ( numThreads > 1 )
+				solveInParallel(inputFile, ttlUsages, logHints, wantSolution
+						, isPrinting);
+			else try ( PuzzleReader reader = openPuzzles(inputFile) ) {
 				Line line;
-				String contents;
 				int lineCount = 0;
-				while ( (contents=reader.readLine()) != null ) {
-					line = new Line(inputFile, ++lineCount, contents);
-					if ( !solve(line, ttlUsages, logHints, false, wantSolution) )
+				while ( (line=reader.next(inputFile, ++lineCount)) != null ) {
+					if ( !solve(solver, line, ttlUsages, logHints, false, wantSolution) )
 						break;
 					// print running total usages (for A*E monitoring)
 					if ( isPrinting )
@@ -375,36 +433,190 @@ public final class LogicalSolverTester {
 		return tag.toString();
 	}
 
+	// configure the given solver the way the batch wants it.
+	private LogicalSolver configure(final LogicalSolver solver) {
+		// now unused but retained anyway, for future use.
+		if ( NO_CACHES )
+			solver.disableInternalCaches();
+		// KRC 2020-08-20 find and fix SiameseLocking bug. Make the batch
+		// behave like the GUI, to find test-cases for SiameseLocking.
+		if ( SIAMESE_LOCKING ) {
+			solver.setSiamese();
+			if ( LOG_MODE >= VERBOSE_5_MODE )
+				teeln("logicalSolver.locking.setSiamese!");
+		}
+		return solver;
+	}
+
+	// The log-block of one puzzle, as produced by a worker thread.
+	private static final class Block {
+		final Line line;
+		final ByteArrayOutputStream log = new ByteArrayOutputStream(8192);
+		final ByteArrayOutputStream std = new ByteArrayOutputStream(256);
+		final UsageMap usages = new UsageMap();
+		boolean ok;
+		Block(final Line line) {
+			this.line = line;
+		}
+	}
+
+	/**
+	 * Solve each puzzle in inputFile on numThreads worker threads, each with
+	 * its own LogicalSolver, writing each puzzles log-block in input order.
+	 * <p>
+	 * Log.out and System.out are swapped for PerThreadOutputStreams, so that
+	 * each worker prints to its own Block, which the main thread then writes
+	 * to the real streams when its turn comes. Upto numThreads*4 puzzles are
+	 * in flight at any one time, so a slow puzzle holds-up the writing (not
+	 * the solving) of its followers, and RAM is not blown on a big file.
+	 * <p>
+	 * The first failure stops the batch, as per single-threaded. Puzzles in
+	 * flight behind the failure are cancelled, and so are not logged.
+	 */
+	private void solveInParallel(final File inputFile, final UsageMap ttlUsages
+			, final boolean logHints, final boolean wantSolution
+			, final boolean isPrinting) throws IOException, InterruptedException {
+		// the solvers not currently in use by a worker. Each worker takes a
+		// solver, solves a puzzle, and puts it back, so a solver is only ever
+		// used by one thread at a time. The primed solver is the first.
+		final BlockingQueue<LogicalSolver> idle = new ArrayBlockingQueue<>(numThreads);
+		idle.add(solver);
+		for ( int i=1; i<numThreads; ++i )
+			idle.add(configure(LogicalSolverFactory.newWorker()));
+		final PrintStream logOut = Log.out;
+		final PrintStream stdOut = System.out;
+		final PerThreadOutputStream logRouter = new PerThreadOutputStream(logOut);
+		final PerThreadOutputStream stdRouter = new PerThreadOutputStream(stdOut);
+		final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		final LinkedList<Future<Block>> inFlight = new LinkedList<>();
+		final int maxInFlight = numThreads * 4;
+		Log.out = new PrintStream(logRouter, true);
+		System.setOut(new PrintStream(stdRouter, true));
+		try ( PuzzleReader reader = openPuzzles(inputFile) ) {
+			Line line;
+			int lineCount = 0;
+			boolean ok = true;
+			while ( ok ) {
+				// fill the window
+				while ( inFlight.size() < maxInFlight
+				     && (line=reader.next(inputFile, lineCount+1)) != null ) {
+					++lineCount;
+					final Block block = new Block(line);
+					inFlight.add(executor.submit(() -> {
+						final LogicalSolver s = idle.take();
+						// Grid.solution() gets THE solver, so bind mine
+						LogicalSolverFactory.bind(s);
+						logRouter.redirect(block.log);
+						stdRouter.redirect(block.std);
+						try {
+							block.ok = solve(s, block.line, block.usages
+									, logHints, false, wantSolution);
+						} finally {
+							Log.out.flush();
+							System.out.flush();
+							logRouter.restore();
+							stdRouter.restore();
+							LogicalSolverFactory.unbind();
+							idle.put(s);
+						}
+						return block;
+					}));
+				}
+				if ( inFlight.isEmpty() )
+					break; // EOF
+				// write the oldest block, waiting for it if need be
+				final Block block;
+				try {
+					block = inFlight.removeFirst().get();
+				} catch (ExecutionException ex) {
+					throw new IllegalStateException("worker failed", ex.getCause());
+				}
+				logOut.write(block.log.toByteArray());
+				stdOut.write(block.std.toByteArray());
+				if ( ok = block.ok ) {
+					if ( ttlUsages != null )
+						ttlUsages.addonAll(block.usages);
+					// print running total usages (for A*E monitoring)
+					if ( isPrinting )
+						printTotalUsageMap(ttlUsages);
+				}
+			}
+		} finally {
+			for ( Future<Block> f : inFlight )
+				f.cancel(true);
+			executor.shutdownNow();
+			// wait for running workers to put there solvers back
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+			Log.out = logOut;
+			System.setOut(stdOut);
+			// close the workers solvers, but not the primed one (mine)
+			for ( LogicalSolver s : idle )
+				if ( s != solver )
+					try {
+						s.close();
+					} catch (IOException impossible) {
+						// Do nothing
+					}
+		}
+	}
+
 	private boolean solve(
-		  final Line line
+		  final LogicalSolver solver
+		, final Line line
 		, final UsageMap ttlUsages
 		, final boolean logHints
 		, final boolean logTimes
 		, final boolean wantSolution
 	) {
+		final int count;
 		if ( logHints ) {
-			++solvedCount;
+			synchronized ( this ) {
+				count = ++solvedCount;
+			}
 			// puzzle-header-line for when we are logging a line per hint
 			if ( LOG_MODE >= VERBOSE_2_MODE ) {
 				println();
 				println(line.toString()); // $pid#$absolutePath\t$contents
 			}
-		}
-		final Grid grid = new Grid(line.contents);
+		} else
+			count = 0;
+		// an .mtb record loads its clues and solution directly
+		final Grid grid = line.newGrid();
 		grid.source = new SourceID(line.file, line.number);
-		long took = 0L;
+		long took = 0L, average = 0L;
 		long start = System.nanoTime();
 		try {
-			// prepare any preppers
-			solver.prepare(grid);
-			// solve the puzzle!
-			final UsageMap usageMap = new UsageMap(); // Hinter usage summary
-			boolean isSolved = solver.solve(grid, usageMap, T, F, logHints, logTimes);
-			if ( logHints )
-				ttlTook += took = System.nanoTime() - start;
+			// -cached: a puzzle that has been rated before is not re-solved
+			final long hash = isCached && logHints ? solver.ratingHash(grid) : 0L;
+			final long fingerprint = solver.ratingFingerprint(false);
+			final UsageMap cached = hash == 0L ? null : LogicalAnalyser.usageMap(
+					solver, RatingCache.getInstance().get(hash, fingerprint));
+			final UsageMap usageMap; // Hinter usage summary
+			final boolean isSolved;
+			if ( cached != null ) {
+				usageMap = cached;
+				isSolved = true;
+			} else {
+				// prepare any preppers
+				solver.prepare(grid);
+				// solve the puzzle!
+				usageMap = new UsageMap();
+				isSolved = solver.solve(grid, usageMap, T, F, logHints, logTimes);
+				if ( isSolved && hash != 0L )
+					RatingCache.getInstance().put(LogicalAnalyser.rating(hash, fingerprint, usageMap));
+			}
+			if ( logHints ) {
+				took = System.nanoTime() - start;
+				synchronized ( this ) {
+					ttlTook += took;
+					average = ttlTook / solvedCount;
+				}
+			}
 			if ( !isSolved )
 				throw new UnsolvableException(grid.invalidity);
-			++numSolved;
+			synchronized ( this ) {
+				++numSolved;
+			}
 			if ( logHints ) {
 				// print the hinter detail lines in VERBOSE_MODE
 				int maxDifficulty=0, ttlDifficulty=0;
@@ -413,7 +625,7 @@ public final class LogicalSolverTester {
 				// if any logging
 				if ( LOG_MODE >= NORMAL_MODE
 					// if first puzzle only
-					&& ( solvedCount == 1
+					&& ( count == 1
 					  // or repeat coz hints mean you cannot see previous
 					  || LOG_MODE >= VERBOSE_2_MODE ) )
 						print(PUZZLE_SUMMARY_HEADERS);
@@ -434,11 +646,11 @@ public final class LogicalSolverTester {
 							, String.valueOf(entry.getKey()));
 				}
 				if ( LOG_MODE >= NORMAL_MODE )
-					printPuzzleSummary(line, took, ttlTook/solvedCount
+					printPuzzleSummary(line, took, average
 						, ttlUsage.calls, ttlUsage.hints, ttlUsage.elims
 						, maxDifficulty, ttlDifficulty
 						, String.valueOf(hardestHinter)
-						, wantSolution ? grid : null);
+						, wantSolution && cached==null ? grid : null);
 				flush();
 				if ( ttlUsages != null )
 					ttlUsages.addonAll(usageMap);
@@ -446,7 +658,9 @@ public final class LogicalSolverTester {
 			return true;
 		} catch (Exception ex) { // thrown by solver.solve
 			if(took==0L) took = System.nanoTime() - start;
-			++numFailed;
+			synchronized ( this ) {
+				++numFailed;
+			}
 			//NB: we wait 50ms before printing to stderr so stdout goes first
 			println();
 			format("%5d", line.number);
@@ -497,9 +711,14 @@ public final class LogicalSolverTester {
 			, final int maxDifficulty, final int ttlDifficulty
 			, final String hinterName) {
 		// hint-details-line: + 1 line per Hint
-		out.print(FORMATTER.format(LOCALE, HINT_DETAILS_FSA, EMPTY_STRING
-			, time, div(time,calls), calls, hints, elims, maxDifficulty
-			, ttlDifficulty, hinterName));
+		// nb: FORMATTER is shared by the worker threads when -threads N
+		final String s;
+		synchronized ( FORMATTER ) {
+			s = FORMATTER.format(LOCALE, HINT_DETAILS_FSA, EMPTY_STRING
+				, time, div(time,calls), calls, hints, elims, maxDifficulty
+				, ttlDifficulty, hinterName).toString();
+		}
+		out.print(s);
 	}
 
 	private static final String HINTER_SUMMARY_HEADER = String.format(
@@ -516,9 +735,12 @@ public final class LogicalSolverTester {
 		long ttlTime = 0L;
 		Log.out.print(HINTER_SUMMARY_HEADER);
 		for ( Usage u : ttlUsages.toArrayList() ) {
-			Log.out.print(FORMATTER.format(LOCALE, HINTER_SUMMARY_FSA, u.time
-			, u.calls, div(u.time,u.calls), u.elims, div(u.time,u.elims)
-			, u.hinterName));
+			// nb: FORMATTER is shared by the worker threads when -threads N
+			synchronized ( FORMATTER ) {
+				Log.out.print(FORMATTER.format(LOCALE, HINTER_SUMMARY_FSA, u.time
+				, u.calls, div(u.time,u.calls), u.elims, div(u.time,u.elims)
+				, u.hinterName).toString());
+			}
 			ttlTime += u.time;
 		}
 		format("%,18d%s", ttlTime, NL);
@@ -540,10 +762,15 @@ public final class LogicalSolverTester {
 		// the pre-parsed FormatString[], instead of parsing the same bloody
 		// format String every time we want to log a bloody puzzle, for speed.
 		// This saves about 700ms over top1465. parse(format) is hard!
-		final StringBuilder s = (StringBuilder)FORMATTER.format(LOCALE
-			, PUZZLE_SUMMARY_FSA, line.number, took, average, ttlCalls
-			, ttlHints, ttlElims, maxDifficulty, ttlDifficulty, hardestHinter
-			, line.contents).out();
+		// nb: FORMATTER is shared by the worker threads when -threads N,
+		// so we take a copy of its StringBuilder whilst we hold the lock.
+		final StringBuilder s;
+		synchronized ( FORMATTER ) {
+			s = new StringBuilder((StringBuilder)FORMATTER.format(LOCALE
+				, PUZZLE_SUMMARY_FSA, line.number, took, average, ttlCalls
+				, ttlHints, ttlElims, maxDifficulty, ttlDifficulty
+				, hardestHinter, line.contents).out());
+		}
 		// to stdout without the solution
 		System.out.println(s);
 		// to log with the solution, if any
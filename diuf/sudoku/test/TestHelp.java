@@ -7,12 +7,16 @@
 package diuf.sudoku.test;
 
 import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.GRID_SIZE;
 import static diuf.sudoku.Grid.REGION_SIZE;
 import static diuf.sudoku.utils.Frmt.TAB;
+import diuf.sudoku.io.LineIndex;
+import diuf.sudoku.io.Mtb;
 import diuf.sudoku.utils.MyInteger;
 import diuf.sudoku.utils.MyLong;
 import diuf.sudoku.utils.ParseException;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
@@ -35,11 +39,72 @@ import java.util.List;
 	static final String NL = diuf.sudoku.utils.Frmt.NL;
 
 	public static String readLine(File file, int lineNumber) throws FileNotFoundException, IOException {
-		try ( BufferedReader reader = new BufferedReader(new FileReader(file)) ) {
-			for ( int i=1; i<lineNumber; ++i )
-				reader.readLine();
-			return reader.readLine();
+		// an .mtb record is returned as an .mt line
+		if ( Mtb.isMtb(file) )
+			return Mtb.readLine(file, lineNumber);
+		try ( LineIndex index = LineIndex.get(file) ) {
+			return index.readLine(lineNumber);
+		}
+	}
+
+	/**
+	 * A PuzzleReader reads the puzzles in an .mt file, or an .mtb file, one
+	 * at a time, so the batch need not care which.
+	 */
+	public interface PuzzleReader extends Closeable {
+		/**
+		 * Read the next puzzle. The Line of an .mtb record also carries its
+		 * clues and solution, which {@link Line#newGrid} loads directly.
+		 *
+		 * @param file the file, for the Line
+		 * @param number the 1 based number of this puzzle in file
+		 * @return the next Line, else null at EOF
+		 * @throws IOException if the read fails
+		 */
+		Line next(File file, int number) throws IOException;
+	}
+
+	/**
+	 * Open a PuzzleReader of $file: an .mtb file is read with an Mtb.Reader,
+	 * anything else with a BufferedReader.
+	 *
+	 * @param file to read
+	 * @return a new PuzzleReader, which it is your job to close
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static PuzzleReader openPuzzles(final File file) throws IOException {
+		if ( Mtb.isMtb(file) ) {
+			final Mtb.Reader reader = new Mtb.Reader(file);
+			return new PuzzleReader() {
+				@Override
+				public Line next(final File file, final int number) throws IOException {
+					// new arrays each time, coz -threads holds many Lines
+					final int[] clues = new int[GRID_SIZE];
+					final int[] solution = reader.hasSolutions() ? new int[GRID_SIZE] : null;
+					if ( !reader.next(clues, solution) )
+						return null;
+					return new Line(file, number, clues, solution);
+				}
+				@Override
+				public void close() throws IOException {
+					reader.close();
+				}
+			};
 		}
+		final BufferedReader reader = new BufferedReader(new FileReader(file));
+		return new PuzzleReader() {
+			@Override
+			public Line next(final File file, final int number) throws IOException {
+				final String contents = reader.readLine();
+				if ( contents == null )
+					return null;
+				return new Line(file, number, contents);
+			}
+			@Override
+			public void close() throws IOException {
+				reader.close();
+			}
+		};
 	}
 
 	public static void carp(Grid grid, Exception ex, PrintStream out) {
@@ -88,6 +153,9 @@ import java.util.List;
 		public final File file;
 		public final int number;
 		public final String contents;
+		// the clues and solution of an .mtb record, else null
+		public final int[] clues;
+		public final int[] solution;
 
 		public int index;
 		public long solveNanos;
@@ -104,9 +172,45 @@ import java.util.List;
 			this.number = number; // 1 based
 			this.index = number - 1; // 0 based
 			this.contents = contents;
+			this.clues = null;
+			this.solution = null;
+			this.toString = null;
+		}
+
+		/**
+		 * Constructor for an .mtb record, whose contents are its clues as an
+		 * .mt line, for the logs.
+		 *
+		 * @param file the .mtb file
+		 * @param number the 1 based record number
+		 * @param clues 81 values: 0 is empty, else 1..9
+		 * @param solution 81 values, else null (or zeros) for unknown
+		 */
+		public Line(File file, int number, int[] clues, int[] solution) {
+			this.file = file;
+			this.number = number; // 1 based
+			this.index = number - 1; // 0 based
+			this.contents = Mtb.format(clues);
+			this.clues = clues;
+			this.solution = solution;
 			this.toString = null;
 		}
 
+		/**
+		 * Get a new Grid of this puzzle. The clues and solution of an .mtb
+		 * record are loaded directly, so the solution is not recalculated;
+		 * otherwise the contents are parsed.
+		 *
+		 * @return a new Grid of this puzzle
+		 */
+		public Grid newGrid() {
+			if ( clues == null )
+				return new Grid(contents);
+			final Grid grid = new Grid();
+			grid.load(clues, solution);
+			return grid;
+		}
+
 		@Override
 		public String toString() {
 			if (toString!=null)
@@ -130,6 +234,11 @@ import java.util.List;
 
 	/**
 	 * Reads the given lineNumber (1 based) from the given File.
+	 * <p>
+	 * Uses a LineIndex (a memory-mapped sidecar $file.idx) to
+	 * seek straight to the line, instead of reading every line before it,
+	 * which was quadratic over a list of pids in a big file.
+	 *
 	 * @param file to read
 	 * @param lineNumber to read (1 based)
 	 * @return the Line (defined here-in)
@@ -137,13 +246,7 @@ import java.util.List;
 	 * @throws IOException
 	 */
 	public static Line readALine(File file, int lineNumber) throws FileNotFoundException, IOException {
-		try ( BufferedReader reader = new BufferedReader(new FileReader(file)) ) {
-			// first we skip all lines BEFORE the lineNumber we want.
-			for ( int i=1; i<lineNumber; ++i ) // note the 1
-				reader.readLine();
-			// now we read and return the line we want.
-			return new Line(file, lineNumber, reader.readLine());
-		}
+		return new Line(file, lineNumber, readLine(file, lineNumber));
 	}
 
 	public static List<Line> slurp(String... filenames) throws FileNotFoundException, IOException {
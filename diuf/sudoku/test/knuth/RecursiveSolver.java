@@ -6,7 +6,6 @@
  */
 package diuf.sudoku.test.knuth;
 
-import diuf.sudoku.Backup;
 import static diuf.sudoku.utils.Debug.*;
 
 import diuf.sudoku.Grid;
@@ -141,27 +140,32 @@ final class RecursiveSolver {
 			// nb: we need a new array at each level in recursion
 //			int[] valuesToGuess = Values.toArrayNew(cellToGuess.maybes);
 			final int[] valuesToGuess = VALUESES[cellToGuess.maybes];
-			final Backup backup = new Backup(grid);
-			for ( int i=0,n=valuesToGuess.length,m=n-1; i<n; ++i ) {
-				final int valueToGuess = valuesToGuess[i];
-				++numGuesses; // static so total since last call to solve(Grid)
-				println(); println(grid);
+			// mark/rollback undoes only what changed since mark
+			final int mark = grid.mark();
+			try {
+				for ( int i=0,n=valuesToGuess.length,m=n-1; i<n; ++i ) {
+					final int valueToGuess = valuesToGuess[i];
+					++numGuesses; // static so total since last call to solve(Grid)
+					println(); println(grid);
 //				indentf('=',depth, "%d guess %s = %d%s", depth, cellToGuess, valueToGuess, NL);
-				try {
-					cellToGuess.set(valueToGuess, 0, true, null); // throws UnsolvableException  // use hardcoded true in case Grid.AUTOSOLVE is currently false
-					if ( grid.numSet > 80 ) {
+					try {
+						cellToGuess.set(valueToGuess, 0, true, null); // throws UnsolvableException  // use hardcoded true in case Grid.AUTOSOLVE is currently false
+						if ( grid.numSet > 80 ) {
 //						result = "solverated";
-						return true;
-					}
-					if ( recursiveSolve(grid, depth+1, isNoisy) ) { // throws UnsolvableException
+							return true;
+						}
+						if ( recursiveSolve(grid, depth+1, isNoisy) ) { // throws UnsolvableException
 //						result = "already solved";
-						return true;
+							return true;
+						}
+					} catch (UnsolvableException ex) {
+						// do nothing, just guess again
 					}
-				} catch (UnsolvableException ex) {
-					// do nothing, just guess again
+					if ( i < m ) // no need to rollback after the last value
+						grid.rollback(mark);
 				}
-				if ( i < m ) // no need to restore after the last value
-					grid.restore(backup);
+			} finally {
+				grid.release(mark);
 			}
 			return false; // fizzled
 //		} finally {
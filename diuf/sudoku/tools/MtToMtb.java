@@ -0,0 +1,78 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.tools;
+
+import diuf.sudoku.Grid;
+import static diuf.sudoku.Grid.GRID_SIZE;
+import diuf.sudoku.io.Mtb;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+/**
+ * MtToMtb imports an .mt file (a puzzle per line) into an .mtb file (packed
+ * binary, see {@link Mtb}). Lines that are not atleast 81 chars are skipped,
+ * with a warning, so the line numbers of the .mtb no longer match the .mt,
+ * so fix your bloody .mt file first. Anything after 81 chars is ignored.
+ * <pre>
+ * usage: java -cp SudokuExplainer.jar diuf.sudoku.tools.MtToMtb input.mt [output.mtb] [-solutions]
+ * </pre>
+ * The output file defaults to input with .mtb instead of .mt.
+ * <p>
+ * -solutions stores the solution of each puzzle, which is calculated by
+ * Grid.load (BruteForce), so it is slow, but then Grid.load of each record
+ * need not do it again, so it is worth it if you reuse the corpus.
+ */
+public class MtToMtb {
+
+	public static void main(String[] args) {
+		if ( args.length < 1 ) {
+			System.err.println("usage: MtToMtb input.mt [output.mtb] [-solutions]");
+			return;
+		}
+		boolean withSolutions = false;
+		File input=null, output=null;
+		for ( String arg : args )
+			if ( "-solutions".equals(arg) )
+				withSolutions = true;
+			else if ( input == null )
+				input = new File(arg);
+			else
+				output = new File(arg);
+		if ( output == null )
+			output = new File(input.getPath().replaceFirst("\\.[mM][tT]$", "")+Mtb.EXTENSION);
+		final long start = System.nanoTime();
+		try ( BufferedReader reader = new BufferedReader(new FileReader(input));
+			  Mtb.Writer writer = new Mtb.Writer(output, withSolutions) ) {
+			final Grid grid = withSolutions ? new Grid() : null;
+			final int[] clues = new int[GRID_SIZE];
+			String line;
+			int lineNumber = 0;
+			while ( (line=reader.readLine()) != null ) {
+				++lineNumber;
+				if ( line.length() < GRID_SIZE ) {
+					System.err.println("WARN: skipped line "+lineNumber+": "+line);
+					continue;
+				}
+				if ( withSolutions ) {
+					Mtb.parse(line, clues);
+					if ( !grid.load(clues, null) || grid.solution==null )
+						System.err.println("WARN: unsolvable line "+lineNumber+": "+line);
+					writer.write(clues, grid.solution);
+				} else
+					writer.write(line);
+			}
+			System.out.format("%,d lines => %,d records in %s (%,d bytes) took %,d ms%n"
+				, lineNumber, writer.count(), output, (long)Mtb.HEADER_SIZE
+				  + (long)writer.count()*Mtb.recordSize(withSolutions)
+				, (System.nanoTime()-start)/1000000);
+		} catch (Exception ex) {
+			ex.printStackTrace(System.err);
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.tools;
+
+import static diuf.sudoku.Grid.GRID_SIZE;
+import diuf.sudoku.io.Mtb;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+
+/**
+ * MtbToMt exports an .mtb file (packed binary, see {@link Mtb}) to an .mt
+ * file (a puzzle per line).
+ * <pre>
+ * usage: java -cp SudokuExplainer.jar diuf.sudoku.tools.MtbToMt input.mtb [output.mt] [-solutions]
+ * </pre>
+ * The output file defaults to input with .mt instead of .mtb.
+ * <p>
+ * -solutions appends a tab and the solution (if any) to each line, which is
+ * NOT an .mt file, just handy for eyeballing.
+ */
+public class MtbToMt {
+
+	public static void main(String[] args) {
+		if ( args.length < 1 ) {
+			System.err.println("usage: MtbToMt input.mtb [output.mt] [-solutions]");
+			return;
+		}
+		boolean wantSolutions = false;
+		File input=null, output=null;
+		for ( String arg : args )
+			if ( "-solutions".equals(arg) )
+				wantSolutions = true;
+			else if ( input == null )
+				input = new File(arg);
+			else
+				output = new File(arg);
+		if ( output == null )
+			output = new File(input.getPath().replaceFirst("\\.[mM][tT][bB]$", "")+".mt");
+		final long start = System.nanoTime();
+		try ( Mtb.Reader reader = new Mtb.Reader(input);
+			  BufferedWriter writer = new BufferedWriter(new FileWriter(output)) ) {
+			final int[] clues = new int[GRID_SIZE];
+			final int[] solution = wantSolutions ? new int[GRID_SIZE] : null;
+			while ( reader.next(clues, solution) ) {
+				writer.write(Mtb.format(clues));
+				if ( wantSolutions && solution[0]!=0 ) {
+					writer.write('\t');
+					writer.write(Mtb.format(solution));
+				}
+				writer.write('\n');
+			}
+			System.out.format("%,d records => %s took %,d ms%n"
+				, reader.recordNumber(), output
+				, (System.nanoTime()-start)/1000000);
+		} catch (Exception ex) {
+			ex.printStackTrace(System.err);
+		}
+	}
+
+}
@@ -6,6 +6,7 @@
  */
 package diuf.sudoku.tools;
 
+import diuf.sudoku.Canonicaliser;
 import diuf.sudoku.io.IO;
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -35,6 +36,11 @@ import java.util.Map;
  * Having run this I discover that there are NO repeats in top1465.d5.mt, so I
  * guess I fixed it, probably by adding a clue to the offensive little bastard;
  * I shall sort my output to find out.
+ * <p>
+ * Puzzles are now keyed by {@link Canonicaliser#canonical}, so an
+ * isomorph (a copy that is transposed, permuted or relabelled) is a repeat,
+ * which a plain String compare misses. The sorted list is of the first line
+ * of each distinct puzzle, as is, not its canonical form.
  *
  * @author Keith Corlett 2023-06-14
  */
@@ -45,33 +51,42 @@ public class RepeatPuzzles {
 			final String input = IO.HOME+"top1465.d5.mt";
 			try ( final BufferedReader reader = new BufferedReader(new FileReader(input)) ) {
 				// Map puzzle->lineNumbers (Linked coz iterator order matters)
+				// keyed by canonical form, so isomorphs are repeats
 				final Map<String, List<Integer>> map = new LinkedHashMap<>(1465, 0.75F);
+				// canonical form -> the first line with it
+				final Map<String, String> firsts = new LinkedHashMap<>(1465, 0.75F);
+				final Canonicaliser canonicaliser = new Canonicaliser();
 				String line;
 				int lineNumber = 0;
 				while ( (line=reader.readLine()) != null ) {
 					++lineNumber;
-					List<Integer> lineNumbers = map.get(line);
+					// no canonical form (too few clues) is keyed by itself
+					String key = canonicaliser.canonical(line);
+					if ( key == null )
+						key = line;
+					List<Integer> lineNumbers = map.get(key);
 					if ( lineNumbers == null ) { // almost always
 						lineNumbers = new LinkedList<>();
-						map.put(line, lineNumbers);
+						map.put(key, lineNumbers);
+						firsts.put(key, line);
 					}
 					lineNumbers.add(lineNumber);
 				}
 				if ( false ) {
 					// print any repeats
 					int count = 0;
-					for ( String puzzle : map.keySet() ) {
-						List<Integer> list = map.get(puzzle);
+					for ( String key : map.keySet() ) {
+						List<Integer> list = map.get(key);
 						if ( list.size() > 1 ) {
 							String s = Arrays.toString(list.toArray());
-							System.out.format("%-81s\t%s\n", puzzle, s);
+							System.out.format("%-81s\t%s\n", firsts.get(key), s);
 							++count;
 						}
 					}
 					System.out.format("count=%d\n", count);
 				} else {
 					// print a lexographical sorted list
-					final List<String> list = new ArrayList<>(map.keySet());
+					final List<String> list = new ArrayList<>(firsts.values());
 					list.sort((o1, o2) -> o1.compareTo(o2));
 					for ( String puzzle : list )
 						System.out.format("%-81s\n", puzzle);
@@ -6,14 +6,23 @@
  */
 package diuf.sudoku.tools;
 
+import diuf.sudoku.Canonicaliser;
+import static diuf.sudoku.Grid.GRID_SIZE;
 import diuf.sudoku.io.IO;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
 
 
 /**
  * Sort a file lexicographically ASCENDING, printing only unique entries.
+ * <p>
+ * A line that starts with a puzzle is also a repeat if it is isomorphic to
+ * (a transposed, permuted or relabelled copy of) a puzzle printed before it,
+ * per the 64-bit {@link Canonicaliser#hash} of its canonical form. Other
+ * lines are unique only if they are not equal to the previous line.
  *
  * @author Keith Corlett
  */
@@ -29,9 +38,15 @@ public class SortUniq {
 				}
 			});
 			//
+			final Canonicaliser canonicaliser = new Canonicaliser();
+			final Set<Long> seen = new HashSet<>(lines.size(), 0.75F);
 			String prev = null;
+			long hash;
 			for ( String line : lines ) {
-				if ( !line.equals(prev) )
+				// a hash of 0 means none (too few clues), so it is kept
+				if ( !line.equals(prev)
+				  && (!isPuzzle(line) || (hash=canonicaliser.canonicalHash(line))==0L
+					  || seen.add(hash)) )
 					System.out.println(line);
 				prev = line;
 			}
@@ -39,4 +54,15 @@ public class SortUniq {
 			ex.printStackTrace(System.err);
 		}
 	}
+
+	// does line start with 81 cell values: 1..9 for a clue, or '.' or '0'
+	private static boolean isPuzzle(final String line) {
+		if ( line.length() < GRID_SIZE )
+			return false;
+		char c;
+		for ( int i=0; i<GRID_SIZE; ++i )
+			if ( ((c=line.charAt(i))<'0' || c>'9') && c!='.' )
+				return false;
+		return true;
+	}
 }
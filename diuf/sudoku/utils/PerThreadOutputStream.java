@@ -0,0 +1,82 @@
+/*
+ * Project: Sudoku Explainer
+ * Copyright (C) 2006-2007 Nicolas Juillerat
+ * Copyright (C) 2013-2023 Keith Corlett
+ * Available under the terms of the Lesser General Public License (LGPL)
+ */
+package diuf.sudoku.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A PerThreadOutputStream writes to the OutputStream that the current thread
+ * has redirected to, else to the default OutputStream given at construction.
+ * <p>
+ * I exist so that the batch can solve puzzles on several threads whilst still
+ * writing the log (and stdout) in input order. Each worker thread redirects
+ * to its own buffer, solves a puzzle, then restores; and the main thread then
+ * writes the buffers to the real streams in puzzle order. Wrap me in a
+ * PrintStream (which flushes each print through to me) and stick that in
+ * Log.out and/or System.out. Nothing else need know.
+ * <p>
+ * Note that PrintStream synchronises each print on itself, so one print is
+ * never interleaved with another, but successive prints from two threads
+ * that are not redirected are interleaved in the default stream. sigh.
+ */
+public final class PerThreadOutputStream extends OutputStream {
+
+	private final OutputStream defaultOut;
+
+	private final ThreadLocal<OutputStream> target = new ThreadLocal<>();
+
+	public PerThreadOutputStream(final OutputStream defaultOut) {
+		this.defaultOut = defaultOut;
+	}
+
+	/**
+	 * Redirect the current thread to $out.
+	 *
+	 * @param out the OutputStream to which this thread writes, til restore
+	 */
+	public void redirect(final OutputStream out) {
+		target.set(out);
+	}
+
+	/**
+	 * Restore the current thread to the default OutputStream.
+	 */
+	public void restore() {
+		target.remove();
+	}
+
+	private OutputStream out() {
+		final OutputStream out = target.get();
+		return out != null ? out : defaultOut;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		out().write(b);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		out().write(b, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out().flush();
+	}
+
+	/**
+	 * Closes the default OutputStream only. Redirectees belong to whoever
+	 * redirected to them, so closing them is there problem.
+	 */
+	@Override
+	public void close() throws IOException {
+		defaultOut.close();
+	}
+
+}